@@ -0,0 +1,265 @@
+package org.toradocu.benchmark;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.converters.FileConverter;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.impl.SimpleLogger;
+import org.toradocu.conf.RunContext;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.translator.CommentTranslator;
+import org.toradocu.util.GsonInstance;
+import org.toradocu.util.Metrics;
+import org.toradocu.util.Stats;
+import randoop.condition.specification.OperationSpecification;
+
+/**
+ * End-to-end benchmark of Toradocu over the goal-output corpus. Runs extraction, translation, and
+ * comparison with the goal output on every class that has a goal file, all in one JVM, and reports
+ * throughput (classes and tags per second), translation latency per kind of tag (p50 and p99), peak
+ * heap usage, allocation rate, and precision and recall per kind of tag. Reporting accuracy next to
+ * speed makes a speedup that changes the output immediately visible.
+ *
+ * <p>The whole corpus can be analyzed a number of times before measuring to warm up the JVM. Every
+ * class is analyzed in a new run context, and thus with empty caches.
+ */
+public final class CorpusBenchmark {
+
+  /** Command-line options of the benchmark. */
+  private static final class Options {
+    @Parameter(description = "Names of the systems to analyze (e.g., guava-19.0); default: all")
+    List<String> libraries = new ArrayList<>();
+
+    @Parameter(names = "--warmup", description = "Number of unmeasured passes over the corpus")
+    int warmup = 0;
+
+    @Parameter(
+        names = "--output",
+        description = "File path to export the benchmark results in JSON format",
+        converter = FileConverter.class)
+    File output;
+
+    @Parameter(
+        names = {"--help", "-h"},
+        description = "Print a list of available options",
+        help = true)
+    boolean help;
+  }
+
+  /** Outcome of a single pass over the corpus. */
+  private static final class Pass {
+    /** Number of classes successfully analyzed. */
+    int classes = 0;
+    /** Number of tags translated in the successfully analyzed classes. */
+    int tags = 0;
+    /** Classes that could not be analyzed, with the reason. */
+    final Map<String, String> failures = new LinkedHashMap<>();
+    /** Precision and recall of each successfully analyzed class. */
+    final List<Stats> stats = new ArrayList<>();
+    /** Timers and counters of the runs on all the classes. */
+    final Metrics metrics = new Metrics();
+  }
+
+  /** Disables construction of this class. */
+  private CorpusBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args command-line arguments, see {@link Options}
+   * @throws IOException if the goal output cannot be read or the results cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    final Options options = new Options();
+    final JCommander jCommander = JCommander.newBuilder().addObject(options).build();
+    jCommander.parse(args);
+    if (options.help) {
+      jCommander.usage();
+      return;
+    }
+    // Suppress non-error messages from Stanford parser, as Toradocu does.
+    System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "edu.stanford", "error");
+
+    final Map<GoalCorpus.Library, List<String>> corpus = corpus(options.libraries);
+    for (int i = 0; i < options.warmup; i++) {
+      System.out.println("Warm-up pass " + (i + 1) + "/" + options.warmup);
+      runPass(corpus);
+    }
+
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      pool.resetPeakUsage();
+    }
+    final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final long threadId = Thread.currentThread().getId();
+    final long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    final long start = System.nanoTime();
+    final Pass pass = runPass(corpus);
+    final double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+    final long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    long peakHeap = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peakHeap += pool.getPeakUsage().getUsed();
+      }
+    }
+
+    final Map<String, Object> results = new LinkedHashMap<>();
+    results.put("classes", pass.classes);
+    results.put("tags", pass.tags);
+    results.put("failures", pass.failures);
+    results.put("seconds", seconds);
+    results.put("classesPerSecond", pass.classes / seconds);
+    results.put("tagsPerSecond", pass.tags / seconds);
+    results.put("peakHeapMB", peakHeap / (1024.0 * 1024));
+    results.put("allocationRateMBPerSecond", allocated / (1024.0 * 1024) / seconds);
+    Map<String, Object> tags = new LinkedHashMap<>();
+    for (BlockTag.Kind kind : BlockTag.Kind.values()) {
+      Metrics.Histogram times = pass.metrics.times(kind);
+      Map<String, Object> tagResults = new LinkedHashMap<>();
+      tagResults.put("count", times.count());
+      tagResults.put("p50Millis", times.percentile(50) / 1_000_000.0);
+      tagResults.put("p99Millis", times.percentile(99) / 1_000_000.0);
+      tagResults.put("precision", mean(pass.stats, kind, true));
+      tagResults.put("recall", mean(pass.stats, kind, false));
+      tags.put(kind.toString(), tagResults);
+    }
+    results.put("tagKinds", tags);
+    results.put("metrics", pass.metrics.report());
+
+    System.out.println(
+        String.format(
+            "=== Corpus Benchmark ===%n"
+                + "Classes: %d (%d failed)%nTags: %d%nTime: %.1f s%n"
+                + "Throughput: %.3f classes/s, %.2f tags/s%n"
+                + "Peak heap: %.0f MB%nAllocation rate: %.0f MB/s",
+            pass.classes,
+            pass.failures.size(),
+            pass.tags,
+            seconds,
+            results.get("classesPerSecond"),
+            results.get("tagsPerSecond"),
+            results.get("peakHeapMB"),
+            results.get("allocationRateMBPerSecond")));
+    for (BlockTag.Kind kind : BlockTag.Kind.values()) {
+      Map<?, ?> tagResults = (Map<?, ?>) tags.get(kind.toString());
+      System.out.println(
+          String.format(
+              "%s: %d tags, p50 %.1f ms, p99 %.1f ms, precision %.2f, recall %.2f",
+              kind,
+              tagResults.get("count"),
+              tagResults.get("p50Millis"),
+              tagResults.get("p99Millis"),
+              tagResults.get("precision"),
+              tagResults.get("recall")));
+    }
+    if (options.output != null) {
+      final File parentDir = options.output.getAbsoluteFile().getParentFile();
+      if (parentDir != null) {
+        Files.createDirectories(parentDir.toPath());
+      }
+      try (BufferedWriter writer =
+          Files.newBufferedWriter(options.output.toPath(), StandardCharsets.UTF_8)) {
+        writer.write(GsonInstance.gson().toJson(results));
+      }
+    }
+  }
+
+  /**
+   * Collects the classes with a goal file in the given systems of the corpus.
+   *
+   * @param libraries names of the systems to include, or an empty list to include all the systems
+   * @return the classes of each system that have a goal file
+   * @throws IOException if a goal-output directory cannot be read
+   */
+  private static Map<GoalCorpus.Library, List<String>> corpus(List<String> libraries)
+      throws IOException {
+    final Map<GoalCorpus.Library, List<String>> corpus = new LinkedHashMap<>();
+    for (GoalCorpus.Library library : GoalCorpus.Library.values()) {
+      if (!libraries.isEmpty() && !libraries.contains(library.getName())) {
+        continue;
+      }
+      List<String> classes = new ArrayList<>();
+      try (DirectoryStream<Path> goalFiles =
+          Files.newDirectoryStream(library.getGoalDir(), "*_goal.json")) {
+        for (Path goalFile : goalFiles) {
+          final String fileName = goalFile.getFileName().toString();
+          classes.add(fileName.substring(0, fileName.length() - "_goal.json".length()));
+        }
+      }
+      classes.sort(String::compareTo);
+      corpus.put(library, classes);
+    }
+    return corpus;
+  }
+
+  /**
+   * Analyzes every class in the given corpus and compares Toradocu output with the goal output.
+   *
+   * @param corpus the classes to analyze, grouped by system
+   * @return the outcome of the analysis
+   */
+  private static Pass runPass(Map<GoalCorpus.Library, List<String>> corpus) {
+    final Pass pass = new Pass();
+    for (Map.Entry<GoalCorpus.Library, List<String>> entry : corpus.entrySet()) {
+      final GoalCorpus.Library library = entry.getKey();
+      for (String targetClass : entry.getValue()) {
+        final RunContext context = GoalCorpus.configure(library, targetClass);
+        try (RunContext.Scope scope = context.bind()) {
+          final List<DocumentedExecutable> members = GoalCorpus.extract(library, targetClass);
+          final Map<DocumentedExecutable, OperationSpecification> specifications =
+              CommentTranslator.createSpecifications(members);
+
+          List<JsonOutput> actual = new ArrayList<>();
+          int tags = 0;
+          for (DocumentedExecutable member : members) {
+            actual.add(new JsonOutput(member, specifications.get(member)));
+            tags += member.paramTags().size() + member.throwsTags().size();
+            tags += member.returnTag() == null ? 0 : 1;
+          }
+          final List<JsonOutput> goal = GoalCorpus.goal(library, targetClass);
+          pass.stats.add(Stats.getStats(targetClass, actual, goal, new StringBuilder()));
+          pass.classes++;
+          pass.tags += tags;
+        } catch (Exception e) {
+          pass.failures.put(library.getName() + "/" + targetClass, String.valueOf(e));
+        }
+        pass.metrics.addAll(Metrics.of(context));
+      }
+    }
+    return pass;
+  }
+
+  /**
+   * Returns the average precision or recall of the given statistics for the given kind of tag, as
+   * computed by the precision/recall test suites.
+   *
+   * @param stats statistics of each analyzed class
+   * @param kind the kind of tag
+   * @param precision true to compute the average precision, false to compute the average recall
+   * @return the average precision or recall, or 0 if {@code stats} is empty
+   */
+  private static double mean(List<Stats> stats, BlockTag.Kind kind, boolean precision) {
+    return stats
+        .stream()
+        .mapToDouble(s -> precision ? s.getPrecision(kind) : s.getRecall(kind))
+        .average()
+        .orElse(0);
+  }
+}
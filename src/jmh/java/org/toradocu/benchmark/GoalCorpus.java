@@ -0,0 +1,265 @@
+package org.toradocu.benchmark;
+
+import com.beust.jcommander.JCommander;
+import com.google.gson.reflect.TypeToken;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.util.GsonInstance;
+
+/**
+ * Gives access to the systems whose expected Toradocu output is stored in {@code
+ * src/test/resources/goal-output}. Benchmarks use the classes of these systems as fixed inputs.
+ * Sources and binaries of the systems are downloaded by the Gradle tasks {@code extractSources} and
+ * {@code extractBinaries}.
+ */
+public final class GoalCorpus {
+
+  /** Directory containing the goal output of each system. */
+  private static final String GOAL_OUTPUT_DIR = "src/test/resources/goal-output";
+
+  /** Systems in the goal-output corpus. */
+  public enum Library {
+    COMMONS_COLLECTIONS_4(
+        "commons-collections4-4.1",
+        "src/test/resources/src/commons-collections4-4.1-src/src/main/java/",
+        "src/test/resources/bin/commons-collections4-4.1.jar"),
+    COMMONS_MATH_3(
+        "commons-math3-3.6.1",
+        "src/test/resources/src/commons-math3-3.6.1-src/src/main/java",
+        "src/test/resources/bin/commons-math3-3.6.1.jar"),
+    FREECOL(
+        "freecol-0.11.6",
+        "src/test/resources/src/freecol-0.11.6/src/",
+        "src/test/resources/bin/freecol-0.11.6.jar"),
+    GRAPHSTREAM(
+        "gs-core-1.3",
+        "src/test/resources/src/gs-core-1.3-sources",
+        "src/test/resources/bin/gs-core-1.3.jar"),
+    GUAVA_19(
+        "guava-19.0",
+        "src/test/resources/src/guava-19.0-sources/",
+        "src/test/resources/bin/guava-19.0.jar"),
+    JGRAPHT(
+        "jgrapht-core-0.9.2",
+        "src/test/resources/src/jgrapht-core-0.9.2-sources/",
+        "src/test/resources/bin/jgrapht-core-0.9.2.jar"),
+    PLUME_LIB(
+        "plume-lib-1.1.0",
+        "src/test/resources/src/plume-lib-1.1.0/java/src/",
+        "src/test/resources/bin/plume-lib-1.1.0.jar");
+
+    /** Name of the directory containing the goal output of this system. */
+    private final String name;
+    /** Path of the source files of this system. */
+    private final String sourceDir;
+    /** Path of the binaries of this system. */
+    private final String binDir;
+
+    Library(String name, String sourceDir, String binDir) {
+      this.name = name;
+      this.sourceDir = sourceDir;
+      this.binDir = binDir;
+    }
+
+    /**
+     * Returns the name of the directory containing the goal output of this system (e.g.,
+     * "guava-19.0").
+     *
+     * @return the name of the directory containing the goal output of this system
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Returns the path of the source files of this system.
+     *
+     * @return the path of the source files of this system
+     */
+    public String getSourceDir() {
+      return sourceDir;
+    }
+
+    /**
+     * Returns the path of the binaries of this system.
+     *
+     * @return the path of the binaries of this system
+     */
+    public String getBinDir() {
+      return binDir;
+    }
+
+    /**
+     * Returns the directory containing the goal output of this system.
+     *
+     * @return the directory containing the goal output of this system
+     */
+    public Path getGoalDir() {
+      return Paths.get(GOAL_OUTPUT_DIR, name);
+    }
+
+    /**
+     * Returns the system with the given goal-output directory name.
+     *
+     * @param name the name of the directory containing the goal output of a system
+     * @return the system with the given name
+     * @throws IllegalArgumentException if there is no system with the given name
+     */
+    public static Library forName(String name) {
+      for (Library library : values()) {
+        if (library.name.equals(name)) {
+          return library;
+        }
+      }
+      throw new IllegalArgumentException("Unknown system in goal-output corpus: " + name);
+    }
+  }
+
+  /** Disables construction of this class. */
+  private GoalCorpus() {}
+
+  /**
+   * Returns the library of a benchmark target specified as {@code <library>/<class>} (e.g.,
+   * "guava-19.0/com.google.common.base.Strings").
+   *
+   * @param target a benchmark target
+   * @return the library of {@code target}
+   */
+  public static Library libraryOf(String target) {
+    return Library.forName(target.substring(0, target.indexOf('/')));
+  }
+
+  /**
+   * Returns the fully-qualified class name of a benchmark target specified as {@code
+   * <library>/<class>} (e.g., "guava-19.0/com.google.common.base.Strings").
+   *
+   * @param target a benchmark target
+   * @return the fully-qualified class name of {@code target}
+   */
+  public static String classOf(String target) {
+    return target.substring(target.indexOf('/') + 1);
+  }
+
+  /**
+   * Configures a run of Toradocu on the given class of the given system, as the command line would.
+   * Semantic matching is enabled as in a default run, unless disabled by {@code options}. Every
+   * call creates a new context, and thus empty caches. Callers bind the returned context to the
+   * threads that run Toradocu components (see {@link RunContext#bind()}).
+   *
+   * @param library the system the target class belongs to
+   * @param targetClass the fully-qualified name of the class to analyze
+   * @param options additional command-line options (e.g., "--disable-semantics", "true")
+   * @return the context of the run
+   */
+  public static RunContext configure(Library library, String targetClass, String... options) {
+    final List<String> args = new ArrayList<>();
+    Collections.addAll(
+        args,
+        "--target-class",
+        targetClass,
+        "--source-dir",
+        library.getSourceDir(),
+        "--class-dir",
+        library.getBinDir(),
+        "--oracle-generation",
+        "false");
+    Collections.addAll(args, options);
+
+    final Configuration configuration = new Configuration();
+    JCommander.newBuilder().addObject(configuration).build().parse(args.toArray(new String[0]));
+    configuration.initialize();
+    return new RunContext(configuration);
+  }
+
+  /**
+   * Extracts the documented executable members of the given class. The context of a run configured
+   * for the class with {@link #configure(Library, String, String...)} must be bound to the calling
+   * thread.
+   *
+   * @param library the system the target class belongs to
+   * @param targetClass the fully-qualified name of the class to analyze
+   * @return the documented executable members of {@code targetClass}
+   * @throws Exception if the Javadoc extractor fails
+   */
+  public static List<DocumentedExecutable> extract(Library library, String targetClass)
+      throws Exception {
+    return new JavadocExtractor()
+        .extract(targetClass, library.getSourceDir())
+        .getDocumentedExecutables();
+  }
+
+  /**
+   * Reads the goal output of the given class.
+   *
+   * @param library the system the target class belongs to
+   * @param targetClass the fully-qualified name of the class
+   * @return the goal output of {@code targetClass}
+   * @throws IOException if the goal output file cannot be read
+   */
+  public static List<JsonOutput> goal(Library library, String targetClass) throws IOException {
+    final Path goalFile = library.getGoalDir().resolve(targetClass + "_goal.json");
+    try (BufferedReader reader = Files.newBufferedReader(goalFile)) {
+      Type collectionType = new TypeToken<Collection<JsonOutput>>() {}.getType();
+      return GsonInstance.gson().fromJson(reader, collectionType);
+    }
+  }
+
+  /**
+   * Returns the comments of all the tags (@param, @return, and @throws) in the given goal output.
+   *
+   * @param goal the goal output of a class
+   * @return the comments of all the tags in {@code goal}
+   */
+  public static List<String> comments(List<JsonOutput> goal) {
+    List<String> comments = new ArrayList<>();
+    for (JsonOutput output : goal) {
+      if (output.paramTags != null) {
+        output.paramTags.forEach(tag -> comments.add(tag.getComment()));
+      }
+      if (output.throwsTags != null) {
+        output.throwsTags.forEach(tag -> comments.add(tag.getComment()));
+      }
+      if (output.returnTag != null) {
+        comments.add(output.returnTag.getComment());
+      }
+    }
+    return comments;
+  }
+
+  /**
+   * Associates each documented executable member with its goal output, matching them by signature.
+   * Members without a goal output are not included in the result.
+   *
+   * @param members the documented executable members of a class
+   * @param goal the goal output of the same class
+   * @return a map from each member to its goal output, in the order of {@code members}
+   */
+  public static Map<DocumentedExecutable, JsonOutput> matchGoal(
+      List<DocumentedExecutable> members, List<JsonOutput> goal) {
+    Map<DocumentedExecutable, JsonOutput> result = new LinkedHashMap<>();
+    for (DocumentedExecutable member : members) {
+      for (JsonOutput output : goal) {
+        if (output.signature.equals(member.getSignature())) {
+          result.put(member, output);
+          break;
+        }
+      }
+    }
+    return result;
+  }
+}
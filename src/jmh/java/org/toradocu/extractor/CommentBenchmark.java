@@ -0,0 +1,57 @@
+package org.toradocu.extractor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.toradocu.benchmark.GoalCorpus;
+
+/**
+ * Measures the construction of {@link Comment}s (i.e., the identification of words marked as code
+ * and the removal of inline and HTML tags) on the tag comments of a class in the goal-output
+ * corpus. Goal files store comments without inline tags, so this benchmark measures the scanning
+ * cost of {@link Comment#Comment(String)} rather than the cost of rewriting markup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommentBenchmark {
+
+  /** Benchmark target in the form {@code <library>/<class>}. */
+  @Param({
+    "guava-19.0/com.google.common.base.Strings",
+    "commons-collections4-4.1/org.apache.commons.collections4.CollectionUtils"
+  })
+  public String target;
+
+  /** Raw text of the tag comments. */
+  private List<String> texts = new ArrayList<>();
+
+  @Setup
+  public void setUp() throws Exception {
+    texts =
+        GoalCorpus.comments(
+            GoalCorpus.goal(GoalCorpus.libraryOf(target), GoalCorpus.classOf(target)));
+  }
+
+  @Benchmark
+  public void newComment(Blackhole blackhole) {
+    for (String text : texts) {
+      blackhole.consume(new Comment(text));
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package org.toradocu.translator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.toradocu.benchmark.GoalCorpus;
+import org.toradocu.conf.RunContext;
+import org.toradocu.extractor.DocumentedExecutable;
+import randoop.condition.specification.OperationSpecification;
+
+/**
+ * Measures {@link CommentTranslator#createSpecifications(List, RunContext)}, i.e., the translation
+ * of all the comments of a class in the goal-output corpus. Translation preprocesses (and thus
+ * modifies) the tag comments, so members are extracted anew and the parser cache and translation
+ * memo are emptied before each invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CommentTranslatorBenchmark {
+
+  /** Benchmark target in the form {@code <library>/<class>}. */
+  @Param({
+    "guava-19.0/com.google.common.base.Strings",
+    "commons-math3-3.6.1/org.apache.commons.math3.complex.Complex"
+  })
+  public String target;
+
+  /** Whether compliance checks run on the pool of compliance workers. */
+  @Param({"true", "false"})
+  public String asyncComplianceCheck;
+
+  private RunContext context;
+  private List<DocumentedExecutable> members;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    context =
+        GoalCorpus.configure(
+            GoalCorpus.libraryOf(target),
+            GoalCorpus.classOf(target),
+            "--async-compliance-check",
+            asyncComplianceCheck);
+  }
+
+  @Setup(Level.Iteration)
+  public void setUpIteration() throws Exception {
+    try (RunContext.Scope scope = context.bind()) {
+      members = GoalCorpus.extract(GoalCorpus.libraryOf(target), GoalCorpus.classOf(target));
+      Parser.clearCache();
+      TranslationMemo.clear();
+    }
+  }
+
+  @Benchmark
+  public Map<DocumentedExecutable, OperationSpecification> createSpecifications() {
+    return CommentTranslator.createSpecifications(members, context);
+  }
+}
@@ -0,0 +1,77 @@
+package org.toradocu.translator;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.toradocu.benchmark.GoalCorpus;
+import org.toradocu.conf.RunContext;
+
+/**
+ * Measures {@link Matcher#subjectMatch} and {@link Matcher#predicateMatch} on the propositions
+ * extracted from the tag comments of a class in the goal-output corpus. The semantic matcher is
+ * disabled, so that {@code predicateMatch} measures the syntactic matching only (see {@link
+ * SemanticMatcherBenchmark}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatcherBenchmark {
+
+  /** Benchmark target in the form {@code <library>/<class>}. */
+  @Param({
+    "guava-19.0/com.google.common.base.Strings",
+    "commons-math3-3.6.1/org.apache.commons.math3.complex.Complex"
+  })
+  public String target;
+
+  private TranslatorInputs inputs;
+  /** Context of a run on the target class with semantic matching disabled. */
+  private RunContext context;
+
+  private Matcher matcher;
+
+  @Setup
+  public void setUp() throws Exception {
+    inputs = new TranslatorInputs(target);
+    context =
+        GoalCorpus.configure(
+            GoalCorpus.libraryOf(target),
+            GoalCorpus.classOf(target),
+            "--disable-semantics",
+            "true");
+    try (RunContext.Scope scope = context.bind()) {
+      matcher = new Matcher();
+    }
+  }
+
+  @Benchmark
+  public void subjectMatch(Blackhole blackhole) {
+    try (RunContext.Scope scope = context.bind()) {
+      for (TranslatorInputs.MatchedProposition p : inputs.propositions) {
+        blackhole.consume(matcher.subjectMatch(p.proposition.getSubject().getSubject(), p.method));
+      }
+    }
+  }
+
+  @Benchmark
+  public void predicateMatch(Blackhole blackhole) {
+    try (RunContext.Scope scope = context.bind()) {
+      for (TranslatorInputs.MatchedProposition p : inputs.propositions) {
+        blackhole.consume(matcher.predicateMatch(p.method, p.subject, p.proposition, p.comment));
+      }
+    }
+  }
+}
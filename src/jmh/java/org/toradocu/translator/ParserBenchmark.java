@@ -0,0 +1,65 @@
+package org.toradocu.translator;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.toradocu.conf.RunContext;
+
+/**
+ * Measures {@link Parser#parse} on the preprocessed tag comments of a class in the goal-output
+ * corpus, both with an empty cache of semantic graphs and with a warm one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ParserBenchmark {
+
+  /** Benchmark target in the form {@code <library>/<class>}. */
+  @Param({
+    "guava-19.0/com.google.common.base.Strings",
+    "commons-math3-3.6.1/org.apache.commons.math3.complex.Complex"
+  })
+  public String target;
+
+  private TranslatorInputs inputs;
+
+  @Setup
+  public void setUp() throws Exception {
+    inputs = new TranslatorInputs(target);
+  }
+
+  @Benchmark
+  public int parseCold() {
+    try (RunContext.Scope scope = inputs.context.bind()) {
+      Parser.clearCache();
+      return parseAll();
+    }
+  }
+
+  @Benchmark
+  public int parseCached() {
+    try (RunContext.Scope scope = inputs.context.bind()) {
+      return parseAll();
+    }
+  }
+
+  private int parseAll() {
+    int propositionSeries = 0;
+    for (int i = 0; i < inputs.comments.size(); i++) {
+      propositionSeries += Parser.parse(inputs.comments.get(i), inputs.methods.get(i)).size();
+    }
+    return propositionSeries;
+  }
+}
@@ -0,0 +1,76 @@
+package org.toradocu.translator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.toradocu.conf.RunContext;
+import org.toradocu.translator.semantic.SemanticMatcher;
+
+/**
+ * Measures {@link SemanticMatcher#runSemanticMatch} on the propositions extracted from the tag
+ * comments of a class in the goal-output corpus. As in {@link Matcher}, candidates are all the code
+ * elements of the documented method sorted by Java expression, and a new {@code SemanticMatcher} is
+ * created for each proposition. The GloVe model is loaded during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SemanticMatcherBenchmark {
+
+  /** Benchmark target in the form {@code <library>/<class>}. */
+  @Param({
+    "guava-19.0/com.google.common.base.Strings",
+    "commons-math3-3.6.1/org.apache.commons.math3.complex.Complex"
+  })
+  public String target;
+
+  private TranslatorInputs inputs;
+  /** Candidate code elements for each proposition in {@code inputs} (at the same index). */
+  private final List<List<CodeElement<?>>> candidates = new ArrayList<>();
+
+  @Setup
+  public void setUp() throws Exception {
+    inputs = new TranslatorInputs(target);
+    try (RunContext.Scope scope = inputs.context.bind()) {
+      for (TranslatorInputs.MatchedProposition p : inputs.propositions) {
+        List<CodeElement<?>> codeElements =
+            new ArrayList<>(JavaElementsCollector.collect(p.method));
+        codeElements.sort(new JavaExpressionComparator());
+        candidates.add(codeElements);
+      }
+    }
+    // Load the vector model outside of the measurement.
+    runSemanticMatch();
+  }
+
+  @Benchmark
+  public int runSemanticMatch() throws IOException {
+    int matches = 0;
+    try (RunContext.Scope scope = inputs.context.bind()) {
+      for (int i = 0; i < inputs.propositions.size(); i++) {
+        final TranslatorInputs.MatchedProposition p = inputs.propositions.get(i);
+        final SemanticMatcher semanticMatcher = new SemanticMatcher(true, 0.2f, 3.11f);
+        matches +=
+            semanticMatcher
+                .runSemanticMatch(candidates.get(i), p.method, p.subject, p.proposition, p.comment)
+                .size();
+      }
+    }
+    return matches;
+  }
+}
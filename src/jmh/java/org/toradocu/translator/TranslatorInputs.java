@@ -0,0 +1,96 @@
+package org.toradocu.translator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.toradocu.benchmark.GoalCorpus;
+import org.toradocu.conf.RunContext;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.translator.preprocess.PreprocessorFactory;
+
+/**
+ * Inputs of the translator benchmarks: the preprocessed tag comments of a class in the goal-output
+ * corpus, the propositions the parser extracts from them, and the code elements matching their
+ * subjects. Inputs are computed once, so that each benchmark measures a single step of the
+ * translation.
+ */
+final class TranslatorInputs {
+
+  /** A proposition extracted from a comment, with the code element matching its subject. */
+  static final class MatchedProposition {
+    final DocumentedExecutable method;
+    final Proposition proposition;
+    final CodeElement<?> subject;
+    final String comment;
+
+    MatchedProposition(
+        DocumentedExecutable method,
+        Proposition proposition,
+        CodeElement<?> subject,
+        String comment) {
+      this.method = method;
+      this.proposition = proposition;
+      this.subject = subject;
+      this.comment = comment;
+    }
+  }
+
+  /** Context of the run on the target class, with semantic matching enabled. */
+  final RunContext context;
+  /** Documented executable members of the target class. */
+  final List<DocumentedExecutable> members;
+  /** Methods the comments in {@link #comments} belong to (at the same index). */
+  final List<DocumentedExecutable> methods = new ArrayList<>();
+  /** Preprocessed comments of all the tags of the target class. */
+  final List<Comment> comments = new ArrayList<>();
+  /** Propositions extracted from {@link #comments}. */
+  final List<MatchedProposition> propositions = new ArrayList<>();
+
+  /**
+   * Configures a run of Toradocu on the given benchmark target and computes the inputs in it.
+   *
+   * @param target benchmark target in the form {@code <library>/<class>}
+   * @throws Exception if the Javadoc extractor fails
+   */
+  TranslatorInputs(String target) throws Exception {
+    final GoalCorpus.Library library = GoalCorpus.libraryOf(target);
+    final String targetClass = GoalCorpus.classOf(target);
+    context = GoalCorpus.configure(library, targetClass);
+    try (RunContext.Scope scope = context.bind()) {
+      members = GoalCorpus.extract(library, targetClass);
+
+      for (DocumentedExecutable member : members) {
+        List<BlockTag> tags = new ArrayList<>();
+        tags.addAll(member.paramTags());
+        tags.addAll(member.throwsTags());
+        if (member.returnTag() != null) {
+          tags.add(member.returnTag());
+        }
+        for (BlockTag tag : tags) {
+          PreprocessorFactory.create(tag.getKind()).preprocess(tag, member);
+          methods.add(member);
+          comments.add(tag.getComment());
+        }
+      }
+
+      final Matcher matcher = new Matcher();
+      for (int i = 0; i < comments.size(); i++) {
+        final DocumentedExecutable method = methods.get(i);
+        final String text = comments.get(i).getText();
+        for (PropositionSeries series : Parser.parse(comments.get(i), method)) {
+          for (Proposition proposition : series.getPropositions()) {
+            Set<CodeElement<?>> subjects =
+                matcher.subjectMatch(proposition.getSubject().getSubject(), method);
+            if (!subjects.isEmpty()) {
+              propositions.add(
+                  new MatchedProposition(method, proposition, subjects.iterator().next(), text));
+            }
+          }
+        }
+      }
+      Parser.clearCache();
+    }
+  }
+}
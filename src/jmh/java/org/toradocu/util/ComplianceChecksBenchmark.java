@@ -0,0 +1,93 @@
+package org.toradocu.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.toradocu.benchmark.GoalCorpus;
+import org.toradocu.conf.RunContext;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.output.util.TagOutput;
+import randoop.condition.specification.Guard;
+
+/**
+ * Measures {@link ComplianceChecks#isSpecCompilable(DocumentedExecutable, Guard)} on the expected
+ * conditions of the {@literal @param} and {@literal @throws} tags of a class in the goal-output
+ * corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ComplianceChecksBenchmark {
+
+  /** Benchmark target in the form {@code <library>/<class>}. */
+  @Param({
+    "guava-19.0/com.google.common.base.Strings",
+    "commons-math3-3.6.1/org.apache.commons.math3.complex.Complex"
+  })
+  public String target;
+
+  /** Whether the fast compliance check decides specifications before javac is invoked. */
+  @Param({"true", "false"})
+  public String fastComplianceCheck;
+
+  /** Context of the run on the target class. */
+  private RunContext context;
+  /** Methods the guards in {@link #guards} belong to (at the same index). */
+  private final List<DocumentedExecutable> methods = new ArrayList<>();
+  /** Guards built from the expected conditions. */
+  private final List<Guard> guards = new ArrayList<>();
+
+  @Setup
+  public void setUp() throws Exception {
+    final GoalCorpus.Library library = GoalCorpus.libraryOf(target);
+    final String targetClass = GoalCorpus.classOf(target);
+    context =
+        GoalCorpus.configure(library, targetClass, "--fast-compliance-check", fastComplianceCheck);
+    final Map<DocumentedExecutable, JsonOutput> goal;
+    try (RunContext.Scope scope = context.bind()) {
+      goal =
+          GoalCorpus.matchGoal(
+              GoalCorpus.extract(library, targetClass), GoalCorpus.goal(library, targetClass));
+    }
+    for (Map.Entry<DocumentedExecutable, JsonOutput> entry : goal.entrySet()) {
+      List<TagOutput> tags = new ArrayList<>();
+      tags.addAll(entry.getValue().paramTags);
+      tags.addAll(entry.getValue().throwsTags);
+      for (TagOutput tag : tags) {
+        if (tag.getCondition() != null && !tag.getCondition().isEmpty()) {
+          methods.add(entry.getKey());
+          guards.add(new Guard(tag.getComment(), tag.getCondition()));
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public int isSpecCompilable() {
+    int compilable = 0;
+    try (RunContext.Scope scope = context.bind()) {
+      for (int i = 0; i < guards.size(); i++) {
+        if (ComplianceChecks.isSpecCompilable(methods.get(i), guards.get(i))) {
+          compilable++;
+        }
+      }
+    }
+    return compilable;
+  }
+}
@@ -0,0 +1,69 @@
+package org.toradocu.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.toradocu.benchmark.GoalCorpus;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.output.util.Parameter;
+
+/**
+ * Measures {@link Distance#editDistance(String, String)} on the pairs (parameter name, tag comment)
+ * of the methods of a class in the goal-output corpus, i.e., the kind of inputs on which the
+ * matcher computes edit distances.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceBenchmark {
+
+  /** Benchmark target in the form {@code <library>/<class>}. */
+  @Param({
+    "guava-19.0/com.google.common.base.Strings",
+    "commons-collections4-4.1/org.apache.commons.collections4.CollectionUtils"
+  })
+  public String target;
+
+  /** Parameter names, each one paired with the comment at the same index in {@link #comments}. */
+  private final List<String> names = new ArrayList<>();
+  /** Tag comments, each one paired with the name at the same index in {@link #names}. */
+  private final List<String> comments = new ArrayList<>();
+
+  @Setup
+  public void setUp() throws Exception {
+    final List<JsonOutput> goal =
+        GoalCorpus.goal(GoalCorpus.libraryOf(target), GoalCorpus.classOf(target));
+    for (JsonOutput output : goal) {
+      for (String comment : GoalCorpus.comments(Collections.singletonList(output))) {
+        for (Parameter parameter : output.parameters) {
+          names.add(parameter.getName());
+          comments.add(comment);
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public int editDistance() {
+    int total = 0;
+    for (int i = 0; i < names.size(); i++) {
+      total += Distance.editDistance(names.get(i), comments.get(i));
+    }
+    return total;
+  }
+}
@@ -4,11 +4,13 @@ import static org.toradocu.translator.CommentTranslator.processCondition;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.ParameterException;
+import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import java.io.*;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -19,15 +21,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.impl.SimpleLogger;
 import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedType;
 import org.toradocu.extractor.JavadocExtractor;
 import org.toradocu.extractor.ParameterNotFoundException;
 import org.toradocu.generator.OracleGenerator;
+import org.toradocu.output.binary.BinarySpecsWriter;
 import org.toradocu.output.util.JsonOutput;
 import org.toradocu.translator.CommentTranslator;
-import org.toradocu.translator.semantic.SemanticMatcher;
+import org.toradocu.util.Checks;
 import org.toradocu.util.GsonInstance;
+import org.toradocu.util.Metrics;
 import org.toradocu.util.Stats;
 import randoop.condition.specification.Guard;
 import randoop.condition.specification.OperationSpecification;
@@ -44,8 +49,6 @@ public class Toradocu {
 
   /** Command to run Toradocu. This string is used only in output messages. */
   private static final String TORADOCU_COMMAND = "java -jar toradocu.jar";
-  /** Toradocu's configurations. */
-  public static Configuration configuration = null;
   /** Logger of this class. */
   private static Logger log;
 
@@ -55,7 +58,7 @@ public class Toradocu {
    * @param args command-line arguments
    */
   public static void main(String[] args) {
-    configuration = Configuration.INSTANCE;
+    final Configuration configuration = new Configuration();
     final JCommander jCommander =
         JCommander.newBuilder().addObject(configuration).programName(TORADOCU_COMMAND).build();
     try {
@@ -66,6 +69,9 @@ public class Toradocu {
       System.exit(1);
     }
     configuration.initialize();
+    final RunContext context = new RunContext(configuration);
+    // The context of the command-line run is bound to the main thread until the JVM exits.
+    context.bind();
 
     if (configuration.help()) {
       jCommander.usage();
@@ -82,13 +88,17 @@ public class Toradocu {
     System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "edu.stanford", "error");
     log = LoggerFactory.getLogger(Toradocu.class);
 
+    if (configuration.isJfrEnabled() && !Metrics.isJfrAvailable()) {
+      log.warn("Java Flight Recorder is not available on this JVM: JFR events are not emitted.");
+    }
+
     // === Javadoc Extractor ===
 
     List<DocumentedExecutable> members = null;
     final String targetClass = configuration.getTargetClass();
     if (configuration.getConditionTranslatorInput() == null) {
-      final JavadocExtractor javadocExtractor = new JavadocExtractor();
-      try {
+      final JavadocExtractor javadocExtractor = new JavadocExtractor(context);
+      try (Metrics.Timer timer = Metrics.time(Metrics.Stage.EXTRACTION)) {
         final DocumentedType documentedType =
             javadocExtractor.extract(targetClass, configuration.sourceDir.toString());
         members = documentedType.getDocumentedExecutables();
@@ -120,7 +130,7 @@ public class Toradocu {
       try (BufferedWriter writer =
           Files.newBufferedWriter(
               configuration.getJavadocExtractorOutput().toPath(), StandardCharsets.UTF_8)) {
-        writer.write(GsonInstance.gson().toJson(members));
+        writer.write(GsonInstance.gson(configuration.isCompactJson()).toJson(members));
       } catch (Exception e) {
         log.error(
             "Unable to write the output on file "
@@ -134,32 +144,35 @@ public class Toradocu {
 
     // === Condition Translator ===
 
-    // Enable or disable semantic matching
-    SemanticMatcher.setEnabled(configuration.isSemanticMatcherEnabled());
-
     if (configuration.isConditionTranslationEnabled()) {
       Map<DocumentedExecutable, OperationSpecification> specifications;
 
       // Use @tComment or the standard condition translator to translate comments.
-      if (configuration.useTComment()) {
-        specifications = tcomment.TcommentKt.translate(members);
-      } else {
-        specifications = CommentTranslator.createSpecifications(members);
+      try (Metrics.Timer timer = Metrics.time(Metrics.Stage.TRANSLATION)) {
+        if (configuration.useTComment()) {
+          specifications = tcomment.TcommentKt.translate(members);
+        } else {
+          specifications = CommentTranslator.createSpecifications(members, context);
+        }
       }
 
       // Output the result on a file or on the standard output, if silent mode is disabled.
       List<JsonOutput> jsonOutputs = new ArrayList<>();
       if (!configuration.isSilent() || !specifications.isEmpty()) {
         if (configuration.getConditionTranslatorOutput() != null) {
-          try (BufferedWriter writer =
-              Files.newBufferedWriter(
-                  configuration.getConditionTranslatorOutput().toPath(), StandardCharsets.UTF_8)) {
-
-            for (DocumentedExecutable executable : specifications.keySet()) {
-              jsonOutputs.add(new JsonOutput(executable, specifications.get(executable)));
+          for (DocumentedExecutable executable : specifications.keySet()) {
+            jsonOutputs.add(new JsonOutput(executable, specifications.get(executable)));
+          }
+          final Path outputFile = configuration.getConditionTranslatorOutput().toPath();
+          try (Metrics.Timer timer = Metrics.time(Metrics.Stage.JSON_OUTPUT)) {
+            if (configuration.isBinarySpecs()) {
+              BinarySpecsWriter.write(specifications.values(), outputFile);
+            } else {
+              try (BufferedWriter writer =
+                  Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8)) {
+                GsonInstance.gson(configuration.isCompactJson()).toJson(jsonOutputs, writer);
+              }
             }
-            String jsonOutput = GsonInstance.gson().toJson(jsonOutputs);
-            writer.write(jsonOutput);
           } catch (Exception e) {
             log.error(
                 "Unable to write the output on file "
@@ -170,7 +183,8 @@ public class Toradocu {
           for (DocumentedExecutable member : members) {
             jsonOutputs.add(new JsonOutput(member, specifications.get(member)));
           }
-          String jsonOutput = GsonInstance.gson().toJson(jsonOutputs);
+          final Gson gson = GsonInstance.gson(configuration.isCompactJson());
+          String jsonOutput = gson.toJson(jsonOutputs);
           System.out.println("Condition translator output:\n" + jsonOutput);
         }
       }
@@ -199,13 +213,15 @@ public class Toradocu {
       }
 
       // Export generated specifications as Randoop specifications if requested.
-      generateRandoopSpecs(specifications);
+      try (Metrics.Timer timer = Metrics.time(Metrics.Stage.JSON_OUTPUT)) {
+        generateRandoopSpecs(specifications, configuration);
+      }
 
       // === Oracle Generator ===
       // Note that aspect generation is enabled only when translation is enabled.
       if (configuration.isOracleGenerationEnabled()) {
-        try {
-          OracleGenerator.createAspects(specifications);
+        try (Metrics.Timer timer = Metrics.time(Metrics.Stage.ASPECT_GENERATION)) {
+          OracleGenerator.createAspects(specifications, context);
         } catch (IOException e) {
           e.printStackTrace();
           log.error("Error during aspects creation.", e);
@@ -214,6 +230,68 @@ public class Toradocu {
         log.info("Oracle generator disabled: aspect generation skipped.");
       }
     }
+
+    // Export timers and counters of the run if requested.
+    final File metricsOutput = configuration.getMetricsOutput();
+    if (metricsOutput != null) {
+      try {
+        Metrics.of(context).writeReport(metricsOutput);
+      } catch (IOException e) {
+        log.error("Unable to write the metrics on file " + metricsOutput.getAbsolutePath(), e);
+      }
+    }
+  }
+
+  /**
+   * Runs the Javadoc extractor and the condition translator on the target class of the given run,
+   * and returns the translated specifications without writing them to any file. Aspects are
+   * generated only if oracle generation is enabled in the configuration of {@code context}.
+   *
+   * <p>Differently from {@link #main(String[])}, this method does not terminate the JVM on errors
+   * and can be called concurrently by different threads, each one with its own run context. The
+   * given context is bound to the calling thread for the duration of the call.
+   *
+   * @param context the context of the run, with an initialized configuration, must not be null
+   * @return the output of the condition translator for each documented constructor and method of
+   *     the target class
+   * @throws ClassNotFoundException if the target class or a type it uses cannot be loaded
+   * @throws IOException if the source file of the target class cannot be read or aspects cannot be
+   *     generated
+   */
+  public static List<JsonOutput> translate(RunContext context)
+      throws ClassNotFoundException, IOException {
+    Checks.nonNullParameter(context, "context");
+    final Configuration configuration = context.getConfiguration();
+    try (RunContext.Scope scope = context.bind()) {
+      final List<DocumentedExecutable> members;
+      try (Metrics.Timer timer = Metrics.time(Metrics.Stage.EXTRACTION)) {
+        members =
+            new JavadocExtractor(context)
+                .extract(configuration.getTargetClass(), configuration.sourceDir.toString())
+                .getDocumentedExecutables();
+      }
+
+      final Map<DocumentedExecutable, OperationSpecification> specifications;
+      try (Metrics.Timer timer = Metrics.time(Metrics.Stage.TRANSLATION)) {
+        if (configuration.useTComment()) {
+          specifications = tcomment.TcommentKt.translate(members);
+        } else {
+          specifications = CommentTranslator.createSpecifications(members, context);
+        }
+      }
+
+      if (configuration.isOracleGenerationEnabled()) {
+        try (Metrics.Timer timer = Metrics.time(Metrics.Stage.ASPECT_GENERATION)) {
+          OracleGenerator.createAspects(specifications, context);
+        }
+      }
+
+      final List<JsonOutput> jsonOutputs = new ArrayList<>();
+      for (DocumentedExecutable member : members) {
+        jsonOutputs.add(new JsonOutput(member, specifications.get(member)));
+      }
+      return jsonOutputs;
+    }
   }
 
   /**
@@ -221,9 +299,10 @@ public class Toradocu {
    * as Randoop specifications.
    *
    * @param specsMap the documented methods containing the specifications to export
+   * @param configuration the configuration of the run
    */
   private static void generateRandoopSpecs(
-      Map<DocumentedExecutable, OperationSpecification> specsMap) {
+      Map<DocumentedExecutable, OperationSpecification> specsMap, Configuration configuration) {
     File randoopSpecsFile = configuration.randoopSpecsFile();
     if (!configuration.isSilent() && randoopSpecsFile != null) {
       generateRandoopSpecsFile(randoopSpecsFile);
@@ -262,7 +341,7 @@ public class Toradocu {
                 randoopPreSpecs);
         randoopSpecs.add(newOperationSpec);
       }
-      writeRandoopSpecsFile(randoopSpecsFile, randoopSpecs);
+      writeRandoopSpecsFile(randoopSpecsFile, randoopSpecs, configuration);
     }
   }
 
@@ -323,14 +402,27 @@ public class Toradocu {
   }
 
   private static void writeRandoopSpecsFile(
-      File randoopSpecsFile, Collection<OperationSpecification> specs) {
+      File randoopSpecsFile,
+      Collection<OperationSpecification> specs,
+      Configuration configuration) {
+    if (configuration.isBinarySpecs()) {
+      try {
+        BinarySpecsWriter.write(specs, randoopSpecsFile.toPath());
+      } catch (IOException e) {
+        log.error(
+            "Error occurred during the export of generated specifications to file "
+                + randoopSpecsFile.getPath(),
+            e);
+      }
+      return;
+    }
     try (BufferedWriter writer =
         Files.newBufferedWriter(
             randoopSpecsFile.toPath(),
             StandardOpenOption.WRITE,
             StandardOpenOption.TRUNCATE_EXISTING,
             StandardOpenOption.CREATE)) {
-      writer.write(GsonInstance.gson().toJson(specs));
+      GsonInstance.gson(configuration.isCompactJson()).toJson(specs, writer);
     } catch (IOException e) {
       log.error(
           "Error occurred during the export of generated specifications to file "
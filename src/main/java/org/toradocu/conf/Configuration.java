@@ -8,10 +8,11 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.util.List;
 
-/** Holds the configuration options (particularly command-line options) for Toradocu. */
-@SuppressWarnings("ImmutableEnumChecker")
-public enum Configuration {
-  INSTANCE;
+/**
+ * Holds the configuration options (particularly command-line options) for a run of Toradocu. The
+ * configuration of a run is part of its {@link RunContext}.
+ */
+public final class Configuration {
 
   /** Keyword that identifies receiver object in generated specifications. */
   public static final String RECEIVER = "receiverObjectID";
@@ -68,6 +69,23 @@ public enum Configuration {
       description = "Toradocu stops when there is an error in the being-analyzed Javadoc")
   public boolean stopOnError = false;
 
+  @Parameter(
+      names = "--metrics-output",
+      description = "File path to export timers and counters of the run in JSON format",
+      converter = FileConverter.class)
+  private File metricsOutput;
+
+  @Parameter(
+      names = "--compact-json",
+      description = "Write JSON output without pretty-printing (smaller files, faster to write)")
+  private boolean compactJson = false;
+
+  @Parameter(
+      names = "--metrics-jfr",
+      description = "Emit a Java Flight Recorder event for each timed stage of the run",
+      hidden = true)
+  private boolean metricsJfr = false;
+
   // Javadoc extractor options
 
   @Parameter(
@@ -144,12 +162,80 @@ public enum Configuration {
       hidden = true)
   private File randoopSpecs;
 
+  @Parameter(
+      names = "--binary-specs",
+      description =
+          "Export Randoop specifications and condition translator output in the binary"
+              + " specification format instead of JSON")
+  private boolean binarySpecs = false;
+
   @Parameter(
       names = "--disable-semantics",
       description = "Disable semantic-based matcher for comments translation.",
       arity = 1)
   private boolean disableSemantics = false;
 
+  @Parameter(
+      names = "--descriptive-tag-filter",
+      description =
+          "Enable/disable the lexical filter that translates purely descriptive @param comments"
+              + " (e.g., \"the key\") into empty specifications without parsing them",
+      arity = 1)
+  private boolean descriptiveTagFilter = true;
+
+  @Parameter(
+      names = "--fast-compliance-check",
+      description =
+          "Enable/disable the reflection-based type checker that decides whether specifications"
+              + " compile without invoking javac",
+      arity = 1)
+  private boolean fastComplianceCheck = true;
+
+  @Parameter(
+      names = "--compliance-cross-check",
+      description =
+          "Compile with javac also the specifications decided by the fast compliance check, and"
+              + " log the disagreements")
+  private boolean complianceCrossCheck = false;
+
+  @Parameter(
+      names = "--compliance-cache",
+      description =
+          "File where the verdicts of the compliance checks compiled with javac are persisted and"
+              + " shared among runs",
+      converter = FileConverter.class)
+  private File complianceCache;
+
+  @Parameter(
+      names = "--async-compliance-check",
+      description =
+          "Enable/disable the pool of workers that checks the compliance of specifications while"
+              + " the next comments are translated",
+      arity = 1)
+  private boolean asyncComplianceCheck = true;
+
+  @Parameter(
+      names = "--semantic-matcher-threads",
+      description =
+          "Number of threads computing the semantic distances of the candidates of a comment"
+              + " (0 to use all the available processors)")
+  private int semanticMatcherThreads = 1;
+
+  @Parameter(
+      names = "--quantized-vectors",
+      description =
+          "Quantized word vector file to use for semantic matching instead of the GloVe model",
+      converter = FileConverter.class)
+  private File quantizedVectors;
+
+  @Parameter(
+      names = "--model-cache-dir",
+      description =
+          "Directory where the models bundled with Toradocu are extracted and shared among runs"
+              + " (default: $XDG_CACHE_HOME/toradocu or ~/.cache/toradocu)",
+      converter = FileConverter.class)
+  private File modelCacheDir;
+
   // Aspect creation options
 
   @Parameter(
@@ -233,6 +319,35 @@ public enum Configuration {
     return help;
   }
 
+  /**
+   * Returns the file in which to export the timers and counters of the run or null if this file is
+   * not specified.
+   *
+   * @return the file in which to export the timers and counters of the run or null if this file is
+   *     not specified
+   */
+  public File getMetricsOutput() {
+    return metricsOutput;
+  }
+
+  /**
+   * Returns true if a Java Flight Recorder event should be emitted for each timed stage.
+   *
+   * @return true if a Java Flight Recorder event should be emitted for each timed stage
+   */
+  public boolean isJfrEnabled() {
+    return metricsJfr;
+  }
+
+  /**
+   * Returns true if JSON output has to be written without pretty-printing.
+   *
+   * @return true if JSON output has to be written without pretty-printing
+   */
+  public boolean isCompactJson() {
+    return compactJson;
+  }
+
   /**
    * Returns the file in which to export Javadoc extractor output or null if this file is not
    * specified.
@@ -357,6 +472,17 @@ public enum Configuration {
     return randoopSpecs;
   }
 
+  /**
+   * Returns true if Randoop specifications and condition translator output have to be exported in
+   * the binary specification format (see {@code org.toradocu.output.binary.BinarySpecsWriter})
+   * instead of JSON.
+   *
+   * @return true if specifications have to be exported in the binary specification format
+   */
+  public boolean isBinarySpecs() {
+    return binarySpecs;
+  }
+
   /**
    * Returns whether Toradocu uses semantic matching when translating conditions. If false, classic
    * syntactic matching is used.
@@ -367,6 +493,83 @@ public enum Configuration {
     return !disableSemantics;
   }
 
+  /**
+   * Returns true if purely descriptive @param comments are translated into empty specifications
+   * without parsing them.
+   *
+   * @return true if the descriptive tag filter is enabled
+   */
+  public boolean isDescriptiveTagFilterEnabled() {
+    return descriptiveTagFilter;
+  }
+
+  /**
+   * Returns true if the compliance of specifications is first checked by the reflection-based type
+   * checker, and javac is invoked only for the specifications the type checker cannot decide.
+   *
+   * @return true if the fast compliance check is enabled
+   */
+  public boolean isFastComplianceCheckEnabled() {
+    return fastComplianceCheck;
+  }
+
+  /**
+   * Returns true if the specifications decided by the fast compliance check are compiled with javac
+   * as well, to measure how often the two agree. The verdict of javac is the one used.
+   *
+   * @return true if the verdicts of the fast compliance check are cross-checked with javac
+   */
+  public boolean isComplianceCrossCheckEnabled() {
+    return complianceCrossCheck;
+  }
+
+  /**
+   * Returns the file where the verdicts of the compliance checks are persisted.
+   *
+   * @return the file of the compliance verdict cache, null if verdicts are cached in memory only
+   */
+  public File getComplianceCache() {
+    return complianceCache;
+  }
+
+  /**
+   * Returns true if the compliance of specifications is checked on a pool of worker threads, while
+   * the translation of the comments goes on.
+   *
+   * @return true if compliance checks are asynchronous
+   */
+  public boolean isAsyncComplianceCheckEnabled() {
+    return asyncComplianceCheck;
+  }
+
+  /**
+   * Returns the number of threads the semantic matcher uses to compute the distances between a
+   * comment and its candidate code elements. Zero stands for the number of available processors.
+   *
+   * @return the number of threads computing semantic distances, 0 for all the available processors
+   */
+  public int getSemanticMatcherThreads() {
+    return semanticMatcherThreads;
+  }
+
+  /**
+   * Returns the quantized word vector file the semantic matcher uses instead of the GloVe model.
+   *
+   * @return the quantized word vector file, null if the GloVe model is used
+   */
+  public File getQuantizedVectors() {
+    return quantizedVectors;
+  }
+
+  /**
+   * Returns the directory where the models bundled with Toradocu are cached.
+   *
+   * @return the directory of the model cache, null to use the default location
+   */
+  public File getModelCacheDir() {
+    return modelCacheDir;
+  }
+
   /**
    * Returns whether Toradocu generates or not output when it has not been able to translate any
    * comment.
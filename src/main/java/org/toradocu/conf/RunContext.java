@@ -0,0 +1,167 @@
+package org.toradocu.conf;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.toradocu.util.Checks;
+
+/**
+ * Holds the state of a run of Toradocu: its configuration, the class loader of the system under
+ * analysis, and the caches and model handles of the components taking part in the run. Runs with
+ * different contexts (e.g., with different class and source directories) can execute concurrently
+ * in the same JVM.
+ *
+ * <p>The entry points of Toradocu components (e.g., {@link org.toradocu.Toradocu#translate}, {@link
+ * org.toradocu.translator.CommentTranslator#createSpecifications(List, RunContext)}) take a context
+ * and bind it to the running thread with {@link #bind()}. Code they call retrieves the context with
+ * {@link #current()}.
+ */
+public final class RunContext {
+
+  /** Context used by threads that have no context bound to them. */
+  private static final RunContext DEFAULT = new RunContext(new Configuration());
+
+  /** Context bound to each thread. */
+  private static final ThreadLocal<RunContext> boundContext = new ThreadLocal<>();
+
+  /** Configuration of this run. */
+  private final Configuration configuration;
+
+  /** Per-run state of Toradocu components (caches, model handles), created on first access. */
+  private final Map<Key<?>, Object> components = new ConcurrentHashMap<>();
+
+  /** Class directories {@link #classLoader} was created for. */
+  private List<URL> classLoaderUrls;
+
+  /** Class loader of the system under analysis. */
+  private ClassLoader classLoader;
+
+  /**
+   * Creates a new context for a run with the given configuration.
+   *
+   * @param configuration the configuration of the run, must not be null
+   */
+  public RunContext(Configuration configuration) {
+    Checks.nonNullParameter(configuration, "configuration");
+    this.configuration = configuration;
+  }
+
+  /**
+   * Returns the context of the calling thread: the context bound to the thread if any, a default
+   * context with the default configuration otherwise.
+   *
+   * @return the context of the calling thread
+   */
+  public static RunContext current() {
+    final RunContext context = boundContext.get();
+    return context != null ? context : DEFAULT;
+  }
+
+  /**
+   * Binds this context to the calling thread, so that {@link #current()} returns it until the
+   * returned scope is closed.
+   *
+   * @return the scope of the binding, that restores the previously bound context when closed
+   */
+  public Scope bind() {
+    final Scope scope = new Scope(boundContext.get());
+    boundContext.set(this);
+    return scope;
+  }
+
+  /**
+   * Returns the configuration of this run.
+   *
+   * @return the configuration of this run
+   */
+  public Configuration getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * Returns the class loader of the system under analysis. The class loader looks for classes in
+   * the class directories of the configuration only, and is created again if the class directories
+   * change.
+   *
+   * @return the class loader of the system under analysis
+   */
+  public synchronized ClassLoader getClassLoader() {
+    final List<URL> urls =
+        configuration.classDirs == null ? Collections.emptyList() : configuration.classDirs;
+    if (classLoader == null || !urls.equals(classLoaderUrls)) {
+      classLoaderUrls = new ArrayList<>(urls);
+      classLoader = new URLClassLoader(urls.toArray(new URL[urls.size()]), null);
+    }
+    return classLoader;
+  }
+
+  /**
+   * Returns the state of a component for this run, creating it on first access.
+   *
+   * @param key the key identifying the state
+   * @param <T> the type of the state
+   * @return the state identified by {@code key} in this run
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(Key<T> key) {
+    return (T) components.computeIfAbsent(key, k -> k.factory.get());
+  }
+
+  /**
+   * Discards the state of a component for this run. The next call to {@link #get(Key)} creates it
+   * again.
+   *
+   * @param key the key identifying the state
+   */
+  public void remove(Key<?> key) {
+    components.remove(key);
+  }
+
+  /**
+   * Identifies a piece of per-run state of a component (e.g., a cache). Keys are compared by
+   * identity, and are usually stored in static final fields of the component.
+   *
+   * @param <T> the type of the state
+   */
+  public static final class Key<T> {
+
+    /** Creates the state at its first access in a run. */
+    private final Supplier<? extends T> factory;
+
+    /**
+     * Creates a new key whose state is created with the given factory.
+     *
+     * @param factory creates the state at its first access in a run, must not be null; it must not
+     *     access the state of other keys
+     */
+    public Key(Supplier<? extends T> factory) {
+      Checks.nonNullParameter(factory, "factory");
+      this.factory = factory;
+    }
+  }
+
+  /** Binding of a context to a thread. Closing the scope restores the previous binding. */
+  public static final class Scope implements AutoCloseable {
+
+    /** Context bound to the thread before this scope, null if none. */
+    private final RunContext previous;
+
+    private Scope(RunContext previous) {
+      this.previous = previous;
+    }
+
+    @Override
+    public void close() {
+      if (previous == null) {
+        boundContext.remove();
+      } else {
+        boundContext.set(previous);
+      }
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package org.toradocu.extractor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Words marked as code in the text of a {@link Comment}, with the occurrences of each word that are
+ * marked as code. Occurrences are stored as arrays of primitive ints: each word is assigned an
+ * index (from 0 to {@code size() - 1}, in order of insertion) so that clients, such as the POS
+ * tagger, can keep per-word state in an int array instead of a map.
+ *
+ * <p>Instances are modified only while the comment that owns them is built: the words marked as
+ * code of a comment do not change afterwards. Two instances are equal if they contain the same
+ * words with the same occurrences, regardless of the order of insertion.
+ */
+public final class CodeWords {
+
+  /** Initial capacity of the array of occurrences of a word. */
+  private static final int INITIAL_OCCURRENCES = 2;
+
+  /** Indexes of the words. */
+  private final Map<String, Integer> indexes = new HashMap<>();
+  /** Words, by index. */
+  private final List<String> words = new ArrayList<>();
+  /** Occurrences of each word marked as code, by index. Arrays may have unused trailing slots. */
+  private int[][] occurrences = new int[0][];
+  /** Number of occurrences of each word, by index. */
+  private int[] counts = new int[0];
+
+  /** Creates an empty set of code words. */
+  CodeWords() {}
+
+  /**
+   * Creates the code words contained in the given map.
+   *
+   * @param codeWords map from words marked as code to the occurrences marked as code
+   * @return the code words in {@code codeWords}
+   */
+  static CodeWords of(Map<String, List<Integer>> codeWords) {
+    final CodeWords result = new CodeWords();
+    for (Map.Entry<String, List<Integer>> codeWord : codeWords.entrySet()) {
+      final int word = result.indexOfOrAdd(codeWord.getKey());
+      for (int occurrence : codeWord.getValue()) {
+        result.addOccurrence(word, occurrence);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of words marked as code.
+   *
+   * @return the number of words marked as code
+   */
+  public int size() {
+    return words.size();
+  }
+
+  /**
+   * Tells whether no word is marked as code.
+   *
+   * @return true if no word is marked as code
+   */
+  public boolean isEmpty() {
+    return words.isEmpty();
+  }
+
+  /**
+   * Returns the index of the given word.
+   *
+   * @param word a word
+   * @return the index of {@code word}, -1 if {@code word} is not marked as code
+   */
+  public int indexOf(String word) {
+    final Integer index = indexes.get(word);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Returns the word with the given index.
+   *
+   * @param index the index of a word, between 0 and {@code size() - 1}
+   * @return the word with index {@code index}
+   */
+  public String word(int index) {
+    return words.get(index);
+  }
+
+  /**
+   * Returns the number of occurrences marked as code of the word with the given index.
+   *
+   * @param index the index of a word, between 0 and {@code size() - 1}
+   * @return the number of occurrences of the word that are marked as code
+   */
+  public int occurrenceCount(int index) {
+    return counts[index];
+  }
+
+  /**
+   * Returns an occurrence marked as code of the word with the given index.
+   *
+   * @param index the index of a word, between 0 and {@code size() - 1}
+   * @param i the position of the occurrence, between 0 and {@code occurrenceCount(index) - 1}
+   * @return the {@code i}-th occurrence of the word marked as code (0 for the first occurrence of
+   *     the word in the text, 1 for the second, and so on)
+   */
+  public int occurrence(int index, int i) {
+    if (i >= counts[index]) {
+      throw new IndexOutOfBoundsException("Occurrence " + i + " of " + counts[index]);
+    }
+    return occurrences[index][i];
+  }
+
+  /**
+   * Returns the code words whose word satisfies the given predicate.
+   *
+   * @param filter the predicate selecting words
+   * @return the code words whose word satisfies {@code filter}, with the same occurrences
+   */
+  public CodeWords filter(Predicate<String> filter) {
+    final CodeWords result = new CodeWords();
+    for (int word = 0; word < size(); word++) {
+      if (filter.test(words.get(word))) {
+        result.put(words.get(word), occurrences[word], counts[word]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the code words as a map from words to occurrences, as formerly exposed by {@link
+   * Comment#getWordsMarkedAsCode()}. The map is a copy: changes to it do not affect these code
+   * words.
+   *
+   * @return map from words marked as code to the occurrences marked as code
+   */
+  public Map<String, List<Integer>> toMap() {
+    final Map<String, List<Integer>> map = new HashMap<>();
+    for (int word = 0; word < size(); word++) {
+      final List<Integer> wordOccurrences = new ArrayList<>(counts[word]);
+      for (int i = 0; i < counts[word]; i++) {
+        wordOccurrences.add(occurrences[word][i]);
+      }
+      map.put(words.get(word), wordOccurrences);
+    }
+    return map;
+  }
+
+  /**
+   * Adds an occurrence marked as code of the given word.
+   *
+   * @param word the word marked as code
+   * @param occurrence the occurrence of {@code word} marked as code
+   */
+  void add(String word, int occurrence) {
+    addOccurrence(indexOfOrAdd(word), occurrence);
+  }
+
+  /**
+   * Adds all the words of the given code words. The occurrences of words already marked as code are
+   * replaced with the ones in {@code codeWords}.
+   *
+   * @param codeWords the code words to add
+   */
+  void putAll(CodeWords codeWords) {
+    for (int word = 0; word < codeWords.size(); word++) {
+      put(codeWords.words.get(word), codeWords.occurrences[word], codeWords.counts[word]);
+    }
+  }
+
+  /** Sets the occurrences of a word to the first {@code count} elements of an array. */
+  private void put(String word, int[] wordOccurrences, int count) {
+    final int index = indexOfOrAdd(word);
+    occurrences[index] = Arrays.copyOf(wordOccurrences, Math.max(count, INITIAL_OCCURRENCES));
+    counts[index] = count;
+  }
+
+  private int indexOfOrAdd(String word) {
+    Integer index = indexes.get(word);
+    if (index == null) {
+      index = words.size();
+      indexes.put(word, index);
+      words.add(word);
+      if (index == occurrences.length) {
+        final int capacity = Math.max(4, index * 2);
+        occurrences = Arrays.copyOf(occurrences, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+      }
+      occurrences[index] = new int[INITIAL_OCCURRENCES];
+    }
+    return index;
+  }
+
+  private void addOccurrence(int word, int occurrence) {
+    if (counts[word] == occurrences[word].length) {
+      occurrences[word] = Arrays.copyOf(occurrences[word], counts[word] * 2);
+    }
+    occurrences[word][counts[word]++] = occurrence;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+
+    CodeWords that = (CodeWords) o;
+
+    if (size() != that.size()) {
+      return false;
+    }
+    for (int word = 0; word < size(); word++) {
+      final int other = that.indexOf(words.get(word));
+      if (other == -1 || counts[word] != that.counts[other]) {
+        return false;
+      }
+      for (int i = 0; i < counts[word]; i++) {
+        if (occurrences[word][i] != that.occurrences[other][i]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    // Sum of the hash codes of the words, independent of the order of insertion.
+    int hash = 0;
+    for (int word = 0; word < size(); word++) {
+      int wordHash = words.get(word).hashCode();
+      for (int i = 0; i < counts[word]; i++) {
+        wordHash = 31 * wordHash + occurrences[word][i];
+      }
+      hash += wordHash;
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return toMap().toString();
+  }
+}
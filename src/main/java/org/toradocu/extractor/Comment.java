@@ -17,6 +17,20 @@ public final class Comment {
    */
   private String text;
 
+  /** Whitespace sequences separating the words of a tag content. */
+  private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+  /** A single comparison between one-character operands, such as {@code i<0}. */
+  private static final Pattern SINGLE_COMPARISON = Pattern.compile(".[[<>=]=?|!=].");
+  /** Operators splitting the operands of a single comparison. */
+  private static final Pattern COMPARISON_OPERATOR = Pattern.compile("[<>=]=?|!=]");
+  /** Words that are not retained as code words, i.e., numbers and expressions. */
+  private static final Pattern NOT_A_WORD = Pattern.compile(".*[0-9+-/*(){}[<>=]=?|!=].*");
+
+  /** HTML character entities decoded in comment text. */
+  private static final String[] HTML_ENTITIES = {"&ge;", "&le;", "&gt;", "&lt;", "&amp;"};
+  /** Characters corresponding to {@link #HTML_ENTITIES}. */
+  private static final String[] HTML_ENTITY_CHARACTERS = {">=", "<=", ">", "<", "&"};
+
   /**
    * Words marked with {@literal @code} tag in comment text. With "word" we mean a single String (in
    * case of a whole sentence tagged as code, each word is stored separately). We do not retain
@@ -24,44 +38,35 @@ public final class Comment {
    * Each word retained (as a String key) is mapped with a list of integers that stores the
    * occurrences which are tagged as code in the original text. For example: "{@code a} is negative
    * and is a real number. {@code a} cannot be null" will be stored as a-> [0, 2] since the first
-   * and third occurrences are tagged as code, but not the second one.
+   * and third occurrences are tagged as code, but not the second one. Occurrences are stored as
+   * primitive ints (see {@link CodeWords}).
    */
-  private final Map<String, List<Integer>> wordsMarkedAsCode;
+  private final CodeWords wordsMarkedAsCode;
 
   /**
    * Builds a new Comment with the given {@code text}. Words marked with {@literal @code} and
    * {@literal <code></code>} in {@code text} are added to the map of words marked as code. Than,
    * the text is cleaned from any tag.
    *
+   * <p>Tags are found by scanning the text, without regular expressions: each kind of markup is
+   * scanned once, in the order in which it is removed. The result is the same as the one of the
+   * regular expressions the markup was formerly removed with.
+   *
    * @param text text of the comment.
    */
   public Comment(String text) {
-    this.text = text.replaceAll("\\s+", " ");
-    this.wordsMarkedAsCode = new HashMap<>();
-
-    final String codePattern1 = "<code>([A-Za-z0-9_]+)</code>";
-    identifyCodeWords(codePattern1);
-    removeTags(codePattern1);
+    this.wordsMarkedAsCode = new CodeWords();
+    String cleanText = normalizeWhitespaces(text);
 
-    final String codePattern2 = "\\{@code ([^}]+)\\}";
-    identifyCodeWords(codePattern2);
-    removeTags(codePattern2);
+    identifyCodeWords(cleanText, InlineTag.CODE_ELEMENT);
+    cleanText = removeTags(cleanText, InlineTag.CODE_ELEMENT);
 
-    removeTags("\\{@link #?([^}]+)\\}");
-    removeHTMLTags();
-    decodeHTML();
-    this.text = this.text.trim();
-  }
+    identifyCodeWords(cleanText, InlineTag.CODE);
+    cleanText = removeTags(cleanText, InlineTag.CODE);
 
-  /** Decodes HTML character entities found in comment text with corresponding characters. */
-  private void decodeHTML() {
-    this.text =
-        this.text
-            .replaceAll("&ge;", ">=")
-            .replaceAll("&le;", "<=")
-            .replaceAll("&gt;", ">")
-            .replaceAll("&lt;", "<")
-            .replaceAll("&amp;", "&");
+    cleanText = removeTags(cleanText, InlineTag.LINK);
+    cleanText = removeHTMLTags(cleanText);
+    this.text = decodeHTML(cleanText).trim();
   }
 
   /**
@@ -71,8 +76,19 @@ public final class Comment {
    * @param wordsMarkedAsCode blocks of text wrapped in {@literal @code} or {@literal <code></code>}
    */
   public Comment(String text, Map<String, List<Integer>> wordsMarkedAsCode) {
+    this(text, CodeWords.of(wordsMarkedAsCode));
+  }
+
+  /**
+   * Builds a new Comment with the given {@code text} and code words, usually the ones of another
+   * comment whose text has been rewritten.
+   *
+   * @param text text of the comment.
+   * @param codeWords words wrapped in {@literal @code} or {@literal <code></code>}
+   */
+  public Comment(String text, CodeWords codeWords) {
     this(text);
-    this.wordsMarkedAsCode.putAll(wordsMarkedAsCode);
+    this.wordsMarkedAsCode.putAll(codeWords);
   }
 
   /**
@@ -86,48 +102,74 @@ public final class Comment {
   }
 
   /**
-   * Returns the {@code Map} of words marked with {@literal @code} tag in comment text.
+   * Returns the {@code Map} of words marked with {@literal @code} tag in comment text. The map is
+   * built at every call: use {@link #getCodeWords()} in performance-sensitive code.
    *
    * @return the {@code Map} of words marked as code
    */
   public Map<String, List<Integer>> getWordsMarkedAsCode() {
+    return wordsMarkedAsCode.toMap();
+  }
+
+  /**
+   * Returns the words marked with {@literal @code} tag in comment text, with their occurrences
+   * marked as code.
+   *
+   * @return the words marked as code
+   */
+  public CodeWords getCodeWords() {
     return wordsMarkedAsCode;
   }
 
   /**
    * Adds to {@link #wordsMarkedAsCode} any words in {@code text} that are marked with the given
-   * {@code codePattern}.
+   * inline tag.
    *
-   * @param codePattern regular expression used to identify the words marked as code
+   * @param text the comment text
+   * @param tag the inline tag marking words as code
    */
-  private void identifyCodeWords(String codePattern) {
-    String[] subSentences = text.split("\\. ");
-    for (String subSentence : subSentences) {
-      Matcher codeMatcher = Pattern.compile(codePattern).matcher(subSentence);
-
-      while (codeMatcher.find()) {
-        String taggedSubstring = codeMatcher.group(1).trim();
-        String[] words = null;
-        words = taggedSubstring.split("\\s+");
-        if (words.length == 1 && words[0].matches(".[[<>=]=?|!=].")) {
-          words = taggedSubstring.split("[<>=]=?|!=]");
+  private void identifyCodeWords(String text, InlineTag tag) {
+    final int[] content = new int[2];
+    int subSentenceStart = 0;
+    while (subSentenceStart <= text.length()) {
+      int subSentenceEnd = text.indexOf(". ", subSentenceStart);
+      if (subSentenceEnd == -1) {
+        subSentenceEnd = text.length();
+      }
+      final String subSentence = text.substring(subSentenceStart, subSentenceEnd);
+      int from = 0;
+      while (from < subSentence.length()) {
+        final int end = tag.match(subSentence, from, content);
+        if (end == -1) {
+          from++;
+          continue;
         }
+        addCodeWords(subSentence, subSentence.substring(content[0], content[1]).trim(), from);
+        from = end;
+      }
+      subSentenceStart = subSentenceEnd + 2;
+    }
+  }
 
-        int indexOfMatch = codeMatcher.start();
-        for (String word : words) {
-          if (!word.isEmpty() && !word.matches(".*[0-9+-/*(){}[<>=]=?|!=].*")) {
-            // search this word before this index in original text
-            List<Integer> occurrences = new ArrayList<>();
-            occurrences.add(countStringOccurrence(word, subSentence, indexOfMatch));
-            if (wordsMarkedAsCode.get(word) != null) {
-              wordsMarkedAsCode.get(word).addAll(occurrences);
-            } else {
-              wordsMarkedAsCode.put(word, occurrences);
-            }
-          }
-          indexOfMatch += word.length() + 1;
-        }
+  /**
+   * Adds to {@link #wordsMarkedAsCode} the words of the given substring tagged as code.
+   *
+   * @param subSentence the sub-sentence containing the tag
+   * @param taggedSubstring the trimmed content of the tag
+   * @param indexOfMatch index of the tag in {@code subSentence}
+   */
+  private void addCodeWords(String subSentence, String taggedSubstring, int indexOfMatch) {
+    String[] words = WHITESPACES.split(taggedSubstring);
+    if (words.length == 1 && SINGLE_COMPARISON.matcher(words[0]).matches()) {
+      words = COMPARISON_OPERATOR.split(taggedSubstring);
+    }
+
+    for (String word : words) {
+      if (!word.isEmpty() && !NOT_A_WORD.matcher(word).matches()) {
+        // search this word before this index in original text
+        wordsMarkedAsCode.add(word, countStringOccurrence(word, subSentence, indexOfMatch));
       }
+      indexOfMatch += word.length() + 1;
     }
   }
 
@@ -136,12 +178,46 @@ public final class Comment {
    * limitIndex} inside the {@code subSentence}. By doing this we know which occurrence of the word
    * we are examining in case of multiple occurrences of the same word in the sentence.
    *
+   * <p>An occurrence of a word made of letters, digits, and underscores is delimited by word
+   * boundaries (as {@code \b} in regular expressions): such words, i.e., nearly all the words
+   * marked as code, are counted without regular expressions.
+   *
+   * @param word the word which occurrences must be count
+   * @param subSentence the {@code String} in which to find the word
+   * @param limitIndex limit index in {@code subSentence} where to count the occurrences
+   * @return the computed occurrence, -1 if {@code word} does not occur in {@code subSentence}
+   */
+  private static int countStringOccurrence(String word, String subSentence, int limitIndex) {
+    if (!isIdentifier(word)) {
+      return countPatternOccurrence(word, subSentence, limitIndex);
+    }
+    int occurrences = 0;
+    boolean found = false;
+    int index = subSentence.indexOf(word);
+    while (index != -1) {
+      if (!isWordAt(subSentence, index - 1) && !isWordAt(subSentence, index + word.length())) {
+        if (index >= limitIndex) {
+          return occurrences;
+        }
+        found = true;
+        occurrences++;
+      }
+      index = subSentence.indexOf(word, index + 1);
+    }
+    return found ? occurrences : -1;
+  }
+
+  /**
+   * Counts how many occurrences of the String {@code word} there are before the given {@code
+   * limitIndex} inside the {@code subSentence}, matching {@code word} as a regular expression. Used
+   * for words containing characters other than letters, digits, and underscores.
+   *
    * @param word the word which occurrences must be count
    * @param subSentence the {@code String} in which to find the word
    * @param limitIndex limit index in {@code subSentence} where to count the occurrences
    * @return the computed occurrence
    */
-  private int countStringOccurrence(String word, String subSentence, int limitIndex) {
+  private static int countPatternOccurrence(String word, String subSentence, int limitIndex) {
     if (word.matches(".*[\\[\\]\\(\\)].*")) {
       // Escape special characters to prevent errors in subsequent pattern compiling
       word =
@@ -174,30 +250,319 @@ public final class Comment {
     return i;
   }
 
+  /** Tells whether the given word is made of ASCII letters, digits, and underscores only. */
+  private static boolean isIdentifier(String word) {
+    for (int i = 0; i < word.length(); i++) {
+      final char c = word.charAt(i);
+      if (!isAsciiLetterOrDigit(c) && c != '_') {
+        return false;
+      }
+    }
+    return !word.isEmpty();
+  }
+
   /**
-   * Removes Javadoc inline tags from the comment text preserving the content of the tags.
+   * Tells whether the character at the given index of {@code text} is a word character, according
+   * to the definition of word boundaries of {@link Pattern}: a letter, a digit, an underscore, or a
+   * non-spacing mark following a letter or a digit.
    *
-   * @param pattern a regular expression
+   * @param text the text
+   * @param index the index of the character, can be out of the bounds of {@code text}
+   * @return true if the character at {@code index} is a word character, false if it is not or if
+   *     {@code index} is out of bounds
    */
-  private void removeTags(String pattern) {
-    Matcher matcher = Pattern.compile(pattern).matcher(text);
-    while (matcher.find()) {
-      this.text = this.text.replace(matcher.group(0), matcher.group(1));
+  private static boolean isWordAt(String text, int index) {
+    if (index < 0 || index >= text.length()) {
+      return false;
+    }
+    // The character before a word boundary is a whole code point.
+    final int codePoint =
+        Character.isLowSurrogate(text.charAt(index)) && index > 0
+            ? Character.codePointBefore(text, index + 1)
+            : Character.codePointAt(text, index);
+    if (codePoint == '_' || Character.isLetterOrDigit(codePoint)) {
+      return true;
     }
+    if (Character.getType(codePoint) != Character.NON_SPACING_MARK) {
+      return false;
+    }
+    for (int i = index - 1; i >= 0; i--) {
+      final int ch = Character.codePointAt(text, i);
+      if (Character.isLetterOrDigit(ch)) {
+        return true;
+      }
+      if (Character.getType(ch) != Character.NON_SPACING_MARK) {
+        return false;
+      }
+    }
+    return false;
   }
 
-  /** Removes HTML tags from the comment text. */
-  private void removeHTMLTags() {
-    String htmlTagPattern = "<([a-zA-Z][a-zA-Z0-9]*)\\b[^>]*>(.*?)</\\1>|(<(.*)/>)";
-    Matcher matcher = Pattern.compile(htmlTagPattern).matcher(text);
-    while (matcher.find()) {
-      if (matcher.group(1) != null) {
-        this.text = this.text.replace(matcher.group(0), matcher.group(2));
+  /**
+   * Replaces every whitespace sequence of the given text with a single space.
+   *
+   * @param text the text
+   * @return {@code text} with whitespaces normalized
+   */
+  private static String normalizeWhitespaces(String text) {
+    final StringBuilder result = new StringBuilder(text.length());
+    boolean inWhitespaces = false;
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      if (isWhitespace(c)) {
+        if (!inWhitespaces) {
+          result.append(' ');
+          inWhitespaces = true;
+        }
       } else {
-        // Match contains self-closing tag
-        this.text = this.text.replace(matcher.group(0), "");
+        result.append(c);
+        inWhitespaces = false;
       }
     }
+    return result.toString();
+  }
+
+  /**
+   * Removes the given Javadoc inline tags from the text preserving the content of the tags.
+   *
+   * @param text the text
+   * @param tag the inline tag to remove
+   * @return {@code text} without the occurrences of {@code tag}
+   */
+  private static String removeTags(String text, InlineTag tag) {
+    final List<int[]> matches = new ArrayList<>();
+    final int[] content = new int[2];
+    int from = 0;
+    while (from < text.length()) {
+      final int end = tag.match(text, from, content);
+      if (end == -1) {
+        from++;
+        continue;
+      }
+      matches.add(new int[] {from, end, content[0], content[1]});
+      from = end;
+    }
+    return replaceMatches(text, matches);
+  }
+
+  /**
+   * Removes HTML tags from the text: elements (e.g., {@code <b>bold</b>}) are replaced by their
+   * content, self-closing tags (e.g., {@code <br/>}) are removed.
+   *
+   * @param text the text
+   * @return {@code text} without HTML tags
+   */
+  private static String removeHTMLTags(String text) {
+    final List<int[]> matches = new ArrayList<>();
+    int from = text.indexOf('<');
+    while (from != -1) {
+      int[] match = null;
+      final int nameEnd = htmlTagNameEnd(text, from);
+      if (nameEnd != -1) {
+        final int startTagEnd = text.indexOf('>', nameEnd);
+        if (startTagEnd != -1) {
+          final String endTag = "</" + text.substring(from + 1, nameEnd) + ">";
+          // The content cannot span line terminators.
+          for (int i = startTagEnd + 1; i < text.length(); i++) {
+            if (text.startsWith(endTag, i)) {
+              match = new int[] {from, i + endTag.length(), startTagEnd + 1, i};
+              break;
+            }
+            if (isLineTerminator(text.charAt(i))) {
+              break;
+            }
+          }
+        }
+      }
+      if (match == null) {
+        // Self-closing tag: up to the last "/>" of the line.
+        int lineEnd = from + 1;
+        while (lineEnd < text.length() && !isLineTerminator(text.charAt(lineEnd))) {
+          lineEnd++;
+        }
+        final int selfClosingEnd = text.lastIndexOf("/>", lineEnd - 2);
+        if (selfClosingEnd > from) {
+          match = new int[] {from, selfClosingEnd + 2, from, from};
+        }
+      }
+      if (match == null) {
+        from = text.indexOf('<', from + 1);
+      } else {
+        matches.add(match);
+        from = text.indexOf('<', match[1]);
+      }
+    }
+    return replaceMatches(text, matches);
+  }
+
+  /**
+   * Replaces the given matches of a tag with their content. Each match is replaced everywhere in
+   * the text produced by the replacement of the previous ones (as {@link String#replace} does):
+   * this way, a tag nested in the content of another tag is removed as well when an identical tag
+   * follows in the text.
+   *
+   * @param text the text
+   * @param matches the start and end indexes of each match and of its content in {@code text}
+   * @return {@code text} with the matches replaced by their content
+   */
+  private static String replaceMatches(String text, List<int[]> matches) {
+    String result = text;
+    for (int[] match : matches) {
+      final String target = text.substring(match[0], match[1]);
+      int index = result.indexOf(target);
+      if (index == -1) {
+        continue;
+      }
+      final StringBuilder replaced = new StringBuilder(result.length());
+      int copied = 0;
+      while (index != -1) {
+        replaced.append(result, copied, index).append(text, match[2], match[3]);
+        copied = index + target.length();
+        index = result.indexOf(target, copied);
+      }
+      result = replaced.append(result, copied, result.length()).toString();
+    }
+    return result;
+  }
+
+  /**
+   * Returns the end of the name of the HTML start tag at the given index, i.e., of the letter and
+   * the letters and digits following {@code <} and delimited by a word boundary.
+   *
+   * @param text the text
+   * @param index the index of {@code <} in {@code text}
+   * @return the index following the name of the tag, -1 if there is no tag name at {@code index}
+   */
+  private static int htmlTagNameEnd(String text, int index) {
+    int end = index + 1;
+    if (end >= text.length() || !isAsciiLetter(text.charAt(end))) {
+      return -1;
+    }
+    end++;
+    while (end < text.length() && isAsciiLetterOrDigit(text.charAt(end))) {
+      end++;
+    }
+    return isWordAt(text, end) ? -1 : end;
+  }
+
+  /**
+   * Decodes HTML character entities found in comment text with corresponding characters.
+   *
+   * @param text the text
+   * @return {@code text} with HTML character entities decoded
+   */
+  private static String decodeHTML(String text) {
+    int from = text.indexOf('&');
+    if (from == -1) {
+      return text;
+    }
+    final StringBuilder result = new StringBuilder(text.length());
+    int copied = 0;
+    while (from != -1) {
+      int entityIndex = 0;
+      while (entityIndex < HTML_ENTITIES.length
+          && !text.startsWith(HTML_ENTITIES[entityIndex], from)) {
+        entityIndex++;
+      }
+      if (entityIndex == HTML_ENTITIES.length) {
+        from = text.indexOf('&', from + 1);
+      } else {
+        result.append(text, copied, from).append(HTML_ENTITY_CHARACTERS[entityIndex]);
+        copied = from + HTML_ENTITIES[entityIndex].length();
+        from = text.indexOf('&', copied);
+      }
+    }
+    return result.append(text, copied, text.length()).toString();
+  }
+
+  /** Tells whether the given character is matched by {@code \s} in regular expressions. */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  /** Tells whether the given character is a line terminator, i.e., is not matched by {@code .}. */
+  private static boolean isLineTerminator(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+
+  private static boolean isAsciiLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isAsciiLetterOrDigit(char c) {
+    return isAsciiLetter(c) || (c >= '0' && c <= '9');
+  }
+
+  /** Javadoc inline tags whose content is kept in the comment text. */
+  private enum InlineTag {
+    /** {@literal <code>word</code>}, whose content is a single identifier. */
+    CODE_ELEMENT {
+      @Override
+      int match(String text, int index, int[] content) {
+        if (!text.startsWith("<code>", index)) {
+          return -1;
+        }
+        final int start = index + "<code>".length();
+        int end = start;
+        while (end < text.length()
+            && (isAsciiLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) {
+          end++;
+        }
+        if (end == start || !text.startsWith("</code>", end)) {
+          return -1;
+        }
+        content[0] = start;
+        content[1] = end;
+        return end + "</code>".length();
+      }
+    },
+    /** {@literal {@code text}}. */
+    CODE {
+      @Override
+      int match(String text, int index, int[] content) {
+        if (!text.startsWith("{@code ", index)) {
+          return -1;
+        }
+        final int start = index + "{@code ".length();
+        final int end = text.indexOf('}', start);
+        if (end <= start) {
+          return -1;
+        }
+        content[0] = start;
+        content[1] = end;
+        return end + 1;
+      }
+    },
+    /** {@literal {@link #member}}, whose content is the linked element without the leading #. */
+    LINK {
+      @Override
+      int match(String text, int index, int[] content) {
+        if (!text.startsWith("{@link ", index)) {
+          return -1;
+        }
+        int start = index + "{@link ".length();
+        final int end = text.indexOf('}', start);
+        if (end <= start) {
+          return -1;
+        }
+        if (text.charAt(start) == '#' && end > start + 1) {
+          start++;
+        }
+        content[0] = start;
+        content[1] = end;
+        return end + 1;
+      }
+    };
+
+    /**
+     * Matches this tag at the given index of the text.
+     *
+     * @param text the text
+     * @param index the index where the tag has to start
+     * @param content set to the start and end indexes of the content of the tag, if it matches
+     * @return the index following the tag, -1 if this tag does not occur at {@code index}
+     */
+    abstract int match(String text, int index, int[] content);
   }
 
   @Override
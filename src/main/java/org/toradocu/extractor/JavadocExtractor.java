@@ -36,7 +36,8 @@ import java.util.function.Predicate;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
+import org.toradocu.util.Checks;
 import org.toradocu.util.Reflection;
 
 /**
@@ -50,6 +51,25 @@ public final class JavadocExtractor {
   /** Logger of this class. */
   private static final Logger log = LoggerFactory.getLogger(JavadocExtractor.class);
 
+  /** Context of the run in which documentation is extracted. */
+  private final RunContext context;
+
+  /** Creates a new Javadoc extractor for the run of the calling thread. */
+  public JavadocExtractor() {
+    this(RunContext.current());
+  }
+
+  /**
+   * Creates a new Javadoc extractor for the given run. Classes are loaded with the class loader of
+   * {@code context}.
+   *
+   * @param context the context of the run, must not be null
+   */
+  public JavadocExtractor(RunContext context) {
+    Checks.nonNullParameter(context, "context");
+    this.context = context;
+  }
+
   /**
    * Returns a list of {@code DocumentedExecutable}s extracted from the class with name {@code
    * className}. Parses the Java source code of the specified class ({@code className}), and stores
@@ -70,7 +90,7 @@ public final class JavadocExtractor {
     log.trace("Extracting Javadoc information of {} (in source folder {})", className, sourcePath);
 
     // Obtain executable members (constructors and methods) by means of reflection.
-    final Class<?> clazz = Reflection.getClass(className);
+    final Class<?> clazz = Reflection.getClass(className, context);
     final List<Executable> reflectionExecutables = getExecutables(clazz);
 
     // Obtain executable members (constructors and methods) in the source code.
@@ -216,7 +236,7 @@ public final class JavadocExtractor {
                 paramTags.add(paramTag);
               }
             } catch (ParameterNotFoundException e) {
-              if (Configuration.INSTANCE.stopOnError) {
+              if (context.getConfiguration().stopOnError) {
                 throw new ParameterNotFoundException(
                     "Error parsing the Javadoc of method "
                         + callableMember.getSignature()
@@ -236,7 +256,7 @@ public final class JavadocExtractor {
                   createThrowsTag(classesInPackage, blockTag, callableMember, className);
               throwsTags.add(throwsTag);
             } catch (ClassNotFoundException e) {
-              if (Configuration.INSTANCE.stopOnError) {
+              if (context.getConfiguration().stopOnError) {
                 throw new ClassNotFoundException(
                     "Error parsing the Javadoc of method "
                         + callableMember.getSignature()
@@ -752,21 +772,21 @@ public final class JavadocExtractor {
       throws ClassNotFoundException {
 
     try {
-      return Reflection.getClass(exceptionTypeName);
+      return Reflection.getClass(exceptionTypeName, context);
     } catch (ClassNotFoundException e) {
       // Intentionally empty: Apply other heuristics to load the exception type.
     }
 
     // Try to load the exception class from java.lang package.
     try {
-      return Reflection.getClass("java.lang." + exceptionTypeName);
+      return Reflection.getClass("java.lang." + exceptionTypeName, context);
     } catch (ClassNotFoundException e) {
       // Intentionally empty: Apply other heuristics to load the exception type.
     }
 
     // Try to load a nested class.
     try {
-      return Reflection.getClass(className + "$" + exceptionTypeName);
+      return Reflection.getClass(className + "$" + exceptionTypeName, context);
     } catch (ClassNotFoundException e) {
       // Intentionally empty: Apply other heuristics to load the exception type.
     }
@@ -778,7 +798,7 @@ public final class JavadocExtractor {
         if (classInPackage.contains("$")) {
           classInPackage = classInPackage.replace(".class", "");
         }
-        return Reflection.getClass(classInPackage);
+        return Reflection.getClass(classInPackage, context);
       }
     }
 
@@ -789,9 +809,9 @@ public final class JavadocExtractor {
       String importedTypeName = importStatement.getNameAsString();
       try {
         if (importedTypeName.endsWith(exceptionTypeName)) {
-          return Reflection.getClass(importedTypeName);
+          return Reflection.getClass(importedTypeName, context);
         } else if (importStatement.isAsterisk()) {
-          return Reflection.getClass(importedTypeName + "." + exceptionTypeName);
+          return Reflection.getClass(importedTypeName + "." + exceptionTypeName, context);
         }
       } catch (ClassNotFoundException e) {
         // Intentionally empty: Apply other heuristics to load the exception type.
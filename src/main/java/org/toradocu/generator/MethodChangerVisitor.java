@@ -25,7 +25,6 @@ import java.util.Optional;
 import java.util.StringJoiner;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
-import org.toradocu.Toradocu;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
@@ -43,7 +42,17 @@ public class MethodChangerVisitor
     extends ModifierVisitor<Pair<DocumentedExecutable, OperationSpecification>> {
 
   /** Holds Toradocu configuration options. */
-  private final Configuration conf = Toradocu.configuration;
+  private final Configuration conf;
+
+  /**
+   * Creates a new visitor that modifies aspects according to the given configuration.
+   *
+   * @param conf the configuration of the run, must not be null
+   */
+  public MethodChangerVisitor(Configuration conf) {
+    Checks.nonNullParameter(conf, "conf");
+    this.conf = conf;
+  }
 
   /**
    * Modifies the methods {@code advice} and {@code getExpectedExceptions} of the aspect template,
@@ -1,7 +1,5 @@
 package org.toradocu.generator;
 
-import static org.toradocu.Toradocu.configuration;
-
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
@@ -16,7 +14,8 @@ import java.util.Map;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.toradocu.Toradocu;
+import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.util.Checks;
 import randoop.condition.specification.OperationSpecification;
@@ -41,7 +40,31 @@ public class OracleGenerator {
    */
   public static void createAspects(Map<DocumentedExecutable, OperationSpecification> specifications)
       throws IOException {
+    createAspects(specifications, RunContext.current());
+  }
+
+  /**
+   * Creates aspects that check the given {@code specs} in the given run. This method creates one
+   * aspect for each method with specifications, in the aspects output directory of the
+   * configuration of {@code context}.
+   *
+   * @param specifications the specifications that created aspects will check at runtime. Must not
+   *     be null.
+   * @param context the context of the run, must not be null
+   */
+  public static void createAspects(
+      Map<DocumentedExecutable, OperationSpecification> specifications, RunContext context)
+      throws IOException {
     Checks.nonNullParameter(specifications, "specifications");
+    Checks.nonNullParameter(context, "context");
+    try (RunContext.Scope scope = context.bind()) {
+      createAspects(specifications, context.getConfiguration());
+    }
+  }
+
+  private static void createAspects(
+      Map<DocumentedExecutable, OperationSpecification> specifications, Configuration configuration)
+      throws IOException {
 
     // Create output directory where aspects are saved.
     final String aspectsOutputDir = configuration.getAspectsOutputDir();
@@ -54,7 +77,7 @@ public class OracleGenerator {
     final String inputAspectPath = "/" + configuration.getJUnitTestCaseAspect();
     final String junitAspect = configuration.getJUnitTestCaseAspect();
     final String outputAspectPath = aspectsOutputDir + File.separator + junitAspect;
-    final String testClass = Toradocu.configuration.getTestClass();
+    final String testClass = configuration.getTestClass();
     final String withinDeclaration = " && within(" + testClass + ")";
     createJunitTestsAspect(inputAspectPath, outputAspectPath, withinDeclaration);
 
@@ -67,7 +90,7 @@ public class OracleGenerator {
       OperationSpecification specification = specifications.get(method);
       if (!specification.isEmpty()) {
         String aspectName = "Aspect_" + aspectNumber++;
-        createAspect(method, specification, aspectName);
+        createAspect(method, specification, aspectName, configuration);
         createdAspectNames.add(aspectName);
       }
     }
@@ -122,12 +145,17 @@ public class OracleGenerator {
    * @param method method for which an aspect will be created, must not be null
    * @param specification the specs the created aspect has to check, must not be null
    * @param aspectName name of the file where the newly created aspect is saved, must not be null
+   * @param configuration the configuration of the run, must not be null
    */
   private static void createAspect(
-      DocumentedExecutable method, OperationSpecification specification, String aspectName) {
+      DocumentedExecutable method,
+      OperationSpecification specification,
+      String aspectName,
+      Configuration configuration) {
     Checks.nonNullParameter(method, "method");
     Checks.nonNullParameter(specification, "specification");
     Checks.nonNullParameter(aspectName, "aspectName");
+    Checks.nonNullParameter(configuration, "configuration");
 
     final InputStream aspectTemplate =
         Object.class.getResourceAsStream("/" + configuration.getAspectTemplate());
@@ -138,7 +166,7 @@ public class OracleGenerator {
             ClassOrInterfaceDeclaration.class, c -> c.getNameAsString().equals("Aspect_Template"))
         .ifPresent(c -> c.setName(aspectName));
 
-    new MethodChangerVisitor().visit(cu, Pair.of(method, specification));
+    new MethodChangerVisitor(configuration).visit(cu, Pair.of(method, specification));
 
     final String aspectPath =
         configuration.getAspectsOutputDir() + File.separator + aspectName + ".java";
@@ -0,0 +1,281 @@
+package org.toradocu.output.binary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.toradocu.util.Checks;
+import randoop.condition.specification.Guard;
+import randoop.condition.specification.Identifiers;
+import randoop.condition.specification.Operation;
+import randoop.condition.specification.OperationSpecification;
+import randoop.condition.specification.PostSpecification;
+import randoop.condition.specification.PreSpecification;
+import randoop.condition.specification.Property;
+import randoop.condition.specification.ThrowsSpecification;
+
+/**
+ * Reads binary specification files written by {@link BinarySpecsWriter}. The file is memory-mapped
+ * when opened, and only the specifications that are looked up (and the strings they use) are
+ * decoded. Instances of this class can be used concurrently by different threads.
+ */
+public final class BinarySpecsReader implements Closeable {
+
+  /** Channel of the file, kept open until this reader is closed. */
+  private final FileChannel channel;
+
+  /** Content of the file. Only absolute get methods are used, so that it can be shared. */
+  private final ByteBuffer buffer;
+
+  /** Number of operation specifications in the file. */
+  private final int operationCount;
+
+  /** Offset of the string offsets array in the file. */
+  private final int stringOffsetsStart;
+
+  /** Offset of the string data in the file. */
+  private final int stringDataStart;
+
+  /** Offset of the index in the file. */
+  private final int indexStart;
+
+  /** Strings decoded so far, by identifier. */
+  private final String[] strings;
+
+  private BinarySpecsReader(FileChannel channel, ByteBuffer buffer) throws IOException {
+    this.channel = channel;
+    this.buffer = buffer;
+    if (buffer.capacity() < SpecsFileFormat.HEADER_SIZE
+        || buffer.getInt(0) != SpecsFileFormat.MAGIC) {
+      throw new IOException("Not a binary specification file");
+    }
+    final short version = buffer.getShort(4);
+    if (version != SpecsFileFormat.VERSION) {
+      throw new IOException(
+          "Unsupported version of the binary specification format: "
+              + version
+              + " (expected "
+              + SpecsFileFormat.VERSION
+              + ")");
+    }
+    final int stringCount = buffer.getInt(SpecsFileFormat.STRING_COUNT_OFFSET);
+    this.operationCount = buffer.getInt(SpecsFileFormat.OPERATION_COUNT_OFFSET);
+    this.stringOffsetsStart = (int) buffer.getLong(SpecsFileFormat.STRINGS_OFFSET_OFFSET);
+    this.stringDataStart = stringOffsetsStart + 4 * stringCount;
+    this.indexStart = (int) buffer.getLong(SpecsFileFormat.INDEX_OFFSET_OFFSET);
+    if (indexStart + (long) operationCount * SpecsFileFormat.INDEX_ENTRY_SIZE
+        != buffer.capacity()) {
+      throw new IOException("Corrupted binary specification file");
+    }
+    this.strings = new String[stringCount];
+  }
+
+  /**
+   * Opens the given binary specification file, memory-mapping it.
+   *
+   * @param file the binary specification file to open, must not be null
+   * @return a reader for {@code file}
+   * @throws IOException if the file cannot be read, is not a binary specification file, or has an
+   *     unsupported version
+   */
+  public static BinarySpecsReader open(Path file) throws IOException {
+    Checks.nonNullParameter(file, "file");
+    final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Binary specification file too large: " + file);
+      }
+      return new BinarySpecsReader(
+          channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of operation specifications in the file.
+   *
+   * @return the number of operation specifications in the file
+   */
+  public int size() {
+    return operationCount;
+  }
+
+  /**
+   * Returns the signatures of the operations specified in the file, in lexicographic order.
+   *
+   * @return the signatures of the operations specified in the file
+   */
+  public List<String> signatures() {
+    final List<String> signatures = new ArrayList<>(operationCount);
+    for (int i = 0; i < operationCount; i++) {
+      signatures.add(signatureAt(i));
+    }
+    return signatures;
+  }
+
+  /**
+   * Returns the specification of the given operation, decoding only its record.
+   *
+   * @param operation the operation whose specification to return, must not be null
+   * @return the specification of {@code operation}, or null if the file does not contain it
+   */
+  public OperationSpecification get(Operation operation) {
+    Checks.nonNullParameter(operation, "operation");
+    return get(SpecsFileFormat.signature(operation));
+  }
+
+  /**
+   * Returns the specification of the operation with the given signature (e.g.,
+   * "java.util.ArrayList.add(int,java.lang.Object)"), decoding only its record.
+   *
+   * @param signature the signature of the operation whose specification to return, must not be null
+   * @return the specification of the operation with signature {@code signature}, or null if the
+   *     file does not contain it
+   */
+  public OperationSpecification get(String signature) {
+    Checks.nonNullParameter(signature, "signature");
+    int low = 0;
+    int high = operationCount - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int comparison = signatureAt(middle).compareTo(signature);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return readRecord(recordOffsetAt(middle));
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns all the specifications in the file, ordered by signature.
+   *
+   * @return all the specifications in the file
+   */
+  public List<OperationSpecification> readAll() {
+    final List<OperationSpecification> specs = new ArrayList<>(operationCount);
+    for (int i = 0; i < operationCount; i++) {
+      specs.add(readRecord(recordOffsetAt(i)));
+    }
+    return specs;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private String signatureAt(int entry) {
+    return string(buffer.getInt(indexStart + entry * SpecsFileFormat.INDEX_ENTRY_SIZE));
+  }
+
+  private int recordOffsetAt(int entry) {
+    return (int) buffer.getLong(indexStart + entry * SpecsFileFormat.INDEX_ENTRY_SIZE + 4);
+  }
+
+  private OperationSpecification readRecord(int offset) {
+    final Cursor cursor = new Cursor(offset);
+    final String classname = cursor.string();
+    final String name = cursor.string();
+    final Operation operation = new Operation(classname, name, cursor.strings());
+
+    final List<String> parameterNames = cursor.strings();
+    final String receiverName = cursor.string();
+    final String returnName = cursor.string();
+    final Identifiers identifiers = new Identifiers(parameterNames, receiverName, returnName);
+
+    final int preCount = cursor.integer();
+    final List<PreSpecification> preSpecs = new ArrayList<>(preCount);
+    for (int i = 0; i < preCount; i++) {
+      final String description = cursor.string();
+      preSpecs.add(new PreSpecification(description, cursor.guard()));
+    }
+
+    final int postCount = cursor.integer();
+    final List<PostSpecification> postSpecs = new ArrayList<>(postCount);
+    for (int i = 0; i < postCount; i++) {
+      final String description = cursor.string();
+      final Guard guard = cursor.guard();
+      final String propertyDescription = cursor.string();
+      final Property property = new Property(propertyDescription, cursor.string());
+      postSpecs.add(new PostSpecification(description, guard, property));
+    }
+
+    final int throwsCount = cursor.integer();
+    final List<ThrowsSpecification> throwsSpecs = new ArrayList<>(throwsCount);
+    for (int i = 0; i < throwsCount; i++) {
+      final String description = cursor.string();
+      final Guard guard = cursor.guard();
+      throwsSpecs.add(new ThrowsSpecification(description, guard, cursor.string()));
+    }
+
+    return new OperationSpecification(operation, identifiers, throwsSpecs, postSpecs, preSpecs);
+  }
+
+  /**
+   * Returns the string with the given identifier, decoding it on first access. Concurrent first
+   * accesses may decode the same string more than once, which is harmless.
+   *
+   * @param id the identifier of the string
+   * @return the string with identifier {@code id}, null if {@code id} is {@code
+   *     SpecsFileFormat.NULL}
+   */
+  private String string(int id) {
+    if (id == SpecsFileFormat.NULL) {
+      return null;
+    }
+    String string = strings[id];
+    if (string == null) {
+      final int start = stringDataStart + buffer.getInt(stringOffsetsStart + 4 * id);
+      final ByteBuffer bytes = buffer.duplicate();
+      bytes.position(start + 4);
+      bytes.limit(start + 4 + buffer.getInt(start));
+      string = StandardCharsets.UTF_8.decode(bytes).toString();
+      strings[id] = string;
+    }
+    return string;
+  }
+
+  /** Position in a record being decoded. */
+  private final class Cursor {
+    private int position;
+
+    private Cursor(int position) {
+      this.position = position;
+    }
+
+    private int integer() {
+      final int value = buffer.getInt(position);
+      position += 4;
+      return value;
+    }
+
+    private String string() {
+      return BinarySpecsReader.this.string(integer());
+    }
+
+    private List<String> strings() {
+      final int size = integer();
+      final List<String> list = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        list.add(string());
+      }
+      return list;
+    }
+
+    private Guard guard() {
+      final String description = string();
+      return new Guard(description, string());
+    }
+  }
+}
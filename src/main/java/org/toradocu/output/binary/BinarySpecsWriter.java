@@ -0,0 +1,187 @@
+package org.toradocu.output.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.toradocu.util.Checks;
+import randoop.condition.specification.Guard;
+import randoop.condition.specification.Identifiers;
+import randoop.condition.specification.Operation;
+import randoop.condition.specification.OperationSpecification;
+import randoop.condition.specification.PostSpecification;
+import randoop.condition.specification.PreSpecification;
+import randoop.condition.specification.Property;
+import randoop.condition.specification.ThrowsSpecification;
+
+/**
+ * Writes operation specifications in the binary format described in {@link SpecsFileFormat}. Binary
+ * specification files are smaller than the equivalent JSON files, and {@link BinarySpecsReader}
+ * looks up the specification of a single operation without reading the whole file.
+ */
+public final class BinarySpecsWriter {
+
+  /** Strings in the string table, in order of identifier. */
+  private final List<String> strings = new ArrayList<>();
+
+  /** Identifier of each string in the string table. */
+  private final Map<String, Integer> stringIds = new HashMap<>();
+
+  /** Disables construction of this class from outside. */
+  private BinarySpecsWriter() {}
+
+  /**
+   * Writes the given operation specifications to {@code file} in the binary specification format.
+   * The file is created if it does not exist, and overwritten otherwise.
+   *
+   * @param specs the operation specifications to write, must not be null
+   * @param file the file where to write the specifications, must not be null
+   * @throws IOException if an error occurs while writing the file
+   */
+  public static void write(Collection<OperationSpecification> specs, Path file) throws IOException {
+    Checks.nonNullParameter(specs, "specs");
+    Checks.nonNullParameter(file, "file");
+    new BinarySpecsWriter().writeFile(specs, file);
+  }
+
+  private void writeFile(Collection<OperationSpecification> specs, Path file) throws IOException {
+    // Records are encoded first, so that the string table contains all the strings they use.
+    final ByteArrayOutputStream records = new ByteArrayOutputStream();
+    final DataOutputStream recordsOut = new DataOutputStream(records);
+    final List<IndexEntry> index = new ArrayList<>(specs.size());
+    for (OperationSpecification spec : specs) {
+      final String signature = SpecsFileFormat.signature(spec.getOperation());
+      index.add(new IndexEntry(signature, intern(signature), recordsOut.size()));
+      writeRecord(spec, recordsOut);
+    }
+    index.sort(Comparator.comparing(entry -> entry.signature));
+
+    final ByteArrayOutputStream stringData = new ByteArrayOutputStream();
+    final DataOutputStream stringDataOut = new DataOutputStream(stringData);
+    final int[] stringOffsets = new int[strings.size()];
+    for (int i = 0; i < strings.size(); i++) {
+      stringOffsets[i] = stringDataOut.size();
+      final byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+      stringDataOut.writeInt(bytes.length);
+      stringDataOut.write(bytes);
+    }
+
+    final long stringsOffset = SpecsFileFormat.HEADER_SIZE + (long) records.size();
+    final long indexOffset = stringsOffset + 4L * strings.size() + stringData.size();
+
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(SpecsFileFormat.MAGIC);
+      out.writeShort(SpecsFileFormat.VERSION);
+      out.writeShort(0);
+      out.writeInt(strings.size());
+      out.writeInt(index.size());
+      out.writeLong(stringsOffset);
+      out.writeLong(indexOffset);
+
+      records.writeTo(out);
+
+      for (int offset : stringOffsets) {
+        out.writeInt(offset);
+      }
+      stringData.writeTo(out);
+
+      for (IndexEntry entry : index) {
+        out.writeInt(entry.signatureId);
+        out.writeLong(SpecsFileFormat.HEADER_SIZE + entry.recordOffset);
+      }
+    }
+  }
+
+  private void writeRecord(OperationSpecification spec, DataOutputStream out) throws IOException {
+    final Operation operation = spec.getOperation();
+    writeString(operation.getClassname(), out);
+    writeString(operation.getName(), out);
+    writeStrings(operation.getParameterTypeNames(), out);
+
+    final Identifiers identifiers = spec.getIdentifiers();
+    writeStrings(identifiers.getParameterNames(), out);
+    writeString(identifiers.getReceiverName(), out);
+    writeString(identifiers.getReturnName(), out);
+
+    final List<PreSpecification> preSpecs = spec.getPreSpecifications();
+    out.writeInt(preSpecs.size());
+    for (PreSpecification preSpec : preSpecs) {
+      writeString(preSpec.getDescription(), out);
+      writeGuard(preSpec.getGuard(), out);
+    }
+
+    final List<PostSpecification> postSpecs = spec.getPostSpecifications();
+    out.writeInt(postSpecs.size());
+    for (PostSpecification postSpec : postSpecs) {
+      writeString(postSpec.getDescription(), out);
+      writeGuard(postSpec.getGuard(), out);
+      final Property property = postSpec.getProperty();
+      writeString(property.getDescription(), out);
+      writeString(property.getConditionText(), out);
+    }
+
+    final List<ThrowsSpecification> throwsSpecs = spec.getThrowsSpecifications();
+    out.writeInt(throwsSpecs.size());
+    for (ThrowsSpecification throwsSpec : throwsSpecs) {
+      writeString(throwsSpec.getDescription(), out);
+      writeGuard(throwsSpec.getGuard(), out);
+      writeString(throwsSpec.getExceptionTypeName(), out);
+    }
+  }
+
+  private void writeGuard(Guard guard, DataOutputStream out) throws IOException {
+    writeString(guard.getDescription(), out);
+    writeString(guard.getConditionText(), out);
+  }
+
+  private void writeStrings(List<String> list, DataOutputStream out) throws IOException {
+    out.writeInt(list.size());
+    for (String string : list) {
+      writeString(string, out);
+    }
+  }
+
+  private void writeString(String string, DataOutputStream out) throws IOException {
+    out.writeInt(string == null ? SpecsFileFormat.NULL : intern(string));
+  }
+
+  /**
+   * Returns the identifier of the given string in the string table, adding the string to the table
+   * if it is not there yet.
+   *
+   * @param string the string to add to the string table
+   * @return the identifier of {@code string} in the string table
+   */
+  private int intern(String string) {
+    Integer id = stringIds.get(string);
+    if (id == null) {
+      id = strings.size();
+      strings.add(string);
+      stringIds.put(string, id);
+    }
+    return id;
+  }
+
+  /** Entry of the index of a binary specification file. */
+  private static final class IndexEntry {
+    private final String signature;
+    private final int signatureId;
+    private final int recordOffset;
+
+    private IndexEntry(String signature, int signatureId, int recordOffset) {
+      this.signature = signature;
+      this.signatureId = signatureId;
+      this.recordOffset = recordOffset;
+    }
+  }
+}
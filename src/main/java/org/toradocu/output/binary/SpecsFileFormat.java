@@ -0,0 +1,79 @@
+package org.toradocu.output.binary;
+
+import java.util.List;
+import randoop.condition.specification.Operation;
+
+/**
+ * Layout of the binary specification files written by {@link BinarySpecsWriter} and read by {@link
+ * BinarySpecsReader}. All numbers are big-endian. A file is made of:
+ *
+ * <ol>
+ *   <li>a header of {@link #HEADER_SIZE} bytes: magic number (int), format version (short),
+ *       reserved (short), number of strings (int), number of operation specifications (int), offset
+ *       of the string table (long), and offset of the index (long);
+ *   <li>the records, one per operation specification, starting at {@link #HEADER_SIZE}. Every
+ *       string in a record is stored as an int identifier in the string table ({@link #NULL} for
+ *       null strings), and every list as its size (int) followed by its elements;
+ *   <li>the string table: an int offset for each string, followed by the strings themselves, each
+ *       one stored as its length in bytes (int) followed by its UTF-8 encoding. Offsets are
+ *       relative to the end of the offset array. Each distinct string (type name, condition, ...)
+ *       is stored only once;
+ *   <li>the index: for each operation specification, the identifier of its signature (int) and the
+ *       offset of its record (long), sorted by signature.
+ * </ol>
+ *
+ * A record contains, in order: class name and name of the operation, parameter types, parameter
+ * names, receiver name, return name, pre specifications (description, guard description, guard
+ * condition), post specifications (description, guard description, guard condition, property
+ * description, property condition), and throws specifications (description, guard description,
+ * guard condition, exception type).
+ */
+final class SpecsFileFormat {
+
+  /** Magic number identifying binary specification files ("TSPC"). */
+  static final int MAGIC = 0x54535043;
+
+  /** Version of the format. Increase it at every incompatible change of the layout. */
+  static final short VERSION = 1;
+
+  /** Size in bytes of the header. */
+  static final int HEADER_SIZE = 32;
+
+  /** Offset in the header of the number of strings. */
+  static final int STRING_COUNT_OFFSET = 8;
+
+  /** Offset in the header of the number of operation specifications. */
+  static final int OPERATION_COUNT_OFFSET = 12;
+
+  /** Offset in the header of the offset of the string table. */
+  static final int STRINGS_OFFSET_OFFSET = 16;
+
+  /** Offset in the header of the offset of the index. */
+  static final int INDEX_OFFSET_OFFSET = 24;
+
+  /** Size in bytes of an index entry. */
+  static final int INDEX_ENTRY_SIZE = 12;
+
+  /** String identifier representing null. */
+  static final int NULL = -1;
+
+  /** Disables construction of this class. */
+  private SpecsFileFormat() {}
+
+  /**
+   * Returns the signature identifying the given operation in the index, e.g.,
+   * "java.util.ArrayList.add(int,java.lang.Object)". Constructors have the name of their class.
+   *
+   * @param operation the operation whose signature to return
+   * @return the signature of {@code operation}
+   */
+  static String signature(Operation operation) {
+    final List<String> parameterTypes = operation.getParameterTypeNames();
+    return operation.getClassname()
+        + "."
+        + operation.getName()
+        + "("
+        + String.join(",", parameterTypes)
+        + ")";
+  }
+}
@@ -23,6 +23,9 @@ public class JsonOutput {
   public ReturnTagOutput returnTag;
   public List<ThrowsTagOutput> throwsTags;
 
+  /** Creates an empty output, whose fields are set by {@code JsonOutputTypeAdapterFactory}. */
+  JsonOutput() {}
+
   public JsonOutput(DocumentedExecutable member, OperationSpecification specification) {
     // TODO translate the executable member to a serializable format
     this.signature = member.getSignature();
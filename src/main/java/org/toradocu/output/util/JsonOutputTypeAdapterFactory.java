@@ -0,0 +1,387 @@
+package org.toradocu.output.util;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates streaming type adapters for {@code JsonOutput} and the classes it is made of. Adapters
+ * write fields directly to a {@code JsonWriter} and read them directly from a {@code JsonReader},
+ * without reflection or intermediate JSON trees. The format is the one Gson produces with
+ * reflection: fields appear in declaration order (fields of subclasses first), null fields are
+ * omitted, and the return type of constructors is omitted. Unknown fields are ignored when reading.
+ */
+public final class JsonOutputTypeAdapterFactory implements TypeAdapterFactory {
+
+  /** Adapter for {@code Type}. */
+  private static final TypeAdapter<Type> TYPE_ADAPTER = new TypeOutputAdapter().nullSafe();
+  /** Adapter for {@code Parameter}. */
+  private static final TypeAdapter<Parameter> PARAMETER_ADAPTER = new ParameterAdapter().nullSafe();
+  /** Adapter for {@code ParamTagOutput}. */
+  private static final TypeAdapter<ParamTagOutput> PARAM_TAG_ADAPTER =
+      new ParamTagOutputAdapter().nullSafe();
+  /** Adapter for {@code ThrowsTagOutput}. */
+  private static final TypeAdapter<ThrowsTagOutput> THROWS_TAG_ADAPTER =
+      new ThrowsTagOutputAdapter().nullSafe();
+  /** Adapter for {@code ReturnTagOutput}. */
+  private static final TypeAdapter<ReturnTagOutput> RETURN_TAG_ADAPTER =
+      new ReturnTagOutputAdapter().nullSafe();
+  /** Adapter for {@code JsonOutput}. */
+  private static final TypeAdapter<JsonOutput> JSON_OUTPUT_ADAPTER =
+      new JsonOutputAdapter().nullSafe();
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+    final Class<? super T> rawType = typeToken.getRawType();
+    if (rawType == JsonOutput.class) {
+      return (TypeAdapter<T>) JSON_OUTPUT_ADAPTER;
+    } else if (rawType == ParamTagOutput.class) {
+      return (TypeAdapter<T>) PARAM_TAG_ADAPTER;
+    } else if (rawType == ThrowsTagOutput.class) {
+      return (TypeAdapter<T>) THROWS_TAG_ADAPTER;
+    } else if (rawType == ReturnTagOutput.class) {
+      return (TypeAdapter<T>) RETURN_TAG_ADAPTER;
+    } else if (rawType == Parameter.class) {
+      return (TypeAdapter<T>) PARAMETER_ADAPTER;
+    } else if (rawType == Type.class) {
+      return (TypeAdapter<T>) TYPE_ADAPTER;
+    }
+    return null;
+  }
+
+  /** Streaming adapter for {@code JsonOutput}. */
+  private static final class JsonOutputAdapter extends TypeAdapter<JsonOutput> {
+    @Override
+    public void write(JsonWriter out, JsonOutput src) throws IOException {
+      out.beginObject();
+      writeString(out, "signature", src.signature);
+      writeString(out, "name", src.name);
+      writeValue(out, "containingClass", src.containingClass, TYPE_ADAPTER);
+      writeString(out, "targetClass", src.targetClass);
+      out.name("isVarArgs").value(src.isVarArgs);
+      // Constructors have no return type.
+      if (src.containingClass == null || !src.containingClass.qualifiedName.equals(src.name)) {
+        writeValue(out, "returnType", src.returnType, TYPE_ADAPTER);
+      }
+      writeList(out, "parameters", src.parameters, PARAMETER_ADAPTER);
+      writeList(out, "paramTags", src.paramTags, PARAM_TAG_ADAPTER);
+      writeValue(out, "returnTag", src.returnTag, RETURN_TAG_ADAPTER);
+      writeList(out, "throwsTags", src.throwsTags, THROWS_TAG_ADAPTER);
+      out.endObject();
+    }
+
+    @Override
+    public JsonOutput read(JsonReader in) throws IOException {
+      final JsonOutput result = new JsonOutput();
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "signature":
+            result.signature = readString(in);
+            break;
+          case "name":
+            result.name = readString(in);
+            break;
+          case "containingClass":
+            result.containingClass = TYPE_ADAPTER.read(in);
+            break;
+          case "targetClass":
+            result.targetClass = readString(in);
+            break;
+          case "isVarArgs":
+            result.isVarArgs = in.nextBoolean();
+            break;
+          case "returnType":
+            result.returnType = TYPE_ADAPTER.read(in);
+            break;
+          case "parameters":
+            result.parameters = readList(in, PARAMETER_ADAPTER);
+            break;
+          case "paramTags":
+            result.paramTags = readList(in, PARAM_TAG_ADAPTER);
+            break;
+          case "returnTag":
+            result.returnTag = RETURN_TAG_ADAPTER.read(in);
+            break;
+          case "throwsTags":
+            result.throwsTags = readList(in, THROWS_TAG_ADAPTER);
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return result;
+    }
+  }
+
+  /** Streaming adapter for {@code ParamTagOutput}. */
+  private static final class ParamTagOutputAdapter extends TypeAdapter<ParamTagOutput> {
+    @Override
+    public void write(JsonWriter out, ParamTagOutput src) throws IOException {
+      out.beginObject();
+      writeValue(out, "parameter", src.getParameter(), PARAMETER_ADAPTER);
+      writeTagFields(out, src);
+      out.endObject();
+    }
+
+    @Override
+    public ParamTagOutput read(JsonReader in) throws IOException {
+      Parameter parameter = null;
+      final String[] tagFields = new String[3];
+      in.beginObject();
+      while (in.hasNext()) {
+        final String name = in.nextName();
+        if (name.equals("parameter")) {
+          parameter = PARAMETER_ADAPTER.read(in);
+        } else {
+          readTagField(in, name, tagFields);
+        }
+      }
+      in.endObject();
+      return new ParamTagOutput(parameter, tagFields[0], tagFields[1], tagFields[2]);
+    }
+  }
+
+  /** Streaming adapter for {@code ThrowsTagOutput}. */
+  private static final class ThrowsTagOutputAdapter extends TypeAdapter<ThrowsTagOutput> {
+    @Override
+    public void write(JsonWriter out, ThrowsTagOutput src) throws IOException {
+      out.beginObject();
+      writeValue(out, "exceptionType", src.exceptionType, TYPE_ADAPTER);
+      if (src.codeTags != null) {
+        out.name("codeTags").beginArray();
+        for (String codeTag : src.codeTags) {
+          out.value(codeTag);
+        }
+        out.endArray();
+      }
+      writeTagFields(out, src);
+      out.endObject();
+    }
+
+    @Override
+    public ThrowsTagOutput read(JsonReader in) throws IOException {
+      Type exceptionType = null;
+      List<String> codeTags = null;
+      final String[] tagFields = new String[3];
+      in.beginObject();
+      while (in.hasNext()) {
+        final String name = in.nextName();
+        if (name.equals("exceptionType")) {
+          exceptionType = TYPE_ADAPTER.read(in);
+        } else if (name.equals("codeTags")) {
+          if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+          } else {
+            codeTags = new ArrayList<>();
+            in.beginArray();
+            while (in.hasNext()) {
+              codeTags.add(readString(in));
+            }
+            in.endArray();
+          }
+        } else {
+          readTagField(in, name, tagFields);
+        }
+      }
+      in.endObject();
+      return new ThrowsTagOutput(exceptionType, codeTags, tagFields[0], tagFields[1], tagFields[2]);
+    }
+  }
+
+  /** Streaming adapter for {@code ReturnTagOutput}. */
+  private static final class ReturnTagOutputAdapter extends TypeAdapter<ReturnTagOutput> {
+    @Override
+    public void write(JsonWriter out, ReturnTagOutput src) throws IOException {
+      out.beginObject();
+      writeTagFields(out, src);
+      out.endObject();
+    }
+
+    @Override
+    public ReturnTagOutput read(JsonReader in) throws IOException {
+      final String[] tagFields = new String[3];
+      in.beginObject();
+      while (in.hasNext()) {
+        readTagField(in, in.nextName(), tagFields);
+      }
+      in.endObject();
+      return new ReturnTagOutput(tagFields[0], tagFields[1], tagFields[2]);
+    }
+  }
+
+  /** Streaming adapter for {@code Parameter}. */
+  private static final class ParameterAdapter extends TypeAdapter<Parameter> {
+    @Override
+    public void write(JsonWriter out, Parameter src) throws IOException {
+      out.beginObject();
+      writeValue(out, "type", src.getType(), TYPE_ADAPTER);
+      writeString(out, "name", src.getName());
+      if (src.getNullability() != null) {
+        out.name("nullable").value(src.getNullability());
+      }
+      out.endObject();
+    }
+
+    @Override
+    public Parameter read(JsonReader in) throws IOException {
+      Type type = null;
+      String name = null;
+      Boolean nullable = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "type":
+            type = TYPE_ADAPTER.read(in);
+            break;
+          case "name":
+            name = readString(in);
+            break;
+          case "nullable":
+            if (in.peek() == JsonToken.NULL) {
+              in.nextNull();
+            } else {
+              nullable = in.nextBoolean();
+            }
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return new Parameter(type, name, nullable);
+    }
+  }
+
+  /** Streaming adapter for {@code Type}. */
+  private static final class TypeOutputAdapter extends TypeAdapter<Type> {
+    @Override
+    public void write(JsonWriter out, Type src) throws IOException {
+      out.beginObject();
+      writeString(out, "qualifiedName", src.qualifiedName);
+      writeString(out, "name", src.name);
+      out.name("isArray").value(src.isArray);
+      out.endObject();
+    }
+
+    @Override
+    public Type read(JsonReader in) throws IOException {
+      String qualifiedName = null;
+      String name = null;
+      boolean isArray = false;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "qualifiedName":
+            qualifiedName = readString(in);
+            break;
+          case "name":
+            name = readString(in);
+            break;
+          case "isArray":
+            isArray = in.nextBoolean();
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return new Type(qualifiedName, name, isArray);
+    }
+  }
+
+  /**
+   * Writes the fields declared in {@code TagOutput}.
+   *
+   * @param out the writer
+   * @param tag the tag whose fields are written
+   * @throws IOException if an error occurs while writing
+   */
+  private static void writeTagFields(JsonWriter out, TagOutput tag) throws IOException {
+    writeString(out, "comment", tag.comment);
+    writeString(out, "kind", tag.kind);
+    writeString(out, "condition", tag.condition);
+  }
+
+  /**
+   * Reads a field declared in {@code TagOutput} into {@code tagFields}, that holds comment, kind,
+   * and condition in this order. Skips the value of unknown fields.
+   *
+   * @param in the reader, positioned at the value of field {@code name}
+   * @param name the name of the field
+   * @param tagFields the values of the fields declared in {@code TagOutput}
+   * @throws IOException if an error occurs while reading
+   */
+  private static void readTagField(JsonReader in, String name, String[] tagFields)
+      throws IOException {
+    switch (name) {
+      case "comment":
+        tagFields[0] = readString(in);
+        break;
+      case "kind":
+        tagFields[1] = readString(in);
+        break;
+      case "condition":
+        tagFields[2] = readString(in);
+        break;
+      default:
+        in.skipValue();
+    }
+  }
+
+  private static void writeString(JsonWriter out, String name, String value) throws IOException {
+    if (value != null) {
+      out.name(name).value(value);
+    }
+  }
+
+  private static <T> void writeValue(JsonWriter out, String name, T value, TypeAdapter<T> adapter)
+      throws IOException {
+    if (value != null) {
+      out.name(name);
+      adapter.write(out, value);
+    }
+  }
+
+  private static <T> void writeList(
+      JsonWriter out, String name, List<T> values, TypeAdapter<T> adapter) throws IOException {
+    if (values != null) {
+      out.name(name).beginArray();
+      for (T value : values) {
+        adapter.write(out, value);
+      }
+      out.endArray();
+    }
+  }
+
+  private static String readString(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextString();
+  }
+
+  private static <T> List<T> readList(JsonReader in, TypeAdapter<T> adapter) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    final List<T> values = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      values.add(adapter.read(in));
+    }
+    in.endArray();
+    return values;
+  }
+}
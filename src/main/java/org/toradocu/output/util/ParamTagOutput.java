@@ -10,10 +10,23 @@ public class ParamTagOutput extends TagOutput {
   private final Parameter parameter;
 
   ParamTagOutput(Parameter parameter, Comment comment, String kind, String condition) {
-    super(comment.getText(), kind, condition);
+    this(parameter, comment.getText(), kind, condition);
+  }
+
+  ParamTagOutput(Parameter parameter, String comment, String kind, String condition) {
+    super(comment, kind, condition);
     this.parameter = parameter;
   }
 
+  /**
+   * Returns the parameter associated with the param tag.
+   *
+   * @return the parameter associated with the param tag
+   */
+  public Parameter getParameter() {
+    return parameter;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
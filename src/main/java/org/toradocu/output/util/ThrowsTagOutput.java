@@ -13,9 +13,14 @@ public class ThrowsTagOutput extends TagOutput {
   List<String> codeTags;
 
   public ThrowsTagOutput(Type exceptionType, Comment comment, String kind, String condition) {
-    super(comment.getText(), kind, condition);
+    this(exceptionType, new ArrayList<String>(), comment.getText(), kind, condition);
+  }
+
+  ThrowsTagOutput(
+      Type exceptionType, List<String> codeTags, String comment, String kind, String condition) {
+    super(comment, kind, condition);
     this.exceptionType = exceptionType;
-    this.codeTags = new ArrayList<String>();
+    this.codeTags = codeTags;
   }
 
   @Override
@@ -0,0 +1,203 @@
+package org.toradocu.translator;
+
+import static java.util.stream.Collectors.toList;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the reflection metadata of a class used by the translator: public fields
+ * and methods (both in reflection order and sorted by name), boolean-valued members, static boolean
+ * predicates indexed by parameter type, and field types. Reflection methods such as {@code
+ * Class#getMethods()} copy their result at every call; snapshots are computed once per class and
+ * shared by all the translations.
+ */
+final class ClassMetadata {
+
+  /** Snapshot of each class, computed at the first request. */
+  private static final ClassValue<ClassMetadata> SNAPSHOTS =
+      new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+          return new ClassMetadata(type);
+        }
+      };
+
+  /** Sorts members by name. Sorting is stable, so members with the same name keep their order. */
+  private static final Comparator<Member> BY_NAME = Comparator.comparing(Member::getName);
+
+  /** Public fields, in the order returned by {@code Class#getFields()}. */
+  private final List<Field> fields;
+  /** Types of the public fields, in the same order as {@link #fields}. */
+  private final List<Class<?>> fieldTypes;
+  /** Public methods, in the order returned by {@code Class#getMethods()}. */
+  private final List<Method> methods;
+  /** Parameter types of each public method. */
+  private final Map<Method, List<Class<?>>> parameterTypes;
+  /** Public boolean-valued fields, sorted by name. */
+  private final List<Field> booleanFields;
+  /** Public boolean-returning methods, sorted by name. */
+  private final List<Method> booleanMethods;
+  /**
+   * Static boolean-returning methods with at most one parameter, indexed by the type of their
+   * parameter. Each list contains, in reflection order, the methods with no parameter and the
+   * methods whose parameter has the key type.
+   */
+  private final Map<Class<?>, List<Method>> staticBooleanPredicates;
+  /** Static boolean-returning methods with no parameter, in reflection order. */
+  private final List<Method> noArgStaticBooleanPredicates;
+
+  private ClassMetadata(Class<?> type) {
+    fields = Collections.unmodifiableList(Arrays.asList(type.getFields()));
+    fieldTypes =
+        Collections.unmodifiableList(fields.stream().map(Field::getType).collect(toList()));
+    methods = Collections.unmodifiableList(Arrays.asList(type.getMethods()));
+
+    final Map<Method, List<Class<?>>> parameterTypes = new IdentityHashMap<>();
+    for (Method method : methods) {
+      parameterTypes.put(
+          method, Collections.unmodifiableList(Arrays.asList(method.getParameterTypes())));
+    }
+    this.parameterTypes = Collections.unmodifiableMap(parameterTypes);
+
+    booleanFields =
+        Collections.unmodifiableList(
+            fields
+                .stream()
+                .sorted(BY_NAME)
+                .filter(field -> isBoolean(field.getType()))
+                .collect(toList()));
+    booleanMethods =
+        Collections.unmodifiableList(
+            methods
+                .stream()
+                .sorted(BY_NAME)
+                .filter(method -> isBoolean(method.getReturnType()))
+                .collect(toList()));
+
+    final List<Method> predicates =
+        methods
+            .stream()
+            .filter(
+                method ->
+                    Modifier.isStatic(method.getModifiers())
+                        && parameterTypes.get(method).size() < 2
+                        && isBoolean(method.getReturnType()))
+            .collect(toList());
+    noArgStaticBooleanPredicates =
+        Collections.unmodifiableList(
+            predicates
+                .stream()
+                .filter(method -> parameterTypes.get(method).isEmpty())
+                .collect(toList()));
+    final Map<Class<?>, List<Method>> staticBooleanPredicates = new HashMap<>();
+    for (Method predicate : predicates) {
+      final List<Class<?>> predicateParameters = parameterTypes.get(predicate);
+      if (!predicateParameters.isEmpty()) {
+        final Class<?> parameterType = predicateParameters.get(0);
+        staticBooleanPredicates.computeIfAbsent(
+            parameterType,
+            t ->
+                Collections.unmodifiableList(
+                    predicates
+                        .stream()
+                        .filter(
+                            method ->
+                                parameterTypes.get(method).isEmpty()
+                                    || parameterTypes.get(method).get(0).equals(t))
+                        .collect(toList())));
+      }
+    }
+    this.staticBooleanPredicates = Collections.unmodifiableMap(staticBooleanPredicates);
+  }
+
+  /**
+   * Returns the metadata snapshot of the given class.
+   *
+   * @param type the class whose metadata to return
+   * @return the metadata snapshot of {@code type}
+   */
+  static ClassMetadata of(Class<?> type) {
+    return SNAPSHOTS.get(type);
+  }
+
+  /**
+   * Returns the public fields of the class, in the order returned by {@code Class#getFields()}.
+   *
+   * @return the public fields of the class
+   */
+  List<Field> fields() {
+    return fields;
+  }
+
+  /**
+   * Returns the types of the public fields of the class, in the same order as {@link #fields()}.
+   *
+   * @return the types of the public fields of the class
+   */
+  List<Class<?>> fieldTypes() {
+    return fieldTypes;
+  }
+
+  /**
+   * Returns the public methods of the class, in the order returned by {@code Class#getMethods()}.
+   *
+   * @return the public methods of the class
+   */
+  List<Method> methods() {
+    return methods;
+  }
+
+  /**
+   * Returns the parameter types of the given public method of the class.
+   *
+   * @param method a method returned by {@link #methods()}
+   * @return the parameter types of {@code method}
+   */
+  List<Class<?>> parameterTypes(Method method) {
+    final List<Class<?>> types = parameterTypes.get(method);
+    return types != null ? types : Arrays.asList(method.getParameterTypes());
+  }
+
+  /**
+   * Returns the public fields of the class with a boolean value, sorted by name.
+   *
+   * @return the public boolean-valued fields of the class
+   */
+  List<Field> booleanFields() {
+    return booleanFields;
+  }
+
+  /**
+   * Returns the public methods of the class returning a boolean, sorted by name.
+   *
+   * @return the public boolean-returning methods of the class
+   */
+  List<Method> booleanMethods() {
+    return booleanMethods;
+  }
+
+  /**
+   * Returns the public static methods of the class that return a boolean and that can be invoked
+   * with no argument or with a single argument of the given type, in reflection order.
+   *
+   * @param parameterType the type of the argument
+   * @return the static boolean predicates of the class applicable to {@code parameterType}
+   */
+  List<Method> staticBooleanPredicates(Class<?> parameterType) {
+    return staticBooleanPredicates.getOrDefault(parameterType, noArgStaticBooleanPredicates);
+  }
+
+  private static boolean isBoolean(Class<?> type) {
+    return type.equals(Boolean.class) || type.equals(boolean.class);
+  }
+}
@@ -3,19 +3,27 @@ package org.toradocu.translator;
 import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
+import org.toradocu.extractor.BlockTag;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
 import org.toradocu.extractor.ParamTag;
 import org.toradocu.extractor.ReturnTag;
 import org.toradocu.extractor.ThrowsTag;
+import org.toradocu.translator.preprocess.DescriptiveCommentFilter;
 import org.toradocu.translator.preprocess.PreprocessorFactory;
 import org.toradocu.util.Checks;
+import org.toradocu.util.Metrics;
+import randoop.condition.specification.Guard;
 import randoop.condition.specification.Identifiers;
 import randoop.condition.specification.Operation;
 import randoop.condition.specification.OperationSpecification;
@@ -23,7 +31,15 @@ import randoop.condition.specification.PostSpecification;
 import randoop.condition.specification.PreSpecification;
 import randoop.condition.specification.ThrowsSpecification;
 
-/** Translates comments into procedure specifications. */
+/**
+ * Translates comments into procedure specifications. Translations are memoized in each run: a tag
+ * equivalent to an already translated one reuses its translation (see {@code TranslationMemo}).
+ *
+ * <p>The compliance checks of the translations run asynchronously (see {@link
+ * org.toradocu.util.ComplianceChecks#checkSpec}): {@link #createSpecifications(List)} translates
+ * all the comments while their checks run on the pool of compliance workers, and then collects the
+ * verdicts.
+ */
 public class CommentTranslator {
 
   /** Logger of this class. */
@@ -37,9 +53,47 @@ public class CommentTranslator {
    * @return a precondition specification (an empty specification if the translation fails)
    */
   public static PreSpecification translate(ParamTag tag, DocumentedExecutable excMember) {
-    PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
-    //    log.info("Translating " + tag + " of " + excMember.getSignature());
-    return new ParamTranslator().translate(tag, excMember);
+    return join(translateAsync(tag, excMember));
+  }
+
+  /**
+   * Translates the given @param comment into a precondition specification, without waiting for its
+   * compliance check.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @return the future precondition specification
+   */
+  private static CompletableFuture<PreSpecification> translateAsync(
+      ParamTag tag, DocumentedExecutable excMember) {
+    final Metrics.Timer timer = Metrics.time(tag.getKind());
+    CompletableFuture<PreSpecification> translation = null;
+    try {
+      translation =
+          TranslationMemo.translate(
+              tag,
+              excMember,
+              () -> {
+                if (RunContext.current().getConfiguration().isDescriptiveTagFilterEnabled()) {
+                  if (DescriptiveCommentFilter.isDescriptive(tag.getComment())) {
+                    Metrics.increment(Metrics.Counter.DESCRIPTIVE_TAG_SKIPPED);
+                    try (Metrics.Timer preprocessing = Metrics.time(Metrics.Stage.PREPROCESSING)) {
+                      PreprocessorFactory.createForDescriptiveComments().preprocess(tag, excMember);
+                    }
+                    return CompletableFuture.completedFuture(
+                        new PreSpecification(
+                            tag.toString(), new Guard(tag.getComment().getText(), "")));
+                  }
+                  Metrics.increment(Metrics.Counter.DESCRIPTIVE_TAG_NOT_SKIPPED);
+                }
+                preprocess(tag, excMember);
+                //    log.info("Translating " + tag + " of " + excMember.getSignature());
+                return new ParamTranslator().translate(tag, excMember);
+              });
+      return translation;
+    } finally {
+      stopWhenComplete(timer, translation);
+    }
   }
 
   /**
@@ -51,9 +105,38 @@ public class CommentTranslator {
    *     translation failed)
    */
   public static List<PostSpecification> translate(ReturnTag tag, DocumentedExecutable excMember) {
-    PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
-    //    log.info("Translating " + tag + " of " + excMember.getSignature());
-    return new ReturnTranslator().translate(tag, excMember);
+    // Memoized lists are shared: return a copy that callers can modify.
+    return new ArrayList<>(join(translateAsync(tag, excMember)));
+  }
+
+  /**
+   * Translates the given @return comment into a list of postcondition specifications, without
+   * waiting for their compliance checks.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @return the future unmodifiable list of postcondition specifications
+   */
+  private static CompletableFuture<List<PostSpecification>> translateAsync(
+      ReturnTag tag, DocumentedExecutable excMember) {
+    final Metrics.Timer timer = Metrics.time(tag.getKind());
+    CompletableFuture<List<PostSpecification>> translation = null;
+    try {
+      translation =
+          TranslationMemo.translate(
+              tag,
+              excMember,
+              () -> {
+                preprocess(tag, excMember);
+                //    log.info("Translating " + tag + " of " + excMember.getSignature());
+                return new ReturnTranslator()
+                    .translate(tag, excMember)
+                    .thenApply(Collections::unmodifiableList);
+              });
+      return translation;
+    } finally {
+      stopWhenComplete(timer, translation);
+    }
   }
 
   /**
@@ -64,9 +147,85 @@ public class CommentTranslator {
    * @return a precondition specification (an empty specification if the translation fails)
    */
   public static ThrowsSpecification translate(ThrowsTag tag, DocumentedExecutable excMember) {
-    PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
-    //    log.info("Translating " + tag + " of " + excMember.getSignature());
-    return new ThrowsTranslator().translate(tag, excMember);
+    return join(translateAsync(tag, excMember));
+  }
+
+  /**
+   * Translates the given @throws/@exception comment into a precondition specification, without
+   * waiting for its compliance check.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @return the future precondition specification
+   */
+  private static CompletableFuture<ThrowsSpecification> translateAsync(
+      ThrowsTag tag, DocumentedExecutable excMember) {
+    final Metrics.Timer timer = Metrics.time(tag.getKind());
+    CompletableFuture<ThrowsSpecification> translation = null;
+    try {
+      translation =
+          TranslationMemo.translate(
+              tag,
+              excMember,
+              () -> {
+                preprocess(tag, excMember);
+                //    log.info("Translating " + tag + " of " + excMember.getSignature());
+                return new ThrowsTranslator().translate(tag, excMember);
+              });
+      return translation;
+    } finally {
+      stopWhenComplete(timer, translation);
+    }
+  }
+
+  /**
+   * Stops the given timer of the translation of a tag when the translation completes, i.e., when
+   * its compliance checks complete, so that the time spent on the pool of compliance workers is
+   * included.
+   *
+   * @param timer the timer of the translation
+   * @param translation the future translation, null if the translation failed before returning it
+   */
+  private static void stopWhenComplete(Metrics.Timer timer, CompletableFuture<?> translation) {
+    if (translation == null) {
+      timer.close();
+    } else {
+      translation.whenComplete((result, error) -> timer.close());
+    }
+  }
+
+  /**
+   * Waits for the given translation, whose compliance checks may still be running.
+   *
+   * @param translation the future translation
+   * @param <T> the type of the translation
+   * @return the translation
+   */
+  private static <T> T join(CompletableFuture<T> translation) {
+    try {
+      return translation.join();
+    } catch (CompletionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Applies to the comment of the given tag the preprocessing phases for its kind of tag.
+   *
+   * @param tag the tag whose comment has to be preprocessed
+   * @param excMember the executable member commented with {@code tag}
+   */
+  private static void preprocess(BlockTag tag, DocumentedExecutable excMember) {
+    try (Metrics.Timer timer = Metrics.time(Metrics.Stage.PREPROCESSING)) {
+      PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
+    }
   }
 
   /**
@@ -78,8 +237,56 @@ public class CommentTranslator {
    */
   public static Map<DocumentedExecutable, OperationSpecification> createSpecifications(
       List<DocumentedExecutable> members) {
+    return createSpecifications(members, RunContext.current());
+  }
+
+  /**
+   * Creates the specifications from the comments of the given executable members in the given run.
+   * The configuration, caches, and models of {@code context} are used for the translation.
+   *
+   * @param members the executable members whose comments have to be translated into specifications
+   * @param context the context of the run, must not be null
+   * @return a map that associates each executable member (key) with its operation specification
+   *     that includes pre-, post-, and exceptional specifications.
+   */
+  public static Map<DocumentedExecutable, OperationSpecification> createSpecifications(
+      List<DocumentedExecutable> members, RunContext context) {
+    Checks.nonNullParameter(context, "context");
+    try (RunContext.Scope scope = context.bind()) {
+      return translateMembers(members);
+    }
+  }
+
+  /**
+   * Creates the specifications from the comments of the given executable members in the current
+   * run.
+   *
+   * @param members the executable members whose comments have to be translated into specifications
+   * @return a map that associates each executable member with its operation specification
+   */
+  private static Map<DocumentedExecutable, OperationSpecification> translateMembers(
+      List<DocumentedExecutable> members) {
+    // Comments are all translated before collecting the verdicts of their compliance checks, so
+    // that the checks run on the compliance workers while the next comments are translated.
+    Map<DocumentedExecutable, PendingSpecifications> pendingSpecs = new LinkedHashMap<>();
+    for (DocumentedExecutable member : members) {
+      PendingSpecifications pending = new PendingSpecifications();
+      for (ParamTag paramTag : member.paramTags()) {
+        pending.preSpecifications.add(translateAsync(paramTag, member));
+      }
+      for (ThrowsTag throwsTag : member.throwsTags()) {
+        pending.throwsSpecifications.add(translateAsync(throwsTag, member));
+      }
+      ReturnTag returnTag = member.returnTag();
+      if (returnTag != null) {
+        pending.postSpecifications = translateAsync(returnTag, member);
+      }
+      pendingSpecs.put(member, pending);
+    }
+
     Map<DocumentedExecutable, OperationSpecification> specs = new LinkedHashMap<>();
     for (DocumentedExecutable member : members) {
+      PendingSpecifications pending = pendingSpecs.get(member);
       Operation operation = Operation.getOperation(member.getExecutable());
       List<String> paramNames =
           member.getParameters().stream().map(DocumentedParameter::getName).collect(toList());
@@ -88,21 +295,21 @@ public class CommentTranslator {
       OperationSpecification spec = new OperationSpecification(operation, identifiers);
 
       List<PreSpecification> preSpecifications = new ArrayList<>();
-      for (ParamTag paramTag : member.paramTags()) {
-        preSpecifications.add(CommentTranslator.translate(paramTag, member));
+      for (CompletableFuture<PreSpecification> preSpecification : pending.preSpecifications) {
+        preSpecifications.add(join(preSpecification));
       }
       spec.addParamSpecifications(preSpecifications);
 
       List<ThrowsSpecification> throwsSpecifications = new ArrayList<>();
-      for (ThrowsTag throwsTag : member.throwsTags()) {
-        throwsSpecifications.add(CommentTranslator.translate(throwsTag, member));
+      for (CompletableFuture<ThrowsSpecification> throwsSpecification :
+          pending.throwsSpecifications) {
+        throwsSpecifications.add(join(throwsSpecification));
       }
       spec.addThrowsSpecifications(throwsSpecifications);
 
       List<PostSpecification> postSpecifications = new ArrayList<>();
-      ReturnTag returnTag = member.returnTag();
-      if (returnTag != null) {
-        postSpecifications.addAll(CommentTranslator.translate(returnTag, member));
+      if (pending.postSpecifications != null) {
+        postSpecifications.addAll(join(pending.postSpecifications));
       }
       spec.addReturnSpecifications(postSpecifications);
 
@@ -129,4 +336,13 @@ public class CommentTranslator {
     }
     return condition;
   }
+
+  /** Translations of the comments of a member, whose compliance checks may still be running. */
+  private static final class PendingSpecifications {
+    private final List<CompletableFuture<PreSpecification>> preSpecifications = new ArrayList<>();
+    private final List<CompletableFuture<ThrowsSpecification>> throwsSpecifications =
+        new ArrayList<>();
+    /** Translation of the @return comment, null if the member has no @return comment. */
+    private CompletableFuture<List<PostSpecification>> postSpecifications;
+  }
 }
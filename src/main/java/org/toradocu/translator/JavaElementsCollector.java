@@ -4,7 +4,6 @@ import static java.util.stream.Collectors.toList;
 
 import edu.stanford.nlp.semgraph.SemanticGraph;
 import java.lang.reflect.Executable;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
@@ -51,15 +50,15 @@ public class JavaElementsCollector {
   // Executable member is ignored and not included in the returned list of methods.
   private static List<CodeElement<?>> methodsOf(
       Class<?> containingClass, DocumentedExecutable documentedExecutable) {
-    final List<Method> methods = new ArrayList<>();
-    Collections.addAll(methods, containingClass.getMethods());
+    final ClassMetadata metadata = ClassMetadata.of(containingClass);
+    final List<Method> methods = new ArrayList<>(metadata.methods());
     final Executable executable = documentedExecutable.getExecutable();
     if (executable instanceof Method) {
       Method method = (Method) executable;
       methods.remove(method);
     }
     List<Class<?>> inScopeTypes = collectInScopeTypes(documentedExecutable);
-    methods.removeIf(method -> !invokableWithParameters(method, inScopeTypes));
+    methods.removeIf(method -> !inScopeTypes.containsAll(metadata.parameterTypes(method)));
 
     List<CodeElement<?>> codeElements = new ArrayList<>();
     for (Method method : methods) {
@@ -83,15 +82,15 @@ public class JavaElementsCollector {
     availableTypes.add(containingClass);
 
     // Add target class' fields.
-    for (Field field : containingClass.getFields()) {
-      availableTypes.add(field.getType());
-    }
+    availableTypes.addAll(ClassMetadata.of(containingClass).fieldTypes());
 
     return availableTypes;
   }
 
   private static List<FieldCodeElement> fieldsOf(Class<?> aClass) {
-    return Arrays.stream(aClass.getFields())
+    return ClassMetadata.of(aClass)
+        .fields()
+        .stream()
         .map(field -> new FieldCodeElement(Configuration.RECEIVER, field))
         .collect(toList());
   }
@@ -180,10 +179,4 @@ public class JavaElementsCollector {
     }
     return ids;
   }
-
-  private static boolean invokableWithParameters(Method method, List<Class<?>> inScopeTypes) {
-    final List<? extends Class<?>> methodParamTypes =
-        Arrays.stream(method.getParameters()).map(Parameter::getType).collect(toList());
-    return inScopeTypes.containsAll(methodParamTypes);
-  }
 }
@@ -1,17 +1,18 @@
 package org.toradocu.translator;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Member;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
 import java.util.*;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.translator.semantic.SemanticMatcher;
+import org.toradocu.translator.semantic.WordVectorsException;
+import org.toradocu.util.Metrics;
 
 /**
  * The {@code Matcher} class translates subjects and predicates in Javadoc comments to Java
@@ -26,7 +27,7 @@ class Matcher {
   private final int editDistanceThreshold;
 
   public Matcher() {
-    this.editDistanceThreshold = Configuration.INSTANCE.getDistanceThreshold();
+    this.editDistanceThreshold = RunContext.current().getConfiguration().getDistanceThreshold();
   }
 
   public Matcher(int editDistanceThreshold) {
@@ -43,22 +44,25 @@ class Matcher {
    * @return a set of {@code CodeElement}s that have a similar name to the subject
    */
   Set<CodeElement<?>> subjectMatch(String subject, DocumentedExecutable method) {
-    // Extract every CodeElement associated with the method and the containing class of the method.
-    Set<CodeElement<?>> codeElements = JavaElementsCollector.collect(method);
-
-    // Clean the subject string by removing words and characters not related to its identity so that
-    // they do not influence string matching.
-    List<String> wordsToRemove = Arrays.asList("either", "both", "any");
-    for (String word : wordsToRemove) {
-      String wordToReplace = word + " ";
-      if (subject.startsWith(wordToReplace)) {
-        subject = subject.replaceFirst(wordToReplace, "");
+    try (Metrics.Timer timer = Metrics.time(Metrics.Stage.SUBJECT_MATCHING)) {
+      // Extract every CodeElement associated with the method and the containing class of the
+      // method.
+      Set<CodeElement<?>> codeElements = JavaElementsCollector.collect(method);
+
+      // Clean the subject string by removing words and characters not related to its identity so
+      // that they do not influence string matching.
+      List<String> wordsToRemove = Arrays.asList("either", "both", "any");
+      for (String word : wordsToRemove) {
+        String wordToReplace = word + " ";
+        if (subject.startsWith(wordToReplace)) {
+          subject = subject.replaceFirst(wordToReplace, "");
+        }
       }
-    }
-    subject = subject.trim();
+      subject = subject.trim();
 
-    // Filter and return the CodeElements whose name is similar to subject.
-    return filterMatchingCodeElements(subject, codeElements);
+      // Filter and return the CodeElements whose name is similar to subject.
+      return filterMatchingCodeElements(subject, codeElements);
+    }
   }
 
   /**
@@ -121,6 +125,17 @@ class Matcher {
       CodeElement<?> subject,
       Proposition proposition,
       String comment) {
+    try (Metrics.Timer timer = Metrics.time(Metrics.Stage.PREDICATE_MATCHING)) {
+      return predicateMatch_(method, subject, proposition, comment);
+    }
+  }
+
+  /** See {@link #predicateMatch(DocumentedExecutable, CodeElement, Proposition, String)}. */
+  private String predicateMatch_(
+      DocumentedExecutable method,
+      CodeElement<?> subject,
+      Proposition proposition,
+      String comment) {
 
     String predicate = proposition.getPredicate();
     // Special case to handle predicates about arrays' length. We need a more general solution.
@@ -295,6 +310,9 @@ class Matcher {
           }
           match = findBestMethodMatch(method, predicate, semanticMethodList);
         }
+      } catch (WordVectorsException e) {
+        // Without word vectors no comment can be matched semantically: the run fails.
+        throw e;
       } catch (Exception e) {
         e.printStackTrace();
       }
@@ -459,20 +477,11 @@ class Matcher {
     Set<CodeElement<?>> collectedElements = new LinkedHashSet<>();
 
     // Add methods in containing class as code elements.
-    methodCollection:
-    for (Method classMethod : targetClass.getMethods()) {
-      if (Modifier.isStatic(classMethod.getModifiers())
-          && classMethod.getParameters().length < 2
-          && (classMethod.getReturnType().equals(Boolean.class)
-              || classMethod.getReturnType().equals(boolean.class))) {
-        for (java.lang.reflect.Parameter par : classMethod.getParameters()) {
-          if (!parameter.getJavaCodeElement().getType().equals(par.getType())) {
-            continue methodCollection;
-          }
-        }
-        collectedElements.add(
-            new StaticMethodCodeElement(classMethod, parameter.getJavaExpression()));
-      }
+    final Class<?> parameterType = parameter.getJavaCodeElement().getType();
+    final ClassMetadata metadata = ClassMetadata.of(targetClass);
+    for (Method classMethod : metadata.staticBooleanPredicates(parameterType)) {
+      collectedElements.add(
+          new StaticMethodCodeElement(classMethod, parameter.getJavaExpression()));
     }
 
     return collectedElements;
@@ -500,22 +509,13 @@ class Matcher {
       return result;
     }
 
-    // Important: Sort members to make result deterministic!
-    Comparator<Member> byName = Comparator.comparing(Member::getName);
-
-    for (Field field :
-        Arrays.stream(type.getFields()).sorted(byName).collect(Collectors.toList())) {
-      if (field.getType().equals(Boolean.class) || field.getType().equals(boolean.class)) {
-        result.add(new FieldCodeElement(receiver.getJavaExpression(), field));
-      }
+    // Important: Members are sorted by name to make result deterministic!
+    final ClassMetadata metadata = ClassMetadata.of(type);
+    for (Field field : metadata.booleanFields()) {
+      result.add(new FieldCodeElement(receiver.getJavaExpression(), field));
     }
-
-    for (Method method :
-        Arrays.stream(type.getMethods()).sorted(byName).collect(Collectors.toList())) {
-      if (method.getReturnType().equals(Boolean.class)
-          || method.getReturnType().equals(boolean.class)) {
-        result.add(new MethodCodeElement(receiver.getJavaExpression(), method));
-      }
+    for (Method method : metadata.booleanMethods()) {
+      result.add(new MethodCodeElement(receiver.getJavaExpression(), method));
     }
 
     return result;
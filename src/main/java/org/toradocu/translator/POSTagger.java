@@ -3,10 +3,9 @@ package org.toradocu.translator;
 import edu.stanford.nlp.ling.HasWord;
 import edu.stanford.nlp.ling.TaggedWord;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.CodeWords;
 import org.toradocu.extractor.Comment;
 
 public class POSTagger {
@@ -32,28 +31,26 @@ public class POSTagger {
       List<HasWord> sentence,
       List<String> parameters) {
     int inequalityIndex = 0;
-    Map<String, List<Integer>> codeWordsInComment = comment.getWordsMarkedAsCode();
-    Map<String, Integer> codeWordsSeen = new HashMap<>();
-    for (String key : codeWordsInComment.keySet()) {
-      codeWordsSeen.put(key, 0);
-    }
+    final CodeWords codeWords = comment.getCodeWords();
+    // Occurrences of each code word already seen in the sentence, by index of the code word.
+    final int[] codeWordsSeen = new int[codeWords.size()];
 
     List<TaggedWord> taggedSentence = new ArrayList<>(sentence.size());
     for (HasWord word : sentence) {
       String wordString = word.toString();
       TaggedWord taggedWord = new TaggedWord(wordString);
+      final int codeWord = codeWords.indexOf(wordString);
       if (wordString.contains("INEQUALITY") && taggedWord.tag() == null) {
         String[] inequalityToken = inequalities.get(inequalityIndex).split(" ");
         for (String inequalityWord : inequalityToken) {
-          if (codeWordsInComment.get(inequalityWord) != null) {
+          final int inequalityCodeWord = codeWords.indexOf(inequalityWord);
+          if (inequalityCodeWord != -1) {
             // Behind this placeholder there is a codeword: update counter
             // of occurrences already seen
-            inequalityWord = inequalityWord;
-            int codeWorCount = codeWordsSeen.get(inequalityWord);
-            List<Integer> occurrenceInComment = codeWordsInComment.get(inequalityWord);
-            for (int occurrence : occurrenceInComment) {
-              if (codeWordsSeen.get(inequalityWord) == occurrence) {
-                codeWordsSeen.put(inequalityWord, ++codeWorCount);
+            for (int i = 0; i < codeWords.occurrenceCount(inequalityCodeWord); i++) {
+              if (codeWordsSeen[inequalityCodeWord]
+                  == codeWords.occurrence(inequalityCodeWord, i)) {
+                codeWordsSeen[inequalityCodeWord]++;
                 break;
               }
             }
@@ -69,18 +66,16 @@ public class POSTagger {
           || wordString.equals("nonnull")
           || wordString.equals("non-null") && taggedWord.tag() == null) {
         taggedSentence.add(new TaggedWord(wordString, "JJ"));
-      } else if (codeWordsInComment.get(wordString) != null) {
-        // this wordString is present in the map of word tagged as code.
+      } else if (codeWord != -1) {
+        // this wordString is present in the words tagged as code.
         // Is it the right one? Check its occurrence.
-        List<Integer> occurrenceInComment = codeWordsInComment.get(wordString);
-        int codeWorCount = codeWordsSeen.get(wordString);
-        for (int occurrence : occurrenceInComment) {
-          if (codeWordsSeen.get(wordString) == occurrence) {
+        for (int i = 0; i < codeWords.occurrenceCount(codeWord); i++) {
+          if (codeWordsSeen[codeWord] == codeWords.occurrence(codeWord, i)) {
             // This occurrence of the word is a codeword: tag it as NN
             taggedSentence.add(new TaggedWord(wordString, "NN"));
           } else {
             // This is not the right occurrence: update counter but add no tag
-            codeWordsSeen.put(wordString, ++codeWorCount);
+            codeWordsSeen[codeWord]++;
             taggedSentence.add(taggedWord);
           }
         }
@@ -1,7 +1,8 @@
 package org.toradocu.translator;
 
-import static org.toradocu.util.ComplianceChecks.isSpecCompilable;
+import static org.toradocu.util.ComplianceChecks.checkSpec;
 
+import java.util.concurrent.CompletableFuture;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.ParamTag;
 import randoop.condition.specification.Guard;
@@ -9,19 +10,33 @@ import randoop.condition.specification.PreSpecification;
 
 public class ParamTranslator {
 
-  public PreSpecification translate(ParamTag tag, DocumentedExecutable excMember) {
+  /**
+   * Translates the given @param comment. The compliance check of the translation runs
+   * asynchronously: the specification is available once the check completes.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @return the future precondition specification (an empty specification if the translation fails
+   *     or does not compile)
+   */
+  public CompletableFuture<PreSpecification> translate(
+      ParamTag tag, DocumentedExecutable excMember) {
     final String commentTranslation =
         isDescriptiveComment(tag.getComment().getText())
             ? ""
             : BasicTranslator.translate(tag, excMember);
 
     final Guard guard = new Guard(tag.getComment().getText(), commentTranslation);
+    final PreSpecification emptySpec =
+        new PreSpecification(tag.toString(), new Guard(tag.getComment().getText(), ""));
 
-    if (commentTranslation.isEmpty() || !isSpecCompilable(excMember, guard)) {
-      return new PreSpecification(tag.toString(), new Guard(tag.getComment().getText(), ""));
+    if (commentTranslation.isEmpty()) {
+      return CompletableFuture.completedFuture(emptySpec);
     }
 
-    return new PreSpecification(tag.toString(), guard);
+    return checkSpec(excMember, guard)
+        .thenApply(
+            compilable -> compilable ? new PreSpecification(tag.toString(), guard) : emptySpec);
   }
 
   private boolean isDescriptiveComment(String text) {
@@ -6,20 +6,29 @@ import edu.stanford.nlp.ling.HasWord;
 import edu.stanford.nlp.ling.TaggedWord;
 import edu.stanford.nlp.semgraph.SemanticGraph;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
+import org.toradocu.conf.RunContext;
+import org.toradocu.extractor.CodeWords;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.util.Metrics;
 
 /**
  * Created by arianna on 18/05/17.
  *
  * <p>The Parser must extract the {@code PropositionSerie}s from a {@code BlockTag} comment. Thus,
- * it interacts with the Stanford Parser in order to produce the {@code SemanticGraph}. It holds a
- * {@code SemanticGraph}s cache which maps each comment to its {@code SemanticGraph}.
+ * it interacts with the Stanford Parser in order to produce the {@code SemanticGraph}. It holds, in
+ * the context of each run, a {@code SemanticGraph}s cache which maps each comment to its {@code
+ * SemanticGraph}. The cache is keyed by what the parse actually depends on (the comment text, the
+ * words marked as code that occur in it, and the names of the method parameters): components that
+ * parse the same input share its graphs, and a comment is parsed again only when its text or its
+ * words marked as code change.
  */
 public class Parser {
 
@@ -43,47 +52,63 @@ public class Parser {
       " instanceof +[^ \\.]*"; // e.g. "instanceof BinaryMutation"
   private static final String INEQ_THIS = "(?<!of) this\\."; // e.g "<object> is this."
 
-  /** Stores the inequalities that are replaced by placeholders when addPlaceholders is called. */
-  private static List<String> inequalities = new ArrayList<>();
-
-  /** Stores the cache of semantic graphs for each pair method-comment. */
-  private static Map<MethodComment, List<SemanticGraph>> graphsCache = new HashMap<>();
+  /** Identifies the cache of the parse artifacts of the comments of a run. */
+  private static final RunContext.Key<Map<ParseKey, ParseArtifacts>> GRAPHS_CACHE =
+      new RunContext.Key<>(ConcurrentHashMap::new);
 
   private Parser() {}
 
   /**
-   * Store in cache the semantic graphs for a pair comment, method.
+   * Empties the cache of semantic graphs of the current run, so that the next parse of any comment
+   * starts cold.
+   */
+  public static void clearCache() {
+    RunContext.current().remove(GRAPHS_CACHE);
+  }
+
+  /**
+   * Store in cache the semantic graphs for a pair comment, method, together with the inequalities
+   * replaced by placeholders in the parsed text.
    *
    * @param comment the comment object
    * @param method the DocumentedExecutable
+   * @return the parse artifacts of the comment
    */
-  private static List<SemanticGraph> parse_(Comment comment, DocumentedExecutable method) {
+  private static ParseArtifacts parse_(Comment comment, DocumentedExecutable method) {
     // Check if cache contains a valid answer.
-    MethodComment key = new MethodComment(comment, method);
-    if (graphsCache.containsKey(key)) {
-      return graphsCache.get(key);
-    }
-
-    List<SemanticGraph> graphs = new ArrayList<>();
-    Comment commentWithPlaceholders = addPlaceholders(comment);
+    final Map<ParseKey, ParseArtifacts> graphsCache = RunContext.current().get(GRAPHS_CACHE);
     List<String> arguments = new ArrayList<>();
     if (method != null) {
       // Collect method arguments
       arguments =
           method.getParameters().stream().map(DocumentedParameter::getName).collect(toList());
     }
-    // Extract sentences in comment with placeholders
-    final List<List<HasWord>> sentences =
-        StanfordParser.tokenize(commentWithPlaceholders.getText());
-    for (List<HasWord> sentence : sentences) {
-      final List<TaggedWord> taggedWords =
-          POSTagger.tagWords(
-              comment, commentWithPlaceholders.getText(), inequalities, sentence, arguments);
-      final SemanticGraph semanticGraph = StanfordParser.parse(taggedWords);
-      graphs.add(semanticGraph);
+    ParseKey key = new ParseKey(comment, arguments);
+    ParseArtifacts cachedArtifacts = graphsCache.get(key);
+    if (cachedArtifacts != null) {
+      Metrics.increment(Metrics.Counter.PARSER_CACHE_HIT);
+      return cachedArtifacts;
     }
-    graphsCache.put(new MethodComment(comment, method), graphs);
-    return graphs;
+    Metrics.increment(Metrics.Counter.PARSER_CACHE_MISS);
+
+    List<SemanticGraph> graphs = new ArrayList<>();
+    List<String> inequalities = new ArrayList<>();
+    Comment commentWithPlaceholders = addPlaceholders(comment, inequalities);
+    try (Metrics.Timer timer = Metrics.time(Metrics.Stage.STANFORD_PARSING)) {
+      // Extract sentences in comment with placeholders
+      final List<List<HasWord>> sentences =
+          StanfordParser.tokenize(commentWithPlaceholders.getText());
+      for (List<HasWord> sentence : sentences) {
+        final List<TaggedWord> taggedWords =
+            POSTagger.tagWords(
+                comment, commentWithPlaceholders.getText(), inequalities, sentence, arguments);
+        final SemanticGraph semanticGraph = StanfordParser.parse(taggedWords);
+        graphs.add(semanticGraph);
+      }
+    }
+    ParseArtifacts artifacts = new ParseArtifacts(graphs, inequalities);
+    graphsCache.put(key, artifacts);
+    return artifacts;
   }
 
   /**
@@ -97,11 +122,13 @@ public class Parser {
   // TODO Move this to a new class PropositionIdentifier that handles Proposition.
   public static List<PropositionSeries> parse(Comment comment, DocumentedExecutable method) {
     List<PropositionSeries> result = new ArrayList<>();
-    List<SemanticGraph> semanticGraphs = parse_(comment, method);
-    for (SemanticGraph semanticGraph : semanticGraphs) {
-      result.add(new SentenceParser(semanticGraph).getPropositionSeries());
+    ParseArtifacts artifacts = parse_(comment, method);
+    try (Metrics.Timer timer = Metrics.time(Metrics.Stage.SENTENCE_PARSING)) {
+      for (SemanticGraph semanticGraph : artifacts.graphs) {
+        result.add(new SentenceParser(semanticGraph).getPropositionSeries());
+      }
     }
-    return removePlaceholders(result);
+    return removePlaceholders(result, artifacts.inequalities);
   }
 
   /**
@@ -131,7 +158,7 @@ public class Parser {
     return placeholderText;
   }
 
-  private static Comment addPlaceholders(Comment comment) {
+  private static Comment addPlaceholders(Comment comment, List<String> inequalities) {
 
     ArrayList<String> contentToIgnore = new ArrayList<>();
 
@@ -230,7 +257,7 @@ public class Parser {
       placeholderText = placeholderText.replaceFirst("IGNORE_ME", ignoredString);
     }
 
-    return new Comment(placeholderText, comment.getWordsMarkedAsCode());
+    return new Comment(placeholderText, comment.getCodeWords());
   }
 
   /**
@@ -239,9 +266,11 @@ public class Parser {
    * are replaced by their symbolic equivalent (e.g. "<").
    *
    * @param seriesList the list of {@code PropositionSeries} containing placeholder text
+   * @param inequalities the inequalities replaced by placeholders
    * @return a new list of {@code PropositionSeries} with placeholders replaced by inequalities
    */
-  private static List<PropositionSeries> removePlaceholders(List<PropositionSeries> seriesList) {
+  private static List<PropositionSeries> removePlaceholders(
+      List<PropositionSeries> seriesList, List<String> inequalities) {
     List<PropositionSeries> result = new ArrayList<>();
 
     for (PropositionSeries series : seriesList) {
@@ -266,27 +295,40 @@ public class Parser {
       result.add(newSeries);
     }
 
-    inequalities.clear();
     return result;
   }
 }
 
-/** This class ties a String comment to its DocumentedMethod. */
-class MethodComment {
-  private Comment comment;
-  private DocumentedExecutable method;
-
-  public MethodComment(Comment comment, DocumentedExecutable method) {
-    this.comment = comment;
-    this.method = method;
-  }
+/**
+ * The results of the parse of a comment: the semantic graph of each sentence, and the inequalities
+ * that were replaced by placeholders before parsing, which must be restored in the propositions
+ * extracted from the graphs.
+ */
+class ParseArtifacts {
+  final List<SemanticGraph> graphs;
+  final List<String> inequalities;
 
-  public Comment getComment() {
-    return comment;
+  ParseArtifacts(List<SemanticGraph> graphs, List<String> inequalities) {
+    this.graphs = Collections.unmodifiableList(graphs);
+    this.inequalities = Collections.unmodifiableList(inequalities);
   }
+}
 
-  public DocumentedExecutable getMethod() {
-    return method;
+/**
+ * The inputs a parse of a comment depends on: the comment text, the words marked as code that occur
+ * in the text, and the names of the parameters of the method the comment belongs to. Words marked
+ * as code that do not occur in the text are ignored, since they cannot affect the tagging of the
+ * comment.
+ */
+class ParseKey {
+  private final String text;
+  private final CodeWords codeWords;
+  private final List<String> arguments;
+
+  ParseKey(Comment comment, List<String> arguments) {
+    this.text = comment.getText();
+    this.codeWords = comment.getCodeWords().filter(text::contains);
+    this.arguments = arguments;
   }
 
   @Override
@@ -294,16 +336,15 @@ class MethodComment {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
 
-    MethodComment that = (MethodComment) o;
+    ParseKey that = (ParseKey) o;
 
-    if (comment != null ? !comment.equals(that.comment) : that.comment != null) return false;
-    return method != null ? method.equals(that.method) : that.method == null;
+    return text.equals(that.text)
+        && codeWords.equals(that.codeWords)
+        && arguments.equals(that.arguments);
   }
 
   @Override
   public int hashCode() {
-    int result = comment != null ? comment.hashCode() : 0;
-    result = 31 * result + (method != null ? method.hashCode() : 0);
-    return result;
+    return Objects.hash(text, codeWords, arguments);
   }
 }
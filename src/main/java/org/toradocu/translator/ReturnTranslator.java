@@ -1,7 +1,7 @@
 package org.toradocu.translator;
 
 import static java.util.stream.Collectors.toList;
-import static org.toradocu.util.ComplianceChecks.isPostSpecCompilable;
+import static org.toradocu.util.ComplianceChecks.checkPostSpec;
 
 import edu.stanford.nlp.ling.IndexedWord;
 import edu.stanford.nlp.semgraph.SemanticGraph;
@@ -15,6 +15,7 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.Comment;
@@ -27,11 +28,20 @@ import randoop.condition.specification.Property;
 
 public class ReturnTranslator {
 
-  public List<PostSpecification> translate(ReturnTag tag, DocumentedExecutable excMember) {
+  /**
+   * Translates the given @return comment. The compliance checks of the translations run
+   * asynchronously: the specifications are available once all the checks complete.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @return the future list of postcondition specifications that passed the compliance checks
+   */
+  public CompletableFuture<List<PostSpecification>> translate(
+      ReturnTag tag, DocumentedExecutable excMember) {
     String commentText = tag.getComment().getText();
     // Manage translation of each sub-sentence linked by the Or conjunction separately
     String[] subSentences = manageOrConjunction(commentText);
-    List<List<PostSpecification>> conditions = new ArrayList<>();
+    List<List<CompletableFuture<PostSpecification>>> conditions = new ArrayList<>();
 
     for (String subSentence : subSentences) {
       // Split the sentence in three parts: predicate + true case + false case.
@@ -45,7 +55,50 @@ public class ReturnTranslator {
       }
     }
 
-    return mergeOrConjunction(commentText, subSentences, conditions);
+    return compliantSpecs(conditions)
+        .thenApply(compliant -> mergeOrConjunction(commentText, subSentences, compliant));
+  }
+
+  /**
+   * Submits the compliance check of the given specification.
+   *
+   * @param method the DocumentedExecutable the specification belongs to
+   * @param spec the specification to check
+   * @return the future {@code spec} if it is compilable, the future null otherwise
+   */
+  private static CompletableFuture<PostSpecification> ifCompilable(
+      DocumentedExecutable method, PostSpecification spec) {
+    return checkPostSpec(method, spec.getGuard(), spec.getProperty())
+        .thenApply(compilable -> compilable ? spec : null);
+  }
+
+  /**
+   * Waits for the compliance checks of the candidate specifications of each sub-sentence, and keeps
+   * the compilable ones.
+   *
+   * @param candidates the candidate specifications of each sub-sentence
+   * @return the future compilable specifications of each sub-sentence
+   */
+  private static CompletableFuture<List<List<PostSpecification>>> compliantSpecs(
+      List<List<CompletableFuture<PostSpecification>>> candidates) {
+    final CompletableFuture<?>[] checks =
+        candidates.stream().flatMap(List::stream).toArray(CompletableFuture<?>[]::new);
+    return CompletableFuture.allOf(checks)
+        .thenApply(
+            done -> {
+              List<List<PostSpecification>> conditions = new ArrayList<>();
+              for (List<CompletableFuture<PostSpecification>> subSentenceSpecs : candidates) {
+                List<PostSpecification> specs = new ArrayList<>();
+                for (CompletableFuture<PostSpecification> candidate : subSentenceSpecs) {
+                  final PostSpecification spec = candidate.join();
+                  if (spec != null) {
+                    specs.add(spec);
+                  }
+                }
+                conditions.add(specs);
+              }
+              return conditions;
+            });
   }
 
   /**
@@ -247,7 +300,7 @@ public class ReturnTranslator {
 
     // text = removeInitial(text, "if");  already done in Preprocess part
     List<PropositionSeries> extractedPropositions =
-        Parser.parse(new Comment(trueCase, comment.getWordsMarkedAsCode()), method);
+        Parser.parse(new Comment(trueCase, comment.getCodeWords()), method);
     Set<String> conditions = new LinkedHashSet<>();
     for (PropositionSeries propositions : extractedPropositions) {
       BasicTranslator.translate(propositions, method, comment.getText());
@@ -315,14 +368,14 @@ public class ReturnTranslator {
    * @param textToTranslate the String text to translate
    * @param comment original {@code Comment}
    * @param predicateSplitPoint index of the "if"
-   * @return the translation produced
+   * @return the candidate specifications produced, whose compliance checks may still be running
    */
-  private static List<PostSpecification> returnStandardPattern(
+  private static List<CompletableFuture<PostSpecification>> returnStandardPattern(
       DocumentedExecutable method,
       String textToTranslate,
       Comment comment,
       int predicateSplitPoint) {
-    List<PostSpecification> specs = new ArrayList<>();
+    List<CompletableFuture<PostSpecification>> specs = new ArrayList<>();
 
     if (textToTranslate.contains(";")) {
       textToTranslate = textToTranslate.replace(";", ",");
@@ -351,17 +404,17 @@ public class ReturnTranslator {
         if (!conditionTranslation.isEmpty() && !predicateTranslation.isEmpty()) {
           Guard trueGuard = new Guard(textToTranslate, conditionTranslation);
           Property trueProperty = new Property(textToTranslate, predicateTranslation);
-          if (isPostSpecCompilable(method, trueGuard, trueProperty)) {
-            specs.add(new PostSpecification(textToTranslate, trueGuard, trueProperty));
-          }
+          specs.add(
+              ifCompilable(
+                  method, new PostSpecification(textToTranslate, trueGuard, trueProperty)));
           String elsePredicate = translateLastPart(falseCase, method);
           if (elsePredicate != null) {
             String invertedGuard = "(" + conditionTranslation + ")==false";
             Guard falseGuard = new Guard(textToTranslate, invertedGuard);
             Property falseProperty = new Property(textToTranslate, elsePredicate);
-            if (isPostSpecCompilable(method, falseGuard, falseProperty)) {
-              specs.add(new PostSpecification(textToTranslate, falseGuard, falseProperty));
-            }
+            specs.add(
+                ifCompilable(
+                    method, new PostSpecification(textToTranslate, falseGuard, falseProperty)));
           }
         }
       }
@@ -380,11 +433,11 @@ public class ReturnTranslator {
    *
    * @param method the DocumentedExecutable the tag belongs to
    * @param comment the String comment belonging to the tag
-   * @return a String translation if any, or an empty string
+   * @return the candidate specifications produced, whose compliance checks may still be running
    */
-  private static List<PostSpecification> returnNotStandard(
+  private static List<CompletableFuture<PostSpecification>> returnNotStandard(
       DocumentedExecutable method, String comment) {
-    List<PostSpecification> specs = new ArrayList<>();
+    List<CompletableFuture<PostSpecification>> specs = new ArrayList<>();
 
     String translation = null;
     final String[] truePatterns = {"true", "true always", "true, always", "always true"};
@@ -458,8 +511,8 @@ public class ReturnTranslator {
         }
       }
     }
-    if (property != null && isPostSpecCompilable(method, guard, property)) {
-      specs.add(new PostSpecification(comment, guard, property));
+    if (property != null) {
+      specs.add(ifCompilable(method, new PostSpecification(comment, guard, property)));
     }
     return specs;
   }
@@ -584,37 +637,20 @@ public class ReturnTranslator {
       return true;
     }
 
-    if (methodReturn instanceof ParameterizedType) {
-      final Class<?> methodReturnRawType =
-          (Class<?>) ((ParameterizedType) methodReturn).getRawType();
-
-      if (codeElement instanceof FieldCodeElement) {
-        return ((FieldCodeElement) codeElement)
-            .getJavaCodeElement()
-            .getType()
-            .isAssignableFrom(methodReturnRawType);
-      }
-      if (codeElement instanceof ParameterCodeElement) {
-        return ((ParameterCodeElement) codeElement)
-            .getJavaCodeElement()
-            .getType()
-            .isAssignableFrom(methodReturnRawType);
-      }
+    final Class<?> codeElementType;
+    if (codeElement instanceof FieldCodeElement) {
+      codeElementType = ((FieldCodeElement) codeElement).getJavaCodeElement().getType();
+    } else if (codeElement instanceof ParameterCodeElement) {
+      codeElementType = ((ParameterCodeElement) codeElement).getJavaCodeElement().getType();
     } else {
-      if (codeElement instanceof FieldCodeElement) {
-        return ((FieldCodeElement) codeElement)
-            .getJavaCodeElement()
-            .getType()
-            .isAssignableFrom((Class<?>) methodReturn);
-      }
-      if (codeElement instanceof ParameterCodeElement) {
-        return ((ParameterCodeElement) codeElement)
-            .getJavaCodeElement()
-            .getType()
-            .isAssignableFrom((Class<?>) methodReturn);
-      }
+      return false;
     }
-    return false;
+
+    final Class<?> methodReturnRawType =
+        methodReturn instanceof ParameterizedType
+            ? (Class<?>) ((ParameterizedType) methodReturn).getRawType()
+            : (Class<?>) methodReturn;
+    return codeElementType.isAssignableFrom(methodReturnRawType);
   }
 
   /**
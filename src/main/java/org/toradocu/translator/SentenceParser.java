@@ -8,13 +8,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,14 +37,25 @@ public class SentenceParser {
 
   /** The semantic graph of the sentence from which the proposition series will be derived. */
   private SemanticGraph semanticGraph;
+  /** Grammatical relations in the semantic graph, by identifier (e.g., "conj:and"). */
+  private final Map<String, List<SemanticGraphEdge>> relations = new HashMap<>();
+  /** Position of each grammatical relation in the edges of the semantic graph. */
+  private final Map<SemanticGraphEdge, Integer> relationPositions = new IdentityHashMap<>();
   /** Grammatical relations that are extracted from the semantic graph. */
-  private List<SemanticGraphEdge> subjectRelations,
-      copulaRelations,
+  private List<SemanticGraphEdge> subjectRelations, conjunctionRelations;
+  /** Grammatical relations that are extracted from the semantic graph, by governor. */
+  private Map<IndexedWord, List<SemanticGraphEdge>> copulaRelations,
       complementRelations,
-      conjunctionRelations,
+      conjunctionsByGovernor,
       negationRelations,
       numModifierRelations,
-      auxRelations;
+      auxRelations,
+      auxpassRelations,
+      containerRelations;
+  /** Conjunction relations that are extracted from the semantic graph, by dependent. */
+  private Map<IndexedWord, List<SemanticGraphEdge>> conjunctionsByDependent;
+  /** Words that are the subject of a passive subject relation. */
+  private Set<IndexedWord> passiveSubjects;
   /** Logger for this class. */
   private static final Logger log = LoggerFactory.getLogger(SentenceParser.class);
 
@@ -53,6 +68,7 @@ public class SentenceParser {
    */
   public SentenceParser(SemanticGraph semanticGraph) {
     this.semanticGraph = semanticGraph;
+    indexRelations();
     initializeRelations();
   }
 
@@ -100,35 +116,46 @@ public class SentenceParser {
       propositionMap.put(propositionWords, proposition);
     }
 
+    // Map each word to the positions (in propositionMap) of the propositions containing it, so
+    // that the propositions joined by a conjunction are found without scanning all propositions.
+    List<Proposition> propositions = new ArrayList<>(propositionMap.values());
+    Map<IndexedWord, List<Integer>> wordPropositions = new HashMap<>();
+    int position = 0;
+    for (List<IndexedWord> propositionWords : propositionMap.keySet()) {
+      for (IndexedWord word : propositionWords) {
+        List<Integer> positions = wordPropositions.computeIfAbsent(word, w -> new ArrayList<>());
+        if (positions.isEmpty() || positions.get(positions.size() - 1) != position) {
+          positions.add(position);
+        }
+      }
+      position++;
+    }
+
     // Identify propositions associated with each conjunction and add them to the propositionSeries.
+    Set<Proposition> propositionsInSeries = new HashSet<>();
     for (SemanticGraphEdge conjunctionRelation : conjunctionRelations) {
-      IndexedWord conjGovernor = conjunctionRelation.getGovernor();
-      IndexedWord conjDependent = conjunctionRelation.getDependent();
-      Proposition p1 = null, p2 = null;
-
-      for (Entry<List<IndexedWord>, Proposition> entry : propositionMap.entrySet()) {
-        if (entry.getKey().contains(conjGovernor)) {
-          p1 = entry.getValue();
-        }
-        if (entry.getKey().contains(conjDependent)) {
-          p2 = entry.getValue();
-        }
-        if (p1 != null && p2 != null) {
-          break;
-        }
+      List<Integer> governorPositions = wordPropositions.get(conjunctionRelation.getGovernor());
+      List<Integer> dependentPositions = wordPropositions.get(conjunctionRelation.getDependent());
+      if (governorPositions == null || dependentPositions == null) {
+        continue;
       }
 
-      if (p1 != null && p2 != null) {
-        if (propositionSeries.isEmpty()) {
-          propositionSeries.add(p1);
-        }
-        propositionSeries.add(getConjunction(conjunctionRelation), p2);
+      // Scanning propositions in order, both words are found at the first proposition containing
+      // the word found last. Each word is associated with its last proposition up to that point.
+      int last = Math.max(governorPositions.get(0), dependentPositions.get(0));
+      Proposition p1 = propositions.get(lastPositionUpTo(governorPositions, last));
+      Proposition p2 = propositions.get(lastPositionUpTo(dependentPositions, last));
+      if (propositionSeries.isEmpty()) {
+        propositionSeries.add(p1);
+        propositionsInSeries.add(p1);
       }
+      propositionSeries.add(getConjunction(conjunctionRelation), p2);
+      propositionsInSeries.add(p2);
     }
 
     // Add any propositions not part of a conjunction relation to the propositionSeries.
-    for (Proposition p : propositionMap.values()) {
-      if (!propositionSeries.contains(p)) {
+    for (Proposition p : propositions) {
+      if (propositionsInSeries.add(p)) {
         if (propositionSeries.isEmpty()) {
           propositionSeries.add(p);
         } else {
@@ -141,6 +168,19 @@ public class SentenceParser {
     return propositionSeries;
   }
 
+  /**
+   * Returns the greatest of the given positions that is not greater than {@code limit}.
+   *
+   * @param positions positions in ascending order, the first of which is not greater than {@code
+   *     limit}
+   * @param limit the upper bound of the position to return
+   * @return the greatest position in {@code positions} not greater than {@code limit}
+   */
+  private static int lastPositionUpTo(List<Integer> positions, int limit) {
+    int index = Collections.binarySearch(positions, limit);
+    return index >= 0 ? positions.get(index) : positions.get(-index - 2);
+  }
+
   /**
    * Returns the type of conjunction associated with a conjunction relation.
    *
@@ -174,9 +214,7 @@ public class SentenceParser {
    */
   private boolean predicateIsNegative(IndexedWord governor) {
     // Return true if there are an odd number of negation modifiers.
-    long numNegEdges =
-        negationRelations.stream().filter(e -> e.getGovernor().equals(governor)).count();
-    return numNegEdges % 2 == 1;
+    return relationsOf(negationRelations, governor).size() % 2 == 1;
   }
 
   /**
@@ -222,8 +260,7 @@ public class SentenceParser {
   private List<IndexedWord> tryAuxiliaryRelation(IndexedWord governor) {
     List<IndexedWord> predicateWords = new ArrayList<>();
 
-    Optional<SemanticGraphEdge> auxEdge =
-        auxRelations.stream().filter(e -> e.getGovernor().equals(governor)).findFirst();
+    Optional<SemanticGraphEdge> auxEdge = firstRelationOf(auxRelations, governor);
     if (!auxEdge.isPresent()) {
       return predicateWords;
     }
@@ -244,8 +281,7 @@ public class SentenceParser {
   private List<IndexedWord> tryNonCopulaPredicate(IndexedWord governor) {
     List<IndexedWord> predicateWords = new ArrayList<>();
 
-    Optional<SemanticGraphEdge> complementEdge =
-        complementRelations.stream().filter(e -> e.getGovernor().equals(governor)).findFirst();
+    Optional<SemanticGraphEdge> complementEdge = firstRelationOf(complementRelations, governor);
     if (!complementEdge.isPresent()) {
       // Predicate is not of non-copula form.
       return predicateWords;
@@ -255,8 +291,7 @@ public class SentenceParser {
     IndexedWord complement = complementEdge.get().getDependent();
     predicateWords.add(complement);
 
-    Optional<SemanticGraphEdge> numModifierEdge =
-        numModifierRelations.stream().filter(e -> e.getGovernor().equals(complement)).findFirst();
+    Optional<SemanticGraphEdge> numModifierEdge = firstRelationOf(numModifierRelations, complement);
     if (numModifierEdge.isPresent()) {
       predicateWords.add(numModifierEdge.get().getDependent());
     }
@@ -276,13 +311,10 @@ public class SentenceParser {
 
     // Case 1: conjunction between verbs (e.g., set is OR contains null).
     Optional<SemanticGraphEdge> conjunctionEdge1 =
-        conjunctionRelations.stream().filter(e -> e.getGovernor().equals(governor)).findFirst();
+        firstRelationOf(conjunctionsByGovernor, governor);
     if (conjunctionEdge1.isPresent()) {
       Optional<SemanticGraphEdge> complementEdge =
-          complementRelations
-              .stream()
-              .filter(e -> e.getGovernor().equals(conjunctionEdge1.get().getDependent()))
-              .findFirst();
+          firstRelationOf(complementRelations, conjunctionEdge1.get().getDependent());
       if (complementEdge.isPresent()) {
         predicateWords.add(governor);
         predicateWords.add(complementEdge.get().getDependent());
@@ -291,13 +323,10 @@ public class SentenceParser {
     }
     // Case 2: conjunction between complements when there is a copula (e.g., name is empty or null).
     Optional<SemanticGraphEdge> conjunctionEdge2 =
-        conjunctionRelations.stream().filter(e -> e.getDependent().equals(governor)).findFirst();
+        firstRelationOf(conjunctionsByDependent, governor);
     if (conjunctionEdge2.isPresent()) {
       Optional<SemanticGraphEdge> copulaEdge =
-          copulaRelations
-              .stream()
-              .filter(e -> e.getGovernor().equals(conjunctionEdge2.get().getGovernor()))
-              .findFirst();
+          firstRelationOf(copulaRelations, conjunctionEdge2.get().getGovernor());
       if (copulaEdge.isPresent()) {
         predicateWords.add(copulaEdge.get().getDependent());
         predicateWords.add(conjunctionEdge2.get().getDependent());
@@ -318,11 +347,7 @@ public class SentenceParser {
   private List<IndexedWord> tryPassivePredicate(IndexedWord governor) {
     List<IndexedWord> predicateWords = new ArrayList<>();
 
-    Optional<SemanticGraphEdge> auxpassEdge =
-        getRelationsFromGraph("auxpass")
-            .stream()
-            .filter(e -> e.getGovernor().equals(governor))
-            .findFirst();
+    Optional<SemanticGraphEdge> auxpassEdge = firstRelationOf(auxpassRelations, governor);
     if (!auxpassEdge.isPresent()) {
       // Predicate is not of passive form.
       return predicateWords;
@@ -345,8 +370,7 @@ public class SentenceParser {
 
     // For a predicate of this form, the given governor of the subject relation is also the governor
     // of the copula relation.
-    Optional<SemanticGraphEdge> copEdge =
-        copulaRelations.stream().filter(e -> e.getGovernor().equals(governor)).findFirst();
+    Optional<SemanticGraphEdge> copEdge = firstRelationOf(copulaRelations, governor);
     if (!copEdge.isPresent()) {
       // Predicate is not of copula form.
       return predicateWords;
@@ -376,25 +400,22 @@ public class SentenceParser {
     // multiple words. For example in "any element in the entry set is null", the container is
     // "entry set".
     List<IndexedWord> containerWords = new ArrayList<>();
-    IndexedWord container =
-        getRelationsFromGraph("nmod:in")
-            .stream()
-            .filter(e -> e.getGovernor().equals(subjectWord))
-            .map(SemanticGraphEdge::getDependent)
-            .findFirst()
-            .orElse(null);
-    if (container != null) {
-      containerWords.add(container);
-    }
+    firstRelationOf(containerRelations, subjectWord)
+        .ifPresent(e -> containerWords.add(e.getDependent()));
 
-    boolean isPassive =
-        getRelationsFromGraph("nsubjpass")
-            .stream()
-            .anyMatch(e -> e.getTarget().equals(subjectWord));
+    boolean isPassive = passiveSubjects.contains(subjectWord);
 
     return new Subject(extractSubjectWords(subjectWord), containerWords, isPassive);
   }
 
+  /** Indexes the grammatical relations in the semantic graph by identifier, in one pass. */
+  private void indexRelations() {
+    for (SemanticGraphEdge edge : semanticGraph.edgeIterable()) {
+      relationPositions.put(edge, relationPositions.size());
+      relations.computeIfAbsent(relationIdentifier(edge), id -> new ArrayList<>()).add(edge);
+    }
+  }
+
   /** Initializes the relations fields using the semantic graph. */
   private void initializeRelations() {
     subjectRelations = getRelationsFromGraph("nsubj", "nsubjpass");
@@ -402,12 +423,88 @@ public class SentenceParser {
     //      log.warn("Unable to identify subjects in \"{}\".",
     // semanticGraph.toRecoveredSentenceString());
     //    }
-    copulaRelations = getRelationsFromGraph("cop");
-    auxRelations = getRelationsFromGraph("aux");
-    complementRelations = getRelationsFromGraph("acomp", "xcomp", "dobj");
+    copulaRelations = byGovernor(getRelationsFromGraph("cop"));
+    auxRelations = byGovernor(getRelationsFromGraph("aux"));
+    auxpassRelations = byGovernor(getRelationsFromGraph("auxpass"));
+    complementRelations = byGovernor(getRelationsFromGraph("acomp", "xcomp", "dobj"));
     conjunctionRelations = getRelationsFromGraph("conj:and", "conj:or", "conj:but");
-    negationRelations = getRelationsFromGraph("neg");
-    numModifierRelations = getRelationsFromGraph("nummod");
+    conjunctionsByGovernor = byGovernor(conjunctionRelations);
+    conjunctionsByDependent = index(conjunctionRelations, SemanticGraphEdge::getDependent);
+    negationRelations = byGovernor(getRelationsFromGraph("neg"));
+    numModifierRelations = byGovernor(getRelationsFromGraph("nummod"));
+    containerRelations = byGovernor(getRelationsFromGraph("nmod:in"));
+    passiveSubjects =
+        getRelationsFromGraph("nsubjpass")
+            .stream()
+            .map(SemanticGraphEdge::getTarget)
+            .collect(Collectors.toSet());
+  }
+
+  /**
+   * Groups the given relations by governor. Relations with the same governor keep their order.
+   *
+   * @param relations the relations to group
+   * @return the given relations grouped by governor
+   */
+  private static Map<IndexedWord, List<SemanticGraphEdge>> byGovernor(
+      List<SemanticGraphEdge> relations) {
+    return index(relations, SemanticGraphEdge::getGovernor);
+  }
+
+  /**
+   * Groups the given relations by the word returned by {@code key}. Relations with the same word
+   * keep their order.
+   *
+   * @param relations the relations to group
+   * @param key the function that returns the word by which to group a relation
+   * @return the given relations grouped by the word returned by {@code key}
+   */
+  private static Map<IndexedWord, List<SemanticGraphEdge>> index(
+      List<SemanticGraphEdge> relations, Function<SemanticGraphEdge, IndexedWord> key) {
+    Map<IndexedWord, List<SemanticGraphEdge>> index = new HashMap<>();
+    for (SemanticGraphEdge relation : relations) {
+      index.computeIfAbsent(key.apply(relation), w -> new ArrayList<>()).add(relation);
+    }
+    return index;
+  }
+
+  /**
+   * Returns the relations of the given word in {@code relations}.
+   *
+   * @param relations relations grouped by word
+   * @param word the word whose relations to return
+   * @return the relations of {@code word}, an empty list if there is none
+   */
+  private static List<SemanticGraphEdge> relationsOf(
+      Map<IndexedWord, List<SemanticGraphEdge>> relations, IndexedWord word) {
+    return relations.getOrDefault(word, Collections.emptyList());
+  }
+
+  /**
+   * Returns the first relation of the given word in {@code relations}.
+   *
+   * @param relations relations grouped by word
+   * @param word the word whose first relation to return
+   * @return the first relation of {@code word}, or an empty optional if there is none
+   */
+  private static Optional<SemanticGraphEdge> firstRelationOf(
+      Map<IndexedWord, List<SemanticGraphEdge>> relations, IndexedWord word) {
+    return relationsOf(relations, word).stream().findFirst();
+  }
+
+  /**
+   * Returns the identifier of the grammatical relation of the given edge, i.e., a string of the
+   * form relation_short_name:specific (or relation_short_name if the relation has no specific).
+   *
+   * @param edge an edge of the semantic graph
+   * @return the identifier of the grammatical relation of {@code edge}
+   */
+  private static String relationIdentifier(SemanticGraphEdge edge) {
+    final GrammaticalRelation grammaticalRelation = edge.getRelation();
+    final String specific = grammaticalRelation.getSpecific();
+    return specific == null
+        ? grammaticalRelation.getShortName()
+        : grammaticalRelation.getShortName() + ":" + specific;
   }
 
   /**
@@ -422,20 +519,13 @@ public class SentenceParser {
    *     relation identifiers
    */
   private List<SemanticGraphEdge> getRelationsFromGraph(String... relationIdentifiers) {
-    final List<String> identifiers =
-        Collections.unmodifiableList(Arrays.asList(relationIdentifiers));
     final List<SemanticGraphEdge> foundRelations = new ArrayList<>();
-
-    for (SemanticGraphEdge edge : semanticGraph.edgeIterable()) {
-      final GrammaticalRelation grammaticalRelation = edge.getRelation();
-      String identifier = grammaticalRelation.getShortName();
-      final String specific = grammaticalRelation.getSpecific();
-      if (specific != null) {
-        identifier += ":" + specific;
-      }
-      if (identifiers.contains(identifier)) {
-        foundRelations.add(edge);
-      }
+    for (String identifier : relationIdentifiers) {
+      foundRelations.addAll(relations.getOrDefault(identifier, Collections.emptyList()));
+    }
+    if (relationIdentifiers.length > 1) {
+      // Keep relations in the order they appear in the semantic graph.
+      foundRelations.sort(Comparator.comparingInt(relationPositions::get));
     }
     return foundRelations;
   }
@@ -482,16 +572,7 @@ public class SentenceParser {
     return semanticGraph
         .getOutEdgesSorted(node)
         .stream()
-        .filter(
-            edge -> {
-              GrammaticalRelation grammaticalRelation = edge.getRelation();
-              String identifier = grammaticalRelation.getShortName();
-              final String specific = grammaticalRelation.getSpecific();
-              if (specific != null) {
-                identifier += ":" + specific;
-              }
-              return relationIdentifiers.contains(identifier);
-            })
+        .filter(edge -> relationIdentifiers.contains(relationIdentifier(edge)))
         .map(SemanticGraphEdge::getTarget)
         .filter(word -> !stopwords.contains(word.word().toLowerCase()))
         .collect(Collectors.toList());
@@ -1,7 +1,8 @@
 package org.toradocu.translator;
 
-import static org.toradocu.util.ComplianceChecks.isSpecCompilable;
+import static org.toradocu.util.ComplianceChecks.checkSpec;
 
+import java.util.concurrent.CompletableFuture;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.ThrowsTag;
 import randoop.condition.specification.Guard;
@@ -9,7 +10,17 @@ import randoop.condition.specification.ThrowsSpecification;
 
 public class ThrowsTranslator {
 
-  public ThrowsSpecification translate(ThrowsTag tag, DocumentedExecutable excMember) {
+  /**
+   * Translates the given @throws comment. The compliance check of the translation runs
+   * asynchronously: the specification is available once the check completes.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @return the future exceptional specification (an empty specification if the translation fails
+   *     or does not compile)
+   */
+  public CompletableFuture<ThrowsSpecification> translate(
+      ThrowsTag tag, DocumentedExecutable excMember) {
     final String commentTranslation =
         alwaysThrowException(tag.getComment().getText())
             ? "true"
@@ -18,12 +29,20 @@ public class ThrowsTranslator {
     final Guard guard = new Guard(tag.getComment().getText(), commentTranslation);
     final String exceptionName = tag.getException().getName();
 
-    if (commentTranslation.isEmpty() || !isSpecCompilable(excMember, guard)) {
-      return new ThrowsSpecification(
-          tag.toString(), new Guard(tag.getComment().getText(), ""), exceptionName);
+    final ThrowsSpecification emptySpec =
+        new ThrowsSpecification(
+            tag.toString(), new Guard(tag.getComment().getText(), ""), exceptionName);
+
+    if (commentTranslation.isEmpty()) {
+      return CompletableFuture.completedFuture(emptySpec);
     }
 
-    return new ThrowsSpecification(tag.toString(), guard, exceptionName);
+    return checkSpec(excMember, guard)
+        .thenApply(
+            compilable ->
+                compilable
+                    ? new ThrowsSpecification(tag.toString(), guard, exceptionName)
+                    : emptySpec);
   }
 
   /**
@@ -0,0 +1,201 @@
+package org.toradocu.translator;
+
+import java.io.IOException;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.conf.RunContext;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.extractor.ParamTag;
+import org.toradocu.extractor.ThrowsTag;
+import org.toradocu.translator.semantic.DistancesFile;
+import org.toradocu.util.Metrics;
+
+/**
+ * Memo of the translations of the current run. Libraries repeat the same tag comments (e.g.,
+ * "@throws NullPointerException if {@code x} is null") across overloads and inherited members: a
+ * tag whose comment and executable member are equivalent to the ones of an already translated tag
+ * reuses its translation instead of running preprocessing, parsing, matching, and compliance checks
+ * again.
+ *
+ * <p>Two tags are equivalent if they have the same kind, comment (before preprocessing), and
+ * documented parameter or exception, and if their executable members have the same parameters
+ * (names, types, and nullness), declaring class, return type, type parameters, and modifiers
+ * relevant to the translation. The name of the executable member is part of the context only when
+ * it can affect the translation, i.e., when the member is a method returning a boolean (and could
+ * be a candidate of its own translation) or a setter.
+ *
+ * <p>A reused translation appends to the distances file of the semantic matcher (see {@link
+ * DistancesFile}) the rows appended by the translation of the equivalent tag, so that the file has
+ * the same content whether or not translations are reused.
+ */
+final class TranslationMemo {
+
+  private static final Logger log = LoggerFactory.getLogger(TranslationMemo.class);
+
+  /** Identifies the memo of the translations of each run. */
+  private static final RunContext.Key<Map<TagInContext, Translation<?>>> TRANSLATIONS =
+      new RunContext.Key<>(ConcurrentHashMap::new);
+
+  private TranslationMemo() {}
+
+  /** Empties the memo of the current run, so that the next translation of any tag starts cold. */
+  static void clear() {
+    RunContext.current().remove(TRANSLATIONS);
+  }
+
+  /**
+   * Returns the translation of the given tag, computing it with {@code translator} only if no
+   * equivalent tag has been translated in the current run. When the translation is reused, the
+   * comment of {@code tag} is replaced by the preprocessed comment of the equivalent tag, as if
+   * {@code tag} was preprocessed.
+   *
+   * @param tag the tag to translate
+   * @param excMember the executable member commented with {@code tag}
+   * @param translator preprocesses and translates {@code tag}
+   * @param <T> the type of the translation
+   * @return the translation of {@code tag}
+   */
+  @SuppressWarnings("unchecked")
+  static <T> T translate(BlockTag tag, DocumentedExecutable excMember, Supplier<T> translator) {
+    final Map<TagInContext, Translation<?>> translations = RunContext.current().get(TRANSLATIONS);
+    final TagInContext key = new TagInContext(tag, excMember);
+    final Translation<T> translation = (Translation<T>) translations.get(key);
+    if (translation != null) {
+      Metrics.increment(Metrics.Counter.TRANSLATION_MEMO_HIT);
+      tag.setComment(translation.preprocessedComment);
+      if (!translation.distancesRows.isEmpty()) {
+        try {
+          DistancesFile.append(translation.distancesRows);
+        } catch (IOException e) {
+          log.error("Unable to append the semantic distances of a reused translation.", e);
+        }
+      }
+      return translation.result;
+    }
+    Metrics.increment(Metrics.Counter.TRANSLATION_MEMO_MISS);
+    final T result;
+    final String distancesRows;
+    try (DistancesFile.Recording recording = DistancesFile.record()) {
+      result = translator.get();
+      distancesRows = recording.getRows();
+    }
+    translations.put(key, new Translation<>(tag.getComment(), result, distancesRows));
+    return result;
+  }
+
+  /**
+   * A translation, the preprocessed comment it was computed from, and the rows its computation
+   * appended to the distances file.
+   */
+  private static final class Translation<T> {
+    private final Comment preprocessedComment;
+    private final T result;
+    private final String distancesRows;
+
+    private Translation(Comment preprocessedComment, T result, String distancesRows) {
+      this.preprocessedComment = preprocessedComment;
+      this.result = result;
+      this.distancesRows = distancesRows;
+    }
+  }
+
+  /** A tag together with the parts of its executable member that affect its translation. */
+  private static final class TagInContext {
+    private final BlockTag.Kind kind;
+    private final Comment comment;
+    /** Name of the documented parameter or exception, null for other tags. */
+    private final String subject;
+
+    private final Class<?> declaringClass;
+    private final String returnType;
+    private final List<String> parameters;
+    private final List<String> typeParameters;
+    private final boolean isConstructor;
+    private final boolean isStatic;
+    private final boolean isVarArgs;
+    /** Name of the executable member, null when it cannot affect the translation. */
+    private final String name;
+
+    private TagInContext(BlockTag tag, DocumentedExecutable excMember) {
+      this.kind = tag.getKind();
+      this.comment = tag.getComment();
+      if (tag instanceof ParamTag) {
+        this.subject = ((ParamTag) tag).getParameter().getName();
+      } else if (tag instanceof ThrowsTag) {
+        this.subject = ((ThrowsTag) tag).getException().getName();
+      } else {
+        this.subject = null;
+      }
+
+      final Executable executable = excMember.getExecutable();
+      this.declaringClass = excMember.getDeclaringClass();
+      this.returnType =
+          excMember.getReturnType() == null
+              ? null
+              : excMember.getReturnType().getType().getTypeName();
+      this.parameters = new ArrayList<>();
+      for (DocumentedParameter parameter : excMember.getParameters()) {
+        parameters.add(
+            parameter.asReflectionParameter().getParameterizedType().getTypeName()
+                + " "
+                + parameter.getName()
+                + " "
+                + parameter.isNullable());
+      }
+      this.typeParameters = new ArrayList<>();
+      for (TypeVariable<?> typeParameter : executable.getTypeParameters()) {
+        typeParameters.add(
+            typeParameter.getName()
+                + Arrays.toString(
+                    Arrays.stream(typeParameter.getBounds()).map(Type::getTypeName).toArray()));
+      }
+      this.isConstructor = excMember.isConstructor();
+      this.isStatic = Modifier.isStatic(executable.getModifiers());
+      this.isVarArgs = excMember.isVarArgs();
+      final boolean returnsBoolean =
+          "boolean".equals(returnType) || "java.lang.Boolean".equals(returnType);
+      this.name =
+          !isConstructor && (returnsBoolean || excMember.getName().startsWith("set"))
+              ? excMember.getName()
+              : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+
+      TagInContext that = (TagInContext) o;
+      return kind == that.kind
+          && comment.equals(that.comment)
+          && Objects.equals(subject, that.subject)
+          && declaringClass.equals(that.declaringClass)
+          && Objects.equals(returnType, that.returnType)
+          && parameters.equals(that.parameters)
+          && typeParameters.equals(that.typeParameters)
+          && isConstructor == that.isConstructor
+          && isStatic == that.isStatic
+          && isVarArgs == that.isVarArgs
+          && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(kind, comment, subject, declaringClass, returnType, parameters, name);
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package org.toradocu.translator.preprocess;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.toradocu.extractor.Comment;
+
+/**
+ * Lexical classifier of @param comments that are purely descriptive, such as "the key" or "the
+ * number of elements", and that therefore cannot be translated into a condition. Classifying a
+ * comment does not involve the Stanford parser, so that descriptive comments can skip
+ * preprocessing, parsing, and matching altogether.
+ *
+ * <p>The classifier is conservative: a comment is descriptive only if it is a single noun phrase
+ * like "the/a/an NOUN [PREPOSITION ...]" without words marked as code, digits, symbols, or
+ * punctuation, and without any of the words the preprocessing phases and the matcher rely on (modal
+ * and auxiliary verbs, negations, null/empty/positive-like keywords, comparison words, conditional
+ * and relative words, pronouns). The translation of such comments is always empty: they have no
+ * clause, hence no proposition, and none of the preprocessing phases rewrites them into one. The
+ * word after the article is required to be followed by a preposition or to end the comment, so that
+ * it is not an adjective the preprocessing could turn into a predicate (e.g., "the non-empty
+ * list").
+ */
+public final class DescriptiveCommentFilter {
+
+  /** Articles a descriptive comment starts with. */
+  private static final Set<String> ARTICLES = new HashSet<>(Arrays.asList("the", "a", "an"));
+
+  /** Words that can follow the noun of a descriptive comment. */
+  private static final Set<String> PREPOSITIONS =
+      new HashSet<>(Arrays.asList("of", "to", "for", "from", "with", "by", "into", "on", "in"));
+
+  /** Words that make a comment possibly translatable. */
+  private static final Set<String> CUES =
+      new HashSet<>(
+          Arrays.asList(
+              // Modal, auxiliary, and copular verbs.
+              "must",
+              "mustn't",
+              "must'nt",
+              "should",
+              "shouldn't",
+              "shall",
+              "may",
+              "might",
+              "can",
+              "can't",
+              "cannot",
+              "could",
+              "will",
+              "won't",
+              "would",
+              "need",
+              "needs",
+              "is",
+              "isn't",
+              "are",
+              "aren't",
+              "be",
+              "been",
+              "being",
+              "was",
+              "were",
+              "has",
+              "hasn't",
+              "have",
+              "haven't",
+              "had",
+              "does",
+              "doesn't",
+              "do",
+              "don't",
+              "did",
+              "return",
+              "returns",
+              "returned",
+              "throw",
+              "throws",
+              "thrown",
+              // Negations.
+              "not",
+              "no",
+              "never",
+              "non",
+              "none",
+              "neither",
+              "nor",
+              "nonnull",
+              "nonempty",
+              "nonnegative",
+              "nonpositive",
+              // Keywords of simple predicates and inequalities.
+              "null",
+              "empty",
+              "true",
+              "false",
+              "positive",
+              "negative",
+              "strictly",
+              "equal",
+              "equals",
+              "than",
+              "greater",
+              "less",
+              "lesser",
+              "smaller",
+              "lower",
+              "larger",
+              "bigger",
+              "higher",
+              "between",
+              "least",
+              "most",
+              "range",
+              "interval",
+              "inside",
+              "outside",
+              "length",
+              "instance",
+              "instanceof",
+              "zero",
+              "one",
+              "two",
+              "three",
+              "four",
+              "five",
+              "six",
+              "seven",
+              "eight",
+              "nine",
+              // Conditional and relative words, quantifiers, and pronouns.
+              "if",
+              "when",
+              "whenever",
+              "whether",
+              "unless",
+              "only",
+              "otherwise",
+              "iff",
+              "either",
+              "both",
+              "all",
+              "any",
+              "each",
+              "every",
+              "that",
+              "which",
+              "who",
+              "whose",
+              "whom",
+              "where",
+              "it",
+              "its",
+              "itself",
+              "this",
+              "these",
+              "those",
+              "they",
+              "them",
+              "you",
+              "we",
+              "he",
+              "she"));
+
+  /** A word, possibly with apostrophes and hyphens. */
+  private static final String WORD = "[A-Za-z]+(['-][A-Za-z]+)*";
+
+  /** Text of a descriptive comment: words separated by spaces, with an optional final period. */
+  private static final Pattern WORDS = Pattern.compile(WORD + "( " + WORD + ")*\\.?");
+
+  private DescriptiveCommentFilter() {}
+
+  /**
+   * Tells whether the given @param comment is purely descriptive, i.e., whether its translation is
+   * certainly empty.
+   *
+   * @param comment the comment of a @param tag, before preprocessing
+   * @return true if {@code comment} is purely descriptive, false if it could be translatable
+   */
+  public static boolean isDescriptive(Comment comment) {
+    if (!comment.getCodeWords().isEmpty()) {
+      return false;
+    }
+    final String text = comment.getText().trim();
+    if (!WORDS.matcher(text).matches()) {
+      return false;
+    }
+    final String[] words =
+        (text.endsWith(".") ? text.substring(0, text.length() - 1) : text).toLowerCase().split(" ");
+    if (words.length < 2
+        || !ARTICLES.contains(words[0])
+        || (words.length > 2 && !PREPOSITIONS.contains(words[2]))) {
+      return false;
+    }
+    for (String word : words) {
+      for (String part : word.split("-")) {
+        if (CUES.contains(part)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
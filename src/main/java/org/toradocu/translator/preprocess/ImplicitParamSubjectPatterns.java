@@ -56,11 +56,6 @@ public class ImplicitParamSubjectPatterns implements PreprocessingPhase {
         replacePatterns(preProcessedComment, negativePatterns, parameterName, "not");
 
     if (originalComment.equals(preProcessedComment)) {
-      final List<PropositionSeries> extractedPropositions =
-          Parser.parse(new Comment(originalComment), excMember);
-      final List<SemanticGraph> semanticGraphs =
-          extractedPropositions.stream().map(PropositionSeries::getSemanticGraph).collect(toList());
-
       preProcessedComment = originalComment.replace(";", ",");
       String[] beginnings = {"the", "a", "an", "any"};
 
@@ -16,7 +16,7 @@ public class Preprocessor {
   public BlockTag preprocess(BlockTag tag, DocumentedExecutable excMember) {
     for (PreprocessingPhase phase : phases) {
       String preprocessedText = phase.run(tag, excMember);
-      tag.setComment(new Comment(preprocessedText, tag.getComment().getWordsMarkedAsCode()));
+      tag.setComment(new Comment(preprocessedText, tag.getComment().getCodeWords()));
     }
     return tag;
   }
@@ -45,4 +45,18 @@ public class PreprocessorFactory {
 
     return new Preprocessor(phases);
   }
+
+  /**
+   * Creates the preprocessor for the comments of @param tags that are purely descriptive (see
+   * {@link DescriptiveCommentFilter}). It applies only the phases that change such comments, so
+   * that they are preprocessed as by {@link #create(BlockTag.Kind)} without parsing them.
+   *
+   * @return the preprocessor for descriptive @param comments
+   */
+  public static Preprocessor createForDescriptiveComments() {
+    List<PreprocessingPhase> phases = new ArrayList<>();
+    phases.add(new EndPeriod());
+    phases.add(new Trim());
+    return new Preprocessor(phases);
+  }
 }
@@ -0,0 +1,85 @@
+package org.toradocu.translator.semantic;
+
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * File where the semantic matcher appends the Word Mover's Distances it computes, one row per
+ * comment and code element. Rows appended by a thread while it records (see {@link #record()}) are
+ * also collected, so that a translation reused from the translation memo can append the same rows
+ * its computation would append.
+ */
+public final class DistancesFile {
+
+  /** Name of the file. */
+  private static final String FILE = "wmd-glove-distances.csv";
+  /** Lock that serializes the appends of concurrent runs. */
+  private static final Object LOCK = new Object();
+
+  /** Rows collected by the recording of each thread, null if the thread is not recording. */
+  private static final ThreadLocal<StringBuilder> recordedRows = new ThreadLocal<>();
+
+  private DistancesFile() {}
+
+  /**
+   * Appends the given rows to the file. Rows are appended at once, so that concurrent runs do not
+   * interleave them.
+   *
+   * @param rows the rows to append, each one terminated by a newline
+   * @throws IOException if the file cannot be written
+   */
+  public static void append(CharSequence rows) throws IOException {
+    final StringBuilder recording = recordedRows.get();
+    if (recording != null) {
+      recording.append(rows);
+    }
+    synchronized (LOCK) {
+      try (FileWriter file = new FileWriter(FILE, true)) {
+        file.append(rows);
+      }
+    }
+  }
+
+  /**
+   * Starts collecting the rows appended by the calling thread, until the returned recording is
+   * closed.
+   *
+   * @return the recording of the rows appended by the calling thread
+   */
+  public static Recording record() {
+    return new Recording();
+  }
+
+  /** Rows appended by a thread while recording. */
+  public static final class Recording implements AutoCloseable {
+
+    /** Rows collected by the enclosing recording of the thread, null if none. */
+    private final StringBuilder enclosing = recordedRows.get();
+    /** Rows collected by this recording. */
+    private final StringBuilder rows = new StringBuilder();
+
+    private Recording() {
+      recordedRows.set(rows);
+    }
+
+    /**
+     * Returns the rows appended so far during this recording.
+     *
+     * @return the rows appended during this recording
+     */
+    public String getRows() {
+      return rows.toString();
+    }
+
+    /** Stops this recording. Its rows are also collected by the enclosing recording, if any. */
+    @Override
+    public void close() {
+      if (enclosing == null) {
+        recordedRows.remove();
+      } else {
+        enclosing.append(rows);
+        recordedRows.set(enclosing);
+      }
+    }
+  }
+}
@@ -3,11 +3,9 @@ package org.toradocu.translator.semantic;
 import de.jungblut.glove.GloveRandomAccessReader;
 import de.jungblut.glove.impl.GloveBinaryRandomAccessReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URISyntaxException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.Arrays;
 
 /** Created by arianna on 31/07/17. */
 public class GloveBinModelWrapper {
@@ -26,7 +24,7 @@ public class GloveBinModelWrapper {
     }
   }
 
-  public static GloveBinModelWrapper getInstance() throws URISyntaxException {
+  public static synchronized GloveBinModelWrapper getInstance() throws URISyntaxException {
     if (instance == null) {
       instance = new GloveBinModelWrapper();
     }
@@ -34,31 +32,17 @@ public class GloveBinModelWrapper {
   }
 
   /**
-   * Copy GloVe models from resources to a local folder and instantiate the reader.
+   * Instantiate the reader on the GloVe models in the model cache, where they are extracted from
+   * resources if needed.
    *
    * @return the reader
    */
   private GloveRandomAccessReader createGloVeReader() throws URISyntaxException, IOException {
     String gloveBinaries = "glove-binary";
-    String file1 = "dict.bin";
-    String file2 = "vectors.bin";
-
-    // Copy GloVe models in Toradocu jar to glove-binary folder and use them.
-    String file1Path = "/" + gloveBinaries + "/" + file1;
-    String file2Path = "/" + gloveBinaries + "/" + file2;
-    InputStream gloveBinary1 = getClass().getResourceAsStream(file1Path);
-    InputStream gloveBinary2 = getClass().getResourceAsStream(file2Path);
-    Path destinationFile1 = Paths.get(gloveBinaries, file1);
-    Path destinationFile2 = Paths.get(gloveBinaries, file2);
-
-    Path folderPath = Paths.get(gloveBinaries);
-    if (!Files.exists(folderPath)) {
-      Files.createDirectory(folderPath);
-    }
-    if (Files.list(folderPath).count() == 0) {
-      Files.copy(gloveBinary1, destinationFile1);
-      Files.copy(gloveBinary2, destinationFile2);
-    }
+    Path folderPath =
+        ModelCache.get(
+            gloveBinaries,
+            Arrays.asList(gloveBinaries + "/dict.bin", gloveBinaries + "/vectors.bin"));
     return new GloveBinaryRandomAccessReader(folderPath);
   }
 
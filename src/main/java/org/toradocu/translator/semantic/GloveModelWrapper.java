@@ -1,11 +1,7 @@
 package org.toradocu.translator.semantic;
 
-import java.io.File;
-import java.io.InputStream;
 import java.net.URISyntaxException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import org.deeplearning4j.models.embeddings.loader.WordVectorSerializer;
 import org.deeplearning4j.models.embeddings.wordvectors.WordVectors;
 
@@ -20,7 +16,7 @@ public class GloveModelWrapper {
     // Exists only to defeat instantiation.
   }
 
-  public static GloveModelWrapper getInstance() throws URISyntaxException {
+  public static synchronized GloveModelWrapper getInstance() throws URISyntaxException {
     if (instance == null) {
       instance = new GloveModelWrapper();
       try {
@@ -33,26 +29,11 @@ public class GloveModelWrapper {
   }
 
   private static WordVectors setUpGloveTxtVectors() throws Exception {
-    String gloveTxtFolder = "glove-txt";
-    String gloveTxtFile = "glove.6B.300d.txt";
-
-    // Copy GloVe models in Toradocu jar to glove-txt folder and use them.
-    String filePath = "/" + gloveTxtFile;
-    InputStream gloveInputStream = GloveModelWrapper.class.getResourceAsStream(filePath);
-    Path destinationFile = Paths.get(gloveTxtFolder, gloveTxtFile);
-
-    Path folderPath = Paths.get(gloveTxtFolder);
-    if (!Files.exists(folderPath)) {
-      Files.createDirectory(folderPath);
-    }
-    if (Files.list(folderPath).count() == 0) {
-      Files.copy(gloveInputStream, destinationFile);
-    }
+    // Load the GloVe model in Toradocu jar in place from the model cache.
+    Path gloveFile = ModelCache.get("glove-txt", "glove.6B.300d.txt");
     WordVectors gloveVectors = null;
     try {
-      File gloveFinalFile = destinationFile.toFile();
-      gloveVectors = WordVectorSerializer.loadTxtVectors(gloveFinalFile);
-      gloveFinalFile.deleteOnExit();
+      gloveVectors = WordVectorSerializer.loadTxtVectors(gloveFile.toFile());
     } catch (Exception e) {
       e.printStackTrace();
     }
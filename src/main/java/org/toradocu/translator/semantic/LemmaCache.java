@@ -0,0 +1,118 @@
+package org.toradocu.translator.semantic;
+
+import edu.stanford.nlp.ling.CoreLabel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.toradocu.translator.StanfordParser;
+import org.toradocu.util.Metrics;
+
+/**
+ * Bounded cache of the lemmatized words of comments and code element names used by the semantic
+ * matcher. Lemmatization depends only on the lemmatized text, so the cache is shared by all the
+ * runs. When the cache is full, the least recently used entries are evicted. All the methods of
+ * this class are thread-safe.
+ */
+final class LemmaCache {
+
+  /** Maximum number of entries of each cache. */
+  private static final int MAX_ENTRIES = 10_000;
+
+  /** Lemmatized words of comments, by normalized comment text. */
+  private static final Map<String, List<String>> comments = lruMap();
+
+  /** Lemmatized words of code element names, by name. */
+  private static final Map<String, List<String>> codeElementNames = lruMap();
+
+  private LemmaCache() {}
+
+  /**
+   * Returns the words of the given comment, replaced by their lemmas. The comment must be
+   * normalized, i.e., it must contain only lower case letters, digits, and spaces.
+   *
+   * @param comment the normalized comment
+   * @return the lemmatized words of {@code comment}, in a new modifiable list
+   */
+  static List<String> commentLemmas(String comment) {
+    List<String> lemmas = get(comments, comment);
+    if (lemmas == null) {
+      lemmas = lemmatize(Arrays.asList(comment.split(" ")), comment);
+      put(comments, comment, lemmas);
+    }
+    return new ArrayList<>(lemmas);
+  }
+
+  /**
+   * Returns the words composing the given camel case code element name, replaced by their lemmas.
+   *
+   * @param name the code element name
+   * @return the lemmatized words of {@code name}, in a new modifiable list
+   */
+  static List<String> codeElementNameLemmas(String name) {
+    List<String> lemmas = get(codeElementNames, name);
+    if (lemmas == null) {
+      final List<String> camelId = Arrays.asList(name.split("(?<!^)(?=[A-Z])"));
+      final String joinedId =
+          String.join(" ", camelId).replaceAll("\\s+", " ").trim().toLowerCase();
+      lemmas = lemmatize(camelId, joinedId);
+      put(codeElementNames, name, lemmas);
+    }
+    return new ArrayList<>(lemmas);
+  }
+
+  /**
+   * Replaces the given words with the lemmas of {@code text}, position by position. Lemmas beyond
+   * the number of words are appended.
+   *
+   * @param words the words of {@code text}
+   * @param text the text to lemmatize
+   * @return an unmodifiable list of lemmatized words
+   */
+  private static List<String> lemmatize(List<String> words, String text) {
+    final List<String> lemmatized = new ArrayList<>(words);
+    int index = 0;
+    for (CoreLabel lemma : StanfordParser.lemmatize(text)) {
+      if (lemma != null) {
+        if (index < lemmatized.size()) {
+          lemmatized.remove(index);
+        }
+        lemmatized.add(index, lemma.lemma());
+      }
+      index++;
+    }
+    return Collections.unmodifiableList(lemmatized);
+  }
+
+  private static List<String> get(Map<String, List<String>> cache, String key) {
+    final List<String> lemmas;
+    synchronized (cache) {
+      lemmas = cache.get(key);
+    }
+    Metrics.increment(
+        lemmas != null ? Metrics.Counter.LEMMA_CACHE_HIT : Metrics.Counter.LEMMA_CACHE_MISS);
+    return lemmas;
+  }
+
+  private static void put(Map<String, List<String>> cache, String key, List<String> lemmas) {
+    synchronized (cache) {
+      cache.put(key, lemmas);
+    }
+  }
+
+  /**
+   * Creates a map that evicts its least recently used entry when it exceeds {@code MAX_ENTRIES}.
+   *
+   * @return a new least-recently-used map
+   */
+  private static Map<String, List<String>> lruMap() {
+    return new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+        return size() > MAX_ENTRIES;
+      }
+    };
+  }
+}
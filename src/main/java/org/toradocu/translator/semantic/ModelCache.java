@@ -0,0 +1,246 @@
+package org.toradocu.translator.semantic;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import org.toradocu.conf.RunContext;
+
+/**
+ * Cache of the models bundled in the Toradocu jar (e.g., the GloVe vectors), extracted once to a
+ * directory shared by all the runs and processes of the same user, so that models are loaded in
+ * place instead of being copied to the working directory at every run.
+ *
+ * <p>The cache directory is the one set with the option {@code --model-cache-dir}, {@code
+ * $XDG_CACHE_HOME/toradocu} otherwise, or {@code ~/.cache/toradocu} if {@code XDG_CACHE_HOME} is
+ * not set. Models are stored under a subdirectory named after the version of the cache layout.
+ * Along with each model file the cache stores a manifest with its size, modification time, and
+ * SHA-256 digest, computed while the file is extracted: a cached file whose size differs from the
+ * one of the bundled resource is extracted again, and a cached file modified after its extraction
+ * is checked against its digest.
+ *
+ * <p>Extractions happen in temporary files that are atomically renamed, while holding an exclusive
+ * lock on a lock file of the model directory: concurrent processes (and threads) never see partial
+ * files, and only one of them extracts a missing model.
+ */
+final class ModelCache {
+
+  /** Version of the layout of the cache, to change when the layout or the models change. */
+  private static final String LAYOUT_VERSION = "v1";
+  /** Suffix of the manifest of a cached file. */
+  private static final String MANIFEST_SUFFIX = ".manifest";
+  /** Name of the lock file of a model directory. */
+  private static final String LOCK_FILE = ".lock";
+
+  private ModelCache() {}
+
+  /**
+   * Returns the directory of the cache containing the given resources of the Toradocu jar,
+   * extracting the resources that are missing from the cache or whose cached copy is not valid.
+   *
+   * @param model the name of the model, i.e. of the cache directory of its resources
+   * @param resources the names of the resources of the model, relative to the root of the jar
+   * @return the cache directory containing the resources
+   * @throws IOException if a resource does not exist or cannot be extracted
+   */
+  static Path get(String model, List<String> resources) throws IOException {
+    final Path directory = cacheDirectory().resolve(LAYOUT_VERSION).resolve(model);
+    Files.createDirectories(directory);
+    // File locks are held by the whole JVM: threads of the same JVM synchronize on the class.
+    synchronized (ModelCache.class) {
+      try (FileChannel lockChannel =
+              FileChannel.open(
+                  directory.resolve(LOCK_FILE),
+                  StandardOpenOption.CREATE,
+                  StandardOpenOption.WRITE);
+          FileLock lock = lockChannel.lock()) {
+        for (String resource : resources) {
+          final URL url = ModelCache.class.getResource("/" + resource);
+          if (url == null) {
+            throw new IOException("Model resource " + resource + " not found");
+          }
+          final Path file = directory.resolve(Paths.get(resource).getFileName());
+          if (!isValid(file, url)) {
+            extract(url, file);
+          }
+        }
+      }
+    }
+    return directory;
+  }
+
+  /**
+   * Returns the given resource of the Toradocu jar from the cache, extracting it if needed.
+   *
+   * @param model the name of the model, i.e. of the cache directory of the resource
+   * @param resource the name of the resource, relative to the root of the jar
+   * @return the cached copy of the resource
+   * @throws IOException if the resource does not exist or cannot be extracted
+   */
+  static Path get(String model, String resource) throws IOException {
+    return get(model, Collections.singletonList(resource))
+        .resolve(Paths.get(resource).getFileName());
+  }
+
+  /** Returns the root directory of the cache for the current run. */
+  private static Path cacheDirectory() {
+    final File configured = RunContext.current().getConfiguration().getModelCacheDir();
+    if (configured != null) {
+      return configured.toPath();
+    }
+    final String xdgCacheHome = System.getenv("XDG_CACHE_HOME");
+    if (xdgCacheHome != null && !xdgCacheHome.isEmpty()) {
+      return Paths.get(xdgCacheHome, "toradocu");
+    }
+    return Paths.get(System.getProperty("user.home"), ".cache", "toradocu");
+  }
+
+  /**
+   * Tells whether the cached copy of a resource is complete and unmodified.
+   *
+   * @param file the cached copy
+   * @param resource the resource
+   * @return true if {@code file} is a valid copy of {@code resource}
+   * @throws IOException if the cached copy or the resource cannot be read
+   */
+  private static boolean isValid(Path file, URL resource) throws IOException {
+    final Path manifestFile = manifestOf(file);
+    if (!Files.isRegularFile(file) || !Files.isRegularFile(manifestFile)) {
+      return false;
+    }
+    final Manifest manifest = Manifest.read(manifestFile);
+    if (manifest == null || manifest.size != Files.size(file)) {
+      return false;
+    }
+    final URLConnection connection = resource.openConnection();
+    connection.setUseCaches(false);
+    final long resourceSize = connection.getContentLengthLong();
+    if (resourceSize != -1 && resourceSize != manifest.size) {
+      // A different version of the resource.
+      return false;
+    }
+    if (manifest.lastModified == Files.getLastModifiedTime(file).toMillis()) {
+      return true;
+    }
+    try (InputStream in = Files.newInputStream(file)) {
+      return manifest.digest.equals(digest(in, null));
+    }
+  }
+
+  /**
+   * Extracts a resource to the cache, together with its manifest.
+   *
+   * @param resource the resource to extract
+   * @param file the cached copy to create
+   * @throws IOException if the resource cannot be read or the cached copy cannot be written
+   */
+  private static void extract(URL resource, Path file) throws IOException {
+    final Path temporary = Files.createTempFile(file.getParent(), file.getFileName() + ".", ".tmp");
+    try {
+      final String digest;
+      try (InputStream in = resource.openStream();
+          OutputStream out = Files.newOutputStream(temporary)) {
+        digest = digest(in, out);
+      }
+      Files.move(
+          temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      final Manifest manifest =
+          new Manifest(Files.size(file), Files.getLastModifiedTime(file).toMillis(), digest);
+      manifest.write(manifestOf(file));
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Computes the SHA-256 digest of the given stream, copying the stream to {@code out} if not null.
+   *
+   * @param in the stream to digest
+   * @param out the stream where to copy {@code in}, or null
+   * @return the hexadecimal digest of {@code in}
+   * @throws IOException if the streams cannot be read or written
+   */
+  private static String digest(InputStream in, OutputStream out) throws IOException {
+    final MessageDigest messageDigest;
+    try {
+      messageDigest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform supports SHA-256.
+      throw new IllegalStateException(e);
+    }
+    try (DigestInputStream digestIn = new DigestInputStream(in, messageDigest)) {
+      final byte[] buffer = new byte[1 << 16];
+      int read;
+      while ((read = digestIn.read(buffer)) != -1) {
+        if (out != null) {
+          out.write(buffer, 0, read);
+        }
+      }
+    }
+    final StringBuilder digest = new StringBuilder();
+    for (byte b : messageDigest.digest()) {
+      digest.append(String.format("%02x", b));
+    }
+    return digest.toString();
+  }
+
+  private static Path manifestOf(Path file) {
+    return file.resolveSibling(file.getFileName() + MANIFEST_SUFFIX);
+  }
+
+  /** Size, modification time, and digest of a cached file, recorded when it was extracted. */
+  private static final class Manifest {
+    private final long size;
+    private final long lastModified;
+    private final String digest;
+
+    private Manifest(long size, long lastModified, String digest) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.digest = digest;
+    }
+
+    /** Reads a manifest, returning null if the manifest is malformed. */
+    private static Manifest read(Path file) throws IOException {
+      final String[] fields =
+          new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim().split(" ");
+      if (fields.length != 3) {
+        return null;
+      }
+      try {
+        return new Manifest(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2]);
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+
+    /** Writes this manifest, atomically replacing {@code file}. */
+    private void write(Path file) throws IOException {
+      final Path temporary =
+          Files.createTempFile(file.getParent(), file.getFileName() + ".", ".tmp");
+      try {
+        Files.write(
+            temporary, (size + " " + lastModified + " " + digest).getBytes(StandardCharsets.UTF_8));
+        Files.move(
+            temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+    }
+  }
+}
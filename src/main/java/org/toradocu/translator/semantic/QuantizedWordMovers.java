@@ -0,0 +1,87 @@
+package org.toradocu.translator.semantic;
+
+import com.crtomirmajer.wmd4j.emd.EarthMovers;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Computes the Word Mover's Distance between two texts on quantized word vectors. Texts are bagged
+ * and weighted exactly as wmd4j does with the float vectors, so that distances differ only by the
+ * quantization error. Instances of this class are not thread-safe.
+ */
+final class QuantizedWordMovers {
+
+  /** The quantized word vectors. */
+  private final QuantizedWordVectors vectors;
+  /** Solver of the transport problem, not thread-safe. */
+  private final EarthMovers earthMovers = new EarthMovers();
+
+  QuantizedWordMovers(QuantizedWordVectors vectors) {
+    this.vectors = vectors;
+  }
+
+  /**
+   * Computes the Word Mover's Distance between the given texts, whose words are separated by a
+   * space.
+   *
+   * @param text1 the first text
+   * @param text2 the second text
+   * @return the distance between {@code text1} and {@code text2}
+   * @throws IllegalArgumentException if one of the texts is empty
+   * @throws NoSuchElementException if one of the texts has no word with a vector
+   */
+  double distance(String text1, String text2) {
+    if (text1.isEmpty() || text2.isEmpty()) {
+      throw new IllegalArgumentException("Texts must not be empty");
+    }
+    final Map<Integer, Long> bag1 = bag(text1);
+    final Map<Integer, Long> bag2 = bag(text2);
+    if (bag1.isEmpty() || bag2.isEmpty()) {
+      throw new NoSuchElementException("No word vectors for \"" + text1 + "\" | \"" + text2 + "\"");
+    }
+
+    final List<Integer> words = new ArrayList<>(bag1.keySet());
+    for (Integer word : bag2.keySet()) {
+      if (!bag1.containsKey(word)) {
+        words.add(word);
+      }
+    }
+    // As in wmd4j, the distance between a word of text1 and a word of text2 is set in both
+    // directions: the solver moves the mass of the lighter text, which may be either one.
+    final double[][] distances = new double[words.size()][words.size()];
+    for (int i = 0; i < words.size(); i++) {
+      for (int j = 0; j < words.size(); j++) {
+        if (bag1.containsKey(words.get(i)) && bag2.containsKey(words.get(j))) {
+          distances[i][j] = vectors.distance(words.get(i), words.get(j));
+          distances[j][i] = distances[i][j];
+        }
+      }
+    }
+    return earthMovers.distance(masses(words, bag1), masses(words, bag2), distances, 0);
+  }
+
+  /** Counts the occurrences of the words of the given text that have a vector, by word index. */
+  private Map<Integer, Long> bag(String text) {
+    final Map<Integer, Long> bag = new LinkedHashMap<>();
+    for (String word : text.split(" ")) {
+      final int index = vectors.indexOf(word);
+      if (index != -1) {
+        bag.merge(index, 1L, Long::sum);
+      }
+    }
+    return bag;
+  }
+
+  /** Computes the mass of each word in the bag: its occurrences over the distinct words. */
+  private static double[] masses(List<Integer> words, Map<Integer, Long> bag) {
+    final double[] masses = new double[words.size()];
+    for (int i = 0; i < words.size(); i++) {
+      final Long occurrences = bag.get(words.get(i));
+      masses[i] = occurrences == null ? 0 : (double) occurrences / bag.size();
+    }
+    return masses;
+  }
+}
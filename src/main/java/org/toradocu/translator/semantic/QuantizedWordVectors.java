@@ -0,0 +1,314 @@
+package org.toradocu.translator.semantic;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.toradocu.util.Checks;
+
+/**
+ * Word vectors quantized to 8-bit integers, with a scale per vector. A quantized vector file is
+ * built once from a GloVe model in text format with {@link #convert(Path, Path)} and takes a
+ * quarter of the space of the float vectors. Quantized files are memory-mapped when opened, so that
+ * only the vectors that are actually used become resident.
+ *
+ * <p>Every component {@code x} of a vector with scale {@code s} is stored as the byte {@code
+ * round(x / s)}, where {@code s} is the largest absolute value of the components divided by 127.
+ * The error on each component is then at most {@code s / 2}.
+ *
+ * <p>The file contains, in order (integers are big endian):
+ *
+ * <ul>
+ *   <li>the magic number {@code 0x54515756} ("TQWV"), the format version, the number of words, and
+ *       the number of dimensions of the vectors (four 32-bit integers);
+ *   <li>the offset of each word in the words section (32-bit integers), with words sorted in
+ *       lexicographic order;
+ *   <li>the scale of the vector of each word (32-bit floats), in the same order;
+ *   <li>the quantized vector of each word (bytes), in the same order;
+ *   <li>the words section: each word is stored as its length in bytes (16-bit unsigned integer)
+ *       followed by its UTF-8 encoding.
+ * </ul>
+ *
+ * <p>Instances of this class can be used concurrently by different threads.
+ */
+public final class QuantizedWordVectors {
+
+  /** Magic number identifying quantized vector files ("TQWV"). */
+  private static final int MAGIC = 0x54515756;
+  /** Version of the file format. */
+  private static final int VERSION = 1;
+  /** Size of the header, in bytes. */
+  private static final int HEADER_SIZE = 16;
+  /** Largest absolute value of a quantized component. */
+  private static final int MAX_QUANTIZED = 127;
+
+  /** Content of the file. Only absolute get methods are used, so that it can be shared. */
+  private final ByteBuffer buffer;
+  /** Number of words in the file. */
+  private final int size;
+  /** Number of dimensions of the vectors. */
+  private final int dimensions;
+  /** Offset of the scales in the file. */
+  private final int scalesStart;
+  /** Offset of the vectors in the file. */
+  private final int vectorsStart;
+  /** Offset of the words section in the file. */
+  private final int wordsStart;
+  /** Indexes of the words looked up so far, -1 for words not in the file. */
+  private final Map<String, Integer> lookups = new ConcurrentHashMap<>();
+
+  private QuantizedWordVectors(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a quantized word vector file");
+    }
+    final int version = buffer.getInt(4);
+    if (version != VERSION) {
+      throw new IOException(
+          "Unsupported version of the quantized word vector format: "
+              + version
+              + " (expected "
+              + VERSION
+              + ")");
+    }
+    this.size = buffer.getInt(8);
+    this.dimensions = buffer.getInt(12);
+    this.scalesStart = HEADER_SIZE + 4 * size;
+    this.vectorsStart = scalesStart + 4 * size;
+    final long wordsStart = vectorsStart + (long) size * dimensions;
+    if (size < 0 || dimensions <= 0 || wordsStart > buffer.capacity()) {
+      throw new IOException("Corrupted quantized word vector file");
+    }
+    this.wordsStart = (int) wordsStart;
+  }
+
+  /**
+   * Opens the given quantized word vector file, memory-mapping it.
+   *
+   * @param file the quantized word vector file to open, must not be null
+   * @return the quantized word vectors in {@code file}
+   * @throws IOException if the file cannot be read, is not a quantized word vector file, or has an
+   *     unsupported version
+   */
+  public static QuantizedWordVectors open(Path file) throws IOException {
+    Checks.nonNullParameter(file, "file");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Quantized word vector file too large: " + file);
+      }
+      // The mapping stays valid after the channel is closed.
+      return new QuantizedWordVectors(
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Converts a GloVe model in text format (one word per line, followed by the components of its
+   * vector, separated by spaces) into a quantized word vector file. Words appearing more than once
+   * keep their first vector.
+   *
+   * @param gloveModel the GloVe model in text format, must not be null
+   * @param output the quantized word vector file to write, must not be null
+   * @return the number of words written to {@code output}
+   * @throws IOException if the model cannot be read, is malformed, or the output cannot be written
+   */
+  public static int convert(Path gloveModel, Path output) throws IOException {
+    Checks.nonNullParameter(gloveModel, "gloveModel");
+    Checks.nonNullParameter(output, "output");
+    final List<String> words = new ArrayList<>();
+    final List<byte[]> vectors = new ArrayList<>();
+    final List<Float> scales = new ArrayList<>();
+    final Set<String> seen = new HashSet<>();
+    int dimensions = -1;
+    try (BufferedReader reader = Files.newBufferedReader(gloveModel, StandardCharsets.UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isEmpty()) {
+          continue;
+        }
+        final String[] tokens = line.split(" ");
+        if (dimensions == -1) {
+          dimensions = tokens.length - 1;
+        }
+        if (tokens.length - 1 != dimensions || dimensions == 0) {
+          throw new IOException("Malformed vector at line " + lineNumber + " of " + gloveModel);
+        }
+        if (!seen.add(tokens[0])) {
+          continue;
+        }
+        final float[] vector = new float[dimensions];
+        try {
+          for (int i = 0; i < dimensions; i++) {
+            vector[i] = Float.parseFloat(tokens[i + 1]);
+          }
+        } catch (NumberFormatException e) {
+          throw new IOException("Malformed vector at line " + lineNumber + " of " + gloveModel, e);
+        }
+        final byte[] quantized = new byte[dimensions];
+        scales.add(quantize(vector, quantized));
+        vectors.add(quantized);
+        words.add(tokens[0]);
+      }
+    }
+    if (dimensions == -1) {
+      throw new IOException("Empty GloVe model " + gloveModel);
+    }
+
+    final List<Integer> order = new ArrayList<>(words.size());
+    for (int i = 0; i < words.size(); i++) {
+      order.add(i);
+    }
+    order.sort(Comparator.comparing(words::get));
+
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(words.size());
+      out.writeInt(dimensions);
+      int wordOffset = 0;
+      for (int index : order) {
+        out.writeInt(wordOffset);
+        wordOffset += 2 + words.get(index).getBytes(StandardCharsets.UTF_8).length;
+      }
+      for (int index : order) {
+        out.writeFloat(scales.get(index));
+      }
+      for (int index : order) {
+        out.write(vectors.get(index));
+      }
+      for (int index : order) {
+        final byte[] word = words.get(index).getBytes(StandardCharsets.UTF_8);
+        out.writeShort(word.length);
+        out.write(word);
+      }
+    }
+    return words.size();
+  }
+
+  /**
+   * Quantizes the given vector.
+   *
+   * @param vector the vector to quantize
+   * @param quantized the array where the quantized components are stored
+   * @return the scale of the quantized vector
+   */
+  static float quantize(float[] vector, byte[] quantized) {
+    float max = 0;
+    for (float component : vector) {
+      max = Math.max(max, Math.abs(component));
+    }
+    final float scale = max / MAX_QUANTIZED;
+    for (int i = 0; i < vector.length; i++) {
+      quantized[i] = scale == 0 ? 0 : (byte) Math.round(vector[i] / scale);
+    }
+    return scale;
+  }
+
+  /**
+   * Returns the number of words in the file.
+   *
+   * @return the number of words in the file
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of dimensions of the vectors.
+   *
+   * @return the number of dimensions of the vectors
+   */
+  public int dimensions() {
+    return dimensions;
+  }
+
+  /**
+   * Returns the index of the given word.
+   *
+   * @param word the word to look up
+   * @return the index of {@code word}, -1 if the file does not contain it
+   */
+  public int indexOf(String word) {
+    return lookups.computeIfAbsent(word, this::search);
+  }
+
+  /**
+   * Returns the vector of the word with the given index, with its components converted back from
+   * their quantized values.
+   *
+   * @param index the index of the word
+   * @return the vector of the word with index {@code index}
+   */
+  public double[] vector(int index) {
+    final double scale = buffer.getFloat(scalesStart + 4 * index);
+    final int start = vectorsStart + index * dimensions;
+    final double[] vector = new double[dimensions];
+    for (int i = 0; i < dimensions; i++) {
+      vector[i] = scale * buffer.get(start + i);
+    }
+    return vector;
+  }
+
+  /**
+   * Computes the Euclidean distance between the vectors of the words with the given indexes,
+   * directly on their quantized components.
+   *
+   * @param index1 the index of the first word
+   * @param index2 the index of the second word
+   * @return the distance between the vectors of the words
+   */
+  public double distance(int index1, int index2) {
+    final double scale1 = buffer.getFloat(scalesStart + 4 * index1);
+    final double scale2 = buffer.getFloat(scalesStart + 4 * index2);
+    final int start1 = vectorsStart + index1 * dimensions;
+    final int start2 = vectorsStart + index2 * dimensions;
+    double sum = 0;
+    for (int i = 0; i < dimensions; i++) {
+      final double difference = scale1 * buffer.get(start1 + i) - scale2 * buffer.get(start2 + i);
+      sum += difference * difference;
+    }
+    return Math.sqrt(sum);
+  }
+
+  private int search(String word) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int comparison = wordAt(middle).compareTo(word);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  private String wordAt(int index) {
+    final int offset = wordsStart + buffer.getInt(HEADER_SIZE + 4 * index);
+    final byte[] bytes = new byte[buffer.getShort(offset) & 0xFFFF];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(offset + 2 + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,85 @@
+package org.toradocu.translator.semantic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import org.toradocu.conf.RunContext;
+
+/**
+ * Pool of threads where the semantic matcher scores candidate code elements in parallel. The pool
+ * is shared by all the runs and has one daemon thread per available processor, so that concurrent
+ * runs cannot oversubscribe the machine.
+ */
+final class ScoringPool {
+
+  /** Number of threads of the pool. */
+  static final int SIZE = Runtime.getRuntime().availableProcessors();
+
+  private ScoringPool() {}
+
+  /** Holds the pool, created at the first parallel scoring. */
+  private static final class Holder {
+    private static final ExecutorService POOL =
+        Executors.newFixedThreadPool(
+            SIZE,
+            new ThreadFactory() {
+              private final AtomicInteger count = new AtomicInteger();
+
+              @Override
+              public Thread newThread(Runnable task) {
+                final Thread thread =
+                    new Thread(task, "semantic-scoring-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              }
+            });
+  }
+
+  /**
+   * Runs {@code slices} slices of a scoring task, one on the calling thread and the others on the
+   * pool, and waits for all of them to complete. Each slice receives its index, from 0 to {@code
+   * slices - 1}, and runs in the run bound to the calling thread.
+   *
+   * @param slices the number of slices, greater than 0
+   * @param slice scores the slice with the given index
+   * @throws IllegalStateException if the calling thread is interrupted while waiting
+   */
+  static void run(int slices, IntConsumer slice) {
+    final RunContext context = RunContext.current();
+    final List<Future<?>> futures = new ArrayList<>(slices - 1);
+    for (int i = 1; i < slices; i++) {
+      final int index = i;
+      futures.add(
+          Holder.POOL.submit(
+              () -> {
+                try (RunContext.Scope scope = context.bind()) {
+                  slice.accept(index);
+                }
+              }));
+    }
+    slice.accept(0);
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while scoring candidates", e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+}
@@ -1,15 +1,14 @@
 package org.toradocu.translator.semantic;
 
-import com.crtomirmajer.wmd4j.WordMovers;
-import edu.stanford.nlp.ling.CoreLabel;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.net.URISyntaxException;
 import java.util.*;
+import java.util.function.ToDoubleBiFunction;
 import java.util.stream.Collectors;
 import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.translator.*;
+import org.toradocu.util.Metrics;
 
 /**
  * Main component. Contains all the methods to compute the {@code SemantichMatch}es for a given
@@ -18,11 +17,6 @@ import org.toradocu.translator.*;
  */
 public class SemanticMatcher {
 
-  /**
-   * Tells whether the semantic matching is enabled or not according to configuration parameters.
-   */
-  private static boolean enabled;
-
   /**
    * List of words to be ignored in the comment and code element name when performing semantic
    * matching.
@@ -68,12 +62,14 @@ public class SemanticMatcher {
                 "specify"));
   }
 
+  /**
+   * Tells whether the semantic matching is enabled or not according to the configuration of the
+   * current run.
+   *
+   * @return true if the semantic matching is enabled, false otherwise
+   */
   public static boolean isEnabled() {
-    return enabled;
-  }
-
-  public static void setEnabled(boolean enabled) {
-    SemanticMatcher.enabled = enabled;
+    return RunContext.current().getConfiguration().isSemanticMatcherEnabled();
   }
 
   /**
@@ -98,8 +94,10 @@ public class SemanticMatcher {
       String comment)
       throws IOException {
 
-    stopwords.add(method.getDeclaringClass().getSimpleName().toLowerCase());
-    return wmdMatch(comment, proposition, subject, method, codeElements);
+    try (Metrics.Timer timer = Metrics.time(Metrics.Stage.SEMANTIC_MATCHING)) {
+      stopwords.add(method.getDeclaringClass().getSimpleName().toLowerCase());
+      return wmdMatch(comment, proposition, subject, method, codeElements);
+    }
   }
 
   /**
@@ -129,21 +127,7 @@ public class SemanticMatcher {
    */
   private List<String> parseComment(String comment) {
     comment = comment.replaceAll("[^A-Za-z0-9 ]", "").toLowerCase();
-
-    ArrayList<String> wordComment = new ArrayList<String>(Arrays.asList(comment.split(" ")));
-    int index = 0;
-    List<CoreLabel> lemmas = StanfordParser.lemmatize(comment);
-    for (CoreLabel lemma : lemmas) {
-      if (lemma != null) {
-        if (index < wordComment.size()) {
-          wordComment.remove(index);
-        }
-        wordComment.add(index, lemma.lemma());
-      }
-      index++;
-    }
-
-    return this.removeStopWords(wordComment);
+    return this.removeStopWords(LemmaCache.commentLemmas(comment));
   }
 
   /**
@@ -164,20 +148,25 @@ public class SemanticMatcher {
       throws IOException {
     Map<CodeElement<?>, Double> distances = new LinkedHashMap<>();
 
-    FileWriter writer = new FileWriter("wmd-glove-distances.csv", true);
+    // Rows of the distances file are collected and appended at once, so that concurrent runs do
+    // not interleave them.
+    StringBuilder distancesRows = new StringBuilder();
 
-    WordMovers wm = null;
-    try {
-      wm =
-          WordMovers.Builder()
-              .wordVectors(GloveModelWrapper.getInstance().getGloveTxtVectors())
-              .build();
-    } catch (URISyntaxException e) {
-      e.printStackTrace();
-    }
+    WordVectorIndex index = WordVectorIndex.current();
 
     //    String subject = proposition.getSubject().getSubject();
     List<String> commentWordSet = parseComment(comment);
+    updateThreshold(commentWordSet);
+    String parsedComment =
+        String.join(" ", commentWordSet).replaceAll("\\s+", " ").trim().toLowerCase();
+    WordBag commentBag = null;
+    // Code elements whose distance from the comment has to be computed, and the index in
+    // scoredCodeElements of the distance of each row of the distances file (-1 when the distance
+    // is not computed).
+    List<CodeElement<?>> scoredCodeElements = new ArrayList<>();
+    List<String> scoredNames = new ArrayList<>();
+    List<String> rows = new ArrayList<>();
+    List<Integer> rowScores = new ArrayList<>();
     if (codeElements != null && !codeElements.isEmpty()) {
       for (CodeElement<?> codeElement : codeElements) {
         // For each code element, compute the corresponding vector and compute the distance
@@ -190,50 +179,94 @@ public class SemanticMatcher {
         } else {
           continue;
         }
-        double dist = 10;
         List<String> camelId = parseCodeElementName(name);
         List<String> codeElementWordSet = removeStopWords(camelId);
         //        Set<String> codeElementWordSet = new HashSet<>(camelId);
 
-        String parsedComment =
-            String.join(" ", commentWordSet).replaceAll("\\s+", " ").trim().toLowerCase();
         String parsedCodeElement =
             String.join(" ", codeElementWordSet).replaceAll("\\s+", " ").trim().toLowerCase();
 
-        writer.append(parsedComment + ";");
-        writer.append(parsedCodeElement + ";");
-        writer.append(String.valueOf(commentWordSet.size()) + ";");
+        rows.add(parsedComment + ";" + parsedCodeElement + ";" + commentWordSet.size() + ";");
+        int score = -1;
 
-        if (codeElement instanceof MethodCodeElement
-            && !((MethodCodeElement) codeElement).getReceiver().equals(Configuration.RECEIVER)
-            && !areComplementary((MethodCodeElement) codeElement, method)) {
-          try {
-            dist = wm.distance(parsedComment, parsedCodeElement);
-          } catch (Exception e) {
-            // do nothing
+        // Methods are candidates, but for the getter symmetric to a setter. Methods of the
+        // receiver object are candidates only when the receiver is the subject of the comment.
+        boolean isCandidate =
+            codeElement instanceof MethodCodeElement
+                && !areComplementary((MethodCodeElement) codeElement, method)
+                && (!((MethodCodeElement) codeElement).getReceiver().equals(Configuration.RECEIVER)
+                    || proposition.getSubject().isPassive()
+                    || subjectCodeElement.toString().startsWith(Configuration.RECEIVER + ":"));
+        if (isCandidate) {
+          if (commentBag == null) {
+            commentBag = index.embed(parsedComment);
           }
-          distances.put(codeElement, dist);
-        } else if (codeElement instanceof MethodCodeElement
-            && ((MethodCodeElement) codeElement).getReceiver().equals(Configuration.RECEIVER)
-            && !areComplementary((MethodCodeElement) codeElement, method)) {
-          if (proposition.getSubject().isPassive()
-              || subjectCodeElement.toString().startsWith(Configuration.RECEIVER + ":")) {
-            try {
-              dist = wm.distance(parsedComment, parsedCodeElement);
-            } catch (Exception e) {
-              // do nothing
-            }
-            distances.put(codeElement, dist);
+          WordBag codeElementBag =
+              index.codeElementBag(method.getDeclaringClass(), parsedCodeElement);
+          if (WordVectorIndex.exceeds(commentBag, codeElementBag, wmdThreshold)) {
+            // The code element would be discarded anyway: skip the exact distance.
+            Metrics.increment(Metrics.Counter.WMD_PRUNED);
+          } else {
+            score = scoredCodeElements.size();
+            scoredCodeElements.add(codeElement);
+            scoredNames.add(parsedCodeElement);
           }
         }
-        writer.append(String.valueOf(dist) + "\n");
+        rowScores.add(score);
       }
     }
-    writer.flush();
-    writer.close();
+
+    // Distances are computed (possibly in parallel) and then collected in the order of the code
+    // elements, so that the result does not depend on the number of threads.
+    double[] scores = wmdDistances(parsedComment, scoredNames);
+    for (int i = 0; i < scoredCodeElements.size(); i++) {
+      distances.put(scoredCodeElements.get(i), scores[i]);
+    }
+    for (int i = 0; i < rows.size(); i++) {
+      double dist = rowScores.get(i) == -1 ? 10 : scores[rowScores.get(i)];
+      distancesRows.append(rows.get(i)).append(dist).append("\n");
+    }
+    DistancesFile.append(distancesRows);
     return retainMatches(commentWordSet, method.getSignature(), distances);
   }
 
+  /**
+   * Computes the Word Mover's Distance between the given comment and each of the given code element
+   * names. Names are split in as many slices as the threads set in the configuration (interleaved,
+   * so that slices have similar costs), and slices are scored in parallel, each with its own
+   * distance calculator. The distance of a name whose distance cannot be computed is 10.
+   *
+   * @param parsedComment the parsed comment
+   * @param parsedNames the parsed code element names
+   * @return the distances between {@code parsedComment} and {@code parsedNames}, in the same order
+   */
+  private static double[] wmdDistances(String parsedComment, List<String> parsedNames) {
+    final double[] distances = new double[parsedNames.size()];
+    int threads = RunContext.current().getConfiguration().getSemanticMatcherThreads();
+    if (threads <= 0) {
+      threads = ScoringPool.SIZE;
+    }
+    final int slices = Math.max(1, Math.min(threads, parsedNames.size()));
+    final WordVectorIndex index = WordVectorIndex.current();
+    ScoringPool.run(
+        slices,
+        slice -> {
+          // Distance calculators are not thread-safe: every slice uses its own.
+          final ToDoubleBiFunction<String, String> wm = index.newDistanceCalculator();
+          for (int i = slice; i < parsedNames.size(); i += slices) {
+            double dist = 10;
+            try {
+              Metrics.increment(Metrics.Counter.WMD_COMPUTATIONS);
+              dist = wm.applyAsDouble(parsedComment, parsedNames.get(i));
+            } catch (Exception e) {
+              // do nothing
+            }
+            distances[i] = dist;
+          }
+        });
+    return distances;
+  }
+
   /**
    * Split code element name according to camel case
    *
@@ -241,19 +274,19 @@ public class SemanticMatcher {
    * @return list of words composing the code element name
    */
   private List<String> parseCodeElementName(String name) {
-    ArrayList<String> camelId = new ArrayList<>(Arrays.asList(name.split("(?<!^)(?=[A-Z])")));
-    String joinedId = String.join(" ", camelId).replaceAll("\\s+", " ").trim().toLowerCase();
-    int index = 0;
-    for (CoreLabel lemma : StanfordParser.lemmatize(joinedId)) {
-      if (lemma != null) {
-        if (index < camelId.size()) {
-          camelId.remove(index);
-        }
-        camelId.add(index, lemma.lemma());
-      }
-      index++;
+    return LemmaCache.codeElementNameLemmas(name);
+  }
+
+  /**
+   * Raises the distance threshold for long comments, whose distances from code element names are
+   * naturally higher.
+   *
+   * @param commentWords the words of the comment to match
+   */
+  private void updateThreshold(List<String> commentWords) {
+    if (commentWords.size() > 8) {
+      wmdThreshold = 5.96f;
     }
-    return camelId;
   }
 
   /**
@@ -265,10 +298,6 @@ public class SemanticMatcher {
    */
   private LinkedHashMap<CodeElement<?>, Double> retainMatches(
       List<String> commentWords, String methodName, Map<CodeElement<?>, Double> distances) {
-    if (commentWords.size() > 8) {
-      wmdThreshold = 5.96f;
-    }
-
     // Select as candidates only code elements that have a semantic distance below the chosen
     // threshold.
     LinkedHashMap<CodeElement<?>, Double> orderedDistances;
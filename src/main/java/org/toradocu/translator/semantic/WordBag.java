@@ -0,0 +1,120 @@
+package org.toradocu.translator.semantic;
+
+/**
+ * Bag of word vectors of a text, weighted as in the Word Mover's Distance computed by wmd4j: every
+ * distinct word with a vector has a mass equal to its number of occurrences divided by the number
+ * of distinct words. Word bags are immutable.
+ */
+final class WordBag {
+
+  /** The empty bag, i.e., the bag of a text without words having a vector. */
+  static final WordBag EMPTY = new WordBag(new double[0][], new long[0]);
+
+  /** Scale of the masses that wmd4j rounds to integers before solving the transport problem. */
+  private static final double MASS_SCALE = 1_000_000;
+
+  /** Vectors of the distinct words of the bag. */
+  private final double[][] vectors;
+  /** Mass of each distinct word, in the same order as {@code vectors}. */
+  private final double[] masses;
+  /** Total mass of the bag. */
+  private final double totalMass;
+
+  /**
+   * Creates a new bag of word vectors.
+   *
+   * @param vectors the vectors of the distinct words of the bag
+   * @param occurrences the number of occurrences of each word, in the same order as {@code vectors}
+   */
+  WordBag(double[][] vectors, long[] occurrences) {
+    if (vectors.length != occurrences.length) {
+      throw new IllegalArgumentException("Vectors and occurrences must have the same length");
+    }
+    this.vectors = vectors;
+    this.masses = new double[occurrences.length];
+    double totalMass = 0;
+    for (int i = 0; i < occurrences.length; i++) {
+      masses[i] = (double) occurrences[i] / occurrences.length;
+      totalMass += masses[i];
+    }
+    this.totalMass = totalMass;
+  }
+
+  /**
+   * Tells whether the bag has no word. The Word Mover's Distance from or to an empty bag is
+   * undefined.
+   *
+   * @return true if the bag has no word, false otherwise
+   */
+  boolean isEmpty() {
+    return vectors.length == 0;
+  }
+
+  /**
+   * Returns a lower bound of the Word Mover's Distance computed by wmd4j from this bag to {@code
+   * other}.
+   *
+   * <p>wmd4j rounds the masses of the bags to integers and moves the whole mass of the lighter bag
+   * into the heavier one, at no cost for the mass in excess. The matrix of the distances between
+   * the words of the bags is symmetric, so the direction of the transport does not change its cost.
+   * Every word of the lighter bag must then move its whole mass at least as far as the nearest word
+   * of the other bag: the sum of these costs (the relaxed Word Mover's Distance) cannot exceed the
+   * exact distance. When the bags have the same mass the bound is computed in both directions and
+   * the tighter one is returned.
+   *
+   * @param other the other bag
+   * @return a lower bound of the distance between the bags, infinity if one of them is empty
+   */
+  double lowerBound(WordBag other) {
+    if (isEmpty() || other.isEmpty()) {
+      return Double.POSITIVE_INFINITY;
+    }
+    final double scale = MASS_SCALE / Math.max(totalMass, other.totalMass);
+    final long roundedMass = roundedMass(scale);
+    final long otherRoundedMass = other.roundedMass(scale);
+    if (roundedMass < otherRoundedMass) {
+      return relaxedDistance(this, other);
+    } else if (roundedMass > otherRoundedMass) {
+      return relaxedDistance(other, this);
+    }
+    return Math.max(relaxedDistance(this, other), relaxedDistance(other, this));
+  }
+
+  /** Computes the total mass of the bag after wmd4j scales and rounds the masses of its words. */
+  private long roundedMass(double scale) {
+    long roundedMass = 0;
+    for (double mass : masses) {
+      roundedMass += (long) Math.floor(mass * scale + 0.5);
+    }
+    return roundedMass;
+  }
+
+  /**
+   * Computes the cost of moving the whole mass of every word of {@code from} to its nearest word of
+   * {@code to}.
+   */
+  private static double relaxedDistance(WordBag from, WordBag to) {
+    double cost = 0;
+    for (int i = 0; i < from.vectors.length; i++) {
+      double nearest = Double.POSITIVE_INFINITY;
+      for (double[] vector : to.vectors) {
+        nearest = Math.min(nearest, squaredDistance(from.vectors[i], vector, nearest));
+      }
+      cost += from.masses[i] * Math.sqrt(nearest);
+    }
+    return cost;
+  }
+
+  /**
+   * Computes the squared Euclidean distance between two vectors, stopping early as soon as it
+   * exceeds {@code limit}.
+   */
+  private static double squaredDistance(double[] a, double[] b, double limit) {
+    double sum = 0;
+    for (int i = 0; i < a.length && sum <= limit; i++) {
+      final double difference = a[i] - b[i];
+      sum += difference * difference;
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,173 @@
+package org.toradocu.translator.semantic;
+
+import com.crtomirmajer.wmd4j.WordMovers;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleBiFunction;
+import org.deeplearning4j.models.embeddings.wordvectors.WordVectors;
+import org.toradocu.conf.RunContext;
+
+/**
+ * Index of the word vectors of the code element names of the classes under analysis. The names of
+ * the candidate code elements of a class are embedded once per run, as bags of word vectors, and
+ * reused by the semantic matching of all the comments of the class. Together with {@link
+ * WordBag#lowerBound(WordBag)}, the index lets the semantic matcher discard most candidates without
+ * computing their exact Word Mover's Distance.
+ *
+ * <p>Vectors are the float GloVe vectors, or the quantized vectors of the file set with the {@code
+ * --quantized-vectors} option. The index also creates the Word Mover's Distance calculators on the
+ * same vectors.
+ */
+final class WordVectorIndex {
+
+  /** Index of each run. */
+  private static final RunContext.Key<WordVectorIndex> INDEX =
+      new RunContext.Key<>(WordVectorIndex::create);
+
+  /**
+   * Relative tolerance of the pruning. wmd4j rounds masses and distances to integers before solving
+   * the transportation problem, so its results can be slightly lower than the exact distance.
+   */
+  private static final double PRUNING_TOLERANCE = 1e-3;
+
+  /** Returns the vector of a word, null if the word has no vector. */
+  private final Function<String, double[]> vectors;
+  /** Creates Word Mover's Distance calculators, which are not thread-safe. */
+  private final Supplier<ToDoubleBiFunction<String, String>> calculators;
+  /** Bags of the code element names of each class, by parsed name. */
+  private final Map<Class<?>, Map<String, WordBag>> codeElementBags = new ConcurrentHashMap<>();
+
+  private WordVectorIndex(
+      Function<String, double[]> vectors,
+      Supplier<ToDoubleBiFunction<String, String>> calculators) {
+    this.vectors = vectors;
+    this.calculators = calculators;
+  }
+
+  /**
+   * Creates the index of the current run on the vectors set in its configuration.
+   *
+   * @return the index of the current run
+   * @throws WordVectorsException if the vectors cannot be loaded
+   */
+  private static WordVectorIndex create() {
+    final File quantizedVectors = RunContext.current().getConfiguration().getQuantizedVectors();
+    if (quantizedVectors != null) {
+      final QuantizedWordVectors quantized;
+      try {
+        quantized = QuantizedWordVectors.open(quantizedVectors.toPath());
+      } catch (IOException e) {
+        throw new WordVectorsException(
+            "Unable to load the quantized word vectors " + quantizedVectors, e);
+      }
+      return new WordVectorIndex(
+          word -> {
+            final int index = quantized.indexOf(word);
+            return index == -1 ? null : quantized.vector(index);
+          },
+          () -> new QuantizedWordMovers(quantized)::distance);
+    }
+
+    final WordVectors glove;
+    try {
+      glove = GloveModelWrapper.getInstance().getGloveTxtVectors();
+    } catch (URISyntaxException e) {
+      throw new WordVectorsException("Unable to locate the GloVe model", e);
+    }
+    if (glove == null) {
+      throw new WordVectorsException("Unable to load the GloVe model", null);
+    }
+    return new WordVectorIndex(
+        word -> glove.hasWord(word) ? glove.getWordVector(word) : null,
+        () -> WordMovers.Builder().wordVectors(glove).build()::distance);
+  }
+
+  /**
+   * Returns the index of the current run, loading its vectors at the first call in the run.
+   *
+   * @return the index of the current run
+   * @throws WordVectorsException if the vectors of the run cannot be loaded
+   */
+  static WordVectorIndex current() {
+    return RunContext.current().get(INDEX);
+  }
+
+  /**
+   * Returns the bag of word vectors of the given parsed code element name of {@code type},
+   * embedding it only the first time it is requested in the current run.
+   *
+   * @param type the class the code element name is matched against
+   * @param parsedName the lemmatized words of the name, without stopwords, separated by a space
+   * @return the bag of word vectors of {@code parsedName}
+   */
+  WordBag codeElementBag(Class<?> type, String parsedName) {
+    return codeElementBags
+        .computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+        .computeIfAbsent(parsedName, this::embed);
+  }
+
+  /**
+   * Returns the bag of word vectors of the given text. Words are separated by a space and words
+   * without a vector are ignored, as wmd4j does.
+   *
+   * @param text the text to embed
+   * @return the bag of word vectors of {@code text}
+   */
+  WordBag embed(String text) {
+    if (text.isEmpty()) {
+      return WordBag.EMPTY;
+    }
+    final Map<String, Long> occurrences = new LinkedHashMap<>();
+    final Map<String, double[]> wordVectors = new LinkedHashMap<>();
+    for (String word : text.split(" ")) {
+      if (occurrences.containsKey(word)) {
+        occurrences.merge(word, 1L, Long::sum);
+      } else {
+        final double[] vector = vectors.apply(word);
+        if (vector != null) {
+          wordVectors.put(word, vector);
+          occurrences.put(word, 1L);
+        }
+      }
+    }
+    final List<double[]> bagVectors = new ArrayList<>(wordVectors.values());
+    final long[] counts = new long[occurrences.size()];
+    int i = 0;
+    for (long count : occurrences.values()) {
+      counts[i++] = count;
+    }
+    return new WordBag(bagVectors.toArray(new double[0][]), counts);
+  }
+
+  /**
+   * Creates a calculator of the Word Mover's Distance between two texts on the vectors of this
+   * index. Calculators throw an exception when the distance is undefined (e.g., when a text has no
+   * word with a vector), and are not thread-safe.
+   *
+   * @return a new Word Mover's Distance calculator
+   */
+  ToDoubleBiFunction<String, String> newDistanceCalculator() {
+    return calculators.get();
+  }
+
+  /**
+   * Tells whether the Word Mover's Distance between the given bags is certainly above {@code
+   * threshold}, so that computing it is useless.
+   *
+   * @param comment the bag of the comment
+   * @param codeElement the bag of the code element name
+   * @param threshold the highest acceptable distance
+   * @return true if the distance between the bags is certainly above {@code threshold}
+   */
+  static boolean exceeds(WordBag comment, WordBag codeElement, double threshold) {
+    return comment.lowerBound(codeElement) > threshold * (1 + PRUNING_TOLERANCE);
+  }
+}
@@ -0,0 +1,21 @@
+package org.toradocu.translator.semantic;
+
+/**
+ * Signals that the word vectors of the semantic matcher (the GloVe model or the file set with the
+ * {@code --quantized-vectors} option) cannot be loaded. Semantic matching cannot proceed without
+ * vectors, so the exception is not recovered by the matcher and terminates the run.
+ */
+public final class WordVectorsException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Creates a new exception with the given message and cause.
+   *
+   * @param message the detail message
+   * @param cause the reason why the word vectors cannot be loaded, may be null
+   */
+  WordVectorsException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
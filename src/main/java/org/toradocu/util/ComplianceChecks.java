@@ -2,16 +2,22 @@ package org.toradocu.util;
 
 import java.io.File;
 import java.lang.reflect.Modifier;
-import java.net.URL;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import org.mdkt.compiler.CompilationException;
-import org.mdkt.compiler.InMemoryJavaCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
 import org.toradocu.extractor.JavadocExtractor;
@@ -36,25 +42,11 @@ public class ComplianceChecks {
       // if the target class is private we cannot apply compliance check.
       return true;
     }
-    SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
-    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder);
-    String sourceCode = sourceCodeBuilder.buildSource();
-    try {
-      compileSource(sourceCode);
-    } catch (CompilationException e) {
-      log.info(
-          "The following specification was generated but discarded:\n"
-              + guard.getConditionText()
-              + "\n"
-              + e.getLocalizedMessage()
-              + "\n");
-      return false;
-    } catch (ClassNotFoundException e) {
-      // ignore
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    return true;
+    return isCompilable(
+        method,
+        Collections.singletonList(guard.getConditionText()),
+        false,
+        guard.getConditionText());
   }
 
   /**
@@ -72,49 +64,208 @@ public class ComplianceChecks {
       // if the target class is private we cannot apply compliance check.
       return true;
     }
+    return isCompilable(
+        method,
+        Arrays.asList(guard.getConditionText(), property.getConditionText()),
+        true,
+        guard.getConditionText() + " ? " + property.getConditionText());
+  }
+
+  /**
+   * Submits the compliance check of the given {@code Guard} (see {@link
+   * #isSpecCompilable(DocumentedExecutable, Guard)}) to the pool of compliance workers, so that the
+   * caller can go on while the condition is compiled.
+   *
+   * @param method documented executable the guard belongs to
+   * @param guard the guard which condition must be checked for compliance
+   * @return the future result of the compliance check: true if the condition was compilable
+   */
+  public static CompletableFuture<Boolean> checkSpec(DocumentedExecutable method, Guard guard) {
+    return CompliancePool.submit(() -> isSpecCompilable(method, guard));
+  }
+
+  /**
+   * Submits the compliance check of the given {@code Guard} and {@code Property} (see {@link
+   * #isPostSpecCompilable(DocumentedExecutable, Guard, Property)}) to the pool of compliance
+   * workers, so that the caller can go on while the conditions are compiled.
+   *
+   * @param method documented executable the guard belongs to
+   * @param guard the guard which condition must be checked for compliance
+   * @param property the property which condition must be checked for compliance
+   * @return the future result of the compliance check: true if the conditions were compilable
+   */
+  public static CompletableFuture<Boolean> checkPostSpec(
+      DocumentedExecutable method, Guard guard, Property property) {
+    return CompliancePool.submit(() -> isPostSpecCompilable(method, guard, property));
+  }
+
+  /**
+   * Tells whether the given conditions compile. Conditions are first checked by the {@code
+   * ConditionTypeChecker}, and compiled only if the type checker cannot decide (or if its verdict
+   * has to be cross-checked).
+   *
+   * @param method documented executable the conditions belong to
+   * @param conditions the conditions to check
+   * @param withResult true if the conditions can refer to the result of {@code method}
+   * @param specification textual description of the specification, used for logging
+   * @return true if the conditions are compilable, false otherwise
+   */
+  private static boolean isCompilable(
+      DocumentedExecutable method,
+      List<String> conditions,
+      boolean withResult,
+      String specification) {
+    final Configuration configuration = RunContext.current().getConfiguration();
+    final List<String> substitutedConditions = new ArrayList<>();
+    final Set<DocumentedParameter> arguments = new LinkedHashSet<>();
+    for (String condition : conditions) {
+      substitutedConditions.add(substituteArgs(method, condition, arguments));
+    }
+
+    ConditionTypeChecker.Verdict verdict = ConditionTypeChecker.Verdict.UNDECIDED;
+    String typeError = null;
+    if (configuration.isFastComplianceCheckEnabled()) {
+      try (Metrics.Timer timer = Metrics.time(Metrics.Stage.COMPLIANCE_CHECK)) {
+        final ConditionTypeChecker checker =
+            new ConditionTypeChecker(
+                method.getDeclaringClass(), variables(method, arguments, withResult));
+        verdict = ConditionTypeChecker.Verdict.COMPILABLE;
+        for (String condition : substitutedConditions) {
+          final ConditionTypeChecker.Verdict conditionVerdict = checker.check(condition);
+          if (conditionVerdict == ConditionTypeChecker.Verdict.NOT_COMPILABLE) {
+            verdict = conditionVerdict;
+            typeError = checker.getError();
+            break;
+          } else if (conditionVerdict == ConditionTypeChecker.Verdict.UNDECIDED) {
+            verdict = conditionVerdict;
+          }
+        }
+      }
+      if (verdict == ConditionTypeChecker.Verdict.UNDECIDED) {
+        Metrics.increment(Metrics.Counter.FAST_COMPLIANCE_UNDECIDED);
+      } else {
+        Metrics.increment(Metrics.Counter.FAST_COMPLIANCE_DECIDED);
+        if (!configuration.isComplianceCrossCheckEnabled()) {
+          return report(
+              verdict == ConditionTypeChecker.Verdict.COMPILABLE, specification, typeError);
+        }
+      }
+    }
+
     SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
-    String methodReturnType = method.getReturnType().getType().getTypeName();
-    if (!methodReturnType.equals("void")) {
-      sourceCodeBuilder.addArgument(methodReturnType, Configuration.RETURN_VALUE);
+    if (withResult) {
+      String methodReturnType = method.getReturnType().getType().getTypeName();
+      if (!methodReturnType.equals("void")) {
+        sourceCodeBuilder.addArgument(methodReturnType, Configuration.RETURN_VALUE);
+      }
+    }
+    for (DocumentedParameter argument : arguments) {
+      if (argument.asReflectionParameter().isVarArgs()) {
+        sourceCodeBuilder.addVarArgArgument(argument.toString());
+      } else {
+        sourceCodeBuilder.addArgument(argument.toString());
+      }
+    }
+    for (String condition : substitutedConditions) {
+      sourceCodeBuilder.addCondition(condition);
+      importClassesInInstanceOf(method, sourceCodeBuilder, condition);
     }
-    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder);
-    addConditionCodeInformation(method, property.getConditionText(), sourceCodeBuilder);
     String sourceCode = sourceCodeBuilder.buildSource();
-    try {
-      compileSource(sourceCode);
-    } catch (CompilationException e) {
+    final ComplianceVerdictCache cache = ComplianceVerdictCache.current();
+    final ComplianceVerdictCache.Verdict cachedVerdict = cache.get(sourceCode);
+    boolean compilable;
+    String compilationError = null;
+    if (cachedVerdict != null) {
+      compilable = cachedVerdict.compilable;
+      compilationError = cachedVerdict.error;
+    } else {
+      try {
+        compilationError = compileSource(sourceCode);
+        compilable = compilationError == null;
+      } catch (Exception e) {
+        e.printStackTrace();
+        return true;
+      }
+      cache.put(sourceCode, compilable, compilationError);
+    }
+
+    if (verdict != ConditionTypeChecker.Verdict.UNDECIDED) {
+      if (compilable == (verdict == ConditionTypeChecker.Verdict.COMPILABLE)) {
+        Metrics.increment(Metrics.Counter.FAST_COMPLIANCE_AGREED);
+      } else {
+        Metrics.increment(Metrics.Counter.FAST_COMPLIANCE_DISAGREED);
+        log.warn(
+            "The fast compliance check disagrees with javac on the following specification:\n"
+                + specification
+                + "\nfast compliance check: "
+                + (typeError != null ? typeError : "compilable")
+                + "\njavac: "
+                + (compilationError != null ? compilationError : "compilable")
+                + "\n");
+      }
+    }
+    return report(compilable, specification, compilationError);
+  }
+
+  /**
+   * Updates the counters of compiled and discarded specifications and logs discarded ones.
+   *
+   * @param compilable whether the specification compiles
+   * @param specification textual description of the specification
+   * @param error the compilation error, if the specification does not compile
+   * @return {@code compilable}
+   */
+  private static boolean report(boolean compilable, String specification, String error) {
+    if (compilable) {
+      Metrics.increment(Metrics.Counter.SPECS_COMPILED);
+    } else {
+      Metrics.increment(Metrics.Counter.SPECS_DISCARDED);
       log.info(
           "The following specification was generated but discarded:\n"
-              + guard.getConditionText()
-              + " ? "
-              + property.getConditionText()
+              + specification
               + "\n"
-              + e.getLocalizedMessage()
+              + error
               + "\n");
-      return false;
-    } catch (ClassNotFoundException e) {
-      // ignore
-    } catch (Exception e) {
-      e.printStackTrace();
     }
-    return true;
+    return compilable;
+  }
+
+  /**
+   * Returns the types of the variables declared in the source code the conditions are compiled in:
+   * the receiver object, the given arguments and, if requested, the result of the method.
+   *
+   * @param method documented executable the conditions belong to
+   * @param arguments the parameters of {@code method} the conditions refer to
+   * @param withResult true if the conditions can refer to the result of {@code method}
+   * @return the types of the variables, indexed by name
+   */
+  private static Map<String, Type> variables(
+      DocumentedExecutable method, Set<DocumentedParameter> arguments, boolean withResult) {
+    final Map<String, Type> variables = new HashMap<>();
+    variables.put(Configuration.RECEIVER, method.getDeclaringClass());
+    if (withResult) {
+      final Type returnType = method.getReturnType().getType();
+      if (!returnType.equals(void.class)) {
+        variables.put(Configuration.RETURN_VALUE, returnType);
+      }
+    }
+    for (DocumentedParameter argument : arguments) {
+      variables.put(argument.getName(), argument.asReflectionParameter().getParameterizedType());
+    }
+    return variables;
   }
 
   /**
-   * Invokes the in-memory compiler on the given source code.
+   * Invokes the compiler of the class directories of the current run on the given source code.
    *
    * @param sourceCode source code to be compiled
+   * @return the compilation errors, null if the source code compiles
    * @throws Exception if the compiler encounters problems
    */
-  private static void compileSource(String sourceCode) throws Exception {
-    InMemoryJavaCompiler compiler = InMemoryJavaCompiler.newInstance();
-    compiler.ignoreWarnings();
-    List<String> classpath = new ArrayList<>();
-    for (URL url : Configuration.INSTANCE.classDirs) {
-      classpath.add(url.getPath());
-    }
-    compiler.useOptions("-cp", String.join(":", classpath));
-    compiler.compile("GeneratedSpecs", sourceCode);
+  private static String compileSource(String sourceCode) throws Exception {
+    try (Metrics.Timer timer = Metrics.time(Metrics.Stage.COMPLIANCE_CHECK)) {
+      return ComplianceCompiler.current().compile("GeneratedSpecs", sourceCode);
+    }
   }
 
   /**
@@ -153,7 +304,7 @@ public class ComplianceChecks {
     while (matcher.find()) {
       String className = matcher.group(1);
 
-      Configuration configuration = Configuration.INSTANCE;
+      Configuration configuration = RunContext.current().getConfiguration();
       final String sourceFile =
           configuration.sourceDir.toString()
               + File.separator
@@ -170,31 +321,17 @@ public class ComplianceChecks {
       }
     }
   }
-  /**
-   * Extracts and add to the source code information expressed in the given condition text.
-   *
-   * @param method documented executable the guard belongs to
-   * @param conditionText the condition text
-   * @param sourceCodeBuilder {@code SourceCodeBuilder} object that wraps the source code
-   */
-  private static void addConditionCodeInformation(
-      DocumentedExecutable method, String conditionText, SourceCodeBuilder sourceCodeBuilder) {
-    String substitutedText = substituteArgs(sourceCodeBuilder, method, conditionText);
-    sourceCodeBuilder.addCondition(substitutedText);
-    importClassesInInstanceOf(method, sourceCodeBuilder, substitutedText);
-  }
-
   /**
    * Substitutes in the condition the actual arguments names, since Toradocu-generated conditions
    * refer to the nth argument with the {@code args[n]} notation.
    *
-   * @param sourceCodeBuilder {@code SourceCodeBuilder} object that wraps the source code
    * @param method documented executable the guard belongs to
    * @param text condition text
+   * @param arguments set the parameters referred to by the condition are added to
    * @return condition text with argument names substituted
    */
   private static String substituteArgs(
-      SourceCodeBuilder sourceCodeBuilder, DocumentedExecutable method, String text) {
+      DocumentedExecutable method, String text, Set<DocumentedParameter> arguments) {
     if (text != null) {
       final String ARGS_REGEX = "args\\[([0-9])\\]";
       java.util.regex.Matcher argsMatcher = Pattern.compile(ARGS_REGEX).matcher(text);
@@ -202,12 +339,7 @@ public class ComplianceChecks {
         int argIndex = Integer.valueOf(argsMatcher.group(1));
         String parameter = method.getParameters().get(argIndex).getName();
         text = text.replace(argsMatcher.group(0), parameter);
-        DocumentedParameter argument = method.getParameters().get(argIndex);
-        if (argument.asReflectionParameter().isVarArgs()) {
-          sourceCodeBuilder.addVarArgArgument(argument.toString());
-        } else {
-          sourceCodeBuilder.addArgument(argument.toString());
-        }
+        arguments.add(method.getParameters().get(argIndex));
       }
     }
 
@@ -0,0 +1,378 @@
+package org.toradocu.util;
+
+import com.sun.source.util.JavacTask;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.ForwardingJavaFileObject;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.conf.RunContext;
+
+/**
+ * Long-lived compiler of the source code generated by {@link ComplianceChecks}. Creating a compiler
+ * and a file manager for every compliance check means javac opens and indexes every jar of the
+ * classpath again, and reads again the class files of the types the check refers to. A {@code
+ * ComplianceCompiler} holds one {@code JavaCompiler} and one file manager over the classpath of the
+ * analyzed system, reused by the following compilations of its thread. The file manager caches the
+ * content of the packages listed by javac and the bytes of the class files read from the classpath,
+ * so that they are shared by all the compilations.
+ *
+ * <p>Compilations only type check the source code ({@code JavacTask#analyze()}): no class file is
+ * generated. Since javac file managers are not thread-safe, compilers are confined to threads
+ * instead of being shared and serialized: each thread (e.g., each worker of the {@code
+ * CompliancePool}) has its own compilers, and compilations in different threads run in parallel, at
+ * the cost of one copy of the cached class files per thread. Pool workers live as long as the JVM,
+ * so each thread keeps only the compilers of its {@value #MAX_COMPILERS} most recently used
+ * classpaths, and closes the file managers of the others.
+ *
+ * <p>The class files of the classpath can change between runs in the same JVM (e.g., when the
+ * analyzed system is rebuilt), and the cached ones must not be served to later runs. Each compiler
+ * is therefore bound to the fingerprint of the class directories computed at the beginning of the
+ * run (see {@link ComplianceVerdictCache#fingerprint}): when a run finds a different fingerprint,
+ * the compiler of its classpath is closed and replaced.
+ */
+final class ComplianceCompiler {
+
+  /** Logger of this class. */
+  private static final Logger log = LoggerFactory.getLogger(ComplianceCompiler.class);
+
+  /** Maximum number of compilers kept by each thread. */
+  static final int MAX_COMPILERS = 2;
+
+  /** Compilers of the classpaths most recently used by each thread, indexed by classpath. */
+  private static final ThreadLocal<Map<List<URL>, ComplianceCompiler>> COMPILERS =
+      ThreadLocal.withInitial(RecentCompilers::new);
+
+  /** Fingerprint of the class directories of each run. */
+  private static final RunContext.Key<String> FINGERPRINT =
+      new RunContext.Key<>(
+          () -> ComplianceVerdictCache.fingerprint(RunContext.current().getConfiguration()));
+
+  /** Options of every compilation. */
+  private static final List<String> OPTIONS = Arrays.asList("-proc:none", "-nowarn", "-g:none");
+
+  /** The system Java compiler. */
+  private final JavaCompiler compiler;
+  /** File manager over the classpath, caching listed packages and class files. */
+  private final CachingFileManager fileManager;
+  /** Fingerprint of the class files of the classpath when this compiler was created. */
+  private final String fingerprint;
+
+  private ComplianceCompiler(List<URL> classpath, String fingerprint) throws IOException {
+    this.fingerprint = fingerprint;
+    compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IllegalStateException(
+          "The Java compiler is not available: Toradocu must run on a JDK, not on a JRE");
+    }
+    final StandardJavaFileManager standardFileManager =
+        compiler.getStandardFileManager(null, null, null);
+    final List<File> files = new ArrayList<>();
+    for (URL url : classpath) {
+      files.add(toFile(url));
+    }
+    standardFileManager.setLocation(StandardLocation.CLASS_PATH, files);
+    fileManager = new CachingFileManager(standardFileManager);
+  }
+
+  /**
+   * Returns the compiler of the class directories of the current run for the calling thread.
+   *
+   * @return the compiler of the class directories of the current run for the calling thread
+   * @throws IOException if the classpath cannot be set
+   */
+  static ComplianceCompiler current() throws IOException {
+    final RunContext context = RunContext.current();
+    return of(context.getConfiguration().classDirs, context.get(FINGERPRINT));
+  }
+
+  /**
+   * Returns the compiler of the given classpath for the calling thread, creating it at the first
+   * request of the thread. A compiler created for a different fingerprint of the classpath is
+   * closed and replaced.
+   *
+   * @param classpath the classpath of the compilations, i.e., the class directories and jars of the
+   *     analyzed system
+   * @param fingerprint the fingerprint of the class files of {@code classpath}
+   * @return the compiler of {@code classpath} for the calling thread
+   * @throws IOException if the classpath cannot be set
+   */
+  static ComplianceCompiler of(List<URL> classpath, String fingerprint) throws IOException {
+    final Map<List<URL>, ComplianceCompiler> compilers = COMPILERS.get();
+    ComplianceCompiler compiler = compilers.get(classpath);
+    if (compiler == null || !compiler.fingerprint.equals(fingerprint)) {
+      if (compiler != null) {
+        compiler.close();
+      }
+      final List<URL> key = Collections.unmodifiableList(new ArrayList<>(classpath));
+      compiler = new ComplianceCompiler(key, fingerprint);
+      compilers.put(key, compiler);
+    }
+    return compiler;
+  }
+
+  /**
+   * Type checks the given compilation unit.
+   *
+   * @param className the simple name of the public class in {@code source}
+   * @param source the source code of the compilation unit
+   * @return the errors reported by javac, null if {@code source} compiles
+   * @throws IOException if javac cannot read the classpath
+   */
+  String compile(String className, String source) throws IOException {
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    final JavaCompiler.CompilationTask task =
+        compiler.getTask(
+            null,
+            fileManager,
+            diagnostics,
+            OPTIONS,
+            null,
+            Collections.singletonList(new SourceFile(className, source)));
+    final boolean success;
+    if (task instanceof JavacTask) {
+      ((JavacTask) task).analyze();
+      success = diagnostics.getDiagnostics().stream().noneMatch(ComplianceCompiler::isError);
+    } else {
+      success = task.call();
+    }
+    if (success) {
+      return null;
+    }
+    final StringBuilder errors = new StringBuilder();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (isError(diagnostic)) {
+        errors
+            .append("line ")
+            .append(diagnostic.getLineNumber())
+            .append(": ")
+            .append(diagnostic.getMessage(null))
+            .append("\n");
+      }
+    }
+    return errors.toString();
+  }
+
+  /** Closes the file manager of this compiler, releasing the jars it opened and its caches. */
+  private void close() {
+    try {
+      fileManager.close();
+    } catch (IOException e) {
+      log.warn("Unable to close the file manager of a compliance compiler", e);
+    }
+  }
+
+  private static boolean isError(Diagnostic<?> diagnostic) {
+    return diagnostic.getKind() == Diagnostic.Kind.ERROR;
+  }
+
+  private static File toFile(URL url) {
+    try {
+      return new File(url.toURI());
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return new File(url.getPath());
+    }
+  }
+
+  /** Compilers of a thread, closing the least recently used one beyond {@link #MAX_COMPILERS}. */
+  private static final class RecentCompilers extends LinkedHashMap<List<URL>, ComplianceCompiler> {
+
+    private static final long serialVersionUID = 1L;
+
+    RecentCompilers() {
+      super(MAX_COMPILERS + 1, 1, true);
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<List<URL>, ComplianceCompiler> eldest) {
+      if (size() <= MAX_COMPILERS) {
+        return false;
+      }
+      eldest.getValue().close();
+      return true;
+    }
+  }
+
+  /** In-memory source file. */
+  private static final class SourceFile extends SimpleJavaFileObject {
+    private final String source;
+
+    SourceFile(String className, String source) {
+      super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+      this.source = source;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return source;
+    }
+  }
+
+  /** In-memory sink of the files javac outputs, in case the compiler does not support analysis. */
+  private static final class DiscardedOutput extends SimpleJavaFileObject {
+    DiscardedOutput(String className, Kind kind) {
+      super(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind);
+    }
+
+    @Override
+    public OutputStream openOutputStream() {
+      return new ByteArrayOutputStream();
+    }
+  }
+
+  /** Class file whose bytes are read once and then served from memory. */
+  private static final class CachedClassFile extends ForwardingJavaFileObject<JavaFileObject> {
+    /** The content of the class file, null until it is first read. */
+    private byte[] bytes;
+
+    CachedClassFile(JavaFileObject file) {
+      super(file);
+    }
+
+    JavaFileObject unwrap() {
+      return fileObject;
+    }
+
+    @Override
+    public InputStream openInputStream() throws IOException {
+      byte[] content = bytes;
+      if (content == null) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (InputStream in = fileObject.openInputStream()) {
+          final byte[] chunk = new byte[8192];
+          int read;
+          while ((read = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+          }
+        }
+        content = buffer.toByteArray();
+        bytes = content;
+      }
+      return new ByteArrayInputStream(content);
+    }
+  }
+
+  /**
+   * File manager caching the files of the packages listed by javac in the classpath and in the
+   * platform classpath, and the bytes of the class files.
+   */
+  private static final class CachingFileManager
+      extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+    /** Files of each listed package. */
+    private final Map<PackageListing, List<JavaFileObject>> packages = new HashMap<>();
+
+    CachingFileManager(StandardJavaFileManager fileManager) {
+      super(fileManager);
+    }
+
+    @Override
+    public Iterable<JavaFileObject> list(
+        Location location, String packageName, Set<JavaFileObject.Kind> kinds, boolean recurse)
+        throws IOException {
+      if (location != StandardLocation.CLASS_PATH
+          && location != StandardLocation.PLATFORM_CLASS_PATH) {
+        return super.list(location, packageName, kinds, recurse);
+      }
+      final PackageListing listing = new PackageListing(location, packageName, kinds, recurse);
+      List<JavaFileObject> files = packages.get(listing);
+      if (files == null) {
+        files = new ArrayList<>();
+        for (JavaFileObject file : super.list(location, packageName, kinds, recurse)) {
+          files.add(file.getKind() == JavaFileObject.Kind.CLASS ? new CachedClassFile(file) : file);
+        }
+        files = Collections.unmodifiableList(files);
+        packages.put(listing, files);
+      }
+      return files;
+    }
+
+    @Override
+    public String inferBinaryName(Location location, JavaFileObject file) {
+      return super.inferBinaryName(location, unwrap(file));
+    }
+
+    @Override
+    public boolean isSameFile(FileObject a, FileObject b) {
+      return super.isSameFile(unwrap(a), unwrap(b));
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(
+        Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+      return new DiscardedOutput(className, kind);
+    }
+
+    private static JavaFileObject unwrap(JavaFileObject file) {
+      return file instanceof CachedClassFile ? ((CachedClassFile) file).unwrap() : file;
+    }
+
+    private static FileObject unwrap(FileObject file) {
+      return file instanceof CachedClassFile ? ((CachedClassFile) file).unwrap() : file;
+    }
+  }
+
+  /** Arguments of a package listing. */
+  private static final class PackageListing {
+    private final JavaFileManager.Location location;
+    private final String packageName;
+    private final Set<JavaFileObject.Kind> kinds;
+    private final boolean recurse;
+
+    PackageListing(
+        JavaFileManager.Location location,
+        String packageName,
+        Set<JavaFileObject.Kind> kinds,
+        boolean recurse) {
+      this.location = location;
+      this.packageName = packageName;
+      this.kinds = new HashSet<>(kinds);
+      this.recurse = recurse;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof PackageListing)) {
+        return false;
+      }
+      final PackageListing other = (PackageListing) obj;
+      return location == other.location
+          && packageName.equals(other.packageName)
+          && kinds.equals(other.kinds)
+          && recurse == other.recurse;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(location, packageName, kinds, recurse);
+    }
+  }
+}
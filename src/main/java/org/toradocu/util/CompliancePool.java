@@ -0,0 +1,63 @@
+package org.toradocu.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.toradocu.conf.RunContext;
+
+/**
+ * Pool of threads where compliance checks run while the translation of the next comments goes on.
+ * The pool is shared by all the runs and has one daemon thread per available processor, so that
+ * concurrent runs cannot oversubscribe the machine. Each worker keeps its own warm compiler (see
+ * {@code ComplianceCompiler}), so that compilations run in parallel.
+ */
+final class CompliancePool {
+
+  /** Number of threads of the pool. */
+  static final int SIZE = Runtime.getRuntime().availableProcessors();
+
+  private CompliancePool() {}
+
+  /** Holds the pool, created at the first asynchronous compliance check. */
+  private static final class Holder {
+    private static final ExecutorService POOL =
+        Executors.newFixedThreadPool(
+            SIZE,
+            new ThreadFactory() {
+              private final AtomicInteger count = new AtomicInteger();
+
+              @Override
+              public Thread newThread(Runnable task) {
+                final Thread thread =
+                    new Thread(task, "compliance-check-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              }
+            });
+  }
+
+  /**
+   * Runs the given compliance check in the current run. The check runs on the pool if asynchronous
+   * compliance checks are enabled, and on the calling thread otherwise.
+   *
+   * @param check the compliance check
+   * @return the future verdict of {@code check}, already completed if the check ran on the calling
+   *     thread
+   */
+  static CompletableFuture<Boolean> submit(Supplier<Boolean> check) {
+    final RunContext context = RunContext.current();
+    if (!context.getConfiguration().isAsyncComplianceCheckEnabled()) {
+      return CompletableFuture.completedFuture(check.get());
+    }
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try (RunContext.Scope scope = context.bind()) {
+            return check.get();
+          }
+        },
+        Holder.POOL);
+  }
+}
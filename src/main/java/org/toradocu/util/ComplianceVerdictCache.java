@@ -0,0 +1,259 @@
+package org.toradocu.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
+
+/**
+ * Cache of the verdicts of the compilations performed by {@link ComplianceChecks}. The same
+ * condition is often checked more than once in the same context (e.g., for overloads, or for the
+ * same guard in the @param and @throws tags of a method): the source code generated for such checks
+ * is identical, and its compilation is skipped.
+ *
+ * <p>Verdicts are cached in memory for the current run, keyed by the generated source code. If a
+ * file is set with the option {@code --compliance-cache}, verdicts are also persisted there and
+ * shared by the subsequent runs: persisted verdicts are keyed by the SHA-256 digest of the source
+ * code and of a fingerprint of the classpath (paths, sizes, and modification times of the files in
+ * {@code --class-dir}, and the version of the JVM), so that they are not reused when the analyzed
+ * system changes. The file has one JSON object per line, and is only appended to, while holding an
+ * exclusive lock on it.
+ */
+final class ComplianceVerdictCache {
+
+  /** Logger of this class. */
+  private static final Logger log = LoggerFactory.getLogger(ComplianceVerdictCache.class);
+
+  /** Identifies the cache of each run. */
+  private static final RunContext.Key<ComplianceVerdictCache> CACHE =
+      new RunContext.Key<>(
+          () -> new ComplianceVerdictCache(RunContext.current().getConfiguration()));
+
+  /** Serializes and deserializes persisted verdicts. */
+  private static final Gson GSON = new Gson();
+
+  /** Verdicts of the current run, indexed by source code. */
+  private final Map<String, Verdict> verdicts = new ConcurrentHashMap<>();
+  /** Persisted verdicts, indexed by digest. */
+  private final Map<String, Verdict> persistedVerdicts = new ConcurrentHashMap<>();
+  /** File verdicts are persisted to, null if verdicts are not persisted. */
+  private volatile Path file;
+  /** Fingerprint of the classpath, null if verdicts are not persisted. */
+  private final String classpathFingerprint;
+
+  /**
+   * Creates the cache for the given configuration, loading the persisted verdicts.
+   *
+   * @param configuration the configuration of the run
+   */
+  ComplianceVerdictCache(Configuration configuration) {
+    final File cacheFile = configuration.getComplianceCache();
+    if (cacheFile == null) {
+      file = null;
+      classpathFingerprint = null;
+      return;
+    }
+    file = cacheFile.toPath();
+    classpathFingerprint = fingerprint(configuration);
+    if (Files.exists(file)) {
+      try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          try {
+            final Entry entry = GSON.fromJson(line, Entry.class);
+            if (entry != null && entry.key != null) {
+              persistedVerdicts.put(entry.key, new Verdict(entry.compilable, entry.error));
+            }
+          } catch (JsonParseException e) {
+            // Skip lines truncated by interrupted runs.
+          }
+        }
+      } catch (IOException e) {
+        log.warn("Unable to read the compliance cache " + file, e);
+      }
+    }
+  }
+
+  /**
+   * Returns the verdict cache of the current run.
+   *
+   * @return the verdict cache of the current run
+   */
+  static ComplianceVerdictCache current() {
+    return RunContext.current().get(CACHE);
+  }
+
+  /**
+   * Returns the cached verdict of the compilation of the given source code.
+   *
+   * @param source the source code generated for a compliance check
+   * @return the verdict of the compilation of {@code source}, null if it is not cached
+   */
+  Verdict get(String source) {
+    Verdict verdict = verdicts.get(source);
+    if (verdict == null && !persistedVerdicts.isEmpty()) {
+      verdict = persistedVerdicts.get(digest(source));
+      if (verdict != null) {
+        verdicts.put(source, verdict);
+      }
+    }
+    Metrics.increment(
+        verdict != null
+            ? Metrics.Counter.COMPLIANCE_CACHE_HIT
+            : Metrics.Counter.COMPLIANCE_CACHE_MISS);
+    return verdict;
+  }
+
+  /**
+   * Caches the verdict of the compilation of the given source code.
+   *
+   * @param source the source code generated for a compliance check
+   * @param compilable whether {@code source} compiles
+   * @param error the compilation error, null if {@code source} compiles
+   */
+  void put(String source, boolean compilable, String error) {
+    final Verdict verdict = new Verdict(compilable, error);
+    if (verdicts.putIfAbsent(source, verdict) == null && file != null) {
+      final String key = digest(source);
+      persistedVerdicts.put(key, verdict);
+      append(new Entry(key, compilable, error));
+    }
+  }
+
+  /** Appends an entry to the cache file. Persistence is disabled at the first failure. */
+  private void append(Entry entry) {
+    final Path file = this.file;
+    if (file == null) {
+      return;
+    }
+    final byte[] line = (GSON.toJson(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+    // File locks are held by the whole JVM: threads of the same JVM synchronize on the cache.
+    synchronized (this) {
+      try (FileChannel channel =
+              FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+          FileLock lock = channel.lock()) {
+        channel.write(ByteBuffer.wrap(line));
+      } catch (IOException e) {
+        log.warn(
+            "Unable to write the compliance cache " + file + ", verdicts are not persisted", e);
+        this.file = null;
+      }
+    }
+  }
+
+  /** Returns the SHA-256 digest of the classpath fingerprint and of the given source code. */
+  private String digest(String source) {
+    final MessageDigest digest = sha256();
+    digest.update(classpathFingerprint.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    digest.update(source.getBytes(StandardCharsets.UTF_8));
+    return hex(digest.digest());
+  }
+
+  /**
+   * Computes the fingerprint of the classpath of the compliance checks: the version of the JVM, and
+   * the paths, sizes, and modification times of the files in the class directories.
+   */
+  static String fingerprint(Configuration configuration) {
+    final MessageDigest digest = sha256();
+    digest.update(System.getProperty("java.version", "").getBytes(StandardCharsets.UTF_8));
+    if (configuration.classDirs != null) {
+      for (URL url : configuration.classDirs) {
+        final Path root;
+        try {
+          root = Paths.get(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+          digest.update(url.toString().getBytes(StandardCharsets.UTF_8));
+          continue;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+          paths
+              .sorted()
+              .forEach(
+                  path -> {
+                    digest.update(path.toString().getBytes(StandardCharsets.UTF_8));
+                    try {
+                      final BasicFileAttributes attributes =
+                          Files.readAttributes(path, BasicFileAttributes.class);
+                      if (attributes.isRegularFile()) {
+                        digest.update(
+                            (attributes.size() + ":" + attributes.lastModifiedTime().toMillis())
+                                .getBytes(StandardCharsets.UTF_8));
+                      }
+                    } catch (IOException e) {
+                      // The path is part of the fingerprint anyway.
+                    }
+                  });
+        } catch (IOException | UncheckedIOException e) {
+          // A missing class directory: its path is enough.
+          digest.update(root.toString().getBytes(StandardCharsets.UTF_8));
+        }
+      }
+    }
+    return hex(digest.digest());
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError("SHA-256 is available in every JVM", e);
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    final StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  /** Verdict of the compilation of a source code. */
+  static final class Verdict {
+    /** Whether the source code compiles. */
+    final boolean compilable;
+    /** The compilation error, null if the source code compiles. */
+    final String error;
+
+    Verdict(boolean compilable, String error) {
+      this.compilable = compilable;
+      this.error = error;
+    }
+  }
+
+  /** A persisted verdict. */
+  private static final class Entry {
+    String key;
+    boolean compilable;
+    String error;
+
+    Entry(String key, boolean compilable, String error) {
+      this.key = key;
+      this.compilable = compilable;
+      this.error = error;
+    }
+  }
+}
@@ -0,0 +1,971 @@
+package org.toradocu.util;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ast.expr.ArrayAccessExpr;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.BooleanLiteralExpr;
+import com.github.javaparser.ast.expr.CharLiteralExpr;
+import com.github.javaparser.ast.expr.DoubleLiteralExpr;
+import com.github.javaparser.ast.expr.EnclosedExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.InstanceOfExpr;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.LongLiteralExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.NullLiteralExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.expr.UnaryExpr;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides whether the boolean conditions of a specification compile, using reflection metadata
+ * instead of invoking javac. A condition is checked in the same context {@link ComplianceChecks}
+ * compiles it in: a method whose arguments are the receiver object, the parameters of the
+ * documented executable the condition refers to, and (for postconditions) the result of the
+ * executable.
+ *
+ * <p>The checker understands names, field accesses, method invocations (without type inference),
+ * array accesses, literals, unary and binary operators, and {@code instanceof}. It reports a
+ * verdict only when typing is fully determined by reflection metadata; any other condition (e.g.,
+ * one involving type variables, inaccessible members, or ambiguous overloads) is left undecided and
+ * has to be compiled by javac.
+ */
+final class ConditionTypeChecker {
+
+  /** Outcome of a check. */
+  enum Verdict {
+    /** The condition compiles. */
+    COMPILABLE,
+    /** The condition does not compile. */
+    NOT_COMPILABLE,
+    /** The checker cannot tell whether the condition compiles. */
+    UNDECIDED
+  }
+
+  /** Public non-synthetic methods of each class, indexed by name. */
+  private static final ClassValue<Map<String, List<Method>>> METHODS =
+      new ClassValue<Map<String, List<Method>>>() {
+        @Override
+        protected Map<String, List<Method>> computeValue(Class<?> type) {
+          final List<Method> methods = new ArrayList<>(Arrays.asList(type.getMethods()));
+          if (type.isInterface()) {
+            // Interfaces implicitly declare the public methods of Object.
+            methods.addAll(Arrays.asList(Object.class.getMethods()));
+          }
+          final Map<String, List<Method>> methodsByName = new HashMap<>();
+          for (Method method : methods) {
+            if (!method.isBridge() && !method.isSynthetic()) {
+              methodsByName.computeIfAbsent(method.getName(), n -> new ArrayList<>()).add(method);
+            }
+          }
+          return methodsByName;
+        }
+      };
+
+  /** Primitive types indexed by the corresponding wrapper class. */
+  private static final Map<Class<?>, Class<?>> UNBOXED = new HashMap<>();
+  /** Wrapper classes indexed by the corresponding primitive type. */
+  private static final Map<Class<?>, Class<?>> BOXED = new HashMap<>();
+  /** Primitive types each primitive type can be widened to (identity included). */
+  private static final Map<Class<?>, Set<Class<?>>> WIDENINGS = new HashMap<>();
+
+  static {
+    final List<Class<?>> primitives =
+        Arrays.asList(
+            boolean.class,
+            byte.class,
+            short.class,
+            char.class,
+            int.class,
+            long.class,
+            float.class,
+            double.class);
+    final List<Class<?>> wrappers =
+        Arrays.asList(
+            Boolean.class,
+            Byte.class,
+            Short.class,
+            Character.class,
+            Integer.class,
+            Long.class,
+            Float.class,
+            Double.class);
+    for (int i = 0; i < primitives.size(); i++) {
+      UNBOXED.put(wrappers.get(i), primitives.get(i));
+      BOXED.put(primitives.get(i), wrappers.get(i));
+    }
+    WIDENINGS.put(boolean.class, set(boolean.class));
+    WIDENINGS.put(
+        byte.class, set(byte.class, short.class, int.class, long.class, float.class, double.class));
+    WIDENINGS.put(short.class, set(short.class, int.class, long.class, float.class, double.class));
+    WIDENINGS.put(char.class, set(char.class, int.class, long.class, float.class, double.class));
+    WIDENINGS.put(int.class, set(int.class, long.class, float.class, double.class));
+    WIDENINGS.put(long.class, set(long.class, float.class, double.class));
+    WIDENINGS.put(float.class, set(float.class, double.class));
+    WIDENINGS.put(double.class, set(double.class));
+  }
+
+  /** Stands for the type of the {@code null} literal. */
+  private static final class NullType {}
+
+  /** Static type of an expression. */
+  private static final class StaticType {
+    /** The erasure of the type, {@code NullType} for the {@code null} literal. */
+    final Class<?> type;
+    /** Whether the type has type arguments, i.e., its generic members are not erased. */
+    final boolean parameterized;
+    /** Whether the expression is the name of a type rather than a value. */
+    final boolean typeName;
+
+    StaticType(Class<?> type, boolean parameterized, boolean typeName) {
+      this.type = type;
+      this.parameterized = parameterized;
+      this.typeName = typeName;
+    }
+
+    /** Whether the type is a generic class used without type arguments. */
+    boolean isRaw() {
+      return !parameterized && type.getTypeParameters().length > 0;
+    }
+
+    boolean isNull() {
+      return type == NullType.class;
+    }
+  }
+
+  /** Signals that the checker cannot decide whether a condition compiles. */
+  private static final class UndecidedException extends Exception {
+    UndecidedException() {
+      super(null, null, false, false);
+    }
+  }
+
+  /** Signals that a condition does not compile. */
+  private static final class TypeErrorException extends Exception {
+    TypeErrorException(String message) {
+      super(message, null, false, false);
+    }
+  }
+
+  /** Shared instance: the exception carries no information. */
+  private static final UndecidedException CANNOT_DECIDE = new UndecidedException();
+
+  /** The class declaring the executable the conditions refer to. */
+  private final Class<?> declaringClass;
+  /** Package of the generated source code, null if it is in the default package. */
+  private final String packageName;
+  /** Types of the variables the conditions can refer to, indexed by name. */
+  private final Map<String, Type> variables;
+  /** Whether the generated source code declares all the variables, as far as we can tell. */
+  private final boolean declarable;
+  /** Description of the type error found by the last check. */
+  private String error;
+
+  /**
+   * Creates a checker for the conditions referring to the given variables.
+   *
+   * @param declaringClass the class declaring the executable the conditions refer to
+   * @param variables the types of the variables the conditions can refer to (receiver, parameters,
+   *     result), indexed by name
+   */
+  ConditionTypeChecker(Class<?> declaringClass, Map<String, Type> variables) {
+    this.declaringClass = declaringClass;
+    this.packageName =
+        Modifier.isPublic(declaringClass.getModifiers()) ? null : packageOf(declaringClass);
+    this.variables = variables;
+    boolean declarable = true;
+    try {
+      for (Type type : variables.values()) {
+        declarable &= isDeclarable(type);
+      }
+    } catch (LinkageError | SecurityException e) {
+      declarable = false;
+    }
+    this.declarable = declarable;
+  }
+
+  /**
+   * Checks whether the given condition compiles.
+   *
+   * @param condition the condition to check, referring to the variables of this checker
+   * @return the verdict of the check
+   */
+  Verdict check(String condition) {
+    error = null;
+    if (!declarable || condition == null) {
+      return Verdict.UNDECIDED;
+    }
+    try {
+      final Expression expression = JavaParser.parseExpression(condition);
+      final StaticType type = valueOf(expression);
+      if (!isBoolean(type.type)) {
+        throw new TypeErrorException(
+            "incompatible types: " + type.type.getName() + " cannot be converted to boolean");
+      }
+      return Verdict.COMPILABLE;
+    } catch (TypeErrorException e) {
+      error = e.getMessage();
+      return Verdict.NOT_COMPILABLE;
+    } catch (UndecidedException | ParseProblemException e) {
+      return Verdict.UNDECIDED;
+    } catch (LinkageError | SecurityException e) {
+      // Reflection metadata is not available (e.g., missing dependencies of the target class).
+      return Verdict.UNDECIDED;
+    }
+  }
+
+  /**
+   * Returns the description of the type error found by the last check.
+   *
+   * @return the type error found by the last check, null if its verdict was not {@code
+   *     NOT_COMPILABLE}
+   */
+  String getError() {
+    return error;
+  }
+
+  /** Returns the type of an expression that has to denote a value. */
+  private StaticType valueOf(Expression expression) throws UndecidedException, TypeErrorException {
+    final StaticType type = typeOf(expression, false);
+    if (type.typeName) {
+      throw new TypeErrorException("cannot find symbol: variable " + expression);
+    }
+    if (type.type == void.class) {
+      throw new TypeErrorException("'void' type not allowed here: " + expression);
+    }
+    return type;
+  }
+
+  /**
+   * Returns the type of an expression.
+   *
+   * @param expression the expression
+   * @param scope whether the expression is the scope of a field access or of a method invocation,
+   *     and can therefore be a type name
+   */
+  private StaticType typeOf(Expression expression, boolean scope)
+      throws UndecidedException, TypeErrorException {
+    if (expression instanceof EnclosedExpr) {
+      return valueOf(((EnclosedExpr) expression).getInner());
+    } else if (expression instanceof NameExpr) {
+      return nameType(((NameExpr) expression).getNameAsString(), scope);
+    } else if (expression instanceof FieldAccessExpr) {
+      final FieldAccessExpr fieldAccess = (FieldAccessExpr) expression;
+      final Class<?> qualifiedType = qualifiedType(fieldAccess);
+      if (qualifiedType != null) {
+        return new StaticType(qualifiedType, false, true);
+      }
+      return fieldType(typeOf(fieldAccess.getScope(), true), fieldAccess.getNameAsString());
+    } else if (expression instanceof MethodCallExpr) {
+      final MethodCallExpr call = (MethodCallExpr) expression;
+      if (!call.getScope().isPresent() || call.getTypeArguments().isPresent()) {
+        throw CANNOT_DECIDE;
+      }
+      final StaticType owner = typeOf(call.getScope().get(), true);
+      final List<StaticType> arguments = new ArrayList<>();
+      for (Expression argument : call.getArguments()) {
+        arguments.add(valueOf(argument));
+      }
+      return invocationType(owner, call.getNameAsString(), arguments);
+    } else if (expression instanceof ArrayAccessExpr) {
+      final ArrayAccessExpr arrayAccess = (ArrayAccessExpr) expression;
+      final StaticType array = valueOf(arrayAccess.getName());
+      final Class<?> index = numeric(valueOf(arrayAccess.getIndex()).type);
+      if (!array.type.isArray()) {
+        throw new TypeErrorException("array required, but " + array.type.getName() + " found");
+      }
+      if (index == null || promote(index) != int.class) {
+        throw new TypeErrorException("incompatible types in array index: " + expression);
+      }
+      return of(array.type.getComponentType());
+    } else if (expression instanceof BinaryExpr) {
+      return binaryType((BinaryExpr) expression);
+    } else if (expression instanceof UnaryExpr) {
+      return unaryType((UnaryExpr) expression);
+    } else if (expression instanceof InstanceOfExpr) {
+      final InstanceOfExpr instanceOf = (InstanceOfExpr) expression;
+      final StaticType value = valueOf(instanceOf.getExpression());
+      final String typeName = instanceOf.getType().asString();
+      if (typeName.contains("<") || typeName.contains("[")) {
+        throw CANNOT_DECIDE;
+      }
+      final Class<?> type = typeName.contains(".") ? loadClass(typeName) : simpleTypeName(typeName);
+      if (type == null) {
+        // The type could be imported from the package of the declaring class.
+        throw CANNOT_DECIDE;
+      }
+      if (value.type.isPrimitive() || !isCastable(value, of(type))) {
+        throw new TypeErrorException("incompatible types: " + expression);
+      }
+      return of(boolean.class);
+    } else if (expression instanceof BooleanLiteralExpr) {
+      return of(boolean.class);
+    } else if (expression instanceof NullLiteralExpr) {
+      return of(NullType.class);
+    } else if (expression instanceof CharLiteralExpr) {
+      return of(char.class);
+    } else if (expression instanceof StringLiteralExpr) {
+      return of(String.class);
+    } else if (expression instanceof IntegerLiteralExpr) {
+      checkLiteral(((IntegerLiteralExpr) expression).getValue(), false);
+      return of(int.class);
+    } else if (expression instanceof LongLiteralExpr) {
+      checkLiteral(((LongLiteralExpr) expression).getValue(), true);
+      return of(long.class);
+    } else if (expression instanceof DoubleLiteralExpr) {
+      final String value = ((DoubleLiteralExpr) expression).getValue();
+      final boolean isFloat = value.endsWith("f") || value.endsWith("F");
+      return of(isFloat ? float.class : double.class);
+    }
+    throw CANNOT_DECIDE;
+  }
+
+  /** Returns the type of a simple name. */
+  private StaticType nameType(String name, boolean scope)
+      throws UndecidedException, TypeErrorException {
+    final Type variable = variables.get(name);
+    if (variable != null) {
+      return of(variable);
+    }
+    final Class<?> type = simpleTypeName(name);
+    if (type != null) {
+      return new StaticType(type, false, true);
+    }
+    if (scope) {
+      // The name could be a package or a type imported because of an instanceof.
+      throw CANNOT_DECIDE;
+    }
+    throw new TypeErrorException("cannot find symbol: variable " + name);
+  }
+
+  /** Returns the type of a field of a type, or the nested type with the given name. */
+  private StaticType fieldType(StaticType owner, String name)
+      throws UndecidedException, TypeErrorException {
+    checkDereferenceable(owner);
+    if (owner.type.isArray()) {
+      if (name.equals("length") && !owner.typeName) {
+        return of(int.class);
+      }
+      throw new TypeErrorException("cannot find symbol: variable " + name);
+    }
+    Field field;
+    try {
+      field = owner.type.getField(name);
+    } catch (NoSuchFieldException e) {
+      field = null;
+    }
+    if (field != null) {
+      final boolean isStatic = Modifier.isStatic(field.getModifiers());
+      if (owner.typeName && !isStatic) {
+        throw new TypeErrorException(
+            "non-static variable " + name + " cannot be referenced from a static context");
+      }
+      return memberType(owner, field.getType(), field.getGenericType(), isStatic);
+    }
+    if (owner.typeName) {
+      for (Class<?> member : owner.type.getClasses()) {
+        if (member.getSimpleName().equals(name)) {
+          return new StaticType(member, false, true);
+        }
+      }
+    }
+    if (hasMember(owner.type, name)) {
+      throw CANNOT_DECIDE;
+    }
+    throw new TypeErrorException(
+        "cannot find symbol: variable " + name + " in " + owner.type.getName());
+  }
+
+  /** Returns the type of the invocation of a method with the given arguments. */
+  private StaticType invocationType(StaticType owner, String name, List<StaticType> arguments)
+      throws UndecidedException, TypeErrorException {
+    checkDereferenceable(owner);
+    final List<Method> candidates = METHODS.get(owner.type).get(name);
+    if (candidates == null) {
+      if (hasMember(owner.type, name)) {
+        throw CANNOT_DECIDE;
+      }
+      throw new TypeErrorException(
+          "cannot find symbol: method " + name + " in " + owner.type.getName());
+    }
+
+    final List<Method> strict = new ArrayList<>();
+    final List<Method> loose = new ArrayList<>();
+    final List<Method> varArgs = new ArrayList<>();
+    for (Method candidate : candidates) {
+      final int arity = candidate.getParameterCount();
+      if (arity != arguments.size() && !(candidate.isVarArgs() && arguments.size() >= arity - 1)) {
+        continue;
+      }
+      final Class<?>[] parameters = parameterTypes(owner, candidate);
+      if (isApplicable(parameters, arguments, false)) {
+        strict.add(candidate);
+      } else if (isApplicable(parameters, arguments, true)) {
+        loose.add(candidate);
+      } else if (candidate.isVarArgs() && isVarArgsApplicable(parameters, arguments)) {
+        varArgs.add(candidate);
+      }
+    }
+
+    final Method method;
+    if (!strict.isEmpty()) {
+      method = mostSpecific(owner, strict);
+    } else if (!loose.isEmpty()) {
+      method = mostSpecific(owner, loose);
+    } else if (varArgs.size() == 1) {
+      method = varArgs.get(0);
+    } else if (varArgs.isEmpty()) {
+      throw new TypeErrorException(
+          "no suitable method found for " + name + " in " + owner.type.getName());
+    } else {
+      throw CANNOT_DECIDE;
+    }
+
+    final boolean isStatic = Modifier.isStatic(method.getModifiers());
+    if (owner.typeName && !isStatic) {
+      throw new TypeErrorException(
+          "non-static method " + name + " cannot be referenced from a static context");
+    }
+    return memberType(owner, method.getReturnType(), method.getGenericReturnType(), isStatic);
+  }
+
+  /**
+   * Returns the parameter types of a method invoked on the given type. Only invocations whose
+   * parameter types are known without type inference are supported.
+   */
+  private static Class<?>[] parameterTypes(StaticType owner, Method method)
+      throws UndecidedException {
+    if (owner.isRaw() && !Modifier.isStatic(method.getModifiers())) {
+      // Members of raw types are erased.
+      return method.getParameterTypes();
+    }
+    if (method.getTypeParameters().length > 0) {
+      throw CANNOT_DECIDE;
+    }
+    for (Type parameter : method.getGenericParameterTypes()) {
+      if (!(parameter instanceof Class)) {
+        throw CANNOT_DECIDE;
+      }
+    }
+    return method.getParameterTypes();
+  }
+
+  /** Returns the most specific among the given applicable methods. */
+  private static Method mostSpecific(StaticType owner, List<Method> applicable)
+      throws UndecidedException {
+    final List<Method> maximal = new ArrayList<>();
+    for (Method method : applicable) {
+      boolean isMaximal = true;
+      for (Method other : applicable) {
+        if (other != method
+            && !isMoreSpecific(parameterTypes(owner, method), parameterTypes(owner, other))) {
+          isMaximal = false;
+          break;
+        }
+      }
+      if (isMaximal) {
+        maximal.add(method);
+      }
+    }
+    // Methods with the same signature (e.g., overridden ones): pick the most specific return type.
+    for (Method method : maximal) {
+      boolean returnsMostSpecific = true;
+      for (Method other : maximal) {
+        returnsMostSpecific &= other.getReturnType().isAssignableFrom(method.getReturnType());
+      }
+      if (returnsMostSpecific) {
+        return method;
+      }
+    }
+    throw CANNOT_DECIDE;
+  }
+
+  private static boolean isMoreSpecific(Class<?>[] parameters, Class<?>[] otherParameters) {
+    for (int i = 0; i < parameters.length; i++) {
+      if (!isConvertible(of(parameters[i]), otherParameters[i], false)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isApplicable(
+      Class<?>[] parameters, List<StaticType> arguments, boolean loose) {
+    if (parameters.length != arguments.size()) {
+      return false;
+    }
+    for (int i = 0; i < parameters.length; i++) {
+      if (!isConvertible(arguments.get(i), parameters[i], loose)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isVarArgsApplicable(Class<?>[] parameters, List<StaticType> arguments) {
+    final int fixed = parameters.length - 1;
+    for (int i = 0; i < fixed; i++) {
+      if (!isConvertible(arguments.get(i), parameters[i], true)) {
+        return false;
+      }
+    }
+    final Class<?> component = parameters[fixed].getComponentType();
+    for (int i = fixed; i < arguments.size(); i++) {
+      if (!isConvertible(arguments.get(i), component, true)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Tells whether a value of the given type can be passed as argument of the given parameter type,
+   * with (loose) or without (strict) boxing and unboxing.
+   */
+  private static boolean isConvertible(StaticType argument, Class<?> parameter, boolean loose) {
+    final Class<?> type = argument.type;
+    if (argument.isNull()) {
+      return !parameter.isPrimitive();
+    }
+    if (type.isPrimitive() && parameter.isPrimitive()) {
+      return WIDENINGS.get(type).contains(parameter);
+    }
+    if (!type.isPrimitive() && !parameter.isPrimitive()) {
+      return parameter.isAssignableFrom(type);
+    }
+    if (!loose) {
+      return false;
+    }
+    if (type.isPrimitive()) {
+      return parameter.isAssignableFrom(BOXED.get(type));
+    }
+    final Class<?> unboxed = UNBOXED.get(type);
+    return unboxed != null && WIDENINGS.get(unboxed).contains(parameter);
+  }
+
+  /** Returns the type of a binary expression. */
+  private StaticType binaryType(BinaryExpr binary) throws UndecidedException, TypeErrorException {
+    final StaticType left = valueOf(binary.getLeft());
+    final StaticType right = valueOf(binary.getRight());
+    final Class<?> leftNumeric = numeric(left.type);
+    final Class<?> rightNumeric = numeric(right.type);
+    switch (binary.getOperator()) {
+      case OR:
+      case AND:
+        if (isBoolean(left.type) && isBoolean(right.type)) {
+          return of(boolean.class);
+        }
+        break;
+      case EQUALS:
+      case NOT_EQUALS:
+        if (isComparable(left, right)) {
+          return of(boolean.class);
+        }
+        break;
+      case LESS:
+      case GREATER:
+      case LESS_EQUALS:
+      case GREATER_EQUALS:
+        if (leftNumeric != null && rightNumeric != null) {
+          return of(boolean.class);
+        }
+        break;
+      case PLUS:
+        if ((left.type == String.class || right.type == String.class)
+            && !(left.isNull() && right.isNull())) {
+          return of(String.class);
+        }
+        // Fall through: numeric addition.
+      case MINUS:
+      case MULTIPLY:
+      case DIVIDE:
+      case REMAINDER:
+        if (leftNumeric != null && rightNumeric != null) {
+          return of(promote(leftNumeric, rightNumeric));
+        }
+        break;
+      case BINARY_OR:
+      case BINARY_AND:
+      case XOR:
+        if (isBoolean(left.type) && isBoolean(right.type)) {
+          return of(boolean.class);
+        }
+        if (isIntegral(leftNumeric) && isIntegral(rightNumeric)) {
+          return of(promote(leftNumeric, rightNumeric));
+        }
+        break;
+      case LEFT_SHIFT:
+      case SIGNED_RIGHT_SHIFT:
+      case UNSIGNED_RIGHT_SHIFT:
+        if (isIntegral(leftNumeric) && isIntegral(rightNumeric)) {
+          return of(promote(leftNumeric));
+        }
+        break;
+      default:
+        throw CANNOT_DECIDE;
+    }
+    throw new TypeErrorException(
+        "bad operand types for binary operator '"
+            + binary.getOperator()
+            + "': "
+            + left.type.getName()
+            + ", "
+            + right.type.getName());
+  }
+
+  /** Returns the type of a unary expression. */
+  private StaticType unaryType(UnaryExpr unary) throws UndecidedException, TypeErrorException {
+    final StaticType operand = valueOf(unary.getExpression());
+    final Class<?> numeric = numeric(operand.type);
+    switch (unary.getOperator()) {
+      case LOGICAL_COMPLEMENT:
+        if (isBoolean(operand.type)) {
+          return of(boolean.class);
+        }
+        break;
+      case PLUS:
+      case MINUS:
+        if (numeric != null) {
+          return of(promote(numeric));
+        }
+        break;
+      case BITWISE_COMPLEMENT:
+        if (isIntegral(numeric)) {
+          return of(promote(numeric));
+        }
+        break;
+      default:
+        // Increments and decrements.
+        throw CANNOT_DECIDE;
+    }
+    throw new TypeErrorException(
+        "bad operand type " + operand.type.getName() + " for unary operator " + unary);
+  }
+
+  /** Tells whether two values can be compared with {@code ==} and {@code !=}. */
+  private static boolean isComparable(StaticType left, StaticType right) throws UndecidedException {
+    final Class<?> l = left.type;
+    final Class<?> r = right.type;
+    if (!l.isPrimitive() && !r.isPrimitive()) {
+      return isCastable(left, right);
+    }
+    if (numeric(l) != null && numeric(r) != null) {
+      return true;
+    }
+    if (isBoolean(l) && isBoolean(r)) {
+      return true;
+    }
+    if (left.isNull() || right.isNull()) {
+      return false;
+    }
+    final boolean leftPrimitiveLike = numeric(l) != null || isBoolean(l);
+    final boolean rightPrimitiveLike = numeric(r) != null || isBoolean(r);
+    if (leftPrimitiveLike && rightPrimitiveLike) {
+      // A numeric value and a boolean one.
+      return false;
+    }
+    // A primitive and a reference like Object: javac versions disagree.
+    throw CANNOT_DECIDE;
+  }
+
+  /** Tells whether a reference type can be cast to another one. */
+  private static boolean isCastable(StaticType left, StaticType right) throws UndecidedException {
+    final Class<?> l = left.type;
+    final Class<?> r = right.type;
+    if (left.isNull() || right.isNull()) {
+      return true;
+    }
+    if (left.parameterized && right.parameterized) {
+      // Provably distinct parameterizations are not castable.
+      throw CANNOT_DECIDE;
+    }
+    if (l.isAssignableFrom(r) || r.isAssignableFrom(l)) {
+      return true;
+    }
+    if (l.isArray() != r.isArray()) {
+      // Arrays are castable only to Object, Cloneable, and Serializable.
+      return false;
+    }
+    if (l.isArray()) {
+      if (l.getComponentType().isPrimitive() || r.getComponentType().isPrimitive()) {
+        return false;
+      }
+      throw CANNOT_DECIDE;
+    }
+    if (l.isInterface() && r.isInterface()) {
+      throw CANNOT_DECIDE;
+    }
+    if (l.isInterface()) {
+      return !Modifier.isFinal(r.getModifiers());
+    }
+    if (r.isInterface()) {
+      return !Modifier.isFinal(l.getModifiers());
+    }
+    return false;
+  }
+
+  /** Returns the type of a member (field or method result) accessed through the given type. */
+  private static StaticType memberType(
+      StaticType owner, Class<?> erasure, Type genericType, boolean isStatic)
+      throws UndecidedException {
+    if (genericType instanceof Class || (owner.isRaw() && !isStatic)) {
+      return of(erasure);
+    }
+    return of(genericType);
+  }
+
+  /** Returns the static type of a value of the given type. */
+  private static StaticType of(Type type) throws UndecidedException {
+    if (type instanceof Class) {
+      return of((Class<?>) type);
+    }
+    if (type instanceof ParameterizedType) {
+      return new StaticType((Class<?>) ((ParameterizedType) type).getRawType(), true, false);
+    }
+    // Type variables and generic arrays.
+    throw CANNOT_DECIDE;
+  }
+
+  private static StaticType of(Class<?> type) {
+    return new StaticType(type, false, false);
+  }
+
+  private static void checkDereferenceable(StaticType owner) throws TypeErrorException {
+    if (owner.isNull() || owner.type.isPrimitive()) {
+      throw new TypeErrorException(owner.type.getSimpleName() + " cannot be dereferenced");
+    }
+  }
+
+  /** Checks that an integer literal is in range. Literals we do not parse are left undecided. */
+  private static void checkLiteral(String literal, boolean isLong) throws UndecidedException {
+    String value = literal.replace("_", "");
+    try {
+      if (isLong) {
+        Long.decode(value.substring(0, value.length() - 1));
+      } else {
+        Integer.decode(value);
+      }
+    } catch (NumberFormatException e) {
+      // Binary literals, out-of-range literals, and hexadecimal or octal literals with the sign bit
+      // set.
+      throw CANNOT_DECIDE;
+    }
+  }
+
+  /**
+   * Returns the type the given qualified name (e.g., {@code java.lang.Math}) stands for.
+   *
+   * @return the type the name stands for, null if the expression is not a qualified type name
+   */
+  private Class<?> qualifiedType(FieldAccessExpr fieldAccess) throws UndecidedException {
+    final Deque<String> names = new ArrayDeque<>();
+    Expression expression = fieldAccess;
+    while (expression instanceof FieldAccessExpr) {
+      names.addFirst(((FieldAccessExpr) expression).getNameAsString());
+      expression = ((FieldAccessExpr) expression).getScope();
+    }
+    if (!(expression instanceof NameExpr)) {
+      return null;
+    }
+    final String first = ((NameExpr) expression).getNameAsString();
+    if (variables.containsKey(first) || simpleTypeName(first) != null) {
+      // Variables and simple type names take precedence over packages.
+      return null;
+    }
+    names.addFirst(first);
+    return loadClass(String.join(".", names));
+  }
+
+  /**
+   * Returns the type the given simple name stands for in the generated source code: the declaring
+   * class (that is imported), a class in the same package (if the generated code is in the same
+   * package of the declaring class), or a class in {@code java.lang}.
+   *
+   * @return the type the name stands for, null if the name does not stand for a type
+   */
+  private Class<?> simpleTypeName(String name) throws UndecidedException {
+    if (name.equals(declaringClass.getSimpleName())) {
+      return declaringClass;
+    }
+    if (packageName != null) {
+      final Class<?> type = loadClass(packageName + "." + name);
+      if (type != null) {
+        return type;
+      }
+    }
+    return loadClass("java.lang." + name);
+  }
+
+  /**
+   * Loads the class with the given name, if javac could load it as well.
+   *
+   * @return the class, null if it does not exist
+   * @throws UndecidedException if the class exists but could be not visible to javac
+   */
+  private Class<?> loadClass(String name) throws UndecidedException {
+    final ClassLoader loader = declaringClass.getClassLoader();
+    final Class<?> type;
+    try {
+      type = Class.forName(name, false, loader);
+    } catch (ClassNotFoundException | LinkageError e) {
+      return null;
+    }
+    // JDK classes and classes of the analyzed system only: classes of Toradocu's own dependencies
+    // are not in javac's classpath.
+    if ((type.getClassLoader() != null && type.getClassLoader() != loader) || !isAccessible(type)) {
+      throw CANNOT_DECIDE;
+    }
+    return type;
+  }
+
+  /** Tells whether the generated source code can declare a variable of the given type. */
+  private boolean isDeclarable(Type type) {
+    if (type instanceof Class) {
+      return isAccessible((Class<?>) type);
+    } else if (type instanceof ParameterizedType) {
+      final ParameterizedType parameterized = (ParameterizedType) type;
+      boolean declarable = isDeclarable(parameterized.getRawType());
+      for (Type argument : parameterized.getActualTypeArguments()) {
+        declarable &= isDeclarable(argument);
+      }
+      return declarable;
+    } else if (type instanceof GenericArrayType) {
+      return isDeclarable(((GenericArrayType) type).getGenericComponentType());
+    } else if (type instanceof WildcardType) {
+      final WildcardType wildcard = (WildcardType) type;
+      boolean declarable = true;
+      for (Type bound : wildcard.getUpperBounds()) {
+        declarable &= isDeclarable(bound);
+      }
+      for (Type bound : wildcard.getLowerBounds()) {
+        declarable &= isDeclarable(bound);
+      }
+      return declarable;
+    } else if (type instanceof TypeVariable) {
+      // Only the type parameters of the declaring class and of the executable are copied.
+      final Object declaration = ((TypeVariable<?>) type).getGenericDeclaration();
+      return declaration == declaringClass || declaration instanceof Executable;
+    }
+    return false;
+  }
+
+  /** Tells whether the generated source code can refer to the given class. */
+  private boolean isAccessible(Class<?> type) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    if (type.isPrimitive()) {
+      return true;
+    }
+    for (Class<?> c = type; c != null; c = c.getDeclaringClass()) {
+      if (c.isAnonymousClass() || c.isLocalClass()) {
+        return false;
+      }
+      final int modifiers = c.getModifiers();
+      final boolean samePackage = packageName != null && packageName.equals(packageOf(c));
+      if (!Modifier.isPublic(modifiers) && !(samePackage && !Modifier.isPrivate(modifiers))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Tells whether the given type or its supertypes declare a member with the given name. */
+  private static boolean hasMember(Class<?> type, String name) {
+    final Deque<Class<?>> toVisit = new ArrayDeque<>(Collections.singleton(type));
+    final Set<Class<?>> visited = new HashSet<>();
+    while (!toVisit.isEmpty()) {
+      final Class<?> current = toVisit.poll();
+      if (!visited.add(current)) {
+        continue;
+      }
+      for (Field field : current.getDeclaredFields()) {
+        if (field.getName().equals(name)) {
+          return true;
+        }
+      }
+      for (Method method : current.getDeclaredMethods()) {
+        if (method.getName().equals(name)) {
+          return true;
+        }
+      }
+      for (Class<?> member : current.getDeclaredClasses()) {
+        if (member.getSimpleName().equals(name)) {
+          return true;
+        }
+      }
+      if (current.getSuperclass() != null) {
+        toVisit.add(current.getSuperclass());
+      }
+      toVisit.addAll(Arrays.asList(current.getInterfaces()));
+    }
+    return false;
+  }
+
+  private static String packageOf(Class<?> type) {
+    while (type.getDeclaringClass() != null) {
+      type = type.getDeclaringClass();
+    }
+    final String name = type.getName();
+    final int lastDot = name.lastIndexOf('.');
+    return lastDot == -1 ? "" : name.substring(0, lastDot);
+  }
+
+  /** Returns the primitive numeric type the given type converts to, null if it is not numeric. */
+  private static Class<?> numeric(Class<?> type) {
+    final Class<?> primitive = type.isPrimitive() ? type : UNBOXED.get(type);
+    return primitive == null || primitive == boolean.class || primitive == void.class
+        ? null
+        : primitive;
+  }
+
+  private static boolean isIntegral(Class<?> numeric) {
+    return numeric != null && numeric != float.class && numeric != double.class;
+  }
+
+  private static boolean isBoolean(Class<?> type) {
+    return type == boolean.class || type == Boolean.class;
+  }
+
+  /** Unary numeric promotion. */
+  private static Class<?> promote(Class<?> numeric) {
+    return numeric == byte.class || numeric == short.class || numeric == char.class
+        ? int.class
+        : numeric;
+  }
+
+  /** Binary numeric promotion. */
+  private static Class<?> promote(Class<?> left, Class<?> right) {
+    for (Class<?> type : Arrays.asList(double.class, float.class, long.class)) {
+      if (left == type || right == type) {
+        return type;
+      }
+    }
+    return int.class;
+  }
+
+  private static Set<Class<?>> set(Class<?>... types) {
+    return new HashSet<>(Arrays.asList(types));
+  }
+}
@@ -0,0 +1,352 @@
+package org.toradocu.util;
+
+import static java.util.stream.Collectors.toList;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.output.util.TagOutput;
+
+/**
+ * Computes statistics on a corpus of Toradocu JSON files in one pass: the number of specifications
+ * in the goal files and, if the output files of Toradocu are given, the precision and recall of the
+ * output files with respect to the goal files. Statistics are printed on the standard output as
+ * comma-separated values, one row per package and a final {@code TOTAL} row. Directories are
+ * searched recursively, following symbolic links: the JSON files in their subdirectories are read
+ * too.
+ *
+ * <p>Files are read in parallel, one method at a time, with the streaming adapters of {@link
+ * GsonInstance}: the memory used does not depend on the size of the files, but only on the number
+ * of packages. Precision and recall are computed by {@link Stats}, as for the accuracy tests. The
+ * output file of the goal file {@code C_goal.json} is the file named {@code C.json} or {@code
+ * C_goal.json} in the directory of the output files (or in its subdirectories); the specifications
+ * of goal files without an output file are counted, but not compared.
+ *
+ * <p>Usage: {@code CorpusStats [--threads n] <goal file or directory> [<output directory>]}
+ */
+public class CorpusStats {
+
+  /** Reads the methods of the JSON files. */
+  private static final TypeAdapter<JsonOutput> METHOD_ADAPTER =
+      GsonInstance.gson().getAdapter(JsonOutput.class);
+
+  /** Suffix of the names of goal files. */
+  private static final String GOAL_SUFFIX = "_goal.json";
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int threads = Runtime.getRuntime().availableProcessors();
+    final List<String> paths = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("--threads") && i + 1 < args.length) {
+        threads = Integer.parseInt(args[++i]);
+      } else {
+        paths.add(args[i]);
+      }
+    }
+    if (paths.isEmpty() || paths.size() > 2) {
+      throw new IllegalArgumentException(
+          "Usage: CorpusStats [--threads n] <goal file or directory> [<output directory>]");
+    }
+
+    final Path outputs = paths.size() == 2 ? Paths.get(paths.get(1)) : null;
+    print(collect(Paths.get(paths.get(0)), outputs, threads), outputs != null, System.out);
+  }
+
+  /**
+   * Collects the statistics of the given goal files and output files.
+   *
+   * @param goal a goal file, or a directory containing goal files
+   * @param outputs the directory containing the output files of Toradocu, null to only count the
+   *     specifications of the goal files
+   * @param threads the number of files read in parallel
+   * @return the statistics of each package, by package name
+   * @throws IOException if a file cannot be read
+   * @throws InterruptedException if interrupted while waiting for the files to be read
+   * @throws IllegalArgumentException if an output file does not have the same number of methods of
+   *     its goal file
+   */
+  static SortedMap<String, PackageStats> collect(Path goal, Path outputs, int threads)
+      throws IOException, InterruptedException {
+    final List<Path> goalFiles = jsonFiles(goal);
+    final Map<String, Path> outputFiles = new HashMap<>();
+    if (outputs != null) {
+      for (Path outputFile : jsonFiles(outputs)) {
+        outputFiles.putIfAbsent(className(outputFile), outputFile);
+      }
+    }
+
+    final Map<String, PackageStats> packages = new ConcurrentHashMap<>();
+    final ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<Void>> results = new ArrayList<>();
+      for (Path goalFile : goalFiles) {
+        final Path outputFile = outputFiles.get(className(goalFile));
+        if (outputs != null && outputFile == null) {
+          System.err.println("No output file for goal file " + goalFile);
+        }
+        final Callable<Void> task =
+            () -> {
+              collect(goalFile, outputFile, packages);
+              return null;
+            };
+        results.add(pool.submit(task));
+      }
+      for (Future<Void> result : results) {
+        try {
+          result.get();
+        } catch (ExecutionException e) {
+          final Throwable cause = e.getCause();
+          if (cause instanceof IOException) {
+            throw (IOException) cause;
+          } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          throw new IllegalStateException(cause);
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    return new TreeMap<>(packages);
+  }
+
+  /**
+   * Collects the statistics of a goal file and of its output file.
+   *
+   * @param goalFile the goal file
+   * @param outputFile the output file of {@code goalFile}, null if the specifications of {@code
+   *     goalFile} are only counted
+   * @param packages the statistics of each package, where the statistics of the file are added
+   * @throws IOException if a file cannot be read
+   */
+  private static void collect(Path goalFile, Path outputFile, Map<String, PackageStats> packages)
+      throws IOException {
+    final Map<String, PackageStats> filePackages = new HashMap<>();
+    try (JsonReader goal = open(goalFile);
+        JsonReader output = outputFile == null ? null : open(outputFile)) {
+      final boolean goalMethods = beginArray(goal);
+      final boolean outputMethods = output != null && beginArray(output);
+      while (goalMethods && goal.hasNext()) {
+        final JsonOutput expectedMethod = METHOD_ADAPTER.read(goal);
+        JsonOutput actualMethod = null;
+        if (output != null) {
+          if (!outputMethods || !output.hasNext()) {
+            throw sizeMismatch(goalFile, outputFile);
+          }
+          actualMethod = METHOD_ADAPTER.read(output);
+        }
+        filePackages
+            .computeIfAbsent(packageName(expectedMethod), PackageStats::new)
+            .addMethod(expectedMethod, actualMethod);
+      }
+      if (outputMethods && output.hasNext()) {
+        throw sizeMismatch(goalFile, outputFile);
+      }
+    } catch (IOException e) {
+      throw new IOException("Unable to read " + goalFile + ": " + e.getMessage(), e);
+    }
+    for (Map.Entry<String, PackageStats> filePackage : filePackages.entrySet()) {
+      packages.merge(filePackage.getKey(), filePackage.getValue(), PackageStats::add);
+    }
+  }
+
+  /**
+   * Prints the given statistics as comma-separated values, one row per package and a final row with
+   * the totals.
+   *
+   * @param packages the statistics of each package, by package name
+   * @param compared whether the statistics include the comparison with output files
+   * @param out the stream to print the statistics to
+   */
+  static void print(SortedMap<String, PackageStats> packages, boolean compared, PrintStream out) {
+    String header = "PACKAGE,METHODS,PRE,POST,EXC";
+    if (compared) {
+      header +=
+          ",CORRECT THROWS CONDITIONS,WRONG THROWS CONDITIONS,UNEXPECTED THROWS CONDITIONS,"
+              + "MISSING THROWS CONDITIONS,CORRECT PARAM CONDITIONS,WRONG PARAM CONDITIONS,"
+              + "UNEXPECTED PARAM CONDITIONS,MISSING PARAM CONDITIONS,CORRECT RETURN CONDITIONS,"
+              + "WRONG RETURN CONDITIONS,UNEXPECTED RETURN CONDITIONS,MISSING RETURN CONDITIONS,"
+              + "PARAM PRECISION,PARAM RECALL,RETURN PRECISION,RETURN RECALL,"
+              + "THROWS PRECISION,THROWS RECALL,OVERALL PRECISION,OVERALL RECALL,F-MEASURE";
+    }
+    out.println(header);
+    final PackageStats total = new PackageStats("TOTAL");
+    for (PackageStats packageStats : packages.values()) {
+      out.println(packageStats.asCSV(compared));
+      total.add(packageStats);
+    }
+    out.println(total.asCSV(compared));
+  }
+
+  /** Returns the JSON files in the given file or directory, sorted by path. */
+  private static List<Path> jsonFiles(Path path) throws IOException {
+    if (!Files.isDirectory(path)) {
+      return Collections.singletonList(path);
+    }
+    try (Stream<Path> files = Files.walk(path, FileVisitOption.FOLLOW_LINKS)) {
+      return files
+          .filter(file -> file.getFileName().toString().endsWith(".json"))
+          .filter(Files::isRegularFile)
+          .sorted()
+          .collect(toList());
+    }
+  }
+
+  /** Returns the name of the class whose methods are in the given goal or output file. */
+  private static String className(Path file) {
+    final String name = file.getFileName().toString();
+    if (name.endsWith(GOAL_SUFFIX)) {
+      return name.substring(0, name.length() - GOAL_SUFFIX.length());
+    }
+    return name.substring(0, name.length() - ".json".length());
+  }
+
+  private static String packageName(JsonOutput method) {
+    final String className =
+        method.containingClass != null ? method.containingClass.getQualifiedName() : null;
+    if (className == null) {
+      return "";
+    }
+    final int lastDot = className.lastIndexOf('.');
+    return lastDot == -1 ? "" : className.substring(0, lastDot);
+  }
+
+  private static JsonReader open(Path file) throws IOException {
+    return new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+  }
+
+  /** Begins the array of methods of a file, returning false if the file contains null. */
+  private static boolean beginArray(JsonReader reader) throws IOException {
+    if (reader.peek() == JsonToken.NULL) {
+      reader.nextNull();
+      return false;
+    }
+    reader.beginArray();
+    return true;
+  }
+
+  private static IllegalArgumentException sizeMismatch(Path goalFile, Path outputFile) {
+    return new IllegalArgumentException(
+        "Goal file " + goalFile + " and output file " + outputFile + " have different methods");
+  }
+
+  /** Statistics of the methods of a package. */
+  static final class PackageStats {
+    /** The name of the package. */
+    private final String name;
+    /** Number of methods in the goal files. */
+    int methods;
+    /** Number of @param tags with a specification in the goal files. */
+    int pre;
+    /** Number of @return tags with a specification in the goal files. */
+    int post;
+    /** Number of @throws tags with a specification in the goal files. */
+    int exc;
+    /** Precision and recall of the output files, if compared with the goal files. */
+    final Stats stats;
+
+    PackageStats(String name) {
+      this.name = name;
+      this.stats = new Stats(name);
+    }
+
+    /**
+     * Adds a method to these statistics.
+     *
+     * @param expectedMethod the method in the goal file
+     * @param actualMethod the method in the output file, null if not compared
+     */
+    void addMethod(JsonOutput expectedMethod, JsonOutput actualMethod) {
+      methods++;
+      pre += countSpecifications(expectedMethod.paramTags);
+      exc += countSpecifications(expectedMethod.throwsTags);
+      if (expectedMethod.returnTag != null && hasSpecification(expectedMethod.returnTag)) {
+        post++;
+      }
+      if (actualMethod != null) {
+        stats.add(Stats.getStats(actualMethod, expectedMethod));
+      }
+    }
+
+    /**
+     * Adds the given statistics to these statistics.
+     *
+     * @param other the statistics to add
+     * @return these statistics
+     */
+    PackageStats add(PackageStats other) {
+      methods += other.methods;
+      pre += other.pre;
+      post += other.post;
+      exc += other.exc;
+      stats.add(other.stats);
+      return this;
+    }
+
+    String asCSV(boolean compared) {
+      final StringBuilder csv = new StringBuilder();
+      csv.append(name).append(',').append(methods);
+      csv.append(',').append(pre).append(',').append(post).append(',').append(exc);
+      if (compared) {
+        csv.append(',').append(stats.countsAsCSV());
+        for (BlockTag.Kind kind :
+            new BlockTag.Kind[] {BlockTag.Kind.PARAM, BlockTag.Kind.RETURN, BlockTag.Kind.THROWS}) {
+          csv.append(',').append(format(stats.getPrecision(kind)));
+          csv.append(',').append(format(stats.getRecall(kind)));
+        }
+        final double precision = stats.getOverallPrecision();
+        final double recall = stats.getOverallRecall();
+        final double fMeasure =
+            precision + recall == 0 ? 0 : 2 * precision * recall / (precision + recall);
+        csv.append(',').append(format(precision));
+        csv.append(',').append(format(recall));
+        csv.append(',').append(format(fMeasure));
+      }
+      return csv.toString();
+    }
+
+    private static int countSpecifications(List<? extends TagOutput> tags) {
+      int count = 0;
+      if (tags != null) {
+        for (TagOutput tag : tags) {
+          if (hasSpecification(tag)) {
+            count++;
+          }
+        }
+      }
+      return count;
+    }
+
+    private static boolean hasSpecification(TagOutput tag) {
+      return tag.getCondition() != null && !tag.getCondition().isEmpty();
+    }
+
+    private static String format(double value) {
+      return String.format(Locale.US, "%.4f", value);
+    }
+  }
+}
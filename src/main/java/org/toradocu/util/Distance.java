@@ -3,7 +3,7 @@ package org.toradocu.util;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
-import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
 
 /**
  * This utility class returns the edit distance between two strings based on character edits and
@@ -24,7 +24,7 @@ public class Distance {
    *     deletions
    */
   public static int editDistance(String s0, String s1) {
-    return editDistance(s0, s1, Configuration.INSTANCE.getWordRemovalCost());
+    return editDistance(s0, s1, RunContext.current().getConfiguration().getWordRemovalCost());
   }
 
   /**
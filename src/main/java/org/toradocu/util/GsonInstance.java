@@ -2,23 +2,35 @@ package org.toradocu.util;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import org.toradocu.output.util.JsonOutput;
-import org.toradocu.output.util.JsonOutputSerializer;
+import org.toradocu.output.util.JsonOutputTypeAdapterFactory;
 
-/** This class holds an instance of a {@code Gson} object. */
+/**
+ * This class holds two instances of a {@code Gson} object: one that pretty-prints JSON and one that
+ * prints compact JSON. Both read and write Toradocu output ({@code JsonOutput}) with streaming type
+ * adapters.
+ */
 public final class GsonInstance {
 
   /** The Gson object instance. */
-  private static final Gson gson =
-      new GsonBuilder()
-          .registerTypeAdapter(JsonOutput.class, new JsonOutputSerializer())
-          .disableHtmlEscaping()
-          .setPrettyPrinting()
-          .create();
+  private static final Gson gson = builder().setPrettyPrinting().create();
+
+  /** The Gson object instance that prints compact JSON. */
+  private static final Gson compactGson = builder().create();
 
   /** Disables construction of this class. */
   private GsonInstance() {}
 
+  /**
+   * Returns a builder with the configuration common to the Gson instances held by this class.
+   *
+   * @return a builder with the common configuration
+   */
+  private static GsonBuilder builder() {
+    return new GsonBuilder()
+        .registerTypeAdapterFactory(new JsonOutputTypeAdapterFactory())
+        .disableHtmlEscaping();
+  }
+
   /**
    * Returns the Gson instance held by this class.
    *
@@ -27,4 +39,24 @@ public final class GsonInstance {
   public static Gson gson() {
     return gson;
   }
+
+  /**
+   * Returns the Gson instance held by this class that prints compact (not pretty-printed) JSON.
+   *
+   * @return the Gson instance that prints compact JSON
+   */
+  public static Gson compactGson() {
+    return compactGson;
+  }
+
+  /**
+   * Returns the Gson instance that prints compact JSON if {@code compact} is true, the one that
+   * pretty-prints JSON otherwise.
+   *
+   * @param compact true to get the Gson instance that prints compact JSON
+   * @return the requested Gson instance
+   */
+  public static Gson gson(boolean compact) {
+    return compact ? compactGson : gson;
+  }
 }
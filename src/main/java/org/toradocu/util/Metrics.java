@@ -0,0 +1,361 @@
+package org.toradocu.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.toradocu.conf.RunContext;
+import org.toradocu.extractor.BlockTag;
+
+/**
+ * Collects timers and counters about a Toradocu run. Every stage of the pipeline (extraction,
+ * preprocessing, parsing, matching, compliance checks, output, ...) is timed through {@link
+ * #time(Stage)}, the translation of each tag is timed through {@link #time(BlockTag.Kind)}, and
+ * events such as cache hits are counted through {@link #increment(Counter)}. Data is recorded in
+ * the metrics of the run bound to the calling thread (see {@link RunContext#current()}), so that
+ * concurrent runs do not mix their data. At the end of a run the collected data can be retrieved
+ * with {@link #of(RunContext)} and exported in JSON format with {@link #writeReport(File)}.
+ *
+ * <p>Stage timers are inclusive: a stage invoked from within another stage (e.g., the Stanford
+ * parser invoked during preprocessing) contributes to the time of both stages. All the methods of
+ * this class are thread-safe.
+ */
+public final class Metrics {
+
+  /** The stages of the Toradocu pipeline that are timed. */
+  public enum Stage {
+    EXTRACTION,
+    TRANSLATION,
+    PREPROCESSING,
+    STANFORD_PARSING,
+    SENTENCE_PARSING,
+    SUBJECT_MATCHING,
+    PREDICATE_MATCHING,
+    SEMANTIC_MATCHING,
+    COMPLIANCE_CHECK,
+    JSON_OUTPUT,
+    ASPECT_GENERATION
+  }
+
+  /** The events counted during a Toradocu run. */
+  public enum Counter {
+    /** Comments whose semantic graphs were found in the parser cache. */
+    PARSER_CACHE_HIT,
+    /** Comments that had to be parsed by the Stanford parser. */
+    PARSER_CACHE_MISS,
+    /** Word Mover's Distances computed by the semantic matcher. */
+    WMD_COMPUTATIONS,
+    /** Word Mover's Distances skipped because their lower bound is above the threshold. */
+    WMD_PRUNED,
+    /** Specifications that passed the compliance check. */
+    SPECS_COMPILED,
+    /** Specifications discarded because they do not compile. */
+    SPECS_DISCARDED,
+    /** Specifications whose compliance was decided by the type checker, without javac. */
+    FAST_COMPLIANCE_DECIDED,
+    /** Specifications the type checker could not decide, that were compiled with javac. */
+    FAST_COMPLIANCE_UNDECIDED,
+    /** Type checker verdicts confirmed by javac (only counted with compliance cross-checks). */
+    FAST_COMPLIANCE_AGREED,
+    /** Type checker verdicts contradicted by javac (only counted with compliance cross-checks). */
+    FAST_COMPLIANCE_DISAGREED,
+    /** Compilations of compliance checks whose verdict was found in the verdict cache. */
+    COMPLIANCE_CACHE_HIT,
+    /** Compilations of compliance checks that had to be performed. */
+    COMPLIANCE_CACHE_MISS,
+    /** Tags whose translation was reused from an equivalent tag of the same run. */
+    TRANSLATION_MEMO_HIT,
+    /** Tags that had to be translated. */
+    TRANSLATION_MEMO_MISS,
+    /** {@code @param} tags whose comment is purely descriptive, translated without parsing. */
+    DESCRIPTIVE_TAG_SKIPPED,
+    /** {@code @param} tags whose comment may be translatable, that went through the pipeline. */
+    DESCRIPTIVE_TAG_NOT_SKIPPED,
+    /** Comments and code element names whose lemmas were found in the lemma cache. */
+    LEMMA_CACHE_HIT,
+    /** Comments and code element names that had to be lemmatized. */
+    LEMMA_CACHE_MISS
+  }
+
+  /** Metrics of each run. */
+  private static final RunContext.Key<Metrics> METRICS = new RunContext.Key<>(Metrics::new);
+
+  /** Execution times of the pipeline stages. */
+  private final Map<Stage, Histogram> stageTimes = new EnumMap<>(Stage.class);
+  /** Translation times of the tags, per kind of tag. */
+  private final Map<BlockTag.Kind, Histogram> tagTimes = new EnumMap<>(BlockTag.Kind.class);
+  /** Counted events. */
+  private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+
+  /**
+   * Creates empty metrics. Metrics of a run are created by {@link #of(RunContext)}; this
+   * constructor is meant for clients that aggregate the metrics of several runs with {@link
+   * #addAll(Metrics)}.
+   */
+  public Metrics() {
+    // Maps are populated once and never modified: concurrent reads are safe.
+    for (Stage stage : Stage.values()) {
+      stageTimes.put(stage, new Histogram());
+    }
+    for (BlockTag.Kind kind : BlockTag.Kind.values()) {
+      tagTimes.put(kind, new Histogram());
+    }
+    for (Counter counter : Counter.values()) {
+      counters.put(counter, new LongAdder());
+    }
+  }
+
+  /**
+   * Returns the metrics of the given run.
+   *
+   * @param context the context of a run
+   * @return the metrics collected during the run of {@code context}
+   */
+  public static Metrics of(RunContext context) {
+    return context.get(METRICS);
+  }
+
+  /**
+   * Tells whether Java Flight Recorder events can be emitted on this JVM. When JFR events are
+   * enabled in the configuration of a run (see {@link
+   * org.toradocu.conf.Configuration#isJfrEnabled()}) but cannot be emitted, they are skipped.
+   *
+   * @return true if the {@code jdk.jfr} API is available
+   */
+  public static boolean isJfrAvailable() {
+    return StageEvent.isAvailable();
+  }
+
+  /**
+   * Starts timing the given stage in the run bound to the calling thread. The returned timer has to
+   * be closed when the stage ends; the intended usage is in a try-with-resources statement.
+   *
+   * @param stage the stage to time
+   * @return the running timer
+   */
+  public static Timer time(Stage stage) {
+    final RunContext context = RunContext.current();
+    return new Timer(of(context).stageTimes.get(stage), stage.name(), context);
+  }
+
+  /**
+   * Starts timing the translation of a tag of the given kind in the run bound to the calling
+   * thread. The returned timer has to be closed when the translation ends, including its compliance
+   * checks: when they run asynchronously, the timer can be closed by the thread that completes
+   * them.
+   *
+   * @param kind the kind of the tag being translated
+   * @return the running timer
+   */
+  public static Timer time(BlockTag.Kind kind) {
+    final RunContext context = RunContext.current();
+    return new Timer(of(context).tagTimes.get(kind), kind.name(), context);
+  }
+
+  /**
+   * Increments by one the given counter of the run bound to the calling thread.
+   *
+   * @param counter the counter to increment
+   */
+  public static void increment(Counter counter) {
+    of(RunContext.current()).counters.get(counter).increment();
+  }
+
+  /**
+   * Returns the current value of the given counter.
+   *
+   * @param counter the counter to read
+   * @return the current value of {@code counter}
+   */
+  public long count(Counter counter) {
+    return counters.get(counter).sum();
+  }
+
+  /**
+   * Returns the execution times collected for the given stage.
+   *
+   * @param stage a pipeline stage
+   * @return the execution times of {@code stage}
+   */
+  public Histogram times(Stage stage) {
+    return stageTimes.get(stage);
+  }
+
+  /**
+   * Returns the translation times collected for tags of the given kind.
+   *
+   * @param kind a kind of tag
+   * @return the translation times of tags of the given kind
+   */
+  public Histogram times(BlockTag.Kind kind) {
+    return tagTimes.get(kind);
+  }
+
+  /**
+   * Adds the data collected in the given metrics to these metrics.
+   *
+   * @param metrics the metrics to add, e.g., the metrics of a completed run
+   */
+  public void addAll(Metrics metrics) {
+    stageTimes.forEach((stage, histogram) -> histogram.addAll(metrics.stageTimes.get(stage)));
+    tagTimes.forEach((kind, histogram) -> histogram.addAll(metrics.tagTimes.get(kind)));
+    counters.forEach((counter, count) -> count.add(metrics.counters.get(counter).sum()));
+  }
+
+  /**
+   * Returns a snapshot of the collected data, suitable for JSON serialization.
+   *
+   * @return a snapshot of the collected data
+   */
+  public Map<String, Object> report() {
+    Map<String, Object> stages = new LinkedHashMap<>();
+    for (Map.Entry<Stage, Histogram> entry : stageTimes.entrySet()) {
+      stages.put(entry.getKey().name().toLowerCase(), entry.getValue().summary());
+    }
+    Map<String, Object> tags = new LinkedHashMap<>();
+    for (Map.Entry<BlockTag.Kind, Histogram> entry : tagTimes.entrySet()) {
+      tags.put(entry.getKey().toString(), entry.getValue().summary());
+    }
+    Map<String, Object> counts = new LinkedHashMap<>();
+    for (Map.Entry<Counter, LongAdder> entry : counters.entrySet()) {
+      counts.put(entry.getKey().name().toLowerCase(), entry.getValue().sum());
+    }
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("stages", stages);
+    report.put("tags", tags);
+    report.put("counters", counts);
+    return report;
+  }
+
+  /**
+   * Writes the collected data in JSON format to the given file.
+   *
+   * @param file the file in which to write the report
+   * @throws IOException if the file cannot be written
+   */
+  public void writeReport(File file) throws IOException {
+    final File parentDir = file.getAbsoluteFile().getParentFile();
+    if (parentDir != null) {
+      Files.createDirectories(parentDir.toPath());
+    }
+    try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      writer.write(GsonInstance.gson().toJson(report()));
+    }
+  }
+
+  /** A running timer. Closing the timer records the elapsed time. */
+  public static final class Timer implements AutoCloseable {
+
+    /** Where the elapsed time is recorded. */
+    private final Histogram histogram;
+    /** JFR event associated with this timer, null if JFR events are disabled or unavailable. */
+    private final StageEvent event;
+    /** Start time in nanoseconds. */
+    private final long start;
+
+    private Timer(Histogram histogram, String name, RunContext context) {
+      this.histogram = histogram;
+      this.event = context.getConfiguration().isJfrEnabled() ? StageEvent.start(name) : null;
+      this.start = System.nanoTime();
+    }
+
+    /** Stops this timer and records the elapsed time. */
+    @Override
+    public void close() {
+      histogram.add(System.nanoTime() - start);
+      if (event != null) {
+        event.commit();
+      }
+    }
+  }
+
+  /** A thread-safe collection of durations (in nanoseconds) supporting percentile queries. */
+  public static final class Histogram {
+
+    /** Recorded samples. Only the first {@code size} elements are valid. */
+    private long[] samples = new long[16];
+    /** Number of recorded samples. */
+    private int size = 0;
+
+    private Histogram() {}
+
+    private synchronized void add(long value) {
+      if (size == samples.length) {
+        samples = Arrays.copyOf(samples, size * 2);
+      }
+      samples[size++] = value;
+    }
+
+    private void addAll(Histogram histogram) {
+      final long[] values;
+      synchronized (histogram) {
+        values = Arrays.copyOf(histogram.samples, histogram.size);
+      }
+      for (long value : values) {
+        add(value);
+      }
+    }
+
+    /**
+     * Returns the number of recorded samples.
+     *
+     * @return the number of recorded samples
+     */
+    public synchronized int count() {
+      return size;
+    }
+
+    /**
+     * Returns the sum of the recorded samples in nanoseconds.
+     *
+     * @return the sum of the recorded samples in nanoseconds
+     */
+    public synchronized long total() {
+      long total = 0;
+      for (int i = 0; i < size; i++) {
+        total += samples[i];
+      }
+      return total;
+    }
+
+    /**
+     * Returns the given percentile (nearest-rank method) of the recorded samples in nanoseconds, or
+     * 0 if no sample has been recorded.
+     *
+     * @param percentile the percentile to compute, between 0 and 100
+     * @return the requested percentile of the recorded samples in nanoseconds
+     */
+    public synchronized long percentile(double percentile) {
+      if (size == 0) {
+        return 0;
+      }
+      long[] sorted = Arrays.copyOf(samples, size);
+      Arrays.sort(sorted);
+      int rank = (int) Math.ceil(percentile / 100 * size);
+      return sorted[Math.min(Math.max(rank, 1), size) - 1];
+    }
+
+    private synchronized Map<String, Object> summary() {
+      Map<String, Object> summary = new LinkedHashMap<>();
+      summary.put("count", size);
+      summary.put("totalMillis", toMillis(total()));
+      summary.put("meanMillis", size == 0 ? 0 : toMillis(total() / size));
+      summary.put("p50Millis", toMillis(percentile(50)));
+      summary.put("p90Millis", toMillis(percentile(90)));
+      summary.put("p99Millis", toMillis(percentile(99)));
+      summary.put("maxMillis", toMillis(percentile(100)));
+      return summary;
+    }
+
+    private static double toMillis(long nanos) {
+      return nanos / 1_000_000.0;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package org.toradocu.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.toradocu.translator.semantic.QuantizedWordVectors;
+
+/**
+ * Given a GloVe model in text format (e.g., glove.6B.300d.txt) and an output path, this program
+ * writes the quantized word vector file to use with the option {@code --quantized-vectors}, and
+ * prints the number of converted words and the size of the input and output files.
+ */
+public class QuantizeWordVectors {
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException(
+          "Please provide a GloVe model in text format and the output file.");
+    }
+
+    final Path gloveModel = Paths.get(args[0]);
+    final Path output = Paths.get(args[1]);
+    if (output.getParent() != null) {
+      Files.createDirectories(output.getParent());
+    }
+    final int words = QuantizedWordVectors.convert(gloveModel, output);
+    System.out.println("WORDS " + words);
+    System.out.println("INPUT " + Files.size(gloveModel));
+    System.out.println("OUTPUT " + Files.size(output));
+  }
+}
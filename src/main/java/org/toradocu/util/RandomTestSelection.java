@@ -5,32 +5,48 @@ import static java.util.stream.Collectors.toList;
 import com.github.javaparser.ast.body.CallableDeclaration;
 import com.github.javaparser.javadoc.Javadoc;
 import com.github.javaparser.javadoc.JavadocBlockTag;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.toradocu.extractor.JavadocExtractor;
 
+/**
+ * Counts the documented classes of a project, and picks random documented classes, e.g., to be
+ * added to the benchmark. The sources of the project are parsed once, in parallel, to build an
+ * index of the number of Javadoc tags of each class; classes are then picked from the index.
+ *
+ * <p>Usage: {@code RandomTestSelection <project root> [<number of classes to pick> [<seed>]]}
+ */
 public class RandomTestSelection {
 
+  /** Minimum number of Javadoc tags of a documented class. */
+  private static final int MIN_TAGS = 5;
+
   /**
-   * Obtain all java source files in project root folder.
+   * Obtain all java source files in project root folder. Files are sorted by path, so that the
+   * classes picked with a given random seed do not depend on the order of the file system.
    *
    * @param projectRoot path to project root folder
    * @return number of java files in project root folder
    */
   private static List<Path> getJavaProjectSources(String projectRoot) {
-    try {
-      return Files.find(
-              Paths.get(projectRoot),
-              Integer.MAX_VALUE,
-              (filePath, fileAttr) -> fileAttr.isRegularFile())
+    try (Stream<Path> files =
+        Files.find(
+            Paths.get(projectRoot),
+            Integer.MAX_VALUE,
+            (filePath, fileAttr) -> fileAttr.isRegularFile())) {
+      return files
           .filter(f -> f.toFile().getName().endsWith(".java"))
+          .filter(f -> !f.toFile().getName().equals("package-info.java"))
+          .sorted()
           .collect(toList());
     } catch (IOException e) {
       e.printStackTrace();
@@ -39,41 +55,60 @@ public class RandomTestSelection {
   }
 
   /**
-   * Given a list of java files, pick a random one satisfying the criteria - at least 5 Javadoc
-   * tags, not considering: getters, setters, toString, equals and hashCode
+   * Counts the Javadoc tags of the classes in the given java files, not considering getters,
+   * setters, toString, equals and hashCode. Every file is parsed once, and files are parsed in
+   * parallel.
    *
    * @param javaFiles list of path to java source files
-   * @return the class randomly picked satisfying the criteria
+   * @return the number of Javadoc tags of each file, in the same order as {@code javaFiles} (0 for
+   *     files that cannot be parsed)
    */
-  private static Path pickRandomClass(List<Path> javaFiles) {
-    JavadocExtractor extractor = new JavadocExtractor();
-    List<CallableDeclaration<?>> methods;
-    Path chosenClass = null;
+  private static int[] countTags(List<Path> javaFiles) {
+    final JavadocExtractor extractor = new JavadocExtractor();
+    return IntStream.range(0, javaFiles.size())
+        .parallel()
+        .map(i -> countTags(extractor, javaFiles.get(i)))
+        .toArray();
+  }
 
-    while (chosenClass == null) {
-      int index = new Random().nextInt(javaFiles.size());
-      String sourcePath = javaFiles.get(index).toString();
-      if (sourcePath.contains("package-info.java")) {
-        continue;
+  private static int countTags(JavadocExtractor extractor, Path javaFile) {
+    String sourcePath = javaFile.toString();
+    String className =
+        sourcePath.substring(sourcePath.lastIndexOf("/") + 1, sourcePath.lastIndexOf("."));
+    try {
+      int numberOfTags = 0;
+      for (CallableDeclaration<?> m : extractor.getExecutables(className, sourcePath)) {
+        numberOfTags += findTagsForMethod(m);
       }
-      String className =
-          sourcePath.substring(sourcePath.lastIndexOf("/") + 1, sourcePath.lastIndexOf("."));
-      try {
-        methods = extractor.getExecutables(className, sourcePath);
-        int numberOfTags = 0;
-        for (CallableDeclaration m : methods) {
-          numberOfTags += findTagsForMethod(m);
-        }
-        if (numberOfTags > 4) {
-          chosenClass = javaFiles.get(index);
-        }
+      return numberOfTags;
+    } catch (Exception e) {
+      // ignore parse errors
+      return 0;
+    }
+  }
 
-      } catch (FileNotFoundException e) {
-        e.printStackTrace();
+  /**
+   * Given a list of java files and their number of Javadoc tags, pick random ones satisfying the
+   * criteria - at least 5 Javadoc tags, not considering: getters, setters, toString, equals and
+   * hashCode
+   *
+   * @param javaFiles list of path to java source files
+   * @param tagCounts number of Javadoc tags of each file in {@code javaFiles}
+   * @param count number of classes to pick
+   * @param random the source of randomness
+   * @return {@code count} distinct classes randomly picked satisfying the criteria, or all of them
+   *     if they are fewer than {@code count}
+   */
+  private static List<Path> pickRandomClasses(
+      List<Path> javaFiles, int[] tagCounts, int count, Random random) {
+    final List<Path> documented = new ArrayList<>();
+    for (int i = 0; i < tagCounts.length; i++) {
+      if (tagCounts[i] >= MIN_TAGS) {
+        documented.add(javaFiles.get(i));
       }
     }
-
-    return chosenClass;
+    Collections.shuffle(documented, random);
+    return documented.subList(0, Math.min(count, documented.size()));
   }
 
   /**
@@ -81,38 +116,11 @@ public class RandomTestSelection {
    * considering: getters, setters, toString, equals and hashCode. i.e. the so-called "documented
    * classes
    *
-   * @param javaFiles list of path to java source files
+   * @param tagCounts number of Javadoc tags of each java source file
    * @return total number of documented classes
    */
-  private static int countDocumented(List<Path> javaFiles) {
-    JavadocExtractor extractor = new JavadocExtractor();
-    List<CallableDeclaration<?>> methods;
-    int count = 0;
-
-    for (Path path : javaFiles) {
-      int index = new Random().nextInt(javaFiles.size());
-      String sourcePath = path.toString();
-      if (sourcePath.contains("package-info.java")) {
-        continue;
-      }
-      String className =
-          sourcePath.substring(sourcePath.lastIndexOf("/") + 1, sourcePath.lastIndexOf("."));
-      try {
-        methods = extractor.getExecutables(className, sourcePath);
-        int numberOfTags = 0;
-        for (CallableDeclaration m : methods) {
-          numberOfTags += findTagsForMethod(m);
-        }
-        if (numberOfTags > 4) {
-          count++;
-        }
-
-      } catch (Exception e) {
-        // ignore parse errors
-      }
-    }
-
-    return count;
+  private static int countDocumented(int[] tagCounts) {
+    return (int) IntStream.of(tagCounts).filter(tags -> tags >= MIN_TAGS).count();
   }
 
   /**
@@ -180,6 +188,16 @@ public class RandomTestSelection {
       PLUMELIB_SRC
     };
 
-    System.out.println(countDocumented(getJavaProjectSources(args[0])));
+    final List<Path> javaFiles = getJavaProjectSources(args[0]);
+    final int[] tagCounts = countTags(javaFiles);
+    System.out.println(countDocumented(tagCounts));
+    if (args.length > 1) {
+      // Pick classes from the same index, without parsing the sources again.
+      final Random random = args.length > 2 ? new Random(Long.parseLong(args[2])) : new Random();
+      for (Path chosenClass :
+          pickRandomClasses(javaFiles, tagCounts, Integer.parseInt(args[1]), random)) {
+        System.out.println(chosenClass);
+      }
+    }
   }
 }
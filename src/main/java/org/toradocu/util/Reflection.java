@@ -1,14 +1,11 @@
 package org.toradocu.util;
 
 import java.lang.reflect.Type;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
 
 public class Reflection {
 
@@ -36,13 +33,27 @@ public class Reflection {
 
   /**
    * Returns the {@code Class} object for the class with the given name or null if the class could
-   * not be retrieved.
+   * not be retrieved. The class is loaded by the class loader of the current run.
    *
    * @param className the fully qualified name of a class
    * @return the {@code Class} object for the given class
    * @throws ClassNotFoundException if class {@code className} cannot be loaded
    */
   public static Class<?> getClass(String className) throws ClassNotFoundException {
+    return getClass(className, RunContext.current());
+  }
+
+  /**
+   * Returns the {@code Class} object for the class with the given name or null if the class could
+   * not be retrieved. The class is loaded by the class loader of the given run.
+   *
+   * @param className the fully qualified name of a class
+   * @param context the context of the run in which the class is loaded
+   * @return the {@code Class} object for the given class
+   * @throws ClassNotFoundException if class {@code className} cannot be loaded
+   */
+  public static Class<?> getClass(String className, RunContext context)
+      throws ClassNotFoundException {
     if (primitiveClasses.containsKey(className)) {
       return primitiveClasses.get(className);
     }
@@ -50,10 +61,8 @@ public class Reflection {
     // The order here is important. We have to first look in the paths specified by the user and
     // then in the default class path. The default classpath contains the dependencies of Toradocu
     // that could clash with the system under analysis.
-    final List<URL> urls = Configuration.INSTANCE.classDirs;
-    final URLClassLoader loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), null);
     try {
-      return loader.loadClass(className);
+      return context.getClassLoader().loadClass(className);
     } catch (ClassNotFoundException e) {
       return Class.forName(className);
     }
@@ -0,0 +1,125 @@
+package org.toradocu.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Java Flight Recorder event emitted for each timed stage when JFR events are enabled (see {@link
+ * org.toradocu.conf.Configuration#isJfrEnabled()}). The {@code jdk.jfr} API is accessed through
+ * reflection, so that Toradocu compiles against and runs on JVMs that do not ship it; on such JVMs
+ * no event is emitted.
+ */
+final class StageEvent {
+
+  /** Creates the events, null if the {@code jdk.jfr} API is not available. */
+  private static final Object FACTORY;
+  /** {@code jdk.jfr.EventFactory.newEvent()}. */
+  private static final Method NEW_EVENT;
+  /** {@code jdk.jfr.Event.set(int, Object)}. */
+  private static final Method SET;
+  /** {@code jdk.jfr.Event.begin()}. */
+  private static final Method BEGIN;
+  /** {@code jdk.jfr.Event.end()}. */
+  private static final Method END;
+  /** {@code jdk.jfr.Event.commit()}. */
+  private static final Method COMMIT;
+
+  static {
+    Object factory = null;
+    Method newEvent = null;
+    Method set = null;
+    Method begin = null;
+    Method end = null;
+    Method commit = null;
+    try {
+      final Constructor<?> annotation =
+          Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+      final Class<?> label = Class.forName("jdk.jfr.Label");
+      final List<Object> eventAnnotations =
+          Arrays.asList(
+              annotation.newInstance(Class.forName("jdk.jfr.Name"), "org.toradocu.Stage"),
+              annotation.newInstance(label, "Toradocu Stage"),
+              annotation.newInstance(Class.forName("jdk.jfr.Category"), new String[] {"Toradocu"}),
+              annotation.newInstance(
+                  Class.forName("jdk.jfr.Description"),
+                  "Execution of a stage of the Toradocu pipeline"));
+      final Object stageField =
+          Class.forName("jdk.jfr.ValueDescriptor")
+              .getConstructor(Class.class, String.class, List.class)
+              .newInstance(
+                  String.class,
+                  "stage",
+                  Collections.singletonList(annotation.newInstance(label, "Stage")));
+
+      final Class<?> eventFactory = Class.forName("jdk.jfr.EventFactory");
+      final Class<?> event = Class.forName("jdk.jfr.Event");
+      newEvent = eventFactory.getMethod("newEvent");
+      set = event.getMethod("set", int.class, Object.class);
+      begin = event.getMethod("begin");
+      end = event.getMethod("end");
+      commit = event.getMethod("commit");
+      factory =
+          eventFactory
+              .getMethod("create", List.class, List.class)
+              .invoke(null, eventAnnotations, Collections.singletonList(stageField));
+    } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+      // The jdk.jfr API is not available on this JVM: events are not emitted.
+      factory = null;
+    }
+    FACTORY = factory;
+    NEW_EVENT = newEvent;
+    SET = set;
+    BEGIN = begin;
+    END = end;
+    COMMIT = commit;
+  }
+
+  /** The underlying {@code jdk.jfr.Event}. */
+  private final Object event;
+
+  private StageEvent(Object event) {
+    this.event = event;
+  }
+
+  /**
+   * Tells whether JFR events can be emitted on this JVM.
+   *
+   * @return true if the {@code jdk.jfr} API is available
+   */
+  static boolean isAvailable() {
+    return FACTORY != null;
+  }
+
+  /**
+   * Creates and begins a new event for the given stage.
+   *
+   * @param stage the name of the stage
+   * @return the started event, null if JFR events cannot be emitted on this JVM
+   */
+  static StageEvent start(String stage) {
+    if (FACTORY == null) {
+      return null;
+    }
+    try {
+      final Object event = NEW_EVENT.invoke(FACTORY);
+      SET.invoke(event, 0, stage);
+      BEGIN.invoke(event);
+      return new StageEvent(event);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Unable to create a JFR event", e);
+    }
+  }
+
+  /** Ends this event and commits it to the flight recorder. */
+  void commit() {
+    try {
+      END.invoke(event);
+      COMMIT.invoke(event);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Unable to commit a JFR event", e);
+    }
+  }
+}
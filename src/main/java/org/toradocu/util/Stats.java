@@ -2,7 +2,7 @@ package org.toradocu.util;
 
 import java.util.ArrayList;
 import java.util.List;
-import org.toradocu.Toradocu;
+import org.toradocu.conf.RunContext;
 import org.toradocu.extractor.BlockTag;
 import org.toradocu.output.util.JsonOutput;
 import org.toradocu.output.util.ReturnTagOutput;
@@ -51,7 +51,7 @@ public class Stats {
    *
    * @param identifier a string used in the output to identify of what these statistics are about
    */
-  private Stats(String identifier) {
+  Stats(String identifier) {
     this.identifier = identifier;
   }
 
@@ -101,6 +101,30 @@ public class Stats {
     }
   }
 
+  /**
+   * Returns the precision over all the kinds of tags.
+   *
+   * @return the precision over all the kinds of tags
+   */
+  public double getOverallPrecision() {
+    final int translated =
+        numberOfCorrectTranslations()
+            + numberOfWrongTranslations()
+            + numberOfUnexpectedTranslations();
+    return translated == 0 ? 1 : numberOfCorrectTranslations() / (double) translated;
+  }
+
+  /**
+   * Returns the recall over all the kinds of tags.
+   *
+   * @return the recall over all the kinds of tags
+   */
+  public double getOverallRecall() {
+    final int conditions =
+        numberOfCorrectTranslations() + numberOfWrongTranslations() + numberOfMissingTranslations();
+    return conditions == 0 ? 1 : numberOfCorrectTranslations() / (double) conditions;
+  }
+
   /**
    * Return the total number of conditions for a given tag kind.
    *
@@ -254,6 +278,26 @@ public class Stats {
     }
   }
 
+  /**
+   * Adds the translations counted by the given statistics to these statistics.
+   *
+   * @param stats the statistics to add
+   */
+  void add(Stats stats) {
+    correctThrowsTranslations += stats.correctThrowsTranslations;
+    wrongThrowsTranslations += stats.wrongThrowsTranslations;
+    unexpectedThrowsTranslations += stats.unexpectedThrowsTranslations;
+    missingThrowsTranslations += stats.missingThrowsTranslations;
+    correctParamTranslations += stats.correctParamTranslations;
+    wrongParamTranslations += stats.wrongParamTranslations;
+    unexpectedParamTranslations += stats.unexpectedParamTranslations;
+    missingParamTranslations += stats.missingParamTranslations;
+    correctReturnTranslations += stats.correctReturnTranslations;
+    wrongReturnTranslations += stats.wrongReturnTranslations;
+    unexpectedReturnTranslations += stats.unexpectedReturnTranslations;
+    missingReturnTranslations += stats.missingReturnTranslations;
+  }
+
   /**
    * Returns the representation of this object as comma-separated values.
    *
@@ -265,11 +309,22 @@ public class Stats {
         + identifier
         + "\""
         + SEPARATOR
-        + Toradocu.configuration.getDistanceThreshold()
+        + RunContext.current().getConfiguration().getDistanceThreshold()
         + SEPARATOR
-        + Toradocu.configuration.getWordRemovalCost()
+        + RunContext.current().getConfiguration().getWordRemovalCost()
         + SEPARATOR
-        + correctThrowsTranslations
+        + countsAsCSV();
+  }
+
+  /**
+   * Returns the numbers of correct, wrong, unexpected, and missing translations of {@code @throws},
+   * {@code @param}, and {@code @return} conditions (in this order) as comma-separated values.
+   *
+   * @return the numbers of translations as comma-separated values
+   */
+  String countsAsCSV() {
+    final String SEPARATOR = ",";
+    return correctThrowsTranslations
         + SEPARATOR
         + wrongThrowsTranslations
         + SEPARATOR
@@ -315,28 +370,34 @@ public class Stats {
 
     List<Stats> stats = new ArrayList<>();
     for (int methodIndex = 0; methodIndex < expectedMethodList.size(); methodIndex++) {
-      JsonOutput actualMethod = actualMethodList.get(methodIndex);
-      JsonOutput expectedMethod = expectedMethodList.get(methodIndex);
-
-      Stats methodStats =
-          new Stats(actualMethod.containingClass.getQualifiedName() + "." + actualMethod.signature);
-      collectStats(
-          methodStats, actualMethod.throwsTags, expectedMethod.throwsTags, BlockTag.Kind.THROWS);
-      collectStats(
-          methodStats, actualMethod.paramTags, expectedMethod.paramTags, BlockTag.Kind.PARAM);
-
-      List<ReturnTagOutput> actualMethodReturnTag = new ArrayList<>();
-      List<ReturnTagOutput> expectedMethodReturnTag = new ArrayList<>();
-      actualMethodReturnTag.add(actualMethod.returnTag);
-      expectedMethodReturnTag.add(expectedMethod.returnTag);
-      collectStats(
-          methodStats, actualMethodReturnTag, expectedMethodReturnTag, BlockTag.Kind.RETURN);
-
-      stats.add(methodStats);
+      stats.add(getStats(actualMethodList.get(methodIndex), expectedMethodList.get(methodIndex)));
     }
     return stats;
   }
 
+  /**
+   * Compares the tags of the given {@code actualMethod} with the ones of {@code expectedMethod}.
+   *
+   * @param actualMethod method with tags translated by Toradocu
+   * @param expectedMethod the same method with tags manually translated
+   * @return statistics for the method
+   */
+  static Stats getStats(JsonOutput actualMethod, JsonOutput expectedMethod) {
+    Stats methodStats =
+        new Stats(actualMethod.containingClass.getQualifiedName() + "." + actualMethod.signature);
+    collectStats(
+        methodStats, actualMethod.throwsTags, expectedMethod.throwsTags, BlockTag.Kind.THROWS);
+    collectStats(
+        methodStats, actualMethod.paramTags, expectedMethod.paramTags, BlockTag.Kind.PARAM);
+
+    List<ReturnTagOutput> actualMethodReturnTag = new ArrayList<>();
+    List<ReturnTagOutput> expectedMethodReturnTag = new ArrayList<>();
+    actualMethodReturnTag.add(actualMethod.returnTag);
+    expectedMethodReturnTag.add(expectedMethod.returnTag);
+    collectStats(methodStats, actualMethodReturnTag, expectedMethodReturnTag, BlockTag.Kind.RETURN);
+    return methodStats;
+  }
+
   /**
    * Compares the given {@code actualMethodList} with {@code expectedMethodList}. This method is
    * used to generate statistics (precision and recall) of Toradocu for each method in {@code
@@ -0,0 +1,54 @@
+package org.toradocu.extractor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class CodeWordsTest {
+
+  @Test
+  public void occurrencesAreIndexedByWord() {
+    final CodeWords codeWords =
+        new Comment("{@code a} is {@code b}, a or {@code a}").getCodeWords();
+    assertThat(codeWords.size(), is(2));
+    assertThat(codeWords.indexOf("c"), is(-1));
+
+    final int a = codeWords.indexOf("a");
+    assertThat(codeWords.word(a), is("a"));
+    assertThat(codeWords.occurrenceCount(a), is(2));
+    assertThat(codeWords.occurrence(a, 0), is(0));
+    assertThat(codeWords.occurrence(a, 1), is(2));
+    assertThat(codeWords.occurrenceCount(codeWords.indexOf("b")), is(1));
+  }
+
+  @Test
+  public void equalityDoesNotDependOnInsertionOrder() {
+    final Map<String, List<Integer>> map = new HashMap<>();
+    map.put("b", Collections.singletonList(0));
+    map.put("a", Arrays.asList(0, 2));
+    final CodeWords codeWords = CodeWords.of(map);
+    final CodeWords commentCodeWords =
+        new Comment("{@code a} is {@code b}, a or {@code a}").getCodeWords();
+
+    assertThat(codeWords, is(commentCodeWords));
+    assertThat(codeWords.hashCode(), is(commentCodeWords.hashCode()));
+    assertThat(codeWords.toMap(), is(map));
+    assertThat(codeWords.filter("a"::equals), is(not(commentCodeWords)));
+    assertThat(codeWords.filter("a"::equals).toMap().keySet(), is(Collections.singleton("a")));
+  }
+
+  @Test
+  public void copiedOccurrencesReplaceTheOriginalOnes() {
+    final Comment original = new Comment("{@code x} is x or {@code x}");
+    final Comment rewritten = new Comment("{@code x} is positive", original.getCodeWords());
+    assertThat(rewritten.getCodeWords(), is(original.getCodeWords()));
+    assertThat(rewritten, is(new Comment("x is positive", original.getWordsMarkedAsCode())));
+  }
+}
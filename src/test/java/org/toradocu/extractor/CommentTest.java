@@ -5,6 +5,7 @@ import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.Arrays;
 import java.util.List;
 import org.junit.Test;
 
@@ -75,4 +76,34 @@ public class CommentTest {
     Comment mixedHTMLComment = new Comment(mixedHTMLTags);
     assertThat(mixedHTMLComment.getText(), is("This comment contains bold text and a break"));
   }
+
+  @Test
+  public void testInlineTagsAndEntities() {
+    Comment comment =
+        new Comment("if {@code x} is {@link #EMPTY} or x &lt; {@code y}, see {@link Foo#bar}");
+    assertThat(comment.getText(), is("if x is EMPTY or x < y, see Foo#bar"));
+    assertThat(comment.getWordsMarkedAsCode().get("x"), is(Arrays.asList(0)));
+    assertThat(comment.getWordsMarkedAsCode().get("y"), is(Arrays.asList(0)));
+
+    // Occurrences are counted in each sentence, <code> tags first.
+    comment =
+        new Comment("{@code a} is the array. {@code a} is not {@code a_b} and <code>a</code>");
+    assertThat(comment.getText(), is("a is the array. a is not a_b and a"));
+    assertThat(comment.getWordsMarkedAsCode().get("a"), is(Arrays.asList(1, 0, 0)));
+    assertThat(comment.getWordsMarkedAsCode().get("a_b"), is(Arrays.asList(0)));
+  }
+
+  @Test
+  public void testNestedHTMLTags() {
+    // A tag nested in another one is removed when an identical tag follows.
+    Comment comment =
+        new Comment(
+            "otherwise, <tt>(-(<i>insertion point</i>) - 1)</tt>.  The\n"
+                + "  <i>insertion point</i> is defined");
+    assertThat(
+        comment.getText(),
+        is("otherwise, (-(insertion point) - 1). The insertion point is defined"));
+    comment = new Comment("a <b>bold <i>italic</i> text</b>");
+    assertThat(comment.getText(), is("a bold <i>italic</i> text"));
+  }
 }
@@ -20,8 +20,8 @@ import java.util.Collections;
 import java.util.List;
 import org.junit.BeforeClass;
 import org.junit.Test;
-import org.toradocu.conf.ClassDirsConverter;
 import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
 import org.toradocu.testlib.ToradocuJavaCompiler;
 import org.toradocu.util.Reflection;
 
@@ -32,6 +32,7 @@ public class JavadocExtractorTest {
 
   private static final String EXAMPLE_SRC = "src/test/resources";
   private static final String TARGET_CLASS = "example.AClass";
+  private static RunContext context;
   private static DocumentedType documentedType;
   private static List<DocumentedExecutable> members;
   private static Class<?> stringClass;
@@ -50,7 +51,7 @@ public class JavadocExtractorTest {
 
   @Test
   public void classUnderAnalysis() throws ClassNotFoundException {
-    final Class<?> targetClass = Reflection.getClass(TARGET_CLASS);
+    final Class<?> targetClass = Reflection.getClass(TARGET_CLASS, context);
     final String docTypeClassName = documentedType.getDocumentedClass().getName();
     final String targetClassName = targetClass.getName();
     assertThat(docTypeClassName, is(equalTo(targetClassName)));
@@ -209,8 +210,10 @@ public class JavadocExtractorTest {
   private static DocumentedType runJavadocExtractor()
       throws ClassNotFoundException, FileNotFoundException, MalformedURLException {
     final URL url = Paths.get(EXAMPLE_SRC).toUri().toURL();
-    Configuration.INSTANCE.classDirs = Collections.singletonList(url);
-    final JavadocExtractor javadocExtractor = new JavadocExtractor();
+    final Configuration configuration = new Configuration();
+    configuration.classDirs = Collections.singletonList(url);
+    context = new RunContext(configuration);
+    final JavadocExtractor javadocExtractor = new JavadocExtractor(context);
     return javadocExtractor.extract(TARGET_CLASS, EXAMPLE_SRC);
   }
 
@@ -229,6 +232,5 @@ public class JavadocExtractorTest {
     if (!compilationOK) {
       fail("Error(s) during compilation of test source files.");
     }
-    Configuration.INSTANCE.classDirs = new ClassDirsConverter().convert(examplePath);
   }
 }
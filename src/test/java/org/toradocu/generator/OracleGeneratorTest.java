@@ -9,6 +9,7 @@ import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Test;
 import org.toradocu.Toradocu;
+import org.toradocu.conf.Configuration;
 
 public class OracleGeneratorTest {
 
@@ -26,7 +27,7 @@ public class OracleGeneratorTest {
           "true"
         });
 
-    String outputDir = Toradocu.configuration.getAspectsOutputDir();
+    String outputDir = new Configuration().getAspectsOutputDir();
     File actualOutput = Paths.get(outputDir, "Aspect_1.java").toFile();
     File expectedOutput =
         Paths.get(getClass().getClassLoader().getResource("aspects/Aspect_1.java").toURI())
@@ -36,6 +37,6 @@ public class OracleGeneratorTest {
 
   @After
   public void deleteToradocuOutputDir() {
-    FileUtils.deleteQuietly(new File(Toradocu.configuration.getAspectsOutputDir()));
+    FileUtils.deleteQuietly(new File(new Configuration().getAspectsOutputDir()));
   }
 }
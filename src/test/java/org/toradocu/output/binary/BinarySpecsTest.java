@@ -0,0 +1,96 @@
+package org.toradocu.output.binary;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import randoop.condition.specification.Guard;
+import randoop.condition.specification.Identifiers;
+import randoop.condition.specification.Operation;
+import randoop.condition.specification.OperationSpecification;
+import randoop.condition.specification.PostSpecification;
+import randoop.condition.specification.PreSpecification;
+import randoop.condition.specification.Property;
+import randoop.condition.specification.ThrowsSpecification;
+
+public class BinarySpecsTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void roundTrip() throws IOException {
+    final Operation add =
+        new Operation("java.util.List", "add", Arrays.asList("int", "java.lang.Object"));
+    final OperationSpecification addSpec =
+        new OperationSpecification(
+            add,
+            new Identifiers(Arrays.asList("index", "element")),
+            Collections.singletonList(
+                new ThrowsSpecification(
+                    "@throws IndexOutOfBoundsException if the index is out of range",
+                    new Guard("if the index is out of range", "index < 0 || index > size()"),
+                    "java.lang.IndexOutOfBoundsException")),
+            Collections.emptyList(),
+            Collections.singletonList(
+                new PreSpecification(
+                    "@param element must not be null",
+                    new Guard("must not be null", "element != null"))));
+
+    final Operation size = new Operation("java.util.List", "size", Collections.emptyList());
+    final OperationSpecification sizeSpec =
+        new OperationSpecification(
+            size,
+            new Identifiers(Collections.emptyList()),
+            Collections.emptyList(),
+            Collections.singletonList(
+                new PostSpecification(
+                    "@return the number of elements",
+                    new Guard("", "true"),
+                    new Property("the number of elements", "result >= 0"))),
+            Collections.emptyList());
+
+    final Path file = folder.newFile("specs.bin").toPath();
+    BinarySpecsWriter.write(Arrays.asList(sizeSpec, addSpec), file);
+
+    try (BinarySpecsReader reader = BinarySpecsReader.open(file)) {
+      assertThat(reader.size(), is(2));
+      assertThat(
+          reader.signatures(),
+          is(Arrays.asList("java.util.List.add(int,java.lang.Object)", "java.util.List.size()")));
+      assertThat(reader.get(add), is(addSpec));
+      assertThat(reader.get("java.util.List.size()"), is(sizeSpec));
+      assertThat(reader.get("java.util.List.clear()"), is(nullValue()));
+      assertThat(reader.readAll(), is(Arrays.asList(addSpec, sizeSpec)));
+    }
+  }
+
+  @Test
+  public void emptyFile() throws IOException {
+    final Path file = folder.newFile("empty.bin").toPath();
+    BinarySpecsWriter.write(new ArrayList<>(), file);
+
+    try (BinarySpecsReader reader = BinarySpecsReader.open(file)) {
+      assertThat(reader.size(), is(0));
+      assertThat(reader.get("java.util.List.size()"), is(nullValue()));
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void notABinarySpecificationFile() throws IOException {
+    final Path file = folder.newFile("specs.json").toPath();
+    final List<String> lines = Collections.singletonList("[ { \"operation\": {} } ]");
+    Files.write(file, lines, StandardCharsets.UTF_8);
+    BinarySpecsReader.open(file).close();
+  }
+}
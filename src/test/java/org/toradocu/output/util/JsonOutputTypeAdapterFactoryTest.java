@@ -0,0 +1,51 @@
+package org.toradocu.output.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import org.junit.Test;
+import org.toradocu.util.GsonInstance;
+
+public class JsonOutputTypeAdapterFactoryTest {
+
+  private static final String GOAL_FILE =
+      "src/test/resources/goal-output/commons-collections4-4.1/"
+          + "org.apache.commons.collections4.ArrayStack_goal.json";
+
+  private static final Type OUTPUT_TYPE = new TypeToken<List<JsonOutput>>() {}.getType();
+
+  @Test
+  public void goalFileRoundTrip() throws IOException {
+    String json = new String(Files.readAllBytes(Paths.get(GOAL_FILE)), StandardCharsets.UTF_8);
+    List<JsonOutput> expected = new Gson().fromJson(json, OUTPUT_TYPE);
+
+    List<JsonOutput> pretty = read(GsonInstance.gson().toJson(expected));
+    List<JsonOutput> compact = read(GsonInstance.compactGson().toJson(expected));
+
+    assertThat(read(json), is(expected));
+    assertThat(pretty, is(expected));
+    assertThat(compact, is(expected));
+  }
+
+  @Test
+  public void constructorsHaveNoReturnType() throws IOException {
+    String json = new String(Files.readAllBytes(Paths.get(GOAL_FILE)), StandardCharsets.UTF_8);
+    for (JsonOutput output : read(json)) {
+      String written = GsonInstance.compactGson().toJson(output);
+      boolean isConstructor = output.containingClass.getQualifiedName().equals(output.name);
+      assertThat(written.contains("\"returnType\""), is(!isConstructor));
+    }
+  }
+
+  private static List<JsonOutput> read(String json) {
+    return GsonInstance.gson().fromJson(json, OUTPUT_TYPE);
+  }
+}
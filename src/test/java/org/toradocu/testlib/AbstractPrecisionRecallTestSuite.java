@@ -3,10 +3,8 @@ package org.toradocu.testlib;
 import static org.hamcrest.number.IsCloseTo.closeTo;
 import static org.junit.Assert.assertThat;
 
-import java.io.File;
-import java.io.IOException;
 import org.junit.AfterClass;
-import org.junit.BeforeClass;
+import org.junit.runner.RunWith;
 import org.toradocu.extractor.BlockTag;
 import org.toradocu.util.Stats;
 
@@ -22,7 +20,11 @@ import org.toradocu.util.Stats;
  * of the execution of Toradocu on a given class. You probably want to add assertions on the
  * precision/recall values obtained. The existing test suites have examples of assertions on the
  * precision/recall values.
+ *
+ * <p>Test methods run concurrently when the system property {@code org.toradocu.threads} is set to
+ * a number greater than 1 (see {@link ParallelRunner}).
  */
+@RunWith(ParallelRunner.class)
 public abstract class AbstractPrecisionRecallTestSuite {
 
   /**
@@ -31,9 +33,6 @@ public abstract class AbstractPrecisionRecallTestSuite {
    */
   private static final double PRECISION = 0.001;
 
-  /** Directory where test results are saved. */
-  static final String OUTPUT_DIR = "build/test-results";
-
   /** Keeps track of statistics on currently run tests. */
   private static final TestSuiteStats testSuiteStats = new TestSuiteStats();
   /** The directory containing the source files on which to run tests. */
@@ -58,12 +57,6 @@ public abstract class AbstractPrecisionRecallTestSuite {
     this.goalOutputDirPath = goalOutputDirPath;
   }
 
-  /** Creates the temporary directory if it does not exist. */
-  @BeforeClass
-  public static void setUp() throws IOException {
-    new File(OUTPUT_DIR).mkdir();
-  }
-
   /** Prints the results (i.e. statistics) of the test suite. */
   @AfterClass
   public static void tearDown() {
@@ -0,0 +1,65 @@
+package org.toradocu.testlib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * JUnit runner that runs the test methods of a class concurrently. The number of threads is set by
+ * the system property {@code org.toradocu.threads} (default: 1, i.e., test methods run one after
+ * another; the {@code issta18} Gradle task sets it to the number of available processors). Threads
+ * are shared by all the test classes, so that classes run in the same warm JVM.
+ */
+public class ParallelRunner extends BlockJUnit4ClassRunner {
+
+  /** Name of the system property that sets the number of threads running tests. */
+  private static final String THREADS_PROPERTY = "org.toradocu.threads";
+
+  /** Threads running the tests of all the test classes. */
+  private static final ExecutorService executor =
+      Executors.newFixedThreadPool(
+          Math.max(1, Integer.getInteger(THREADS_PROPERTY, 1)),
+          runnable -> {
+            Thread thread = new Thread(runnable, "toradocu-test");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /**
+   * Creates a runner for the given test class.
+   *
+   * @param testClass the test class to run
+   * @throws InitializationError if the test class is malformed
+   */
+  public ParallelRunner(Class<?> testClass) throws InitializationError {
+    super(testClass);
+    setScheduler(
+        new RunnerScheduler() {
+          private final List<Future<?>> tests = new ArrayList<>();
+
+          @Override
+          public void schedule(Runnable childStatement) {
+            tests.add(executor.submit(childStatement));
+          }
+
+          @Override
+          public void finished() {
+            try {
+              for (Future<?> test : tests) {
+                test.get();
+              }
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+              throw new IllegalStateException("Test execution failed", e.getCause());
+            }
+          }
+        });
+  }
+}
@@ -2,27 +2,37 @@ package org.toradocu.testlib;
 
 import static org.junit.Assert.fail;
 
+import com.beust.jcommander.JCommander;
 import com.google.gson.reflect.TypeToken;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import org.toradocu.Toradocu;
+import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
 import org.toradocu.output.util.JsonOutput;
 import org.toradocu.util.GsonInstance;
 import org.toradocu.util.Stats;
 
 /**
  * PrecisionRecallTest contains static methods to perform a precision recall test using Toradocu.
+ * Toradocu runs in process with a run context of its own, so that tests on different classes can
+ * run concurrently.
  */
 class PrecisionRecallTest {
 
+  /** Lock that serializes the appends to the statistics files of concurrent tests. */
+  private static final Object STATS_FILE_LOCK = new Object();
+
   /**
    * Runs Toradocu on the given class and collects data on its precision and recall.
    *
@@ -34,8 +44,6 @@ class PrecisionRecallTest {
    */
   static Stats computePrecisionAndRecall(
       String targetClass, String srcPath, String binPath, String goalOutputDir) {
-    String actualOutputFile =
-        AbstractPrecisionRecallTestSuite.OUTPUT_DIR + File.separator + targetClass + "_out.json";
     String goalOutputFile = Paths.get(goalOutputDir, targetClass + "_goal.json").toString();
     String message = "=== Test " + targetClass + " ===";
 
@@ -43,8 +51,6 @@ class PrecisionRecallTest {
         new String[] {
           "--target-class",
           targetClass,
-          "--condition-translator-output",
-          actualOutputFile,
           "--expected-output",
           goalOutputFile,
           "--class-dir",
@@ -76,41 +82,78 @@ class PrecisionRecallTest {
       argsList.add("results_.csv");
     } else {
       // Semantic-based translator enabled by default.
+      final String quantizedVectors = System.getProperty("org.toradocu.vectors");
       argsList.add("--stats-file");
-      argsList.add("results_semantics_.csv");
+      if (quantizedVectors != null) {
+        argsList.add("results_semantics_int8_.csv");
+        argsList.add("--quantized-vectors");
+        argsList.add(quantizedVectors);
+      } else {
+        argsList.add("results_semantics_.csv");
+      }
     }
 
-    Toradocu.main(argsList.toArray(new String[0]));
-    return compare(targetClass, actualOutputFile, goalOutputFile, message);
+    final Configuration configuration = new Configuration();
+    JCommander.newBuilder().addObject(configuration).build().parse(argsList.toArray(new String[0]));
+    configuration.initialize();
+
+    final RunContext context = new RunContext(configuration);
+    // Statistics depend on the configuration (e.g., distance thresholds in the CSV output).
+    try (RunContext.Scope scope = context.bind()) {
+      final List<JsonOutput> actualResult = Toradocu.translate(context);
+      return compare(targetClass, actualResult, configuration, message);
+    } catch (ClassNotFoundException | IOException e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    }
+    return null;
   }
 
   /**
-   * Compares the output file and the goal output file. Calculates statistics on precision and
-   * recall and prints the results.
+   * Compares the output of Toradocu with the goal output. Calculates statistics on precision and
+   * recall, appends them to the statistics file of the configuration, and prints the results.
    *
    * @param targetClass the qualified name of the class under test
-   * @param outputFile the file containing the actual test output
-   * @param goalOutputFile the file containing the goal test output
+   * @param actualResult the actual output of Toradocu
+   * @param configuration the configuration of the test, specifying the goal output and the
+   *     statistics file
    * @param message a message to print before all other output
    * @return statistics on precision and recall for the test
+   * @throws IOException if the goal output cannot be read or the statistics cannot be written
    */
   private static Stats compare(
-      String targetClass, String outputFile, String goalOutputFile, String message) {
+      String targetClass,
+      List<JsonOutput> actualResult,
+      Configuration configuration,
+      String message)
+      throws IOException {
     StringBuilder report = new StringBuilder(message + "\n");
 
-    try (BufferedReader outFile = Files.newBufferedReader(Paths.get(outputFile));
-        BufferedReader goalFile = Files.newBufferedReader(Paths.get(goalOutputFile))) {
-
+    final List<JsonOutput> goalResult;
+    try (BufferedReader goalFile =
+        Files.newBufferedReader(configuration.getExpectedOutput().toPath())) {
       Type collectionType = new TypeToken<Collection<JsonOutput>>() {}.getType();
-      List<JsonOutput> actualResult = GsonInstance.gson().fromJson(outFile, collectionType);
-      List<JsonOutput> goalResult = GsonInstance.gson().fromJson(goalFile, collectionType);
-      final Stats stats = Stats.getStats(targetClass, actualResult, goalResult, report);
-      System.out.println(report);
-      return stats;
-    } catch (IOException e) {
-      e.printStackTrace();
-      fail(e.getMessage());
+      goalResult = GsonInstance.gson().fromJson(goalFile, collectionType);
     }
-    return null;
+
+    StringBuilder csv = new StringBuilder();
+    for (Stats result : Stats.getStats(actualResult, goalResult)) {
+      if (result.numberOfConditions() != 0) { // Ignore methods with no tags.
+        csv.append(result.asCSV()).append(System.lineSeparator());
+      }
+    }
+    synchronized (STATS_FILE_LOCK) {
+      try (BufferedWriter resultsFile =
+          Files.newBufferedWriter(
+              configuration.getStatsFile().toPath(),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.APPEND)) {
+        resultsFile.write(csv.toString());
+      }
+    }
+
+    final Stats stats = Stats.getStats(targetClass, actualResult, goalResult, report);
+    System.out.println(report);
+    return stats;
   }
 }
@@ -8,7 +8,7 @@ import org.toradocu.util.Stats;
 
 /**
  * TestSuiteStats computes the mean and standard deviation of the precision and recall of a
- * collection of testStats.
+ * collection of testStats. Statistics can be added by concurrent tests.
  */
 class TestSuiteStats {
 
@@ -31,8 +31,10 @@ class TestSuiteStats {
    * @return the average precision of the testStats
    */
   double getPrecision(BlockTag.Kind kind) {
-    final double sum = testStats.stream().mapToDouble(stats -> stats.getPrecision(kind)).sum();
-    return sum / testStats.size();
+    synchronized (testStats) {
+      final double sum = testStats.stream().mapToDouble(stats -> stats.getPrecision(kind)).sum();
+      return sum / testStats.size();
+    }
   }
 
   /**
@@ -41,8 +43,10 @@ class TestSuiteStats {
    * @return the average recall of the testStats
    */
   double getRecall(BlockTag.Kind kind) {
-    final double sum = testStats.stream().mapToDouble(stats -> stats.getRecall(kind)).sum();
-    return sum / testStats.size();
+    synchronized (testStats) {
+      final double sum = testStats.stream().mapToDouble(stats -> stats.getRecall(kind)).sum();
+      return sum / testStats.size();
+    }
   }
 
   /**
@@ -51,6 +55,8 @@ class TestSuiteStats {
    * @return the total number of conditions in the testStats
    */
   int getTotalNumConditions() {
-    return testStats.stream().mapToInt(Stats::numberOfConditions).sum();
+    synchronized (testStats) {
+      return testStats.stream().mapToInt(Stats::numberOfConditions).sum();
+    }
   }
 }
@@ -0,0 +1,50 @@
+package org.toradocu.translator;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.toradocu.extractor.Comment;
+
+public class ParseKeyTest {
+
+  private static final List<String> ARGUMENTS = Arrays.asList("x", "y");
+
+  @Test
+  public void sameInputsGiveSameKey() {
+    final ParseKey key1 = new ParseKey(new Comment("{@code x} must not be null"), ARGUMENTS);
+    final ParseKey key2 =
+        new ParseKey(new Comment("{@code x} must not be null"), Arrays.asList("x", "y"));
+    assertThat(key1, is(key2));
+    assertThat(key1.hashCode(), is(key2.hashCode()));
+  }
+
+  @Test
+  public void codeWordsNotInTextAreIgnored() {
+    // The words marked as code of a whole tag comment, applied to a rewritten comment.
+    final Comment tagComment = new Comment("{@code y} is positive; {@code x} is negative");
+    final Comment rewritten = new Comment("x is negative", tagComment.getWordsMarkedAsCode());
+    assertThat(
+        new ParseKey(rewritten, ARGUMENTS),
+        is(new ParseKey(new Comment("{@code x} is negative"), ARGUMENTS)));
+  }
+
+  @Test
+  public void codeWordsInTextAreNotIgnored() {
+    assertThat(
+        new ParseKey(new Comment("{@code x} is negative"), ARGUMENTS),
+        is(not(new ParseKey(new Comment("x is negative"), ARGUMENTS))));
+  }
+
+  @Test
+  public void argumentsAreNotIgnored() {
+    final Comment comment = new Comment("x is negative");
+    assertThat(
+        new ParseKey(comment, ARGUMENTS),
+        is(not(new ParseKey(comment, Collections.singletonList("x")))));
+  }
+}
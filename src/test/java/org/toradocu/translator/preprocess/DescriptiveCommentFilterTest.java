@@ -0,0 +1,58 @@
+package org.toradocu.translator.preprocess;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.toradocu.extractor.Comment;
+
+public class DescriptiveCommentFilterTest {
+
+  @Test
+  public void descriptiveComments() {
+    assertDescriptive("the key");
+    assertDescriptive("The key.");
+    assertDescriptive("the number of elements");
+    assertDescriptive("the object to get a value from");
+    assertDescriptive("an array");
+    assertDescriptive("the time-out in milli-seconds");
+  }
+
+  @Test
+  public void commentsWithCues() {
+    assertNotDescriptive("the bag to synchronize, must not be null");
+    assertNotDescriptive("the value to add (can be null)");
+    assertNotDescriptive("the index of the element that is removed");
+    assertNotDescriptive("the array of values it contains");
+    assertNotDescriptive("the index, must be positive");
+    assertNotDescriptive("the size of the non-empty list");
+    assertNotDescriptive("the amount of seconds, greater than 0");
+    assertNotDescriptive("a value between one and ten");
+  }
+
+  @Test
+  public void commentsWithCode() {
+    assertNotDescriptive("the key of {@code map}");
+    assertNotDescriptive("the key of <code>map</code>");
+    assertNotDescriptive("the key of the map; the map is a copy");
+    assertNotDescriptive("the key of the map. See the map");
+  }
+
+  @Test
+  public void commentsNotStartingWithANoun() {
+    // The adjective could be turned into a predicate by the preprocessing.
+    assertNotDescriptive("the new value");
+    assertNotDescriptive("non-negative number of elements");
+    assertNotDescriptive("key of the map");
+    assertNotDescriptive("the");
+    assertNotDescriptive("");
+  }
+
+  private static void assertDescriptive(String comment) {
+    assertTrue(comment, DescriptiveCommentFilter.isDescriptive(new Comment(comment)));
+  }
+
+  private static void assertNotDescriptive(String comment) {
+    assertFalse(comment, DescriptiveCommentFilter.isDescriptive(new Comment(comment)));
+  }
+}
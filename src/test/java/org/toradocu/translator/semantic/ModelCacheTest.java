@@ -0,0 +1,137 @@
+package org.toradocu.translator.semantic;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.beust.jcommander.JCommander;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
+
+public class ModelCacheTest {
+
+  private static final String RESOURCE = "aspects/Aspect_1.java";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private RunContext.Scope scope;
+
+  @Before
+  public void bindContext() throws IOException {
+    final Configuration configuration = new Configuration();
+    JCommander.newBuilder()
+        .addObject(configuration)
+        .build()
+        .parse(
+            "--target-class",
+            "Foo",
+            "--source-dir",
+            folder.getRoot().toString(),
+            "--class-dir",
+            folder.getRoot().toString(),
+            "--model-cache-dir",
+            folder.getRoot().toString());
+    scope = new RunContext(configuration).bind();
+  }
+
+  @After
+  public void unbindContext() {
+    scope.close();
+  }
+
+  @Test
+  public void extractsOnce() throws IOException {
+    final Path cached = ModelCache.get("model", RESOURCE);
+    assertTrue(cached.startsWith(folder.getRoot().toPath()));
+    assertThat(Files.readAllBytes(cached), is(resourceContent()));
+
+    final FileTime extracted = Files.getLastModifiedTime(cached);
+    final Path manifest = cached.resolveSibling(cached.getFileName() + ".manifest");
+    final FileTime manifestWritten = Files.getLastModifiedTime(manifest);
+    assertThat(ModelCache.get("model", RESOURCE), is(cached));
+    assertThat(Files.getLastModifiedTime(cached), is(extracted));
+    assertThat(Files.getLastModifiedTime(manifest), is(manifestWritten));
+  }
+
+  @Test
+  public void modifiedFilesAreExtractedAgain() throws IOException {
+    final Path cached = ModelCache.get("model", RESOURCE);
+    final byte[] corrupted = resourceContent();
+    corrupted[0] ^= 1;
+    Files.write(cached, corrupted);
+    Files.setLastModifiedTime(
+        cached, FileTime.fromMillis(Files.getLastModifiedTime(cached).toMillis() + 10_000));
+
+    assertThat(Files.readAllBytes(ModelCache.get("model", RESOURCE)), is(resourceContent()));
+  }
+
+  @Test
+  public void truncatedFilesAreExtractedAgain() throws IOException {
+    final Path cached = ModelCache.get("model", RESOURCE);
+    Files.write(cached, "truncated".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(Files.readAllBytes(ModelCache.get("model", RESOURCE)), is(resourceContent()));
+  }
+
+  @Test
+  public void concurrentRequestsShareTheCache() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    final RunContext context = RunContext.current();
+    try {
+      final Future<?>[] futures = new Future<?>[8];
+      for (int i = 0; i < futures.length; i++) {
+        futures[i] =
+            executor.submit(
+                () -> {
+                  try (RunContext.Scope scope = context.bind()) {
+                    return ModelCache.get("model", Arrays.asList(RESOURCE));
+                  }
+                });
+      }
+      for (Future<?> future : futures) {
+        assertThat(future.get(), is(folder.getRoot().toPath().resolve("v1").resolve("model")));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    final Path cached = ModelCache.get("model", RESOURCE);
+    assertThat(Files.readAllBytes(cached), is(resourceContent()));
+    // Only the model, its manifest, and the lock file: no temporary file is left behind.
+    try (Stream<Path> files = Files.list(cached.getParent())) {
+      assertThat(files.count(), is(3L));
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void missingResource() throws IOException {
+    ModelCache.get("model", "missing/model.bin");
+  }
+
+  private static byte[] resourceContent() throws IOException {
+    try (InputStream in = ModelCacheTest.class.getResourceAsStream("/" + RESOURCE)) {
+      final byte[] buffer = new byte[1 << 16];
+      int length = 0;
+      int read;
+      while ((read = in.read(buffer, length, buffer.length - length)) > 0) {
+        length += read;
+      }
+      return Arrays.copyOf(buffer, length);
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package org.toradocu.translator.semantic;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.crtomirmajer.wmd4j.WordMovers;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.deeplearning4j.models.embeddings.loader.WordVectorSerializer;
+import org.deeplearning4j.models.embeddings.wordvectors.WordVectors;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class QuantizedWordVectorsTest {
+
+  private static final int WORDS = 200;
+  private static final int DIMENSIONS = 50;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  /** The original vectors, by word. */
+  private final Map<String, float[]> vectors = new LinkedHashMap<>();
+
+  private QuantizedWordVectors quantized;
+
+  @Before
+  public void convertModel() throws IOException {
+    final Random random = new Random(42);
+    final List<String> lines = new ArrayList<>();
+    for (int i = 0; i < WORDS; i++) {
+      final String word = i == 0 ? "città" : "word" + i;
+      final float[] vector = new float[DIMENSIONS];
+      final StringBuilder line = new StringBuilder(word);
+      for (int j = 0; j < DIMENSIONS; j++) {
+        vector[j] = (float) (random.nextGaussian() * 0.4);
+        line.append(' ').append(vector[j]);
+      }
+      vectors.put(word, vector);
+      lines.add(line.toString());
+    }
+    Collections.shuffle(lines, random);
+    // Repeated words keep their first vector.
+    final StringBuilder repeated = new StringBuilder("word1");
+    for (int j = 0; j < DIMENSIONS; j++) {
+      repeated.append(" 1.0");
+    }
+    lines.add(repeated.toString());
+
+    final Path model = folder.newFile("glove.txt").toPath();
+    Files.write(model, lines, StandardCharsets.UTF_8);
+    final Path output = folder.newFile("glove.int8").toPath();
+    assertThat(QuantizedWordVectors.convert(model, output), is(WORDS));
+    quantized = QuantizedWordVectors.open(output);
+  }
+
+  @Test
+  public void lookup() {
+    assertThat(quantized.size(), is(WORDS));
+    assertThat(quantized.dimensions(), is(DIMENSIONS));
+    assertThat(quantized.indexOf("missing"), is(-1));
+    assertThat(quantized.indexOf(""), is(-1));
+    for (String word : vectors.keySet()) {
+      assertTrue(word, quantized.indexOf(word) >= 0);
+    }
+  }
+
+  @Test
+  public void quantizationErrorIsBounded() {
+    for (Map.Entry<String, float[]> entry : vectors.entrySet()) {
+      final float[] original = entry.getValue();
+      float max = 0;
+      for (float component : original) {
+        max = Math.max(max, Math.abs(component));
+      }
+      final double maxError = max / 127 / 2 + 1e-6;
+      final double[] vector = quantized.vector(quantized.indexOf(entry.getKey()));
+      for (int i = 0; i < DIMENSIONS; i++) {
+        assertTrue(entry.getKey(), Math.abs(vector[i] - original[i]) <= maxError);
+      }
+    }
+  }
+
+  @Test
+  public void distancesMatchDequantizedVectors() {
+    final int index1 = quantized.indexOf("word1");
+    final int index2 = quantized.indexOf("word2");
+    final double[] vector1 = quantized.vector(index1);
+    final double[] vector2 = quantized.vector(index2);
+    double sum = 0;
+    for (int i = 0; i < DIMENSIONS; i++) {
+      sum += (vector1[i] - vector2[i]) * (vector1[i] - vector2[i]);
+    }
+    assertThat(quantized.distance(index1, index2), is(Math.sqrt(sum)));
+    assertThat(quantized.distance(index1, index1), is(0.0));
+  }
+
+  @Test
+  public void wordMoversDistanceDeltaIsSmall() throws IOException {
+    final WordMovers reference = WordMovers.Builder().wordVectors(originalVectors()).build();
+    final QuantizedWordMovers wordMovers = new QuantizedWordMovers(quantized);
+    final Random random = new Random(7);
+    for (int test = 0; test < 300; test++) {
+      final String text1 = randomText(random);
+      final String text2 = randomText(random);
+      final double exact = reference.distance(text1, text2);
+      final double delta = Math.abs(wordMovers.distance(text1, text2) - exact);
+      assertTrue(text1 + " | " + text2, delta <= 0.01 * exact + 1e-6);
+    }
+  }
+
+  @Test
+  public void vectorsOfUnknownWordsAreIgnored() {
+    final QuantizedWordMovers wordMovers = new QuantizedWordMovers(quantized);
+    assertThat(
+        wordMovers.distance("word1 unknown word2", "word3"),
+        is(wordMovers.distance("word1 word2", "word3")));
+  }
+
+  @Test(expected = IOException.class)
+  public void malformedModel() throws IOException {
+    final Path model = folder.newFile("malformed.txt").toPath();
+    Files.write(model, "word1 0.1 0.2\nword2 0.1\n".getBytes(StandardCharsets.UTF_8));
+    QuantizedWordVectors.convert(model, folder.newFile("malformed.int8").toPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void notAQuantizedVectorFile() throws IOException {
+    final Path file = folder.newFile("vectors.txt").toPath();
+    Files.write(file, "word1 0.1 0.2\n".getBytes(StandardCharsets.UTF_8));
+    QuantizedWordVectors.open(file);
+  }
+
+  private String randomText(Random random) {
+    final List<String> words = new ArrayList<>(vectors.keySet());
+    final StringBuilder text = new StringBuilder();
+    final int length = 1 + random.nextInt(6);
+    for (int i = 0; i < length; i++) {
+      if (i > 0) {
+        text.append(' ');
+      }
+      // Draw from few words, so that texts often share some. The first word is skipped: it is not
+      // ASCII, and deeplearning4j reads the reference model in the platform charset.
+      text.append(words.get(1 + random.nextInt(30)));
+    }
+    return text.toString();
+  }
+
+  /** Loads the original vectors with deeplearning4j, as the GloVe model is loaded. */
+  private WordVectors originalVectors() throws IOException {
+    final List<String> lines = new ArrayList<>();
+    for (Map.Entry<String, float[]> entry : vectors.entrySet()) {
+      final StringBuilder line = new StringBuilder(entry.getKey());
+      for (float component : entry.getValue()) {
+        line.append(' ').append(component);
+      }
+      lines.add(line.toString());
+    }
+    final Path model = folder.newFile("original.txt").toPath();
+    Files.write(model, lines, StandardCharsets.UTF_8);
+    return WordVectorSerializer.loadTxtVectors(model.toFile());
+  }
+}
@@ -0,0 +1,26 @@
+package org.toradocu.translator.semantic;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.junit.Test;
+import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
+
+public class ScoringPoolTest {
+
+  @Test
+  public void slicesRunInTheRunContext() {
+    final RunContext context = new RunContext(new Configuration());
+    final int slices = 4;
+    final AtomicReferenceArray<RunContext> sliceContexts = new AtomicReferenceArray<>(slices);
+    try (RunContext.Scope scope = context.bind()) {
+      ScoringPool.run(slices, index -> sliceContexts.set(index, RunContext.current()));
+    }
+    for (int i = 0; i < slices; i++) {
+      assertThat(sliceContexts.get(i), is(sameInstance(context)));
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package org.toradocu.translator.semantic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.crtomirmajer.wmd4j.emd.EarthMovers;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class WordBagTest {
+
+  @Test
+  public void lowerBoundNeverExceedsWordMoversDistance() {
+    final Random random = new Random(42);
+    for (int test = 0; test < 500; test++) {
+      final double[][] vectors = randomVectors(random, 1 + random.nextInt(8), 10);
+      final long[] occurrences1 = randomOccurrences(random, vectors.length);
+      final long[] occurrences2 = randomOccurrences(random, vectors.length);
+      if (isZero(occurrences1) || isZero(occurrences2)) {
+        continue;
+      }
+      final double bound = bag(vectors, occurrences1).lowerBound(bag(vectors, occurrences2));
+      final double distance = wordMoversDistance(vectors, occurrences1, occurrences2);
+      assertTrue(bound + " > " + distance, bound <= distance * 1.001 + 1e-9);
+    }
+  }
+
+  @Test
+  public void lowerBoundOfSameBagIsZero() {
+    final double[][] vectors = {{1, 2}, {3, 4}};
+    final WordBag bag = new WordBag(vectors, new long[] {2, 1});
+    assertEquals(0, bag.lowerBound(bag), 0);
+  }
+
+  @Test
+  public void lowerBoundOfSingleWords() {
+    final WordBag bag1 = new WordBag(new double[][] {{0, 0}}, new long[] {1});
+    final WordBag bag2 = new WordBag(new double[][] {{3, 4}}, new long[] {1});
+    assertEquals(5, bag1.lowerBound(bag2), 1e-9);
+    assertEquals(5, bag2.lowerBound(bag1), 1e-9);
+
+    // The whole mass of the lighter bag is moved, whatever the direction.
+    final WordBag heavierBag2 = new WordBag(new double[][] {{3, 4}}, new long[] {2});
+    assertEquals(5, heavierBag2.lowerBound(bag1), 1e-9);
+    assertEquals(5, bag1.lowerBound(heavierBag2), 1e-9);
+  }
+
+  @Test
+  public void lowerBoundOfEmptyBagIsInfinite() {
+    final WordBag bag = new WordBag(new double[][] {{1, 2}}, new long[] {1});
+    assertEquals(Double.POSITIVE_INFINITY, bag.lowerBound(WordBag.EMPTY), 0);
+    assertEquals(Double.POSITIVE_INFINITY, WordBag.EMPTY.lowerBound(bag), 0);
+  }
+
+  private static double[][] randomVectors(Random random, int count, int dimensions) {
+    final double[][] vectors = new double[count][dimensions];
+    for (double[] vector : vectors) {
+      for (int i = 0; i < dimensions; i++) {
+        vector[i] = random.nextGaussian();
+      }
+    }
+    return vectors;
+  }
+
+  private static long[] randomOccurrences(Random random, int count) {
+    final long[] occurrences = new long[count];
+    for (int i = 0; i < count; i++) {
+      occurrences[i] = random.nextInt(4);
+    }
+    return occurrences;
+  }
+
+  private static boolean isZero(long[] occurrences) {
+    for (long occurrence : occurrences) {
+      if (occurrence != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Creates the bag of the words with at least one occurrence. */
+  private static WordBag bag(double[][] vectors, long[] occurrences) {
+    final int size = (int) Arrays.stream(occurrences).filter(o -> o > 0).count();
+    final double[][] bagVectors = new double[size][];
+    final long[] bagOccurrences = new long[size];
+    int j = 0;
+    for (int i = 0; i < vectors.length; i++) {
+      if (occurrences[i] > 0) {
+        bagVectors[j] = vectors[i];
+        bagOccurrences[j++] = occurrences[i];
+      }
+    }
+    return new WordBag(bagVectors, bagOccurrences);
+  }
+
+  /**
+   * Computes the Word Mover's Distance between two texts with the same masses and distance matrix
+   * as {@code WordMovers.distance} of wmd4j: the distance between a word of the first text and a
+   * word of the second one is stored in both directions.
+   */
+  private static double wordMoversDistance(
+      double[][] vectors, long[] occurrences1, long[] occurrences2) {
+    final double[] masses1 = masses(occurrences1);
+    final double[] masses2 = masses(occurrences2);
+    final double[][] distances = new double[vectors.length][vectors.length];
+    for (int i = 0; i < vectors.length; i++) {
+      for (int j = 0; j < vectors.length; j++) {
+        if (occurrences1[i] > 0 && occurrences2[j] > 0) {
+          double sum = 0;
+          for (int k = 0; k < vectors[i].length; k++) {
+            sum += (vectors[i][k] - vectors[j][k]) * (vectors[i][k] - vectors[j][k]);
+          }
+          distances[i][j] = Math.sqrt(sum);
+          distances[j][i] = distances[i][j];
+        }
+      }
+    }
+    return new EarthMovers().distance(masses1, masses2, distances, 0);
+  }
+
+  private static double[] masses(long[] occurrences) {
+    final long distinctWords = Arrays.stream(occurrences).filter(o -> o > 0).count();
+    final double[] masses = new double[occurrences.length];
+    for (int i = 0; i < occurrences.length; i++) {
+      masses[i] = (double) occurrences[i] / distinctWords;
+    }
+    return masses;
+  }
+}
@@ -0,0 +1,102 @@
+package org.toradocu.util;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ComplianceCompilerTest {
+
+  private static final String FINGERPRINT = "fingerprint";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private List<URL> classpath;
+
+  @Before
+  public void setUp() throws IOException {
+    classpath = Collections.singletonList(folder.newFolder("classes").toURI().toURL());
+  }
+
+  @Test
+  public void compilersAreSharedByClasspathInEachThread() throws IOException {
+    final ComplianceCompiler compiler = ComplianceCompiler.of(classpath, FINGERPRINT);
+    assertThat(ComplianceCompiler.of(classpath, FINGERPRINT), is(sameInstance(compiler)));
+  }
+
+  @Test
+  public void compilersAreReplacedWhenClassFilesChange() throws IOException {
+    final ComplianceCompiler compiler = ComplianceCompiler.of(classpath, FINGERPRINT);
+    final ComplianceCompiler newCompiler = ComplianceCompiler.of(classpath, "new fingerprint");
+    assertThat(newCompiler, is(not(sameInstance(compiler))));
+    assertThat(ComplianceCompiler.of(classpath, "new fingerprint"), is(sameInstance(newCompiler)));
+  }
+
+  @Test
+  public void leastRecentlyUsedCompilersAreDiscarded() throws IOException {
+    final ComplianceCompiler compiler = ComplianceCompiler.of(classpath, FINGERPRINT);
+    for (int i = 0; i < ComplianceCompiler.MAX_COMPILERS; i++) {
+      final List<URL> otherClasspath =
+          Collections.singletonList(folder.newFolder("classes" + i).toURI().toURL());
+      ComplianceCompiler.of(otherClasspath, FINGERPRINT);
+    }
+    assertThat(ComplianceCompiler.of(classpath, FINGERPRINT), is(not(sameInstance(compiler))));
+  }
+
+  @Test
+  public void threadsHaveTheirOwnCompilers() throws Exception {
+    final ComplianceCompiler compiler = ComplianceCompiler.of(classpath, FINGERPRINT);
+    final CompletableFuture<ComplianceCompiler> otherCompiler = new CompletableFuture<>();
+    final Thread thread =
+        new Thread(
+            () -> {
+              try {
+                otherCompiler.complete(ComplianceCompiler.of(classpath, FINGERPRINT));
+              } catch (IOException e) {
+                otherCompiler.completeExceptionally(e);
+              }
+            });
+    thread.start();
+    thread.join();
+    assertThat(otherCompiler.get(), is(not(sameInstance(compiler))));
+  }
+
+  @Test
+  public void compilableSource() throws IOException {
+    final ComplianceCompiler compiler = ComplianceCompiler.of(classpath, FINGERPRINT);
+    assertThat(compiler.compile("GeneratedSpecs", source("name.isEmpty()")), is(nullValue()));
+    // A second compilation reuses the cached classpath.
+    assertThat(compiler.compile("GeneratedSpecs", source("name.length()>0")), is(nullValue()));
+  }
+
+  @Test
+  public void notCompilableSource() throws IOException {
+    final String errors =
+        ComplianceCompiler.of(classpath, FINGERPRINT)
+            .compile("GeneratedSpecs", source("name.sizes()==0"));
+    assertThat(errors, is(not(nullValue())));
+    assertThat(errors, containsString("line 3"));
+  }
+
+  private static String source(String condition) {
+    return "public class GeneratedSpecs {\n"
+        + "  boolean check(String name) {\n"
+        + "    return "
+        + condition
+        + ";\n"
+        + "  }\n"
+        + "}\n";
+  }
+}
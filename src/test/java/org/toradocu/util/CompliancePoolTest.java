@@ -0,0 +1,76 @@
+package org.toradocu.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.beust.jcommander.JCommander;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
+
+public class CompliancePoolTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void asyncChecksRunOnTheWorkersInTheRunContext() throws Exception {
+    final RunContext context = new RunContext(configuration(true));
+    final AtomicReference<Thread> thread = new AtomicReference<>();
+    final AtomicReference<RunContext> checkContext = new AtomicReference<>();
+    final CompletableFuture<Boolean> verdict;
+    try (RunContext.Scope scope = context.bind()) {
+      verdict =
+          CompliancePool.submit(
+              () -> {
+                thread.set(Thread.currentThread());
+                checkContext.set(RunContext.current());
+                return false;
+              });
+    }
+    assertThat(verdict.get(), is(false));
+    assertThat(thread.get().getName().startsWith("compliance-check-"), is(true));
+    assertThat(checkContext.get(), is(sameInstance(context)));
+  }
+
+  @Test
+  public void syncChecksRunOnTheCallingThread() {
+    final AtomicReference<Thread> thread = new AtomicReference<>();
+    final CompletableFuture<Boolean> verdict;
+    try (RunContext.Scope scope = new RunContext(configuration(false)).bind()) {
+      verdict =
+          CompliancePool.submit(
+              () -> {
+                thread.set(Thread.currentThread());
+                return true;
+              });
+    }
+    assertThat(verdict.isDone(), is(true));
+    assertThat(verdict.join(), is(true));
+    assertThat(thread.get(), is(sameInstance(Thread.currentThread())));
+  }
+
+  private Configuration configuration(boolean async) {
+    final List<String> args = new ArrayList<>();
+    args.addAll(
+        Arrays.asList(
+            "--target-class",
+            "Foo",
+            "--source-dir",
+            folder.getRoot().toString(),
+            "--class-dir",
+            folder.getRoot().toString(),
+            "--async-compliance-check",
+            String.valueOf(async)));
+    final Configuration configuration = new Configuration();
+    JCommander.newBuilder().addObject(configuration).build().parse(args.toArray(new String[0]));
+    return configuration;
+  }
+}
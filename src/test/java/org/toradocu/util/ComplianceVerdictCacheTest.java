@@ -0,0 +1,96 @@
+package org.toradocu.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.beust.jcommander.JCommander;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.toradocu.conf.Configuration;
+
+public class ComplianceVerdictCacheTest {
+
+  private static final String SOURCE = "public class GeneratedSpecs { }";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private File classDir;
+  private File cacheFile;
+
+  @Before
+  public void setUp() throws IOException {
+    classDir = folder.newFolder("classes");
+    Files.write(classDir.toPath().resolve("Foo.class"), new byte[] {1, 2, 3});
+    cacheFile = new File(folder.getRoot(), "compliance-cache");
+  }
+
+  @Test
+  public void verdictsAreCachedInMemory() {
+    final ComplianceVerdictCache cache = new ComplianceVerdictCache(configuration(false));
+    assertThat(cache.get(SOURCE), is(nullValue()));
+    cache.put(SOURCE, false, "cannot find symbol");
+    assertThat(cache.get(SOURCE).compilable, is(false));
+    assertThat(cache.get(SOURCE).error, is("cannot find symbol"));
+    assertThat(cacheFile.exists(), is(false));
+  }
+
+  @Test
+  public void verdictsArePersisted() {
+    new ComplianceVerdictCache(configuration(true)).put(SOURCE, true, null);
+
+    final ComplianceVerdictCache cache = new ComplianceVerdictCache(configuration(true));
+    assertThat(cache.get(SOURCE).compilable, is(true));
+    assertThat(cache.get(SOURCE).error, is(nullValue()));
+    assertThat(cache.get(SOURCE + " "), is(nullValue()));
+  }
+
+  @Test
+  public void persistedVerdictsDependOnTheClasspath() throws IOException {
+    new ComplianceVerdictCache(configuration(true)).put(SOURCE, true, null);
+
+    Files.write(classDir.toPath().resolve("Foo.class"), new byte[] {1, 2, 3, 4});
+    assertThat(new ComplianceVerdictCache(configuration(true)).get(SOURCE), is(nullValue()));
+  }
+
+  @Test
+  public void truncatedEntriesAreIgnored() throws IOException {
+    new ComplianceVerdictCache(configuration(true)).put(SOURCE, true, null);
+    Files.write(
+        cacheFile.toPath(),
+        Arrays.asList("{\"key\":\"ab"),
+        StandardCharsets.UTF_8,
+        StandardOpenOption.APPEND);
+
+    assertThat(new ComplianceVerdictCache(configuration(true)).get(SOURCE).compilable, is(true));
+  }
+
+  private Configuration configuration(boolean persistent) {
+    final List<String> args = new ArrayList<>();
+    args.addAll(
+        Arrays.asList(
+            "--target-class",
+            "Foo",
+            "--source-dir",
+            folder.getRoot().toString(),
+            "--class-dir",
+            classDir.toString()));
+    if (persistent) {
+      args.add("--compliance-cache");
+      args.add(cacheFile.toString());
+    }
+    final Configuration configuration = new Configuration();
+    JCommander.newBuilder().addObject(configuration).build().parse(args.toArray(new String[0]));
+    return configuration;
+  }
+}
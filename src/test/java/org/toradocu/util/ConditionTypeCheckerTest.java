@@ -0,0 +1,96 @@
+package org.toradocu.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.toradocu.conf.Configuration;
+import org.toradocu.util.ConditionTypeChecker.Verdict;
+
+public class ConditionTypeCheckerTest {
+
+  public static class Account {
+    public static final int MAX = 10;
+    public int balance;
+    public List<String> owners;
+
+    public boolean isOpen() {
+      return true;
+    }
+
+    public int size() {
+      return 0;
+    }
+
+    public void close() {}
+
+    public boolean accepts(long amount) {
+      return true;
+    }
+
+    public boolean accepts(Object object) {
+      return true;
+    }
+  }
+
+  private ConditionTypeChecker checker;
+
+  @Before
+  public void setUp() throws Exception {
+    final Map<String, Type> variables = new HashMap<>();
+    variables.put(Configuration.RECEIVER, Account.class);
+    variables.put("amount", int.class);
+    variables.put("name", String.class);
+    variables.put("values", int[].class);
+    variables.put("owners", Account.class.getField("owners").getGenericType());
+    checker = new ConditionTypeChecker(Account.class, variables);
+  }
+
+  @Test
+  public void compilableConditions() {
+    assertVerdict("receiverObjectID.size()==0", Verdict.COMPILABLE);
+    assertVerdict("amount<=0 || name==null", Verdict.COMPILABLE);
+    assertVerdict("values.length != amount", Verdict.COMPILABLE);
+    assertVerdict("(receiverObjectID.balance==amount) == false", Verdict.COMPILABLE);
+    assertVerdict("name.isEmpty() && name.length()>Account.MAX", Verdict.COMPILABLE);
+    assertVerdict("java.lang.Math.abs(amount)>Math.abs(values[0])", Verdict.COMPILABLE);
+    assertVerdict("receiverObjectID.accepts(amount)", Verdict.COMPILABLE);
+    assertVerdict("receiverObjectID.accepts(name)", Verdict.COMPILABLE);
+    assertVerdict("name instanceof Comparable", Verdict.COMPILABLE);
+    assertVerdict("owners.size()>0 && owners.contains(name)", Verdict.COMPILABLE);
+  }
+
+  @Test
+  public void notCompilableConditions() {
+    assertVerdict("amount==null", Verdict.NOT_COMPILABLE);
+    assertVerdict("receiverObjectID.sizes()==0", Verdict.NOT_COMPILABLE);
+    assertVerdict("amount.isEmpty()", Verdict.NOT_COMPILABLE);
+    assertVerdict("receiverObjectID.size()", Verdict.NOT_COMPILABLE);
+    assertVerdict("receiverObjectID.close()", Verdict.NOT_COMPILABLE);
+    assertVerdict("values==name", Verdict.NOT_COMPILABLE);
+    assertVerdict("Account.isOpen()", Verdict.NOT_COMPILABLE);
+    assertVerdict("name<0", Verdict.NOT_COMPILABLE);
+    assertVerdict("index==null", Verdict.NOT_COMPILABLE);
+    assertVerdict("values.size()==0", Verdict.NOT_COMPILABLE);
+  }
+
+  @Test
+  public void undecidedConditions() {
+    // Type variables.
+    assertVerdict("owners.get(0)==null", Verdict.UNDECIDED);
+    // Syntax errors and unsupported expressions.
+    assertVerdict("receiverObjectID.size(==0", Verdict.UNDECIDED);
+    assertVerdict("((Object) name)==null", Verdict.UNDECIDED);
+    // Non-public members.
+    assertVerdict("name.value==null", Verdict.UNDECIDED);
+  }
+
+  private void assertVerdict(String condition, Verdict verdict) {
+    assertThat(condition, checker.check(condition), is(verdict));
+  }
+}
@@ -0,0 +1,104 @@
+package org.toradocu.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.SortedMap;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.util.CorpusStats.PackageStats;
+
+public class CorpusStatsTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private File goal;
+  private File outputs;
+
+  @Before
+  public void setUp() throws IOException {
+    goal = folder.newFolder("goal");
+    outputs = folder.newFolder("outputs");
+    write(
+        new File(goal, "a.Foo_goal.json"),
+        method("a.Foo", "foo(int x)", "x>0", "", "methodResultID==0")
+            + ","
+            + method("a.Foo", "bar()", "", "true", null));
+    write(new File(goal, "b.Bar_goal.json"), method("b.Bar", "baz(int x)", "", "x<0", null));
+  }
+
+  @Test
+  public void specificationsAreCounted() throws Exception {
+    final SortedMap<String, PackageStats> packages = CorpusStats.collect(goal.toPath(), null, 2);
+    assertThat(packages.keySet().toString(), is("[a, b]"));
+    final PackageStats a = packages.get("a");
+    assertThat(a.methods, is(2));
+    assertThat(a.pre, is(1));
+    assertThat(a.post, is(1));
+    assertThat(a.exc, is(1));
+    assertThat(packages.get("b").exc, is(1));
+  }
+
+  @Test
+  public void outputsAreComparedWithGoals() throws Exception {
+    write(
+        new File(outputs, "a.Foo.json"),
+        method("a.Foo", "foo(int x)", "x>0", "x==0", "")
+            + ","
+            + method("a.Foo", "bar()", "", "false", null));
+    final SortedMap<String, PackageStats> packages =
+        CorpusStats.collect(goal.toPath(), outputs.toPath(), 2);
+
+    final Stats stats = packages.get("a").stats;
+    assertThat(stats.getPrecision(BlockTag.Kind.PARAM), is(1.0));
+    assertThat(stats.getRecall(BlockTag.Kind.RETURN), is(0.0));
+    assertThat(stats.getPrecision(BlockTag.Kind.THROWS), is(0.0));
+    assertThat(stats.getOverallPrecision(), is(1.0 / 3));
+    assertThat(stats.getOverallRecall(), is(1.0 / 3));
+    // b.Bar has no output file: its specifications are only counted.
+    assertThat(packages.get("b").stats.numberOfConditions(), is(0));
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CorpusStats.print(packages, true, new PrintStream(out, true, "UTF-8"));
+    final String[] rows = out.toString("UTF-8").split(System.lineSeparator());
+    assertThat(rows.length, is(4));
+    assertThat(rows[3].startsWith("TOTAL,3,1,1,2,0,1,1,0,1,0,0,0,0,0,0,1,"), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void outputsMustHaveTheMethodsOfTheGoals() throws Exception {
+    write(new File(outputs, "a.Foo.json"), method("a.Foo", "foo(int x)", "x>0", "", null));
+    CorpusStats.collect(goal.toPath(), outputs.toPath(), 1);
+  }
+
+  private static String method(
+      String className, String signature, String pre, String exc, String post) {
+    String method =
+        "{\"signature\":\""
+            + signature
+            + "\",\"containingClass\":{\"qualifiedName\":\""
+            + className
+            + "\"},\"paramTags\":[{\"kind\":\"PARAM\",\"condition\":\""
+            + pre
+            + "\"}],\"throwsTags\":[{\"kind\":\"THROWS\",\"condition\":\""
+            + exc
+            + "\"}]";
+    if (post != null) {
+      method += ",\"returnTag\":{\"kind\":\"RETURN\",\"condition\":\"" + post + "\"}";
+    }
+    return method + "}";
+  }
+
+  private static void write(File file, String methods) throws IOException {
+    Files.write(file.toPath(), ("[" + methods + "]").getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,91 @@
+package org.toradocu.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.toradocu.conf.Configuration;
+import org.toradocu.conf.RunContext;
+import org.toradocu.extractor.BlockTag;
+
+public class MetricsTest {
+
+  private RunContext context;
+  private RunContext.Scope scope;
+
+  @Before
+  public void setUp() {
+    context = new RunContext(new Configuration());
+    scope = context.bind();
+  }
+
+  @After
+  public void tearDown() {
+    scope.close();
+  }
+
+  @Test
+  public void timersAndCounters() {
+    try (Metrics.Timer timer = Metrics.time(Metrics.Stage.STANFORD_PARSING)) {
+      Metrics.increment(Metrics.Counter.PARSER_CACHE_MISS);
+    }
+    try (Metrics.Timer timer = Metrics.time(BlockTag.Kind.THROWS)) {
+      Metrics.increment(Metrics.Counter.PARSER_CACHE_HIT);
+      Metrics.increment(Metrics.Counter.PARSER_CACHE_HIT);
+    }
+
+    Metrics metrics = Metrics.of(context);
+    assertThat(metrics.times(Metrics.Stage.STANFORD_PARSING).count(), is(1));
+    assertThat(metrics.times(Metrics.Stage.SEMANTIC_MATCHING).count(), is(0));
+    assertThat(metrics.times(BlockTag.Kind.THROWS).count(), is(1));
+    assertThat(metrics.count(Metrics.Counter.PARSER_CACHE_MISS), is(1L));
+    assertThat(metrics.count(Metrics.Counter.PARSER_CACHE_HIT), is(2L));
+  }
+
+  @Test
+  public void runsDoNotShareMetrics() {
+    Metrics.increment(Metrics.Counter.PARSER_CACHE_HIT);
+    RunContext other = new RunContext(new Configuration());
+    try (RunContext.Scope otherScope = other.bind()) {
+      Metrics.increment(Metrics.Counter.PARSER_CACHE_MISS);
+    }
+
+    assertThat(Metrics.of(context).count(Metrics.Counter.PARSER_CACHE_HIT), is(1L));
+    assertThat(Metrics.of(context).count(Metrics.Counter.PARSER_CACHE_MISS), is(0L));
+    assertThat(Metrics.of(other).count(Metrics.Counter.PARSER_CACHE_HIT), is(0L));
+    assertThat(Metrics.of(other).count(Metrics.Counter.PARSER_CACHE_MISS), is(1L));
+
+    Metrics total = new Metrics();
+    total.addAll(Metrics.of(context));
+    total.addAll(Metrics.of(other));
+    assertThat(total.count(Metrics.Counter.PARSER_CACHE_HIT), is(1L));
+    assertThat(total.count(Metrics.Counter.PARSER_CACHE_MISS), is(1L));
+  }
+
+  @Test
+  public void percentiles() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      try (Metrics.Timer timer = Metrics.time(Metrics.Stage.COMPLIANCE_CHECK)) {
+        // Nothing to do: only the number of samples matters.
+      }
+    }
+    Metrics.Histogram histogram = Metrics.of(context).times(Metrics.Stage.COMPLIANCE_CHECK);
+    assertThat(histogram.count(), is(100));
+    assertTrue(histogram.percentile(50) <= histogram.percentile(99));
+    assertTrue(histogram.percentile(99) <= histogram.percentile(100));
+  }
+
+  @Test
+  public void report() {
+    Metrics.increment(Metrics.Counter.SPECS_DISCARDED);
+    Map<String, Object> report = Metrics.of(context).report();
+    assertTrue(report.keySet().containsAll(Arrays.asList("stages", "tags", "counters")));
+    Map<?, ?> counters = (Map<?, ?>) report.get("counters");
+    assertThat(counters.get("specs_discarded"), is(1L));
+  }
+}
@@ -58,14 +58,11 @@ numberOfAnalyzedMethods() {
 }
 
 numberOfAnalyzedComments() {
-    # 1st arg is either "PRE" or "POST" or "EXC".
-    # 2nd arg is the path to the folder containing the goal files.
-    # 3rd arg is the jar containing the target class.
-    local count=0
-    for goalFile in "$2"/*.json; do
-        count=$((count + $(java -cp "$3":build/libs/toradocu-1.0-all.jar org.toradocu.util.SpecsCount "$goalFile" | fgrep $1 | cut -d ' ' -f 2)))
-    done
-    echo $count
+    # 1st arg is the path to the folder containing the goal files. CorpusStats also reads the goal
+    # files in its subfolders (the goal folders of the subjects have none).
+    # 2nd arg is the jar containing the target class.
+    # Prints the number of PRE, POST, and EXC comments, separated by spaces.
+    echo $(java -cp "$2":build/libs/toradocu-1.0-all.jar org.toradocu.util.CorpusStats "$1" | grep '^TOTAL,' | cut -d ',' -f 3-5 | tr ',' ' ')
 }
 
 arraySum() {
@@ -101,9 +98,7 @@ CLASSES[0]=$(numberOfClasses src/test/resources/src/commons-collections4-4.1-src
 SELECTED_CLASSES[0]=$(numberOfAnalyzedClasses $TS)
 METHODS[0]=$(numberOfMethods $TS src/test/resources/bin/commons-collections4-4.1.jar)
 DOCUMENTED_METHODS[0]=$(numberOfAnalyzedMethods org.apache.commons.collections4)
-PRE[0]=$(numberOfAnalyzedComments PRE $GOAL_FILES/commons-collections4-4.1 src/test/resources/bin/commons-collections4-4.1.jar)
-POST[0]=$(numberOfAnalyzedComments POST $GOAL_FILES/commons-collections4-4.1 src/test/resources/bin/commons-collections4-4.1.jar)
-EXC_POST[0]=$(numberOfAnalyzedComments EXC $GOAL_FILES/commons-collections4-4.1 src/test/resources/bin/commons-collections4-4.1.jar)
+read PRE[0] POST[0] EXC_POST[0] <<< "$(numberOfAnalyzedComments $GOAL_FILES/commons-collections4-4.1 src/test/resources/bin/commons-collections4-4.1.jar)"
 
 # Collect info for Commons Math
 TS=$ACCURACY_TS/AccuracyCommonsMath3.java
@@ -111,9 +106,7 @@ CLASSES[1]=$(numberOfClasses src/test/resources/src/commons-math3-3.6.1-src/src/
 SELECTED_CLASSES[1]=$(numberOfAnalyzedClasses $TS)
 METHODS[1]=$(numberOfMethods $TS src/test/resources/bin/commons-math3-3.6.1.jar)
 DOCUMENTED_METHODS[1]=$(numberOfAnalyzedMethods org.apache.commons.math3)
-PRE[1]=$(numberOfAnalyzedComments PRE $GOAL_FILES/commons-math3-3.6.1 src/test/resources/bin/commons-math3-3.6.1.jar)
-POST[1]=$(numberOfAnalyzedComments POST $GOAL_FILES/commons-math3-3.6.1 src/test/resources/bin/commons-math3-3.6.1.jar)
-EXC_POST[1]=$(numberOfAnalyzedComments EXC $GOAL_FILES/commons-math3-3.6.1 src/test/resources/bin/commons-math3-3.6.1.jar)
+read PRE[1] POST[1] EXC_POST[1] <<< "$(numberOfAnalyzedComments $GOAL_FILES/commons-math3-3.6.1 src/test/resources/bin/commons-math3-3.6.1.jar)"
 
 # Collect info for Guava
 TS=$ACCURACY_TS/AccuracyGuava19.java
@@ -121,9 +114,7 @@ CLASSES[2]=$(numberOfClasses src/test/resources/src/guava-19.0-sources)
 SELECTED_CLASSES[2]=$(numberOfAnalyzedClasses $TS)
 METHODS[2]=$(numberOfMethods $TS src/test/resources/bin/guava-19.0.jar)
 DOCUMENTED_METHODS[2]=$(numberOfAnalyzedMethods com.google.common)
-PRE[2]=$(numberOfAnalyzedComments PRE $GOAL_FILES/guava-19.0 src/test/resources/bin/guava-19.0.jar)
-POST[2]=$(numberOfAnalyzedComments POST $GOAL_FILES/guava-19.0 src/test/resources/bin/guava-19.0.jar)
-EXC_POST[2]=$(numberOfAnalyzedComments EXC $GOAL_FILES/guava-19.0 src/test/resources/bin/guava-19.0.jar)
+read PRE[2] POST[2] EXC_POST[2] <<< "$(numberOfAnalyzedComments $GOAL_FILES/guava-19.0 src/test/resources/bin/guava-19.0.jar)"
 
 # Collect info for JGraphT
 TS=$ACCURACY_TS/AccuracyJGraphT.java
@@ -131,9 +122,7 @@ CLASSES[3]=$(numberOfClasses src/test/resources/src/jgrapht-core-0.9.2-sources)
 SELECTED_CLASSES[3]=$(numberOfAnalyzedClasses $TS)
 METHODS[3]=$(numberOfMethods $TS src/test/resources/bin/jgrapht-core-0.9.2.jar)
 DOCUMENTED_METHODS[3]=$(numberOfAnalyzedMethods org.jgrapht)
-PRE[3]=$(numberOfAnalyzedComments PRE $GOAL_FILES/jgrapht-core-0.9.2 src/test/resources/bin/jgrapht-core-0.9.2.jar)
-POST[3]=$(numberOfAnalyzedComments POST $GOAL_FILES/jgrapht-core-0.9.2 src/test/resources/bin/jgrapht-core-0.9.2.jar)
-EXC_POST[3]=$(numberOfAnalyzedComments EXC $GOAL_FILES/jgrapht-core-0.9.2 src/test/resources/bin/jgrapht-core-0.9.2.jar)
+read PRE[3] POST[3] EXC_POST[3] <<< "$(numberOfAnalyzedComments $GOAL_FILES/jgrapht-core-0.9.2 src/test/resources/bin/jgrapht-core-0.9.2.jar)"
 
 # Collect info for Plume-lib
 TS=$ACCURACY_TS/AccuracyPlumeLib.java
@@ -141,9 +130,7 @@ CLASSES[4]=$(numberOfClasses src/test/resources/src/plume-lib-1.1.0/java/src)
 SELECTED_CLASSES[4]=$(numberOfAnalyzedClasses $TS)
 METHODS[4]=$(numberOfMethods $TS src/test/resources/bin/plume-lib-1.1.0.jar)
 DOCUMENTED_METHODS[4]=$(numberOfAnalyzedMethods plume.)
-PRE[4]=$(numberOfAnalyzedComments PRE $GOAL_FILES/plume-lib-1.1.0 src/test/resources/bin/plume-lib-1.1.0.jar)
-POST[4]=$(numberOfAnalyzedComments POST $GOAL_FILES/plume-lib-1.1.0 src/test/resources/bin/plume-lib-1.1.0.jar)
-EXC_POST[4]=$(numberOfAnalyzedComments EXC $GOAL_FILES/plume-lib-1.1.0 src/test/resources/bin/plume-lib-1.1.0.jar)
+read PRE[4] POST[4] EXC_POST[4] <<< "$(numberOfAnalyzedComments $GOAL_FILES/plume-lib-1.1.0 src/test/resources/bin/plume-lib-1.1.0.jar)"
 
 # Collect info for GraphStream
 TS=$ACCURACY_TS/AccuracyGraphStream.java
@@ -151,9 +138,7 @@ CLASSES[5]=$(numberOfClasses src/test/resources/src/gs-core-1.3-sources)
 SELECTED_CLASSES[5]=$(numberOfAnalyzedClasses $TS)
 METHODS[5]=$(numberOfMethods $TS src/test/resources/bin/gs-core-1.3.jar)
 DOCUMENTED_METHODS[5]=$(numberOfAnalyzedMethods org.graphstream)
-PRE[5]=$(numberOfAnalyzedComments PRE $GOAL_FILES/gs-core-1.3 src/test/resources/bin/gs-core-1.3.jar)
-POST[5]=$(numberOfAnalyzedComments POST $GOAL_FILES/gs-core-1.3 src/test/resources/bin/gs-core-1.3.jar)
-EXC_POST[5]=$(numberOfAnalyzedComments EXC $GOAL_FILES/gs-core-1.3 src/test/resources/bin/gs-core-1.3.jar)
+read PRE[5] POST[5] EXC_POST[5] <<< "$(numberOfAnalyzedComments $GOAL_FILES/gs-core-1.3 src/test/resources/bin/gs-core-1.3.jar)"
 
 # Compute totals
 TOTAL[0]=$(arraySum CLASSES)
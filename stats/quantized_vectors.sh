@@ -0,0 +1,54 @@
+#!/bin/bash
+
+# This script measures the effect of the quantized word vectors on the semantic-based translator.
+# It runs the precision/recall tests of the ISSTA 2018 paper with the GloVe float vectors and with
+# the quantized vectors, and prints the precision and recall of both runs (in the format of
+# results_table.py). Then it runs Toradocu on one subject class with both kinds of vectors, and
+# prints the peak resident set size of each run. GNU time is required to measure the RSS.
+
+QUANTIZED=build/glove/glove.6B.300d.int8
+FATJAR=build/libs/toradocu-1.0-all.jar
+GNU_TIME=/usr/bin/time
+
+# Subject class of the RSS measurements
+TARGET_CLASS=org.apache.commons.collections4.CollectionUtils
+SOURCE_DIR=src/test/resources/src/commons-collections4-4.1-src/src/main/java
+CLASS_DIR=src/test/resources/bin/commons-collections4-4.1.jar
+
+if [ ! -x "$GNU_TIME" ]; then
+    echo "GNU time ($GNU_TIME) is required to measure the resident set size"
+    exit 1
+fi
+
+./gradlew shadowJar quantizeGlove || exit 1
+
+# Precision and recall
+for STATS_FILE in results_semantics_.csv results_semantics_int8_.csv; do
+    rm -f $STATS_FILE
+    echo "METHOD,DISTANCE THRESHOLD,REMOVAL COST,\
+CORRECT THROWS CONDITIONS,WRONG THROWS CONDITIONS,UNEXPECTED THROWS CONDITIONS,MISSING THROWS CONDITIONS,\
+CORRECT PARAM CONDITIONS,WRONG PARAM CONDITIONS,UNEXPECTED PARAM CONDITIONS,MISSING PARAM CONDITIONS,\
+CORRECT RETURN CONDITIONS,WRONG RETURN CONDITIONS,UNEXPECTED RETURN CONDITIONS,MISSING RETURN CONDITIONS" > $STATS_FILE
+done
+./gradlew --rerun-tasks issta18
+./gradlew --rerun-tasks -Dorg.toradocu.vectors=$QUANTIZED issta18
+
+echo "Precision and recall (@param, @return, @throws, and overall precision, recall, F-measure):"
+echo "float vectors: "`python stats/results_table.py results_semantics_.csv`
+echo "int8 vectors:  "`python stats/results_table.py results_semantics_int8_.csv`
+
+# Resident set size
+for VECTORS in float int8; do
+    OPTIONS=""
+    if [ "$VECTORS" = "int8" ]; then
+        OPTIONS="--quantized-vectors $QUANTIZED"
+    fi
+    $GNU_TIME -f %M -o rss.txt java -cp "$CLASS_DIR":"$FATJAR" org.toradocu.Toradocu \
+        --target-class $TARGET_CLASS \
+        --source-dir "$SOURCE_DIR" \
+        --class-dir "$CLASS_DIR" \
+        --oracle-generation false \
+        $OPTIONS > /dev/null 2>&1
+    echo "$VECTORS vectors: peak RSS of Toradocu on $TARGET_CLASS: `cat rss.txt` KB"
+done
+rm -f rss.txt